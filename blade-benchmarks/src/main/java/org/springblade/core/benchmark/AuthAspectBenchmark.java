@@ -0,0 +1,118 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springblade.core.secure.annotation.PreAuth;
+import org.springblade.core.secure.aspect.AuthAspect;
+import org.springblade.core.secure.auth.AuthFun;
+import org.springblade.core.tool.utils.ClassUtil;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthAspect：按方法缓存的表达式与每次解析对比
+ *
+ * <p>
+ * aspect 为经过代理的完整调用，parsePerCall 复现缓存前每次读取注解、解析表达式、解析参数名的过程，
+ * direct 为不鉴权的直接调用，用于扣除代理本身的开销
+ * </p>
+ *
+ * @author Chill
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthAspectBenchmark {
+	/**
+	 * 不依赖登录用户的表达式，时间授权覆盖全天
+	 */
+	private static final String CONDITION = "hasTimeAuth(0, 23) and #id > 0 and #name != null";
+
+	private final SpelExpressionParser parser = new SpelExpressionParser();
+	private StaticApplicationContext applicationContext;
+	private OrderService target;
+	private OrderService proxy;
+	private Method method;
+	private Object[] args;
+
+	@Setup
+	public void setup() throws NoSuchMethodException {
+		applicationContext = new StaticApplicationContext();
+		AuthAspect aspect = new AuthAspect();
+		aspect.setApplicationContext(applicationContext);
+		target = new OrderService();
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(aspect);
+		proxy = factory.getProxy();
+		method = OrderService.class.getMethod("detail", Long.class, String.class);
+		args = new Object[]{1123598821738675201L, "blade"};
+		if (!proxy.detail(1L, "blade") || !parsePerCall()) {
+			throw new IllegalStateException("expression should pass");
+		}
+	}
+
+	@Benchmark
+	public boolean aspect() {
+		return proxy.detail(1123598821738675201L, "blade");
+	}
+
+	@Benchmark
+	public boolean parsePerCall() {
+		PreAuth preAuth = ClassUtil.getAnnotation(method, PreAuth.class);
+		Expression expression = parser.parseExpression(preAuth.value());
+		StandardEvaluationContext context = new StandardEvaluationContext(new AuthFun());
+		context.setBeanResolver(new BeanFactoryResolver(applicationContext));
+		for (int i = 0; i < args.length; i++) {
+			context.setVariable(ClassUtil.getMethodParameter(method, i).getParameterName(), args[i]);
+		}
+		return Boolean.TRUE.equals(expression.getValue(context, Boolean.class)) && target.detail((Long) args[0], (String) args[1]);
+	}
+
+	@Benchmark
+	public boolean direct() {
+		return target.detail(1123598821738675201L, "blade");
+	}
+
+	public static class OrderService {
+		@PreAuth(CONDITION)
+		public boolean detail(Long id, String name) {
+			return id != null;
+		}
+	}
+
+}
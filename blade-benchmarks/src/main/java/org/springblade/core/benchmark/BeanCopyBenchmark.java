@@ -0,0 +1,223 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.benchmark;
+
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springblade.core.tool.beans.BladeBeanCopier;
+import org.springblade.core.tool.convert.BladeConverter;
+import org.springblade.core.tool.utils.BeanUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BladeBeanCopier：生成的拷贝器与旧实现、手写 setter、反射拷贝对比
+ *
+ * <p>
+ * legacy* 为旧实现：逐个元素查找拷贝器、反射创建对象，convert 时逐个元素新建 BladeConverter；
+ * copyList 为整个列表共用一次拷贝器查找，handWritten* 为手写 setter 基线，
+ * springCopy 为基于反射的 BeanUtil.copyProperties，mapToBean 为 Map 源对象
+ * </p>
+ *
+ * @author L.cm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanCopyBenchmark {
+
+	@Param({"100", "1000"})
+	private int size;
+
+	private User user;
+	private List<User> users;
+	private Map<String, Object> userMap;
+
+	@Setup
+	public void setup() {
+		user = newUser(1L);
+		users = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			users.add(newUser(i));
+		}
+		userMap = new HashMap<>(BeanUtil.toMap(user));
+	}
+
+	@Benchmark
+	public UserVO copy() {
+		return BeanUtil.copy(user, UserVO.class);
+	}
+
+	@Benchmark
+	public UserVO legacyCopy() {
+		BladeBeanCopier copier = BladeBeanCopier.create(User.class, UserVO.class, false);
+		UserVO to = BeanUtil.newInstance(UserVO.class);
+		copier.copy(user, to, null);
+		return to;
+	}
+
+	@Benchmark
+	public UserVO handWritten() {
+		return toVO(user);
+	}
+
+	@Benchmark
+	public UserVO copyWithConvert() {
+		return BeanUtil.copyWithConvert(user, UserVO.class);
+	}
+
+	@Benchmark
+	public UserVO springCopy() {
+		return BeanUtil.copyProperties(user, UserVO.class);
+	}
+
+	@Benchmark
+	public UserVO mapToBean() {
+		return BeanUtil.toBean(userMap, UserVO.class);
+	}
+
+	@Benchmark
+	public List<UserVO> copyList() {
+		return BeanUtil.copy(users, UserVO.class);
+	}
+
+	@Benchmark
+	public List<UserVO> legacyCopyList() {
+		List<UserVO> list = new ArrayList<>(users.size());
+		for (User item : users) {
+			BladeBeanCopier copier = BladeBeanCopier.create(item.getClass(), UserVO.class, false);
+			UserVO to = BeanUtil.newInstance(UserVO.class);
+			copier.copy(item, to, null);
+			list.add(to);
+		}
+		return list;
+	}
+
+	@Benchmark
+	public List<UserVO> copyListWithConvert() {
+		return BeanUtil.copyWithConvert(users, UserVO.class);
+	}
+
+	@Benchmark
+	public List<UserVO> legacyCopyListWithConvert() {
+		List<UserVO> list = new ArrayList<>(users.size());
+		for (User item : users) {
+			BladeBeanCopier copier = BladeBeanCopier.create(item.getClass(), UserVO.class, true);
+			UserVO to = BeanUtil.newInstance(UserVO.class);
+			copier.copy(item, to, new BladeConverter(item.getClass(), UserVO.class));
+			list.add(to);
+		}
+		return list;
+	}
+
+	@Benchmark
+	public List<UserVO> handWrittenList() {
+		List<UserVO> list = new ArrayList<>(users.size());
+		for (User item : users) {
+			list.add(toVO(item));
+		}
+		return list;
+	}
+
+	@Benchmark
+	public List<UserVO> springCopyList() {
+		return BeanUtil.copyProperties(users, UserVO.class);
+	}
+
+	private static UserVO toVO(User user) {
+		UserVO vo = new UserVO();
+		vo.setId(user.getId());
+		vo.setTenantId(user.getTenantId());
+		vo.setAccount(user.getAccount());
+		vo.setName(user.getName());
+		vo.setRealName(user.getRealName());
+		vo.setEmail(user.getEmail());
+		vo.setPhone(user.getPhone());
+		vo.setRoleId(user.getRoleId());
+		vo.setDeptId(user.getDeptId());
+		vo.setStatus(user.getStatus());
+		vo.setCreateTime(user.getCreateTime());
+		return vo;
+	}
+
+	private static User newUser(long id) {
+		User user = new User();
+		user.setId(id);
+		user.setTenantId("000000");
+		user.setAccount("admin" + id);
+		user.setName("管理员");
+		user.setRealName("blade");
+		user.setEmail("admin@bladex.vip");
+		user.setPhone("13800000000");
+		user.setRoleId("1123598816738675201");
+		user.setDeptId("1123598813738675201");
+		user.setStatus(1);
+		user.setCreateTime(LocalDateTime.of(2020, 1, 1, 0, 0));
+		return user;
+	}
+
+	@Data
+	public static class User {
+		private Long id;
+		private String tenantId;
+		private String account;
+		private String name;
+		private String realName;
+		private String email;
+		private String phone;
+		private String roleId;
+		private String deptId;
+		private Integer status;
+		private LocalDateTime createTime;
+	}
+
+	@Data
+	public static class UserVO {
+		private Long id;
+		private String tenantId;
+		private String account;
+		private String name;
+		private String realName;
+		private String email;
+		private String phone;
+		private String roleId;
+		private String deptId;
+		private Integer status;
+		private LocalDateTime createTime;
+		private String roleName;
+		private String deptName;
+	}
+
+}
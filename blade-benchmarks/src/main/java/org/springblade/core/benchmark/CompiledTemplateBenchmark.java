@@ -0,0 +1,105 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springblade.core.tool.utils.Func;
+import org.springblade.core.tool.utils.StringUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模板格式化：预编译模板与逐个替换对比
+ *
+ * <p>
+ * 使用 -prof gc 查看分配
+ * </p>
+ *
+ * @author L.cm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompiledTemplateBenchmark {
+	private static final String MAP_TEMPLATE = "{\"tenantId\": \"{tenantId}\", \"userId\": {userId}, \"deptId\": {deptId}, \"roleId\": {roleId}}";
+	private static final String DOLLAR_TEMPLATE = "select * from blade_user where tenant_id = '${tenantId}' and dept_id in (${deptId}) and role_id = ${roleId}";
+	private static final String INDEXED_TEMPLATE = "user {} login from {} with role {} at dept {}";
+
+	private Map<String, Object> params;
+
+	@Setup
+	public void setup() {
+		params = new HashMap<>();
+		params.put("tenantId", "000000");
+		params.put("userId", 1123598821738675201L);
+		params.put("deptId", 1123598813738675201L);
+		params.put("roleId", 1123598816738675201L);
+	}
+
+	@Benchmark
+	public String mapCompiled() {
+		return StringUtil.format((CharSequence) MAP_TEMPLATE, params);
+	}
+
+	@Benchmark
+	public String mapReplace() {
+		String template = MAP_TEMPLATE;
+		for (Map.Entry<String, Object> entry : params.entrySet()) {
+			template = template.replace("{" + entry.getKey() + "}", Func.toStr(entry.getValue()));
+		}
+		return template;
+	}
+
+	@Benchmark
+	public String dollarCompiled() {
+		return StringUtil.format(DOLLAR_TEMPLATE, params);
+	}
+
+	@Benchmark
+	public String dollarScan() {
+		StringBuilder sb = new StringBuilder((int) (DOLLAR_TEMPLATE.length() * 1.5));
+		int cursor = 0;
+		for (int start, end; (start = DOLLAR_TEMPLATE.indexOf("${", cursor)) != -1 && (end = DOLLAR_TEMPLATE.indexOf('}', start)) != -1; ) {
+			sb.append(DOLLAR_TEMPLATE, cursor, start);
+			Object value = params.get(StringUtil.trimWhitespace(DOLLAR_TEMPLATE.substring(start + 2, end)));
+			sb.append(value == null ? "" : value);
+			cursor = end + 1;
+		}
+		sb.append(DOLLAR_TEMPLATE.substring(cursor));
+		return sb.toString();
+	}
+
+	@Benchmark
+	public String indexedCompiled() {
+		return StringUtil.format(INDEXED_TEMPLATE, "admin", "127.0.0.1", "administrator", "blade");
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.benchmark;
+
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.Schema;
+import io.protostuff.runtime.RuntimeSchema;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springblade.core.redis.serializer.BytesWrapper;
+import org.springblade.core.redis.serializer.ProtoStuffSerializer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProtoStuffSerializer：复用缓冲区、压缩与旧版每次分配缓冲区对比
+ *
+ * <p>
+ * legacy 为旧版每次分配 LinkedBuffer 的写法，pooled 为未开启压缩，compressed 为 4KB 阈值压缩，
+ * json、jdk 为 blade.redis.serializer-type 可选的 GenericJackson2JsonRedisSerializer 和 JdkSerializationRedisSerializer，
+ * 使用 -prof gc 查看分配，bytes 输出见 setup 日志
+ * </p>
+ *
+ * @author L.cm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtoStuffBenchmark {
+	private static final Schema<BytesWrapper> SCHEMA = RuntimeSchema.getSchema(BytesWrapper.class);
+
+	/**
+	 * 用户列表长度，1 约 200 字节，100 约 20KB
+	 */
+	@Param({"1", "100"})
+	private int users;
+
+	private List<User> value;
+	private ProtoStuffSerializer pooled;
+	private ProtoStuffSerializer compressed;
+	private byte[] plainBytes;
+	private byte[] compressedBytes;
+	private GenericJackson2JsonRedisSerializer json;
+	private JdkSerializationRedisSerializer jdk;
+	private byte[] jsonBytes;
+	private byte[] jdkBytes;
+
+	@Setup
+	public void setup() {
+		value = new ArrayList<>(users);
+		for (int i = 0; i < users; i++) {
+			User user = new User();
+			user.setId(1123598821738675201L + i);
+			user.setTenantId("000000");
+			user.setAccount("admin" + i);
+			user.setRealName("管理员");
+			user.setEmail("admin" + i + "@bladex.vip");
+			user.setRoleId("1123598816738675201");
+			user.setDeptId("1123598813738675201");
+			user.setRemark("blade user remark for benchmark, blade user remark for benchmark");
+			value.add(user);
+		}
+		pooled = new ProtoStuffSerializer();
+		compressed = new ProtoStuffSerializer(4096);
+		plainBytes = pooled.serialize(value);
+		compressedBytes = compressed.serialize(value);
+		json = new GenericJackson2JsonRedisSerializer();
+		jdk = new JdkSerializationRedisSerializer(getClass().getClassLoader());
+		jsonBytes = json.serialize(value);
+		jdkBytes = jdk.serialize(value);
+		System.out.println("plain bytes: " + plainBytes.length + ", compressed bytes: " + compressedBytes.length
+			+ ", json bytes: " + jsonBytes.length + ", jdk bytes: " + jdkBytes.length);
+	}
+
+	@Benchmark
+	public byte[] legacySerialize() {
+		LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+		try {
+			return ProtostuffIOUtil.toByteArray(new BytesWrapper<>(value), SCHEMA, buffer);
+		} finally {
+			buffer.clear();
+		}
+	}
+
+	@Benchmark
+	public byte[] pooledSerialize() {
+		return pooled.serialize(value);
+	}
+
+	@Benchmark
+	public byte[] compressedSerialize() {
+		return compressed.serialize(value);
+	}
+
+	@Benchmark
+	public Object plainDeserialize() {
+		return pooled.deserialize(plainBytes);
+	}
+
+	@Benchmark
+	public Object compressedDeserialize() {
+		return compressed.deserialize(compressedBytes);
+	}
+
+	@Benchmark
+	public byte[] jsonSerialize() {
+		return json.serialize(value);
+	}
+
+	@Benchmark
+	public Object jsonDeserialize() {
+		return json.deserialize(jsonBytes);
+	}
+
+	@Benchmark
+	public byte[] jdkSerialize() {
+		return jdk.serialize(value);
+	}
+
+	@Benchmark
+	public Object jdkDeserialize() {
+		return jdk.deserialize(jdkBytes);
+	}
+
+	@Data
+	public static class User implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private Long id;
+		private String tenantId;
+		private String account;
+		private String realName;
+		private String email;
+		private String roleId;
+		private String deptId;
+		private String remark;
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.benchmark;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springblade.core.redis.cache.BladeRedis;
+import org.springblade.core.redis.serializer.RedisKeySerializer;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * redis 批量操作：逐个请求与 pipeline 分批对比
+ *
+ * <p>
+ * 默认使用进程内的 jedis-mock，只能反映往返次数的差异；
+ * 使用 -Dredis.host=127.0.0.1 -Dredis.port=6379 连接真实的 redis，会清空其中的数据
+ * </p>
+ *
+ * @author L.cm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisPipelineBenchmark {
+	private static final String FIELD = "id";
+
+	@Param({"100", "2000"})
+	private int size;
+
+	private RedisServer server;
+	private LettuceConnectionFactory connectionFactory;
+	private RedisTemplate<String, Object> redisTemplate;
+	private BladeRedis bladeRedis;
+	private List<String> keys;
+
+	@Setup
+	public void setup() throws IOException {
+		String host = System.getProperty("redis.host");
+		int port;
+		if (host == null) {
+			server = RedisServer.newRedisServer();
+			server.start();
+			host = server.getHost();
+			port = server.getBindPort();
+		} else {
+			port = Integer.getInteger("redis.port", 6379);
+		}
+		connectionFactory = new LettuceConnectionFactory(host, port);
+		connectionFactory.afterPropertiesSet();
+		RedisKeySerializer keySerializer = new RedisKeySerializer();
+		JdkSerializationRedisSerializer valueSerializer = new JdkSerializationRedisSerializer();
+		redisTemplate = new RedisTemplate<>();
+		redisTemplate.setKeySerializer(keySerializer);
+		redisTemplate.setHashKeySerializer(keySerializer);
+		redisTemplate.setValueSerializer(valueSerializer);
+		redisTemplate.setHashValueSerializer(valueSerializer);
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+		bladeRedis = new BladeRedis(redisTemplate);
+		redisTemplate.execute(connection -> {
+			connection.flushAll();
+			return null;
+		}, true);
+		keys = new ArrayList<>(size);
+		Map<String, Map<Object, Object>> hashes = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++) {
+			String key = "benchmark:" + i;
+			keys.add(key);
+			hashes.put(key, Collections.singletonMap(FIELD, i));
+		}
+		bladeRedis.hMset(hashes);
+		bladeRedis.mExpire(keys, Duration.ofHours(1));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		connectionFactory.destroy();
+		if (server != null) {
+			server.stop();
+		}
+	}
+
+	@Benchmark
+	public List<Long> ttlLoop() {
+		List<Long> ttls = new ArrayList<>(size);
+		for (String key : keys) {
+			ttls.add(redisTemplate.getExpire(key));
+		}
+		return ttls;
+	}
+
+	@Benchmark
+	public List<Long> ttlPipelined() {
+		return bladeRedis.mTtl(keys);
+	}
+
+	@Benchmark
+	public List<Object> hGetLoop() {
+		List<Object> values = new ArrayList<>(size);
+		for (String key : keys) {
+			values.add(redisTemplate.opsForHash().get(key, FIELD));
+		}
+		return values;
+	}
+
+	@Benchmark
+	public List<Object> hGetPipelined() {
+		return bladeRedis.hGet(keys, FIELD);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springblade.core.secure.BladeUser;
+import org.springblade.core.tenant.BladeTenantHandler;
+import org.springblade.core.tenant.BladeTenantInterceptor;
+import org.springblade.core.tenant.BladeTenantProperties;
+import org.springblade.core.tenant.BladeTenantSqlCache;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 租户 sql 改写：缓存模板拼接与每次解析对比
+ *
+ * <p>
+ * cached 为 BladeTenantInterceptor 命中缓存的完整路径，uncached 为关闭缓存后每次 jsqlparser 解析改写，
+ * render 只统计 BladeTenantSqlCache 的模板拼接
+ * </p>
+ *
+ * @author Chill
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantSqlBenchmark {
+	private static final List<String> TENANT_TABLES = Arrays.asList("blade_notice", "blade_post");
+
+	@Param({"simple", "join"})
+	private String shape;
+
+	private String sql;
+	private BladeTenantInterceptor cached;
+	private BladeTenantInterceptor uncached;
+	private BladeTenantSqlCache sqlCache;
+	private String[] template;
+
+	@Setup
+	public void setup() {
+		sql = "simple".equals(shape)
+			? "SELECT id, title, content FROM blade_notice WHERE category = ? AND is_deleted = 0 ORDER BY release_time DESC"
+			: "SELECT n.id, n.title, p.post_name FROM blade_notice n LEFT JOIN blade_post p ON n.create_user = p.id "
+			+ "WHERE n.is_deleted = 0 AND n.create_dept IN (SELECT id FROM blade_post WHERE post_code = ?) ORDER BY n.release_time DESC";
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		BladeUser user = new BladeUser();
+		user.setTenantId("000001");
+		user.setRoleName("user");
+		request.setAttribute("_BLADE_USER_REQUEST_ATTR_", user);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		cached = newInterceptor(1024);
+		uncached = newInterceptor(0);
+		cached.parserSingle(sql, null);
+		sqlCache = cached.getSqlCache();
+		template = sqlCache.get(sql, false);
+		if (template == null || !cached.parserSingle(sql, null).equals(uncached.parserSingle(sql, null))) {
+			throw new IllegalStateException("cached rewrite differs from uncached");
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Benchmark
+	public String cached() {
+		return cached.parserSingle(sql, null);
+	}
+
+	@Benchmark
+	public String uncached() {
+		return uncached.parserSingle(sql, null);
+	}
+
+	@Benchmark
+	public String render() {
+		return sqlCache.render(template, "'000001'");
+	}
+
+	private static BladeTenantInterceptor newInterceptor(int sqlCacheSize) {
+		BladeTenantProperties properties = new BladeTenantProperties();
+		properties.setSqlCacheSize(sqlCacheSize);
+		BladeTenantInterceptor interceptor = new BladeTenantInterceptor();
+		interceptor.setTenantProperties(properties);
+		interceptor.setTenantLineHandler(new BladeTenantHandler(properties) {
+			@Override
+			public boolean ignoreTable(String tableName) {
+				return !TENANT_TABLES.contains(tableName);
+			}
+		});
+		return interceptor;
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springblade.core.boot.request.XssHtmlFilter;
+import org.springblade.core.boot.request.XssHtmlSanitizer;
+import org.springblade.core.boot.request.XssHttpServletRequestWrapper;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * xss 过滤：旧版正则过滤与新版单遍扫描对比，以及请求体流式过滤
+ *
+ * <p>
+ * 使用 -prof gc 查看分配
+ * </p>
+ *
+ * @author Chill
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class XssSanitizerBenchmark {
+	private static final String[] FRAGMENTS = {
+		"{\"title\":\"", "<b>bold</b>", "<script>alert(1)</script>", "<a href=\"javascript:alert(1)\">x</a>",
+		"<img src=\"http://a/b.png\" onerror=alert(1)>", "a > b & c < d", "中文内容", "\",\"id\":1123598821738675201}"
+	};
+
+	@Param({"1024", "65536"})
+	private int size;
+
+	private final XssHtmlSanitizer sanitizer = new XssHtmlSanitizer();
+	private String html;
+	private byte[] body;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42L);
+		StringBuilder builder = new StringBuilder(size + 64);
+		while (builder.length() < size) {
+			builder.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+		}
+		html = builder.toString();
+		body = html.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public String filter() {
+		return new XssHtmlFilter().filter(html);
+	}
+
+	@Benchmark
+	public String sanitize() {
+		return sanitizer.sanitize(html);
+	}
+
+	@Benchmark
+	public void bodyStream(Blackhole blackhole) throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/");
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent(body);
+		byte[] buffer = new byte[8192];
+		try (InputStream inputStream = new XssHttpServletRequestWrapper(request).getInputStream()) {
+			for (int read; (read = inputStream.read(buffer)) != -1; ) {
+				blackhole.consume(read);
+			}
+		}
+		blackhole.consume(buffer);
+	}
+
+}
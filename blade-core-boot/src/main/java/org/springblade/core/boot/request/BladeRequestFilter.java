@@ -54,7 +54,7 @@ public class BladeRequestFilter implements Filter {
 		}
 		// Xss Request 包装
 		else {
-			XssHttpServletRequestWrapper xssRequest = new XssHttpServletRequestWrapper((HttpServletRequest) request);
+			XssHttpServletRequestWrapper xssRequest = new XssHttpServletRequestWrapper((HttpServletRequest) request, (int) xssProperties.getReplayLimit().toBytes());
 			chain.doFilter(xssRequest, response);
 		}
 	}
@@ -0,0 +1,222 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.boot.request;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 边读边过滤的请求体
+ *
+ * <p>
+ * 只保留不超过 replayLimit 的已读内容，超出后释放，报文不再整体驻留内存。
+ * 再次读取（{@link #drain()}）时才缓存剩余内容，已读内容超出 replayLimit 的报文无法再次读取。
+ * </p>
+ *
+ * @author Chill
+ */
+class XssBodyInputStream extends ServletInputStream {
+
+	private final Reader reader;
+	private final int replayLimit;
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+		.onMalformedInput(CodingErrorAction.REPLACE)
+		.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private final CharBuffer chars = CharBuffer.allocate(4096);
+	private final ByteBuffer bytes = ByteBuffer.allocate(12288);
+	/**
+	 * 已读出的报文，首次读取时创建，超出 replayLimit 后释放
+	 */
+	private ByteArrayOutputStream cache;
+	/**
+	 * 已读内容超出 replayLimit，无法再次读取
+	 */
+	private boolean overflow;
+	/**
+	 * drain 后的完整报文，本流之后的读取也从这里继续
+	 */
+	private byte[] drained;
+	/**
+	 * 本流已读出的字节数
+	 */
+	private int position;
+	private boolean endOfInput;
+	private boolean finished;
+
+	XssBodyInputStream(Reader reader, int replayLimit) {
+		this.reader = reader;
+		this.replayLimit = replayLimit;
+		this.bytes.flip();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (drained != null) {
+			return position < drained.length ? drained[position++] & 0xFF : -1;
+		}
+		if (!fill()) {
+			return -1;
+		}
+		int b = bytes.get() & 0xFF;
+		position++;
+		if (retain()) {
+			cache.write(b);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (drained != null) {
+			if (position >= drained.length) {
+				return -1;
+			}
+			int count = Math.min(len, drained.length - position);
+			System.arraycopy(drained, position, b, off, count);
+			position += count;
+			return count;
+		}
+		if (!fill()) {
+			return -1;
+		}
+		int count = Math.min(len, bytes.remaining());
+		bytes.get(b, off, count);
+		position += count;
+		if (retain()) {
+			cache.write(b, off, count);
+		}
+		return count;
+	}
+
+	@Override
+	public int available() {
+		if (drained != null) {
+			return drained.length - position;
+		}
+		return bytes.remaining();
+	}
+
+	@Override
+	public boolean isFinished() {
+		return drained != null ? position >= drained.length : finished;
+	}
+
+	@Override
+	public boolean isReady() {
+		return true;
+	}
+
+	@Override
+	public void setReadListener(ReadListener readListener) {
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * 读完剩余内容，返回完整的报文，只在再次读取时调用
+	 *
+	 * @return 过滤后的报文
+	 * @throws IOException IOException
+	 * @throws IllegalStateException 已读内容超出 replayLimit
+	 */
+	byte[] drain() throws IOException {
+		if (drained != null) {
+			return drained;
+		}
+		if (overflow) {
+			throw new IllegalStateException("Request body exceeds the xss replay limit of " + replayLimit + " bytes and has already been read");
+		}
+		if (cache == null) {
+			cache = new ByteArrayOutputStream();
+		}
+		// 剩余内容直接进缓存，不计入本流的读取位置，也不受 replayLimit 限制
+		while (fill()) {
+			cache.write(bytes.array(), bytes.position(), bytes.remaining());
+			bytes.position(bytes.limit());
+		}
+		drained = cache.toByteArray();
+		cache = null;
+		return drained;
+	}
+
+	/**
+	 * 判断刚读出的内容是否还需要缓存
+	 *
+	 * @return 是否缓存
+	 */
+	private boolean retain() {
+		if (overflow) {
+			return false;
+		}
+		if (position > replayLimit) {
+			overflow = true;
+			cache = null;
+			return false;
+		}
+		if (cache == null) {
+			cache = new ByteArrayOutputStream(Math.min(replayLimit, 4096));
+		}
+		return true;
+	}
+
+	/**
+	 * 保证 bytes 中有可读数据
+	 *
+	 * @return 是否还有数据
+	 */
+	private boolean fill() throws IOException {
+		while (!bytes.hasRemaining()) {
+			if (finished) {
+				return false;
+			}
+			bytes.clear();
+			if (endOfInput) {
+				// 输出编码器中剩余的内容
+				chars.flip();
+				encoder.encode(chars, bytes, true);
+				encoder.flush(bytes);
+				finished = true;
+			} else {
+				int read = reader.read(chars);
+				chars.flip();
+				if (read < 0) {
+					endOfInput = true;
+				} else {
+					encoder.encode(chars, bytes, false);
+				}
+				chars.compact();
+			}
+			bytes.flip();
+		}
+		return true;
+	}
+
+}
@@ -40,7 +40,9 @@ import java.util.regex.Pattern;
  * @author Joseph O'Connell
  * @author Cal Hendersen
  * @author Michael Semb Wever
+ * @deprecated 正则逐步替换，非线程安全，请使用单次扫描的 {@link XssHtmlSanitizer}
  */
+@Deprecated
 public final class XssHtmlFilter {
 
 	/**
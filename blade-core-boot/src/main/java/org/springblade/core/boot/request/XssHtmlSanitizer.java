@@ -0,0 +1,753 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.boot.request;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * 单次扫描的 html xss 过滤器，白名单规则与 {@link XssHtmlFilter} 一致
+ *
+ * <p>
+ * 配置不可变，每次过滤使用独立的状态，线程安全，可全局复用；支持通过 Reader 流式过滤请求体
+ * </p>
+ *
+ * @author Chill
+ */
+public final class XssHtmlSanitizer {
+	/**
+	 * 单个标签的最大长度，超过时按普通文本转义，避免流式过滤时无限缓存
+	 */
+	private static final int MAX_TAG_LENGTH = 4096;
+	private static final int BUFFER_SIZE = 4096;
+	private static final int STATE_TEXT = 0;
+	private static final int STATE_ENTITY = 1;
+	private static final int STATE_TAG = 2;
+	private static final int STATE_COMMENT = 3;
+
+	/**
+	 * 允许的标签及其属性
+	 */
+	private final Map<String, Set<String>> allowed;
+	/**
+	 * 必须自闭合的标签，如 img
+	 */
+	private final Set<String> selfClosingTags;
+	/**
+	 * 必须成对出现的标签，如 b
+	 */
+	private final Set<String> needClosingTags;
+	/**
+	 * 禁止的标签
+	 */
+	private final Set<String> disallowed;
+	/**
+	 * 需要校验协议的属性
+	 */
+	private final Set<String> protocolAtts;
+	/**
+	 * 允许的协议
+	 */
+	private final Set<String> allowedProtocols;
+	/**
+	 * 没有内容时删除的标签
+	 */
+	private final Set<String> removeBlanks;
+	/**
+	 * 允许的实体
+	 */
+	private final String[] allowedEntities;
+	private final int maxEntityLength;
+	/**
+	 * 是否删除注释
+	 */
+	private final boolean stripComment;
+
+	public XssHtmlSanitizer() {
+		Map<String, Set<String>> allowedTags = new HashMap<>(8);
+		allowedTags.put("a", toSet("href", "target"));
+		allowedTags.put("img", toSet("src", "width", "height", "alt"));
+		Set<String> noAtts = Collections.emptySet();
+		allowedTags.put("b", noAtts);
+		allowedTags.put("strong", noAtts);
+		allowedTags.put("i", noAtts);
+		allowedTags.put("em", noAtts);
+		this.allowed = Collections.unmodifiableMap(allowedTags);
+		this.selfClosingTags = toSet("img");
+		this.needClosingTags = toSet("a", "b", "strong", "i", "em");
+		this.disallowed = Collections.emptySet();
+		this.allowedProtocols = toSet("http", "mailto", "https");
+		this.protocolAtts = toSet("src", "href");
+		this.removeBlanks = toSet("a", "b", "strong", "i", "em");
+		this.allowedEntities = new String[]{"amp", "gt", "lt", "quot"};
+		this.maxEntityLength = 4;
+		this.stripComment = true;
+	}
+
+	/**
+	 * 与 {@link XssHtmlFilter#XssHtmlFilter(Map)} 相同的配置项
+	 *
+	 * @param conf 配置
+	 */
+	@SuppressWarnings("unchecked")
+	public XssHtmlSanitizer(Map<String, Object> conf) {
+		Map<String, List<String>> allowedConf = (Map<String, List<String>>) conf.get("vAllowed");
+		Map<String, Set<String>> allowedTags = new HashMap<>(allowedConf.size() * 2);
+		allowedConf.forEach((tag, atts) -> allowedTags.put(tag, new HashSet<>(atts)));
+		this.allowed = Collections.unmodifiableMap(allowedTags);
+		this.selfClosingTags = toSet((String[]) conf.get("vSelfClosingTags"));
+		this.needClosingTags = toSet((String[]) conf.get("vNeedClosingTags"));
+		this.disallowed = toSet((String[]) conf.get("vDisallowed"));
+		this.allowedProtocols = toSet((String[]) conf.get("vAllowedProtocols"));
+		this.protocolAtts = toSet((String[]) conf.get("vProtocolAtts"));
+		this.removeBlanks = toSet((String[]) conf.get("vRemoveBlanks"));
+		this.allowedEntities = ((String[]) conf.get("vAllowedEntities")).clone();
+		int maxLength = 0;
+		for (String entity : allowedEntities) {
+			maxLength = Math.max(maxLength, entity.length());
+		}
+		this.maxEntityLength = maxLength;
+		this.stripComment = conf.containsKey("stripComment") ? (Boolean) conf.get("stripComment") : true;
+	}
+
+	/**
+	 * 过滤字符串
+	 *
+	 * @param input 输入
+	 * @return 过滤后的字符串
+	 */
+	public String sanitize(String input) {
+		if (input == null || !needsSanitize(input)) {
+			return input;
+		}
+		Sanitizer sanitizer = new Sanitizer(input.length() + 16);
+		for (int i = 0, len = input.length(); i < len; i++) {
+			sanitizer.feed(input.charAt(i));
+		}
+		sanitizer.finish();
+		return sanitizer.out.toString();
+	}
+
+	/**
+	 * 流式过滤
+	 *
+	 * @param reader 输入
+	 * @param writer 输出
+	 * @throws IOException IOException
+	 */
+	public void sanitize(Reader reader, Writer writer) throws IOException {
+		char[] buffer = new char[BUFFER_SIZE];
+		Sanitizer sanitizer = new Sanitizer(BUFFER_SIZE * 2);
+		int read;
+		while ((read = reader.read(buffer)) != -1) {
+			for (int i = 0; i < read; i++) {
+				sanitizer.feed(buffer[i]);
+			}
+			sanitizer.flushTo(writer);
+		}
+		sanitizer.finish();
+		sanitizer.flushTo(writer);
+	}
+
+	/**
+	 * 包装为过滤后的 Reader，读取时才过滤
+	 *
+	 * @param reader 输入
+	 * @return Reader
+	 */
+	public Reader sanitize(Reader reader) {
+		return new SanitizingReader(reader, new Sanitizer(BUFFER_SIZE * 2));
+	}
+
+	private static boolean needsSanitize(String input) {
+		for (int i = 0, len = input.length(); i < len; i++) {
+			char c = input.charAt(i);
+			if (c == '<' || c == '>' || c == '&') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isAllowed(String name) {
+		return (allowed.isEmpty() || allowed.containsKey(name)) && !disallowed.contains(name);
+	}
+
+	private boolean isAllowedAttribute(String name, String attribute) {
+		return isAllowed(name) && (allowed.isEmpty() || allowed.get(name).contains(attribute));
+	}
+
+	private boolean isAllowedEntity(char[] chars, int length) {
+		for (String entity : allowedEntities) {
+			if (entity.length() != length) {
+				continue;
+			}
+			boolean matches = true;
+			for (int i = 0; i < length; i++) {
+				if (entity.charAt(i) != chars[i]) {
+					matches = false;
+					break;
+				}
+			}
+			if (matches) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isAllowedEntity(String value, int start, int end) {
+		for (String entity : allowedEntities) {
+			if (entity.length() == end - start && value.startsWith(entity, start)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 校验实体，不在白名单中的 &amp; 转义
+	 */
+	private String validateEntities(String value) {
+		int index = value.indexOf('&');
+		if (index < 0) {
+			return value;
+		}
+		StringBuilder builder = new StringBuilder(value.length() + 16);
+		int last = 0;
+		while (index >= 0) {
+			builder.append(value, last, index);
+			int end = index + 1;
+			while (end < value.length() && value.charAt(end) != ';' && value.charAt(end) != '&') {
+				end++;
+			}
+			boolean valid = end < value.length() && value.charAt(end) == ';' && isAllowedEntity(value, index + 1, end);
+			builder.append(valid ? "&" : "&amp;");
+			last = index + 1;
+			index = value.indexOf('&', last);
+		}
+		builder.append(value, last, value.length());
+		return builder.toString();
+	}
+
+	/**
+	 * 校验链接协议，不允许的协议转为锚点
+	 */
+	private String processProtocol(String value) {
+		String decoded = validateEntities(decodeEntities(value));
+		int index = decoded.indexOf(':');
+		if (index > 0 && !allowedProtocols.contains(decoded.substring(0, index))) {
+			return "#" + decoded.substring(index + 1);
+		}
+		return decoded;
+	}
+
+	/**
+	 * 依次解码 &amp;#ddd; &amp;#xhh; %hh，用于协议校验
+	 */
+	private static String decodeEntities(String value) {
+		String decoded = decode(value, "&#", 10, Integer.MAX_VALUE);
+		decoded = decode(decoded, "&#x", 16, Integer.MAX_VALUE);
+		return decode(decoded, "%", 16, 2);
+	}
+
+	private static String decode(String value, String prefix, int radix, int maxDigits) {
+		int index = indexOfIgnoreCase(value, prefix, 0);
+		if (index < 0) {
+			return value;
+		}
+		StringBuilder builder = new StringBuilder(value.length());
+		int last = 0;
+		while (index >= 0) {
+			int start = index + prefix.length();
+			int end = start;
+			long code = 0;
+			while (end < value.length() && end - start < maxDigits && Character.digit(value.charAt(end), radix) >= 0 && code <= Integer.MAX_VALUE) {
+				code = code * radix + Character.digit(value.charAt(end), radix);
+				end++;
+			}
+			if (end == start || code > Integer.MAX_VALUE || (maxDigits != Integer.MAX_VALUE && end - start != maxDigits)) {
+				index = indexOfIgnoreCase(value, prefix, index + 1);
+				continue;
+			}
+			builder.append(value, last, index).append((char) code);
+			if (end < value.length() && value.charAt(end) == ';') {
+				end++;
+			}
+			last = end;
+			index = indexOfIgnoreCase(value, prefix, end);
+		}
+		builder.append(value, last, value.length());
+		return builder.toString();
+	}
+
+	private static int indexOfIgnoreCase(String value, String search, int from) {
+		for (int i = from, max = value.length() - search.length(); i <= max; i++) {
+			if (value.regionMatches(true, i, search, 0, search.length())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isAlnum(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+	}
+
+	private static boolean isUnquotedStop(char c) {
+		return c == '"' || c == '\'' || c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+	}
+
+	private static String toLowerCase(CharSequence chars, int start, int end) {
+		char[] lower = new char[end - start];
+		for (int i = start; i < end; i++) {
+			char c = chars.charAt(i);
+			lower[i - start] = (c >= 'A' && c <= 'Z') ? (char) (c + 32) : c;
+		}
+		return new String(lower);
+	}
+
+	private static Set<String> toSet(String... values) {
+		return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(values)));
+	}
+
+	/**
+	 * 一次过滤的状态
+	 */
+	private final class Sanitizer {
+		private final StringBuilder out;
+		private final StringBuilder tag = new StringBuilder(64);
+		private final char[] entity = new char[maxEntityLength];
+		/**
+		 * 未闭合的标签
+		 */
+		private final List<OpenTag> openTags = new ArrayList<>();
+		private int state = STATE_TEXT;
+		private int entityLength;
+		private int dashes;
+		/**
+		 * out 第一个字符的绝对位置
+		 */
+		private long base;
+		/**
+		 * 已经输出的绝对位置，之前的内容不能再修改
+		 */
+		private long flushed;
+
+		private Sanitizer(int capacity) {
+			this.out = new StringBuilder(capacity);
+		}
+
+		private void feed(char c) {
+			switch (state) {
+				case STATE_ENTITY:
+					entity(c);
+					break;
+				case STATE_TAG:
+					tag(c);
+					break;
+				case STATE_COMMENT:
+					comment(c);
+					break;
+				default:
+					text(c);
+			}
+		}
+
+		private void text(char c) {
+			if (c == '<') {
+				state = STATE_TAG;
+				tag.setLength(0);
+			} else if (c == '>') {
+				out.append("&gt;");
+			} else if (c == '&') {
+				state = STATE_ENTITY;
+				entityLength = 0;
+			} else {
+				out.append(c);
+			}
+		}
+
+		private void entity(char c) {
+			if (c == ';') {
+				out.append(isAllowedEntity(entity, entityLength) ? "&" : "&amp;").append(entity, 0, entityLength).append(';');
+				state = STATE_TEXT;
+				return;
+			}
+			if (entityLength < entity.length && c != '&' && c != '<' && c != '>') {
+				entity[entityLength++] = c;
+				return;
+			}
+			out.append("&amp;").append(entity, 0, entityLength);
+			state = STATE_TEXT;
+			text(c);
+		}
+
+		private void tag(char c) {
+			if (c == '>') {
+				state = STATE_TEXT;
+				processTag();
+				return;
+			}
+			if (c == '<') {
+				strayTag();
+				feed(c);
+				return;
+			}
+			tag.append(c);
+			if (tag.length() == 3 && tag.charAt(0) == '!' && tag.charAt(1) == '-' && tag.charAt(2) == '-') {
+				state = STATE_COMMENT;
+				dashes = 0;
+			} else if (tag.length() > MAX_TAG_LENGTH) {
+				strayTag();
+			}
+		}
+
+		/**
+		 * 注释内容暂存在 tag 中，没有闭合时按文本处理
+		 */
+		private void comment(char c) {
+			if (c == '>' && dashes >= 2) {
+				state = STATE_TEXT;
+				if (!stripComment) {
+					out.append("<!--");
+					for (int i = 3, len = tag.length() - 2; i < len; i++) {
+						appendEscaped(tag.charAt(i));
+					}
+					out.append("-->");
+				}
+				tag.setLength(0);
+				return;
+			}
+			dashes = c == '-' ? dashes + 1 : 0;
+			tag.append(c);
+			if (tag.length() > MAX_TAG_LENGTH) {
+				unclosedComment();
+			}
+		}
+
+		/**
+		 * 没有闭合的注释，和原来的正则过滤一致：遇到 &gt; 时作为非法标签删除，否则按文本处理
+		 */
+		private void unclosedComment() {
+			int len = tag.length();
+			for (int i = 0; i < len; i++) {
+				char c = tag.charAt(i);
+				if (c == '<') {
+					break;
+				}
+				if (c == '>') {
+					state = STATE_TEXT;
+					String rest = tag.substring(i + 1);
+					tag.setLength(0);
+					for (int j = 0, restLen = rest.length(); j < restLen; j++) {
+						feed(rest.charAt(j));
+					}
+					return;
+				}
+			}
+			strayTag();
+		}
+
+		/**
+		 * 没有闭合的 &lt;，转义后按文本处理
+		 */
+		private void strayTag() {
+			out.append("&lt;");
+			state = STATE_TEXT;
+			String content = tag.toString();
+			tag.setLength(0);
+			for (int i = 0, len = content.length(); i < len; i++) {
+				feed(content.charAt(i));
+			}
+		}
+
+		private void processTag() {
+			int len = tag.length();
+			if (len > 1 && tag.charAt(0) == '/' && isAlnum(tag.charAt(1))) {
+				int end = 2;
+				while (end < len && isAlnum(tag.charAt(end))) {
+					end++;
+				}
+				String name = toLowerCase(tag, 1, end);
+				if (isAllowed(name) && !selfClosingTags.contains(name)) {
+					closeTag(name);
+				}
+				return;
+			}
+			if (len == 0 || !isAlnum(tag.charAt(0))) {
+				// 注释以外的 <!...>、<?...> 等直接删除
+				return;
+			}
+			int end = 1;
+			while (end < len && isAlnum(tag.charAt(end))) {
+				end++;
+			}
+			String name = toLowerCase(tag, 0, end);
+			if (!isAllowed(name)) {
+				return;
+			}
+			int bodyEnd = len;
+			boolean selfClosing = false;
+			if (bodyEnd > end && tag.charAt(bodyEnd - 1) == '/') {
+				selfClosing = true;
+				bodyEnd--;
+			}
+			if (selfClosingTags.contains(name)) {
+				selfClosing = true;
+			}
+			if (needClosingTags.contains(name)) {
+				selfClosing = false;
+			}
+			long start = base + out.length();
+			out.append('<').append(name);
+			appendAttributes(name, end, bodyEnd);
+			if (selfClosing) {
+				out.append(" />");
+			} else {
+				out.append('>');
+				openTags.add(new OpenTag(name, start, base + out.length()));
+			}
+		}
+
+		private void appendAttributes(String name, int from, int to) {
+			int i = from;
+			while (i < to) {
+				if (!isAlnum(tag.charAt(i))) {
+					i++;
+					continue;
+				}
+				int nameStart = i;
+				while (i < to && isAlnum(tag.charAt(i))) {
+					i++;
+				}
+				int nameEnd = i;
+				if (i + 1 >= to || tag.charAt(i) != '=') {
+					continue;
+				}
+				i++;
+				int valueStart;
+				int valueEnd;
+				char quote = tag.charAt(i);
+				if (quote == '"' || quote == '\'') {
+					int close = indexOf(quote, i + 1, to);
+					if (close < 0) {
+						i++;
+						continue;
+					}
+					valueStart = i + 1;
+					valueEnd = close;
+					i = close + 1;
+				} else {
+					valueStart = i;
+					while (i < to && !isUnquotedStop(tag.charAt(i))) {
+						i++;
+					}
+					valueEnd = i;
+					if (valueEnd == valueStart) {
+						continue;
+					}
+				}
+				String attribute = toLowerCase(tag, nameStart, nameEnd);
+				if (!isAllowedAttribute(name, attribute)) {
+					continue;
+				}
+				String value = tag.substring(valueStart, valueEnd);
+				value = protocolAtts.contains(attribute) ? processProtocol(value) : validateEntities(value);
+				out.append(' ').append(attribute).append("=\"");
+				appendAttributeValue(value);
+				out.append('"');
+			}
+		}
+
+		private int indexOf(char c, int from, int to) {
+			for (int i = from; i < to; i++) {
+				if (tag.charAt(i) == c) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private void closeTag(String name) {
+			for (int i = openTags.size() - 1; i >= 0; i--) {
+				OpenTag openTag = openTags.get(i);
+				if (!openTag.name.equals(name)) {
+					continue;
+				}
+				openTags.remove(i);
+				// 没有内容的标签直接删除
+				boolean blank = i == openTags.size() && removeBlanks.contains(name)
+					&& openTag.end == base + out.length() && openTag.start >= flushed;
+				if (blank) {
+					out.setLength((int) (openTag.start - base));
+				} else {
+					out.append("</").append(name).append('>');
+				}
+				return;
+			}
+		}
+
+		private void appendEscaped(char c) {
+			if (c == '&') {
+				out.append("&amp;");
+			} else if (c == '<') {
+				out.append("&lt;");
+			} else if (c == '>') {
+				out.append("&gt;");
+			} else {
+				out.append(c);
+			}
+		}
+
+		private void appendAttributeValue(String value) {
+			for (int i = 0, len = value.length(); i < len; i++) {
+				char c = value.charAt(i);
+				if (c == '"') {
+					out.append("&quot;");
+				} else if (c == '<') {
+					out.append("&lt;");
+				} else if (c == '>') {
+					out.append("&gt;");
+				} else {
+					out.append(c);
+				}
+			}
+		}
+
+		private void finish() {
+			// 未闭合的标签、注释按文本处理，其中可能还有新的标签
+			while (state == STATE_TAG || state == STATE_COMMENT) {
+				if (state == STATE_TAG) {
+					strayTag();
+				} else {
+					unclosedComment();
+				}
+			}
+			if (state == STATE_ENTITY) {
+				out.append("&amp;").append(entity, 0, entityLength);
+			}
+			state = STATE_TEXT;
+			// 补全未闭合的标签
+			while (!openTags.isEmpty()) {
+				closeTag(openTags.get(openTags.size() - 1).name);
+			}
+		}
+
+		/**
+		 * 末尾可能被删除的空标签的起始位置，之前的内容可以输出
+		 */
+		private long holdFrom() {
+			long position = base + out.length();
+			for (int i = openTags.size() - 1; i >= 0; i--) {
+				OpenTag openTag = openTags.get(i);
+				if (openTag.end != position || !removeBlanks.contains(openTag.name)) {
+					break;
+				}
+				position = openTag.start;
+			}
+			return position;
+		}
+
+		private void flushTo(Writer writer) throws IOException {
+			int len = (int) (holdFrom() - base);
+			if (len > 0) {
+				writer.write(out.substring(0, len));
+				discard(len);
+			}
+		}
+
+		private void discard(int len) {
+			out.delete(0, len);
+			base += len;
+			flushed = base;
+		}
+	}
+
+	private static final class OpenTag {
+		private final String name;
+		private final long start;
+		private final long end;
+
+		private OpenTag(String name, long start, long end) {
+			this.name = name;
+			this.start = start;
+			this.end = end;
+		}
+	}
+
+	/**
+	 * 读取时过滤的 Reader
+	 */
+	private static final class SanitizingReader extends Reader {
+		private final Reader source;
+		private final Sanitizer sanitizer;
+		private final char[] buffer = new char[BUFFER_SIZE];
+		private int position;
+		private boolean endOfInput;
+
+		private SanitizingReader(Reader source, Sanitizer sanitizer) {
+			this.source = source;
+			this.sanitizer = sanitizer;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			int available;
+			while ((available = available()) <= position) {
+				if (endOfInput) {
+					return -1;
+				}
+				if (position > 0) {
+					sanitizer.discard(position);
+					position = 0;
+				}
+				int read = source.read(buffer);
+				if (read < 0) {
+					endOfInput = true;
+					sanitizer.finish();
+				} else {
+					for (int i = 0; i < read; i++) {
+						sanitizer.feed(buffer[i]);
+					}
+				}
+			}
+			int count = Math.min(len, available - position);
+			sanitizer.out.getChars(position, position + count, cbuf, off);
+			position += count;
+			sanitizer.flushed = sanitizer.base + position;
+			return count;
+		}
+
+		private int available() {
+			if (endOfInput) {
+				return sanitizer.out.length();
+			}
+			return (int) (sanitizer.holdFrom() - sanitizer.base);
+		}
+
+		@Override
+		public void close() throws IOException {
+			source.close();
+		}
+	}
+}
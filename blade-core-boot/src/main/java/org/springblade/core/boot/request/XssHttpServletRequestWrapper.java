@@ -17,7 +17,6 @@
 package org.springblade.core.boot.request;
 
 import org.springblade.core.tool.utils.StringUtil;
-import org.springblade.core.tool.utils.WebUtil;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
@@ -29,6 +28,7 @@ import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -47,14 +47,27 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 	 * 缓存报文,支持多次读取流
 	 */
 	private byte[] body;
+	/**
+	 * 边读边过滤的报文流，再次读取时读完并缓存
+	 */
+	private XssBodyInputStream bodyStream;
+	/**
+	 * 报文流保留的已读内容上限
+	 */
+	private final int replayLimit;
 	/**
 	 * html过滤
 	 */
-	private final static XssHtmlFilter HTML_FILTER = new XssHtmlFilter();
+	private final static XssHtmlSanitizer HTML_SANITIZER = new XssHtmlSanitizer();
 
 	public XssHttpServletRequestWrapper(HttpServletRequest request) {
+		this(request, XssProperties.DEFAULT_REPLAY_LIMIT);
+	}
+
+	public XssHttpServletRequestWrapper(HttpServletRequest request, int replayLimit) {
 		super(request);
-		orgRequest = request;
+		this.orgRequest = request;
+		this.replayLimit = replayLimit;
 	}
 
 	@Override
@@ -72,8 +85,13 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 			return super.getInputStream();
 		}
 
+		if (bodyStream == null) {
+			bodyStream = new XssBodyInputStream(HTML_SANITIZER.sanitize(new InputStreamReader(super.getInputStream(), StandardCharsets.UTF_8)), replayLimit);
+			return bodyStream;
+		}
+
 		if (body == null) {
-			body = xssEncode(WebUtil.getRequestBody(super.getInputStream())).getBytes();
+			body = bodyStream.drain();
 		}
 
 		final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(body);
@@ -147,7 +165,7 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper {
 	}
 
 	private String xssEncode(String input) {
-		return HTML_FILTER.filter(input);
+		return HTML_SANITIZER.sanitize(input);
 	}
 
 	/**
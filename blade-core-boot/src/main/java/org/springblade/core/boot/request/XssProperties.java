@@ -18,6 +18,7 @@ package org.springblade.core.boot.request;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +32,11 @@ import java.util.List;
 @ConfigurationProperties("blade.xss")
 public class XssProperties {
 
+	/**
+	 * 默认的报文重复读取上限
+	 */
+	public static final int DEFAULT_REPLAY_LIMIT = 64 * 1024;
+
 	/**
 	 * 开启xss
 	 */
@@ -41,4 +47,9 @@ public class XssProperties {
 	 */
 	private List<String> skipUrl = new ArrayList<>();
 
+	/**
+	 * 报文重复读取上限，首次读取只保留不超过该大小的已读内容，超出后报文不能再次读取
+	 */
+	private DataSize replayLimit = DataSize.ofBytes(DEFAULT_REPLAY_LIMIT);
+
 }
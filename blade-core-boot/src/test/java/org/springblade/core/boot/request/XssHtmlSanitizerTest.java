@@ -0,0 +1,124 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.boot.request;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * XssHtmlSanitizer 与旧版 XssHtmlFilter 的对比测试
+ *
+ * <p>
+ * 新版对游离的 &gt; 统一转义，旧版只转义部分位置，比较前两边都还原为 &gt;
+ * </p>
+ *
+ * @author Chill
+ */
+@SuppressWarnings("deprecation")
+public class XssHtmlSanitizerTest {
+	private static final String ALPHABET = "<>/=\"' &;#abihrefsrcimg:-!jvt\n中";
+	private static final String[] CASES = {
+		"<script>alert(1)</script>", "<a href=\"javascript:alert(1)\">x</a>", "<img src=x onerror=alert(1)>",
+		"<a href=\"JaVaScRiPt:alert(1)\">x</a>", "<a href=\"&#106;avascript:alert(1)\">x</a>",
+		"<a href='http://x' onclick='y'>t</a>", "a > b & c < d", "<b>bold</b><i></i>", "<!-- c -->text",
+		"<svg/onload=alert(1)>", "<<script>>", "<a href=\"x\" target=\"_blank\">t</a>", "{\"a\":\"<b>x</b>\"}",
+		"<img src=\"http://a/b.png\" width=\"10\">", "x &amp; y &nbsp; &lt;", "<a href=\"%6A%61vascript:alert(1)\">x</a>",
+		"</b>hello", "<b>unclosed", "<a href=java&#x09;script:alert(1)>x</a>", "<IMG SRC=JaVaScRiPt:alert('XSS')>",
+		"<a href=\"jav&#x0A;ascript:alert(1)\">x</a>", "<a href=\" javascript:alert(1)\">x</a>"
+	};
+
+	private final XssHtmlSanitizer sanitizer = new XssHtmlSanitizer();
+
+	@Test
+	public void testCases() throws IOException {
+		for (String input : CASES) {
+			assertEquivalent(input);
+		}
+	}
+
+	@Test
+	public void testFuzz() throws IOException {
+		Random random = new Random(20201018L);
+		for (int i = 0; i < 20000; i++) {
+			int length = random.nextInt(40);
+			StringBuilder builder = new StringBuilder(length);
+			for (int j = 0; j < length; j++) {
+				builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			}
+			assertEquivalent(builder.toString());
+		}
+	}
+
+	@Test
+	public void testLargeBodyStream() throws IOException {
+		Random random = new Random(42L);
+		StringBuilder builder = new StringBuilder();
+		while (builder.length() < 64 * 1024) {
+			builder.append(CASES[random.nextInt(CASES.length)]).append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		}
+		String input = builder.toString();
+		String expected = sanitizer.sanitize(input);
+		Assert.assertEquals(expected, readStream(input, random));
+	}
+
+	private void assertEquivalent(String input) throws IOException {
+		String expected = sanitizer.sanitize(input);
+		Assert.assertEquals(input, normalize(new XssHtmlFilter().filter(input)), normalize(expected));
+		StringWriter writer = new StringWriter();
+		sanitizer.sanitize(new StringReader(input), writer);
+		Assert.assertEquals(input, expected, writer.toString());
+		Assert.assertEquals(input, expected, readStream(input, new Random(input.hashCode())));
+	}
+
+	/**
+	 * 按随机大小分块读取 XssBodyInputStream
+	 */
+	private String readStream(String input, Random random) throws IOException {
+		XssBodyInputStream stream = new XssBodyInputStream(sanitizer.sanitize(new StringReader(input)), 0);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[64];
+		while (true) {
+			if (random.nextBoolean()) {
+				int b = stream.read();
+				if (b == -1) {
+					break;
+				}
+				out.write(b);
+			} else {
+				int read = stream.read(buffer, 0, 1 + random.nextInt(buffer.length));
+				if (read == -1) {
+					break;
+				}
+				out.write(buffer, 0, read);
+			}
+		}
+		Assert.assertTrue(stream.isFinished());
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static String normalize(String html) {
+		return html.replace("&gt;", ">");
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.boot.request;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.ServletInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * XssHttpServletRequestWrapper 报文重复读取测试
+ *
+ * @author Chill
+ */
+public class XssHttpServletRequestWrapperTest {
+	private static final String BODY = "{\"name\":\"<script>alert(1)</script><b>中文</b>\"}";
+	private static final String EXPECTED = "{\"name\":\"alert(1)<b>中文</b>\"}";
+
+	@Test
+	public void testReplayAfterRead() throws IOException {
+		XssHttpServletRequestWrapper request = newRequest(BODY, 1024);
+		Assert.assertEquals(EXPECTED, read(request.getInputStream()));
+		Assert.assertEquals(EXPECTED, read(request.getInputStream()));
+		Assert.assertEquals(EXPECTED, read(request.getInputStream()));
+	}
+
+	@Test
+	public void testReplayBeforeRead() throws IOException {
+		// 首个流未读取，且报文超出上限，再次读取时才整体缓存
+		XssHttpServletRequestWrapper request = newRequest(BODY, 4);
+		ServletInputStream first = request.getInputStream();
+		Assert.assertEquals(EXPECTED, read(request.getInputStream()));
+		Assert.assertEquals(EXPECTED, read(first));
+	}
+
+	@Test
+	public void testReplayWhileReading() throws IOException {
+		XssHttpServletRequestWrapper request = newRequest(BODY, 4);
+		ServletInputStream first = request.getInputStream();
+		byte[] head = new byte[3];
+		Assert.assertEquals(3, first.read(head));
+		Assert.assertEquals(EXPECTED, read(request.getInputStream()));
+		// 首个流从原位置继续读取
+		Assert.assertEquals(EXPECTED, new String(head, StandardCharsets.UTF_8) + read(first));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReplayOverLimit() throws IOException {
+		XssHttpServletRequestWrapper request = newRequest(BODY, 4);
+		Assert.assertEquals(EXPECTED, read(request.getInputStream()));
+		request.getInputStream();
+	}
+
+	private static XssHttpServletRequestWrapper newRequest(String body, int replayLimit) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/test");
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return new XssHttpServletRequestWrapper(request, replayLimit);
+	}
+
+	private static String read(ServletInputStream stream) throws IOException {
+		return StreamUtils.copyToString(stream, StandardCharsets.UTF_8);
+	}
+
+}
@@ -18,9 +18,7 @@ package org.springblade.core.cloud.feign;
 
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
-import org.springblade.core.tool.constant.BladeConstant;
-import org.springblade.core.tool.utils.ThreadLocalUtil;
-import org.springframework.http.HttpHeaders;
+import org.springblade.core.context.BladeContextSnapshot;
 
 /**
  * feign 传递Request header
@@ -37,11 +35,9 @@ public class BladeFeignRequestInterceptor implements RequestInterceptor {
 
 	@Override
 	public void apply(RequestTemplate requestTemplate) {
-		HttpHeaders headers = ThreadLocalUtil.get(BladeConstant.CONTEXT_KEY);
-		if (headers != null && !headers.isEmpty()) {
-			headers.forEach((key, values) ->
-				values.forEach(value -> requestTemplate.header(key, value))
-			);
+		BladeContextSnapshot snapshot = BladeContextSnapshot.current();
+		if (snapshot != null && !snapshot.isEmpty()) {
+			snapshot.forEach((name, value) -> requestTemplate.header(name, value));
 		}
 	}
 
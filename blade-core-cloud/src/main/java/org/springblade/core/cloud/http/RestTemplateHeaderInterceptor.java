@@ -17,8 +17,7 @@
 package org.springblade.core.cloud.http;
 
 import lombok.AllArgsConstructor;
-import org.springblade.core.tool.constant.BladeConstant;
-import org.springblade.core.tool.utils.ThreadLocalUtil;
+import org.springblade.core.context.BladeContextSnapshot;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
@@ -38,10 +37,10 @@ public class RestTemplateHeaderInterceptor implements ClientHttpRequestIntercept
 	@NonNull
 	@Override
 	public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] bytes, @NonNull ClientHttpRequestExecution execution) throws IOException {
-		HttpHeaders headers = ThreadLocalUtil.get(BladeConstant.CONTEXT_KEY);
-		if (headers != null && !headers.isEmpty()) {
+		BladeContextSnapshot snapshot = BladeContextSnapshot.current();
+		if (snapshot != null && !snapshot.isEmpty()) {
 			HttpHeaders httpHeaders = request.getHeaders();
-			headers.forEach((key, values) -> values.forEach(value -> httpHeaders.add(key, value)));
+			snapshot.forEach(httpHeaders::add);
 		}
 		return execution.execute(request, bytes);
 	}
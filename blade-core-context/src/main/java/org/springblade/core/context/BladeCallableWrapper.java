@@ -16,11 +16,6 @@
  */
 package org.springblade.core.context;
 
-import org.slf4j.MDC;
-import org.springblade.core.tool.utils.ThreadLocalUtil;
-import org.springframework.lang.Nullable;
-
-import java.util.Map;
 import java.util.concurrent.Callable;
 
 /**
@@ -30,36 +25,20 @@ import java.util.concurrent.Callable;
  */
 public class BladeCallableWrapper<V> implements Callable<V> {
 	private final Callable<V> delegate;
-	private final Map<String, Object> tlMap;
-	/**
-	 * logback 下有可能为 null
-	 */
-	@Nullable
-	private final Map<String, String> mdcMap;
+	private final BladeContextCarrier carrier;
 
 	public BladeCallableWrapper(Callable<V> callable) {
 		this.delegate = callable;
-		this.tlMap = ThreadLocalUtil.getAll();
-		this.mdcMap = MDC.getCopyOfContextMap();
+		this.carrier = new BladeContextCarrier();
 	}
 
 	@Override
 	public V call() throws Exception {
-		if (!tlMap.isEmpty()) {
-			ThreadLocalUtil.put(tlMap);
-		}
-		if (mdcMap != null && !mdcMap.isEmpty()) {
-			MDC.setContextMap(mdcMap);
-		}
+		BladeContextSnapshot previous = carrier.attach();
 		try {
 			return delegate.call();
 		} finally {
-			tlMap.clear();
-			if (mdcMap != null) {
-				mdcMap.clear();
-			}
-			ThreadLocalUtil.clear();
-			MDC.clear();
+			carrier.detach(previous);
 		}
 	}
 }
@@ -0,0 +1,98 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.context;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import org.slf4j.MDC;
+import org.springblade.core.tool.utils.ThreadLocalUtil;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+
+/**
+ * 提交任务时采集的上下文，快照按引用传递，ThreadLocalUtil 中有值时才复制
+ *
+ * @author L.cm
+ */
+final class BladeContextCarrier {
+	private static final boolean LOGBACK_PRESENT = ClassUtils.isPresent(
+		"ch.qos.logback.classic.util.LogbackMDCAdapter", BladeContextCarrier.class.getClassLoader());
+	@Nullable
+	private final BladeContextSnapshot snapshot;
+	@Nullable
+	private final Map<String, Object> tlMap;
+	/**
+	 * logback 下有可能为 null
+	 */
+	@Nullable
+	private final Map<String, String> mdcMap;
+
+	BladeContextCarrier() {
+		this.snapshot = BladeContextSnapshot.current();
+		this.tlMap = ThreadLocalUtil.isEmpty() ? null : ThreadLocalUtil.getAll();
+		this.mdcMap = getMdcMap();
+	}
+
+	/**
+	 * 在执行线程中恢复上下文
+	 *
+	 * @return 执行线程之前绑定的快照
+	 */
+	@Nullable
+	BladeContextSnapshot attach() {
+		if (tlMap != null) {
+			ThreadLocalUtil.put(tlMap);
+		}
+		if (mdcMap != null && !mdcMap.isEmpty()) {
+			MDC.setContextMap(mdcMap);
+		}
+		return BladeContextSnapshot.attach(snapshot);
+	}
+
+	/**
+	 * 执行完成后清理上下文
+	 *
+	 * @param previous attach 返回的快照
+	 */
+	void detach(@Nullable BladeContextSnapshot previous) {
+		BladeContextSnapshot.attach(previous);
+		ThreadLocalUtil.clear();
+		MDC.clear();
+	}
+
+	@Nullable
+	private static Map<String, String> getMdcMap() {
+		if (LOGBACK_PRESENT) {
+			return LogbackMdc.getPropertyMap();
+		}
+		return MDC.getCopyOfContextMap();
+	}
+
+	/**
+	 * logback 的 MDC 是写时复制的，直接引用，避免每次提交任务都复制
+	 */
+	private static class LogbackMdc {
+		@Nullable
+		private static Map<String, String> getPropertyMap() {
+			if (MDC.getMDCAdapter() instanceof LogbackMDCAdapter) {
+				return ((LogbackMDCAdapter) MDC.getMDCAdapter()).getPropertyMap();
+			}
+			return MDC.getCopyOfContextMap();
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.context;
+
+import org.springblade.core.tool.utils.StringUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * 不可变的请求上下文快照，每个请求只采集一次，跨线程、Hystrix 和 Feign 调用时按引用共享
+ *
+ * <p>
+ * 通过 runWith、callWith 绑定到当前线程，执行完恢复之前的快照，不依赖线程池复用，虚拟线程下同样适用
+ * </p>
+ *
+ * @author L.cm
+ */
+public final class BladeContextSnapshot {
+	public static final BladeContextSnapshot EMPTY = new BladeContextSnapshot(new String[0], new String[0]);
+	private static final ThreadLocal<BladeContextSnapshot> CURRENT = new ThreadLocal<>();
+	private final String[] names;
+	private final String[] values;
+
+	private BladeContextSnapshot(String[] names, String[] values) {
+		this.names = names;
+		this.values = values;
+	}
+
+	/**
+	 * 编译需要传递的请求头名称，忽略大小写去重
+	 *
+	 * @param headerNames 请求头名称
+	 * @return 请求头名称数组
+	 */
+	public static String[] compileHeaderNames(Collection<String> headerNames) {
+		Set<String> lowerNames = new HashSet<>(headerNames.size() * 2);
+		List<String> compiled = new ArrayList<>(headerNames.size());
+		for (String headerName : headerNames) {
+			if (headerName != null && lowerNames.add(headerName.toLowerCase(Locale.ROOT))) {
+				compiled.add(headerName);
+			}
+		}
+		return compiled.toArray(new String[0]);
+	}
+
+	/**
+	 * 从请求中采集请求头，值为空的不传递
+	 *
+	 * @param request     请求
+	 * @param headerNames compileHeaderNames 编译后的请求头名称
+	 * @return BladeContextSnapshot
+	 */
+	public static BladeContextSnapshot capture(HttpServletRequest request, String[] headerNames) {
+		String[] capturedNames = null;
+		String[] capturedValues = null;
+		int size = 0;
+		for (String headerName : headerNames) {
+			String value = request.getHeader(headerName);
+			if (StringUtil.isBlank(value)) {
+				continue;
+			}
+			if (capturedNames == null) {
+				capturedNames = new String[headerNames.length];
+				capturedValues = new String[headerNames.length];
+			}
+			capturedNames[size] = headerName;
+			capturedValues[size] = value;
+			size++;
+		}
+		if (size == 0) {
+			return EMPTY;
+		}
+		if (size < headerNames.length) {
+			capturedNames = Arrays.copyOf(capturedNames, size);
+			capturedValues = Arrays.copyOf(capturedValues, size);
+		}
+		return new BladeContextSnapshot(capturedNames, capturedValues);
+	}
+
+	/**
+	 * 从 HttpHeaders 构造，用于自定义的 BladeHttpHeadersGetter
+	 *
+	 * @param headers HttpHeaders
+	 * @return BladeContextSnapshot
+	 */
+	public static BladeContextSnapshot of(@Nullable HttpHeaders headers) {
+		if (headers == null || headers.isEmpty()) {
+			return EMPTY;
+		}
+		List<String> nameList = new ArrayList<>();
+		List<String> valueList = new ArrayList<>();
+		headers.forEach((name, headerValues) -> {
+			for (String value : headerValues) {
+				nameList.add(name);
+				valueList.add(value);
+			}
+		});
+		return new BladeContextSnapshot(nameList.toArray(new String[0]), valueList.toArray(new String[0]));
+	}
+
+	/**
+	 * 获取请求头的值，忽略大小写
+	 *
+	 * @param name 请求头名称
+	 * @return 值
+	 */
+	@Nullable
+	public String get(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equalsIgnoreCase(name)) {
+				return values[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 遍历请求头
+	 *
+	 * @param consumer 名称和值
+	 */
+	public void forEach(BiConsumer<String, String> consumer) {
+		for (int i = 0; i < names.length; i++) {
+			consumer.accept(names[i], values[i]);
+		}
+	}
+
+	public int size() {
+		return names.length;
+	}
+
+	public boolean isEmpty() {
+		return names.length == 0;
+	}
+
+	/**
+	 * 转换为 HttpHeaders，每次调用都会新建
+	 *
+	 * @return HttpHeaders
+	 */
+	public HttpHeaders toHttpHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		forEach(headers::add);
+		return headers;
+	}
+
+	/**
+	 * 当前线程绑定的快照
+	 *
+	 * @return BladeContextSnapshot
+	 */
+	@Nullable
+	public static BladeContextSnapshot current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * 绑定快照到当前线程
+	 *
+	 * @param snapshot 快照
+	 * @return 之前绑定的快照，用于恢复
+	 */
+	@Nullable
+	public static BladeContextSnapshot attach(@Nullable BladeContextSnapshot snapshot) {
+		BladeContextSnapshot previous = CURRENT.get();
+		if (snapshot == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(snapshot);
+		}
+		return previous;
+	}
+
+	/**
+	 * 在快照绑定的范围内执行
+	 *
+	 * @param snapshot 快照
+	 * @param runnable Runnable
+	 */
+	public static void runWith(@Nullable BladeContextSnapshot snapshot, Runnable runnable) {
+		BladeContextSnapshot previous = attach(snapshot);
+		try {
+			runnable.run();
+		} finally {
+			attach(previous);
+		}
+	}
+
+	/**
+	 * 在快照绑定的范围内执行
+	 *
+	 * @param snapshot 快照
+	 * @param callable Callable
+	 * @param <V>      泛型
+	 * @return 结果
+	 * @throws Exception 异常
+	 */
+	public static <V> V callWith(@Nullable BladeContextSnapshot snapshot, Callable<V> callable) throws Exception {
+		BladeContextSnapshot previous = attach(snapshot);
+		try {
+			return callable.call();
+		} finally {
+			attach(previous);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner joiner = new StringJoiner(", ", "BladeContextSnapshot{", "}");
+		for (String name : names) {
+			joiner.add(name);
+		}
+		return joiner.toString();
+	}
+}
@@ -47,4 +47,25 @@ public interface BladeHttpHeadersGetter {
 	@Nullable
 	HttpHeaders get(HttpServletRequest request);
 
+	/**
+	 * 获取上下文快照
+	 *
+	 * @return BladeContextSnapshot，没有请求时为 null
+	 */
+	@Nullable
+	default BladeContextSnapshot snapshot() {
+		HttpHeaders headers = get();
+		return headers == null ? null : BladeContextSnapshot.of(headers);
+	}
+
+	/**
+	 * 获取上下文快照
+	 *
+	 * @param request 请求
+	 * @return BladeContextSnapshot
+	 */
+	default BladeContextSnapshot snapshot(HttpServletRequest request) {
+		return BladeContextSnapshot.of(get(request));
+	}
+
 }
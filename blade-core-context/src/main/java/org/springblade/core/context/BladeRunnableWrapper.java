@@ -16,11 +16,6 @@
  */
 package org.springblade.core.context;
 
-import org.slf4j.MDC;
-import org.springblade.core.tool.utils.ThreadLocalUtil;
-import org.springframework.lang.Nullable;
-
-import java.util.Map;
 
 /**
  * 多线程中传递 context 和 mdc
@@ -29,36 +24,20 @@ import java.util.Map;
  */
 public class BladeRunnableWrapper implements Runnable {
 	private final Runnable delegate;
-	private final Map<String, Object> tlMap;
-	/**
-	 * logback 下有可能为 null
-	 */
-	@Nullable
-	private final Map<String, String> mdcMap;
+	private final BladeContextCarrier carrier;
 
 	public BladeRunnableWrapper(Runnable runnable) {
 		this.delegate = runnable;
-		this.tlMap = ThreadLocalUtil.getAll();
-		this.mdcMap = MDC.getCopyOfContextMap();
+		this.carrier = new BladeContextCarrier();
 	}
 
 	@Override
 	public void run() {
-		if (!tlMap.isEmpty()) {
-			ThreadLocalUtil.put(tlMap);
-		}
-		if (mdcMap != null && !mdcMap.isEmpty()) {
-			MDC.setContextMap(mdcMap);
-		}
+		BladeContextSnapshot previous = carrier.attach();
 		try {
 			delegate.run();
 		} finally {
-			tlMap.clear();
-			if (mdcMap != null) {
-				mdcMap.clear();
-			}
-			ThreadLocalUtil.clear();
-			MDC.clear();
+			carrier.detach(previous);
 		}
 	}
 }
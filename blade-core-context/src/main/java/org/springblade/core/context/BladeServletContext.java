@@ -19,15 +19,11 @@ package org.springblade.core.context;
 import lombok.RequiredArgsConstructor;
 import org.springblade.core.context.props.BladeContextProperties;
 import org.springblade.core.tool.utils.StringUtil;
-import org.springblade.core.tool.utils.ThreadLocalUtil;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
-import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 
 import java.util.function.Function;
 
-import static org.springblade.core.tool.constant.BladeConstant.CONTEXT_KEY;
-
 /**
  * blade servlet 上下文，跨线程失效
  *
@@ -60,11 +56,14 @@ public class BladeServletContext implements BladeContext {
 	@Nullable
 	@Override
 	public String get(String ctxKey) {
-		HttpHeaders headers = ThreadLocalUtil.getIfAbsent(CONTEXT_KEY, httpHeadersGetter::get);
-		if (headers == null || headers.isEmpty()) {
+		BladeContextSnapshot snapshot = BladeContextSnapshot.current();
+		if (snapshot == null) {
+			snapshot = httpHeadersGetter.snapshot();
+		}
+		if (snapshot == null || snapshot.isEmpty()) {
 			return null;
 		}
-		return headers.getFirst(ctxKey);
+		return snapshot.get(ctxKey);
 	}
 
 	@Nullable
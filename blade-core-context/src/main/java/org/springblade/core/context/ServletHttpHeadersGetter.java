@@ -16,27 +16,29 @@
  */
 package org.springblade.core.context;
 
-import lombok.RequiredArgsConstructor;
 import org.springblade.core.context.props.BladeContextProperties;
-import org.springblade.core.tool.utils.StringUtil;
 import org.springblade.core.tool.utils.WebUtil;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.Nullable;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.Enumeration;
-import java.util.List;
 
 /**
  * HttpHeaders 获取器
  *
  * @author L.cm
  */
-@RequiredArgsConstructor
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ServletHttpHeadersGetter implements BladeHttpHeadersGetter {
-	private final BladeContextProperties properties;
+	/**
+	 * 需要传递的请求头，启动时编译一次
+	 */
+	private final String[] headerNames;
+
+	public ServletHttpHeadersGetter(BladeContextProperties properties) {
+		this.headerNames = BladeContextSnapshot.compileHeaderNames(properties.getCrossHeaders());
+	}
 
 	@Nullable
 	@Override
@@ -51,25 +53,23 @@ public class ServletHttpHeadersGetter implements BladeHttpHeadersGetter {
 	@Nullable
 	@Override
 	public HttpHeaders get(HttpServletRequest request) {
-		HttpHeaders headers = new HttpHeaders();
-		List<String> crossHeaders = properties.getCrossHeaders();
-		// 传递请求头
-		Enumeration<String> headerNames = request.getHeaderNames();
-		if (headerNames != null) {
-			List<String> allowed = properties.getHeaders().getAllowed();
-			while (headerNames.hasMoreElements()) {
-				String key = headerNames.nextElement();
-				// 只支持配置的 header
-				if (crossHeaders.contains(key) || allowed.contains(key)) {
-					String values = request.getHeader(key);
-					// header value 不为空的 传递
-					if (StringUtil.isNotBlank(values)) {
-						headers.add(key, values);
-					}
-				}
-			}
+		return snapshot(request).toHttpHeaders();
+	}
+
+	@Nullable
+	@Override
+	public BladeContextSnapshot snapshot() {
+		HttpServletRequest request = WebUtil.getRequest();
+		if (request == null) {
+			return null;
 		}
-		return headers;
+		return snapshot(request);
+	}
+
+	@Override
+	public BladeContextSnapshot snapshot(HttpServletRequest request) {
+		// 只支持配置的 header，header value 不为空的传递
+		return BladeContextSnapshot.capture(request, headerNames);
 	}
 
 }
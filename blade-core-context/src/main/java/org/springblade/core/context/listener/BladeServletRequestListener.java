@@ -18,12 +18,12 @@ package org.springblade.core.context.listener;
 
 import lombok.RequiredArgsConstructor;
 import org.slf4j.MDC;
+import org.springblade.core.context.BladeContextSnapshot;
 import org.springblade.core.context.BladeHttpHeadersGetter;
 import org.springblade.core.context.props.BladeContextProperties;
 import org.springblade.core.tool.constant.BladeConstant;
 import org.springblade.core.tool.utils.StringUtil;
 import org.springblade.core.tool.utils.ThreadLocalUtil;
-import org.springframework.http.HttpHeaders;
 
 import javax.servlet.ServletRequestEvent;
 import javax.servlet.ServletRequestListener;
@@ -57,13 +57,13 @@ public class BladeServletRequestListener implements ServletRequestListener {
 			MDC.put(BladeConstant.MDC_TENANT_ID_KEY, tenantId);
 		}
 		// 处理 context，直接传递 request，因为 spring 中的尚未初始化完成
-		HttpHeaders httpHeaders = httpHeadersGetter.get(request);
-		ThreadLocalUtil.put(BladeConstant.CONTEXT_KEY, httpHeaders);
+		BladeContextSnapshot.attach(httpHeadersGetter.snapshot(request));
 	}
 
 	@Override
 	public void requestDestroyed(ServletRequestEvent event) {
 		// 会话销毁时，清除上下文
+		BladeContextSnapshot.attach(null);
 		ThreadLocalUtil.clear();
 		// 会话销毁时，清除 mdc
 		MDC.remove(BladeConstant.MDC_REQUEST_ID_KEY);
@@ -30,14 +30,17 @@ import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.expression.BeanFactoryResolver;
-import org.springframework.core.MethodParameter;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.lang.NonNull;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * AOP 鉴权
@@ -50,7 +53,23 @@ public class AuthAspect implements ApplicationContextAware {
 	/**
 	 * 表达式处理
 	 */
-	private static final ExpressionParser EXPRESSION_PARSER = new SpelExpressionParser();
+	private static final ExpressionParser EXPRESSION_PARSER = new SpelExpressionParser(
+		new SpelParserConfiguration(SpelCompilerMode.MIXED, AuthAspect.class.getClassLoader()));
+
+	/**
+	 * 表达式根对象，无状态可复用
+	 */
+	private static final AuthFun AUTH_FUN = new AuthFun();
+
+	/**
+	 * 方法鉴权元数据缓存
+	 */
+	private final Map<Method, AuthMetadata> metadataCache = new ConcurrentHashMap<>(64);
+
+	/**
+	 * spring bean 解析
+	 */
+	private BeanFactoryResolver beanFactoryResolver;
 
 	/**
 	 * 切 方法 和 类上的 @PreAuth 注解
@@ -78,16 +97,13 @@ public class AuthAspect implements ApplicationContextAware {
 	private boolean handleAuth(ProceedingJoinPoint point) {
 		MethodSignature ms = (MethodSignature) point.getSignature();
 		Method method = ms.getMethod();
-		// 读取权限注解，优先方法上，没有则读取类
-		PreAuth preAuth = ClassUtil.getAnnotation(method, PreAuth.class);
+		AuthMetadata metadata = metadataCache.computeIfAbsent(method, AuthMetadata::new);
 		// 判断表达式
-		String condition = preAuth.value();
-		if (StringUtil.isNotBlank(condition)) {
-			Expression expression = EXPRESSION_PARSER.parseExpression(condition);
+		if (metadata.expression != null) {
 			// 方法参数值
 			Object[] args = point.getArgs();
-			StandardEvaluationContext context = getEvaluationContext(method, args);
-			return expression.getValue(context, Boolean.class);
+			StandardEvaluationContext context = getEvaluationContext(metadata, args);
+			return Boolean.TRUE.equals(metadata.expression.getValue(context, Boolean.class));
 		}
 		return false;
 	}
@@ -95,29 +111,47 @@ public class AuthAspect implements ApplicationContextAware {
 	/**
 	 * 获取方法上的参数
 	 *
-	 * @param method 方法
-	 * @param args   变量
+	 * @param metadata 鉴权元数据
+	 * @param args     变量
 	 * @return {SimpleEvaluationContext}
 	 */
-	private StandardEvaluationContext getEvaluationContext(Method method, Object[] args) {
+	private StandardEvaluationContext getEvaluationContext(AuthMetadata metadata, Object[] args) {
 		// 初始化Sp el表达式上下文，并设置 AuthFun
-		StandardEvaluationContext context = new StandardEvaluationContext(new AuthFun());
+		StandardEvaluationContext context = new StandardEvaluationContext(AUTH_FUN);
 		// 设置表达式支持spring bean
-		context.setBeanResolver(new BeanFactoryResolver(applicationContext));
+		context.setBeanResolver(beanFactoryResolver);
+		String[] parameterNames = metadata.parameterNames;
 		for (int i = 0; i < args.length; i++) {
-			// 读取方法参数
-			MethodParameter methodParam = ClassUtil.getMethodParameter(method, i);
 			// 设置方法 参数名和值 为sp el变量
-			context.setVariable(methodParam.getParameterName(), args[i]);
+			context.setVariable(parameterNames[i], args[i]);
 		}
 		return context;
 	}
 
-	private ApplicationContext applicationContext;
-
 	@Override
 	public void setApplicationContext(@NonNull ApplicationContext applicationContext) throws BeansException {
-		this.applicationContext = applicationContext;
+		this.beanFactoryResolver = new BeanFactoryResolver(applicationContext);
+	}
+
+	/**
+	 * 方法鉴权元数据，表达式与参数名只解析一次
+	 */
+	private static class AuthMetadata {
+		private final Expression expression;
+		private final String[] parameterNames;
+
+		private AuthMetadata(Method method) {
+			// 读取权限注解，优先方法上，没有则读取类
+			PreAuth preAuth = ClassUtil.getAnnotation(method, PreAuth.class);
+			String condition = preAuth == null ? null : preAuth.value();
+			this.expression = StringUtil.isNotBlank(condition) ? EXPRESSION_PARSER.parseExpression(condition) : null;
+			int count = method.getParameterCount();
+			this.parameterNames = new String[count];
+			for (int i = 0; i < count; i++) {
+				// 读取方法参数
+				this.parameterNames[i] = ClassUtil.getMethodParameter(method, i).getParameterName();
+			}
+		}
 	}
 
 }
@@ -21,13 +21,21 @@ import lombok.AllArgsConstructor;
 import org.springblade.core.secure.handler.BladePermissionHandler;
 import org.springblade.core.secure.handler.IPermissionHandler;
 import org.springblade.core.secure.handler.ISecureHandler;
+import org.springblade.core.secure.handler.PermissionCacheEvictListener;
 import org.springblade.core.secure.handler.SecureHandlerHandler;
+import org.springblade.core.secure.props.BladeSecureProperties;
 import org.springblade.core.secure.registry.SecureRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
@@ -39,10 +47,13 @@ import org.springframework.jdbc.core.JdbcTemplate;
 @Configuration(proxyBeanMethods = false)
 @AllArgsConstructor
 @AutoConfigureBefore(SecureConfiguration.class)
+@EnableConfigurationProperties({BladeSecureProperties.class})
 public class RegistryConfiguration {
 
 	private final JdbcTemplate jdbcTemplate;
 
+	private final BladeSecureProperties secureProperties;
+
 	@Bean
 	@ConditionalOnMissingBean(SecureRegistry.class)
 	public SecureRegistry secureRegistry() {
@@ -58,7 +69,26 @@ public class RegistryConfiguration {
 	@Bean
 	@ConditionalOnMissingBean(IPermissionHandler.class)
 	public IPermissionHandler permissionHandler() {
-		return new BladePermissionHandler(jdbcTemplate);
+		return new BladePermissionHandler(jdbcTemplate, secureProperties.getPermissionCache());
+	}
+
+	/**
+	 * 接口权限本地缓存失效监听
+	 */
+	@Bean
+	public PermissionCacheEvictListener permissionCacheEvictListener(IPermissionHandler permissionHandler,
+																	 ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+																	 ObjectProvider<RedisMessageListenerContainer> listenerContainer) {
+		String channel = secureProperties.getPermissionCache().getChannel();
+		RedisConnectionFactory connectionFactory = redisConnectionFactory.getIfAvailable();
+		StringRedisTemplate redisTemplate = connectionFactory == null ? null : new StringRedisTemplate(connectionFactory);
+		PermissionCacheEvictListener listener = new PermissionCacheEvictListener(permissionHandler, redisTemplate, channel);
+		// 接收其他节点的失效通知
+		RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+		if (container != null) {
+			container.addMessageListener(listener, new ChannelTopic(channel));
+		}
+		return listener;
 	}
 
 }
@@ -16,9 +16,10 @@
  */
 package org.springblade.core.secure.handler;
 
-import lombok.AllArgsConstructor;
 import org.springblade.core.cache.utils.CacheUtil;
 import org.springblade.core.secure.BladeUser;
+import org.springblade.core.secure.props.PermissionCache;
+import org.springblade.core.secure.support.PermissionPathMatcher;
 import org.springblade.core.secure.utils.AuthUtil;
 import org.springblade.core.tool.utils.Func;
 import org.springblade.core.tool.utils.StringPool;
@@ -26,9 +27,11 @@ import org.springblade.core.tool.utils.WebUtil;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import static org.springblade.core.cache.constant.CacheConstant.SYS_CACHE;
 import static org.springblade.core.secure.constant.PermissionConstant.permissionAllStatement;
@@ -39,13 +42,47 @@ import static org.springblade.core.secure.constant.PermissionConstant.permission
  *
  * @author Chill
  */
-@AllArgsConstructor
 public class BladePermissionHandler implements IPermissionHandler {
 
 	private static final String SCOPE_CACHE_CODE = "apiScope:code:";
 
 	private final JdbcTemplate jdbcTemplate;
 
+	/**
+	 * 本地缓存时长(毫秒)
+	 */
+	private final long localCacheTime;
+
+	/**
+	 * 本地缓存上限
+	 */
+	private final int localCacheSize;
+
+	/**
+	 * 角色接口地址匹配器本地缓存
+	 */
+	private final Map<String, LocalCache<PermissionPathMatcher>> pathCache = new ConcurrentHashMap<>(64);
+
+	/**
+	 * 角色接口权限本地缓存
+	 */
+	private final Map<String, LocalCache<Boolean>> codeCache = new ConcurrentHashMap<>(64);
+
+	/**
+	 * 每次清空加一，清空前开始加载的结果不再写入本地缓存
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	public BladePermissionHandler(JdbcTemplate jdbcTemplate) {
+		this(jdbcTemplate, new PermissionCache());
+	}
+
+	public BladePermissionHandler(JdbcTemplate jdbcTemplate, PermissionCache permissionCache) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.localCacheTime = permissionCache.getTtl().toMillis();
+		this.localCacheSize = permissionCache.getMaximumSize();
+	}
+
 	@Override
 	public boolean permissionAll() {
 		HttpServletRequest request = WebUtil.getRequest();
@@ -53,12 +90,9 @@ public class BladePermissionHandler implements IPermissionHandler {
 		if (request == null || user == null) {
 			return false;
 		}
-		String uri = request.getRequestURI();
-		List<String> paths = permissionPath(user.getRoleId());
-		if (paths.size() == 0) {
-			return false;
-		}
-		return paths.stream().anyMatch(uri::contains);
+		PermissionPathMatcher matcher = getLocalCache(pathCache, user.getRoleId(),
+			() -> new PermissionPathMatcher(permissionPath(user.getRoleId())));
+		return matcher.matches(request.getRequestURI());
 	}
 
 	@Override
@@ -68,8 +102,42 @@ public class BladePermissionHandler implements IPermissionHandler {
 		if (request == null || user == null) {
 			return false;
 		}
-		List<String> codes = permissionCode(permission, user.getRoleId());
-		return codes.size() != 0;
+		return getLocalCache(codeCache, permission + StringPool.COLON + user.getRoleId(),
+			() -> permissionCode(permission, user.getRoleId()).size() != 0);
+	}
+
+	@Override
+	public void clearLocalCache() {
+		generation.incrementAndGet();
+		pathCache.clear();
+		codeCache.clear();
+	}
+
+	/**
+	 * 获取本地缓存，过期后重新从缓存或数据库加载
+	 *
+	 * @param cache  本地缓存
+	 * @param key    缓存键值
+	 * @param loader 加载方法
+	 * @param <T>    泛型
+	 * @return T
+	 */
+	private <T> T getLocalCache(Map<String, LocalCache<T>> cache, String key, Supplier<T> loader) {
+		long now = System.currentTimeMillis();
+		LocalCache<T> localCache = cache.get(key);
+		if (localCache != null && localCache.expireAt > now) {
+			return localCache.value;
+		}
+		long current = generation.get();
+		T value = loader.get();
+		if (localCacheTime <= 0 || generation.get() != current) {
+			return value;
+		}
+		if (cache.size() >= localCacheSize) {
+			cache.clear();
+		}
+		cache.put(key, new LocalCache<>(value, now + localCacheTime));
+		return value;
 	}
 
 	/**
@@ -81,8 +149,8 @@ public class BladePermissionHandler implements IPermissionHandler {
 	private List<String> permissionPath(String roleId) {
 		List<String> permissions = CacheUtil.get(SYS_CACHE, SCOPE_CACHE_CODE, roleId, List.class, Boolean.FALSE);
 		if (permissions == null) {
-			List<Long> roleIds = Func.toLongList(roleId);
-			permissions = jdbcTemplate.queryForList(permissionAllStatement(roleIds.size()), roleIds.toArray(), String.class);
+			long[] roleIds = Func.toLongs(roleId);
+			permissions = jdbcTemplate.queryForList(permissionAllStatement(roleIds.length), Func.toArgs(roleIds), String.class);
 			CacheUtil.put(SYS_CACHE, SCOPE_CACHE_CODE, roleId, permissions, Boolean.FALSE);
 		}
 		return permissions;
@@ -98,13 +166,21 @@ public class BladePermissionHandler implements IPermissionHandler {
 	private List<String> permissionCode(String permission, String roleId) {
 		List<String> permissions = CacheUtil.get(SYS_CACHE, SCOPE_CACHE_CODE, permission + StringPool.COLON + roleId, List.class, Boolean.FALSE);
 		if (permissions == null) {
-			List<Object> args = new ArrayList<>(Collections.singletonList(permission));
-			List<Long> roleIds = Func.toLongList(roleId);
-			args.addAll(roleIds);
-			permissions = jdbcTemplate.queryForList(permissionStatement(roleIds.size()), args.toArray(), String.class);
+			long[] roleIds = Func.toLongs(roleId);
+			permissions = jdbcTemplate.queryForList(permissionStatement(roleIds.length), Func.toArgs(permission, roleIds), String.class);
 			CacheUtil.put(SYS_CACHE, SCOPE_CACHE_CODE, permission + StringPool.COLON + roleId, permissions, Boolean.FALSE);
 		}
 		return permissions;
 	}
 
+	private static class LocalCache<T> {
+		private final T value;
+		private final long expireAt;
+
+		private LocalCache(T value, long expireAt) {
+			this.value = value;
+			this.expireAt = expireAt;
+		}
+	}
+
 }
@@ -38,4 +38,10 @@ public interface IPermissionHandler {
 	 */
 	boolean hasPermission(String permission);
 
+	/**
+	 * 清空本地缓存，角色权限变更后调用可立即生效
+	 */
+	default void clearLocalCache() {
+	}
+
 }
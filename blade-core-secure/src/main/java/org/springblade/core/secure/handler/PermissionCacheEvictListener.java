@@ -0,0 +1,75 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.secure.handler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springblade.core.cache.event.CacheEvictEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.Nullable;
+
+import static org.springblade.core.cache.constant.CacheConstant.MENU_CACHE;
+import static org.springblade.core.cache.constant.CacheConstant.SYS_CACHE;
+
+/**
+ * 接口权限本地缓存失效处理
+ *
+ * <p>
+ * 角色或菜单缓存通过 CacheUtil 清除时，清空本节点的本地缓存并通过 redis 通知其他节点
+ * </p>
+ *
+ * @author Chill
+ */
+@Slf4j
+public class PermissionCacheEvictListener implements ApplicationListener<CacheEvictEvent>, MessageListener {
+
+	private final IPermissionHandler permissionHandler;
+	@Nullable
+	private final StringRedisTemplate redisTemplate;
+	private final String channel;
+
+	public PermissionCacheEvictListener(IPermissionHandler permissionHandler, @Nullable StringRedisTemplate redisTemplate, String channel) {
+		this.permissionHandler = permissionHandler;
+		this.redisTemplate = redisTemplate;
+		this.channel = channel;
+	}
+
+	@Override
+	public void onApplicationEvent(CacheEvictEvent event) {
+		String cacheName = event.getCacheName();
+		if (!SYS_CACHE.equals(cacheName) && !MENU_CACHE.equals(cacheName)) {
+			return;
+		}
+		permissionHandler.clearLocalCache();
+		if (redisTemplate == null) {
+			return;
+		}
+		try {
+			redisTemplate.convertAndSend(channel, cacheName);
+		} catch (Exception e) {
+			log.warn("接口权限本地缓存失效通知发送失败", e);
+		}
+	}
+
+	@Override
+	public void onMessage(Message message, @Nullable byte[] pattern) {
+		permissionHandler.clearLocalCache();
+	}
+
+}
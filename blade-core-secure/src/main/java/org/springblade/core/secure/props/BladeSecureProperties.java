@@ -81,4 +81,9 @@ public class BladeSecureProperties {
 	 */
 	private final List<ClientSecure> client = new ArrayList<>();
 
+	/**
+	 * 接口权限本地缓存配置
+	 */
+	private final PermissionCache permissionCache = new PermissionCache();
+
 }
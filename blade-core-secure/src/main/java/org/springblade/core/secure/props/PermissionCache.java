@@ -0,0 +1,44 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.secure.props;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 接口权限本地缓存配置
+ *
+ * @author Chill
+ */
+@Data
+public class PermissionCache {
+
+	/**
+	 * 本地缓存时长，角色或菜单缓存清除时各节点会立即失效
+	 */
+	private Duration ttl = Duration.ofSeconds(10);
+	/**
+	 * 本地缓存上限
+	 */
+	private int maximumSize = 1024;
+	/**
+	 * 本地缓存失效通知频道
+	 */
+	private String channel = "blade:secure:permission:evict";
+
+}
@@ -0,0 +1,143 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.secure.support;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * 接口权限地址匹配器
+ *
+ * <p>
+ * 将角色的全部权限地址构建为 Aho-Corasick 自动机，
+ * 判断 uri 是否包含任一地址只需扫描一遍 uri，与地址数量无关
+ * </p>
+ *
+ * @author Chill
+ */
+public class PermissionPathMatcher {
+
+	private final Node root = new Node();
+
+	/**
+	 * 是否存在空地址，空地址与任意 uri 匹配
+	 */
+	private final boolean matchAll;
+
+	/**
+	 * 是否没有任何地址
+	 */
+	private final boolean empty;
+
+	public PermissionPathMatcher(Collection<String> paths) {
+		boolean matchAll = false;
+		boolean empty = true;
+		for (String path : paths) {
+			if (path == null) {
+				continue;
+			}
+			empty = false;
+			if (path.isEmpty()) {
+				matchAll = true;
+				continue;
+			}
+			Node node = root;
+			for (int i = 0; i < path.length(); i++) {
+				node = node.children.computeIfAbsent(path.charAt(i), key -> new Node());
+			}
+			node.match = true;
+		}
+		this.matchAll = matchAll;
+		this.empty = empty;
+		buildFailure();
+	}
+
+	/**
+	 * 是否没有任何权限地址
+	 *
+	 * @return boolean
+	 */
+	public boolean isEmpty() {
+		return empty;
+	}
+
+	/**
+	 * 判断 uri 是否包含任一权限地址
+	 *
+	 * @param uri 请求地址
+	 * @return boolean
+	 */
+	public boolean matches(String uri) {
+		if (empty || uri == null) {
+			return false;
+		}
+		if (matchAll) {
+			return true;
+		}
+		Node node = root;
+		for (int i = 0; i < uri.length(); i++) {
+			char c = uri.charAt(i);
+			Node next = node.children.get(c);
+			while (next == null && node != root) {
+				node = node.fail;
+				next = node.children.get(c);
+			}
+			if (next != null) {
+				node = next;
+			}
+			if (node.match) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 广度优先构建失败指针
+	 */
+	private void buildFailure() {
+		Queue<Node> queue = new ArrayDeque<>();
+		for (Node child : root.children.values()) {
+			child.fail = root;
+			queue.add(child);
+		}
+		while (!queue.isEmpty()) {
+			Node node = queue.poll();
+			for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+				Character c = entry.getKey();
+				Node child = entry.getValue();
+				Node fail = node.fail;
+				while (fail != null && !fail.children.containsKey(c)) {
+					fail = fail.fail;
+				}
+				child.fail = (fail == null) ? root : fail.children.get(c);
+				child.match |= child.fail.match;
+				queue.add(child);
+			}
+		}
+	}
+
+	private static class Node {
+		private final Map<Character, Node> children = new HashMap<>(4);
+		private Node fail;
+		private boolean match;
+	}
+
+}
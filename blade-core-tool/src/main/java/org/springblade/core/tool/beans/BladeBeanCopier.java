@@ -58,6 +58,9 @@ public abstract class BladeBeanCopier {
 	private static final Signature BEAN_MAP_GET = TypeUtils.parseSignature("Object get(Object)");
 	private static final Type CLASS_UTILS = TypeUtils.parseType(ClassUtils.class.getName());
 	private static final Signature IS_ASSIGNABLE_VALUE = TypeUtils.parseSignature("boolean isAssignableValue(Class, Object)");
+	private static final Signature NEW_INSTANCE = new Signature("newInstance", Constants.TYPE_OBJECT, new Type[0]);
+	private static final Type BEAN_UTIL = TypeUtils.parseType(BeanUtil.class.getName());
+	private static final Signature BEAN_UTIL_NEW_INSTANCE = TypeUtils.parseSignature("Object newInstance(Class)");
 	/**
 	 * The map to store {@link BladeBeanCopier} of source type and class type for copy.
 	 */
@@ -89,6 +92,13 @@ public abstract class BladeBeanCopier {
 	 */
 	abstract public void copy(Object from, Object to, @Nullable Converter converter);
 
+	/**
+	 * 创建 target 实例，public 无参构造直接 new，其余情况回退到 BeanUtil.newInstance
+	 *
+	 * @return target 实例
+	 */
+	abstract public Object newInstance();
+
 	public static class Generator extends AbstractClassGenerator {
 		private static final Source SOURCE = new Source(BladeBeanCopier.class.getName());
 		private Class source;
@@ -151,6 +161,7 @@ public abstract class BladeBeanCopier {
 				Constants.SOURCE_FILE);
 
 			EmitUtils.null_constructor(ce);
+			generateNewInstance(ce, targetType);
 			CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, COPY, null);
 
 			// map 单独处理
@@ -276,6 +287,41 @@ public abstract class BladeBeanCopier {
 			ce.end_class();
 		}
 
+		/**
+		 * 生成 newInstance，避免每次 copy 都反射创建对象
+		 * @param ce ClassEmitter
+		 * @param targetType targetType
+		 */
+		private void generateNewInstance(ClassEmitter ce, Type targetType) {
+			CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, NEW_INSTANCE, null);
+			if (hasPublicNoArgConstructor(target)) {
+				e.new_instance(targetType);
+				e.dup();
+				e.invoke_constructor(targetType);
+			} else {
+				EmitUtils.load_class(e, targetType);
+				e.invoke_static(BEAN_UTIL, BEAN_UTIL_NEW_INSTANCE);
+			}
+			e.return_value();
+			e.end_method();
+		}
+
+		private static boolean hasPublicNoArgConstructor(Class<?> clazz) {
+			int modifiers = clazz.getModifiers();
+			if (!Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers) || clazz.isInterface()) {
+				return false;
+			}
+			// 非静态内部类需要外部类实例
+			if (clazz.getEnclosingClass() != null && !Modifier.isStatic(modifiers)) {
+				return false;
+			}
+			try {
+				return Modifier.isPublic(clazz.getConstructor().getModifiers());
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+
 		private static void invokeWrite(CodeEmitter e, MethodInfo write, Method writeMethod, boolean nonNull, Label l0) {
 			// 返回值，判断 链式 bean
 			Class<?> returnType = writeMethod.getReturnType();
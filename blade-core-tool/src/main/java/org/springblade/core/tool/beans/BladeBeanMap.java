@@ -6,6 +6,8 @@ import org.springframework.cglib.core.AbstractClassGenerator;
 import org.springframework.cglib.core.ReflectUtils;
 
 import java.security.ProtectionDomain;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 重写 cglib BeanMap，支持链式bean
@@ -13,6 +15,11 @@ import java.security.ProtectionDomain;
  * @author L.cm
  */
 public abstract class BladeBeanMap extends BeanMap {
+	/**
+	 * 按类缓存 BeanMap 原型，原型不持有 bean，通过 newInstance 绑定
+	 */
+	private static final ConcurrentMap<Class<?>, BladeBeanMap> BEAN_MAP_CACHE = new ConcurrentHashMap<>();
+
 	protected BladeBeanMap() {
 	}
 
@@ -21,9 +28,13 @@ public abstract class BladeBeanMap extends BeanMap {
 	}
 
 	public static BladeBeanMap create(Object bean) {
-		BladeGenerator gen = new BladeGenerator();
-		gen.setBean(bean);
-		return gen.create();
+		// map 视图按需调用生成的 getter，不会复制属性
+		BladeBeanMap prototype = BEAN_MAP_CACHE.computeIfAbsent(bean.getClass(), beanClass -> {
+			BladeGenerator gen = new BladeGenerator();
+			gen.setBeanClass(beanClass);
+			return gen.create();
+		});
+		return prototype.newInstance(bean);
 	}
 
 	/**
@@ -24,7 +24,7 @@ import java.util.concurrent.ConcurrentMap;
 @Slf4j
 @AllArgsConstructor
 public class BladeConverter implements Converter {
-	private static final ConcurrentMap<String, TypeDescriptor> TYPE_CACHE = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<Class<?>, ConcurrentMap<String, TypeDescriptor>> TYPE_CACHE = new ConcurrentHashMap<>();
 	private final Class<?> sourceClazz;
 	private final Class<?> targetClazz;
 
@@ -62,7 +62,12 @@ public class BladeConverter implements Converter {
 	}
 
 	private static TypeDescriptor getTypeDescriptor(final Class<?> clazz, final String fieldName) {
-		String srcCacheKey = clazz.getName() + fieldName;
+		// 按类分组缓存，避免每个属性拼接 key
+		ConcurrentMap<String, TypeDescriptor> fieldCache = TYPE_CACHE.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>(16));
+		TypeDescriptor descriptor = fieldCache.get(fieldName);
+		if (descriptor != null) {
+			return descriptor;
+		}
 		// 忽略抛出异常的函数，定义完整泛型，避免编译问题
 		CheckedFunction<String, TypeDescriptor> uncheckedFunction = (key) -> {
 			// 这里 property 理论上不会为 null
@@ -72,6 +77,6 @@ public class BladeConverter implements Converter {
 			}
 			return new TypeDescriptor(field);
 		};
-		return TYPE_CACHE.computeIfAbsent(srcCacheKey, Unchecked.function(uncheckedFunction));
+		return fieldCache.computeIfAbsent(fieldName, Unchecked.function(uncheckedFunction));
 	}
 }
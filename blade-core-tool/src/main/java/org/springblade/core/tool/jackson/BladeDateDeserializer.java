@@ -0,0 +1,35 @@
+package org.springblade.core.tool.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.DateDeserializers;
+import org.springblade.core.tool.utils.DateUtil;
+import org.springblade.core.tool.utils.FastDateCodec;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Date 反序列化，全局格式为 yyyy-MM-dd HH:mm:ss 且字符串严格匹配时走手写解码，其余交给 jackson
+ *
+ * @author L.cm
+ */
+public class BladeDateDeserializer extends DateDeserializers.DateDeserializer {
+	public static final BladeDateDeserializer INSTANCE = new BladeDateDeserializer();
+
+	@Override
+	public Date deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+		if (_customFormat == null && p.hasToken(JsonToken.VALUE_STRING)
+			&& BladeDateSerializer.isDateTimePattern(ctxt.getConfig().getDateFormat())) {
+			LocalDateTime dateTime = FastDateCodec.parse(DateUtil.PATTERN_DATETIME, p.getText().trim());
+			// 1583 年之前或落在夏令时切换时交给 jackson 处理
+			Date date = dateTime == null ? null : FastDateCodec.toDate(dateTime, ctxt.getTimeZone().toZoneId().getRules());
+			if (date != null) {
+				return date;
+			}
+		}
+		return super.deserialize(p, ctxt);
+	}
+}
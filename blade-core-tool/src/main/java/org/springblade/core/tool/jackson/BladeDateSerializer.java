@@ -0,0 +1,38 @@
+package org.springblade.core.tool.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.DateSerializer;
+import org.springblade.core.tool.utils.ConcurrentDateFormat;
+import org.springblade.core.tool.utils.DateUtil;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Date 序列化，全局格式为 yyyy-MM-dd HH:mm:ss 时走手写编码，避免每次克隆 SimpleDateFormat
+ *
+ * <p>
+ * 字段上有 @JsonFormat 时由 jackson 生成默认的 DateSerializer，不受影响
+ * </p>
+ *
+ * @author L.cm
+ */
+public class BladeDateSerializer extends DateSerializer {
+	public static final BladeDateSerializer INSTANCE = new BladeDateSerializer();
+
+	@Override
+	public void serialize(Date value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		if (_customFormat == null && !_asTimestamp(provider) && isDateTimePattern(provider.getConfig().getDateFormat())) {
+			gen.writeString(ConcurrentDateFormat.of(DateUtil.PATTERN_DATETIME, provider.getTimeZone()).format(value));
+			return;
+		}
+		super.serialize(value, gen, provider);
+	}
+
+	static boolean isDateTimePattern(DateFormat dateFormat) {
+		return dateFormat instanceof SimpleDateFormat && DateUtil.PATTERN_DATETIME.equals(((SimpleDateFormat) dateFormat).toPattern());
+	}
+}
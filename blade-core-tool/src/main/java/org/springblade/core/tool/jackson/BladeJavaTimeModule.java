@@ -1,18 +1,19 @@
 package org.springblade.core.tool.jackson;
 
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.SqlDateSerializer;
+import com.fasterxml.jackson.databind.ser.std.SqlTimeSerializer;
 import com.fasterxml.jackson.datatype.jsr310.PackageVersion;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalTimeSerializer;
 import org.springblade.core.tool.utils.DateTimeUtil;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Date;
 
 /**
  * java 8 时间默认序列化
@@ -24,12 +25,18 @@ public class BladeJavaTimeModule extends SimpleModule {
 
 	public BladeJavaTimeModule() {
 		super(PackageVersion.VERSION);
-		this.addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(DateTimeUtil.DATETIME_FORMAT));
+		this.addDeserializer(LocalDateTime.class, BladeLocalDateTimeDeserializer.INSTANCE);
 		this.addDeserializer(LocalDate.class, new LocalDateDeserializer(DateTimeUtil.DATE_FORMAT));
 		this.addDeserializer(LocalTime.class, new LocalTimeDeserializer(DateTimeUtil.TIME_FORMAT));
-		this.addSerializer(LocalDateTime.class, new LocalDateTimeSerializer(DateTimeUtil.DATETIME_FORMAT));
+		this.addSerializer(LocalDateTime.class, BladeLocalDateTimeSerializer.INSTANCE);
 		this.addSerializer(LocalDate.class, new LocalDateSerializer(DateTimeUtil.DATE_FORMAT));
 		this.addSerializer(LocalTime.class, new LocalTimeSerializer(DateTimeUtil.TIME_FORMAT));
+		// Date 默认格式走手写编解码
+		this.addDeserializer(Date.class, BladeDateDeserializer.INSTANCE);
+		this.addSerializer(Date.class, BladeDateSerializer.INSTANCE);
+		// 模块序列化器会匹配子类，java.sql 类型保持 jackson 默认
+		this.addSerializer(java.sql.Date.class, new SqlDateSerializer());
+		this.addSerializer(java.sql.Time.class, new SqlTimeSerializer());
 	}
 
 }
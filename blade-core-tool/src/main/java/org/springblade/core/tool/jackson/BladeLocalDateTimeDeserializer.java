@@ -0,0 +1,36 @@
+package org.springblade.core.tool.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import org.springblade.core.tool.utils.DateTimeUtil;
+import org.springblade.core.tool.utils.DateUtil;
+import org.springblade.core.tool.utils.FastDateCodec;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * LocalDateTime 反序列化，默认格式且字符串严格匹配时走手写解码，其余交给 jackson
+ *
+ * @author L.cm
+ */
+public class BladeLocalDateTimeDeserializer extends LocalDateTimeDeserializer {
+	public static final BladeLocalDateTimeDeserializer INSTANCE = new BladeLocalDateTimeDeserializer();
+
+	public BladeLocalDateTimeDeserializer() {
+		super(DateTimeUtil.DATETIME_FORMAT);
+	}
+
+	@Override
+	public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		if (_formatter == DateTimeUtil.DATETIME_FORMAT && parser.hasToken(JsonToken.VALUE_STRING)) {
+			LocalDateTime dateTime = FastDateCodec.parse(DateUtil.PATTERN_DATETIME, parser.getText().trim());
+			if (dateTime != null) {
+				return dateTime;
+			}
+		}
+		return super.deserialize(parser, context);
+	}
+}
@@ -0,0 +1,36 @@
+package org.springblade.core.tool.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import org.springblade.core.tool.utils.DateTimeUtil;
+import org.springblade.core.tool.utils.DateUtil;
+import org.springblade.core.tool.utils.FastDateCodec;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * LocalDateTime 序列化，默认格式走手写编码
+ *
+ * @author L.cm
+ */
+public class BladeLocalDateTimeSerializer extends LocalDateTimeSerializer {
+	public static final BladeLocalDateTimeSerializer INSTANCE = new BladeLocalDateTimeSerializer();
+
+	public BladeLocalDateTimeSerializer() {
+		super(DateTimeUtil.DATETIME_FORMAT);
+	}
+
+	@Override
+	public void serialize(LocalDateTime value, JsonGenerator g, SerializerProvider provider) throws IOException {
+		if (_formatter == DateTimeUtil.DATETIME_FORMAT && !useTimestamp(provider)) {
+			String text = FastDateCodec.format(DateUtil.PATTERN_DATETIME, value);
+			if (text != null) {
+				g.writeString(text);
+				return;
+			}
+		}
+		super.serialize(value, g, provider);
+	}
+}
@@ -0,0 +1,267 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.tool.support;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 预编译模板，将模板按占位符切分为字面量和占位符，渲染时不再扫描模板
+ *
+ * <p>
+ * 编译结果按 (模板, 前缀, 后缀) 缓存，模板第二次出现时才进入缓存，避免一次性的动态模板挤占缓存，
+ * 缓存满时淘汰最近最少使用的一半
+ * </p>
+ *
+ * @author L.cm
+ */
+public final class CompiledTemplate {
+	private static final int CACHE_SIZE = 1024;
+	private static final Map<Key, Entry> CACHE = new ConcurrentHashMap<>();
+	/**
+	 * 只出现过一次的模板
+	 */
+	private static final Map<Key, Boolean> SEEN = new ConcurrentHashMap<>();
+
+	/**
+	 * 字面量，长度为占位符数量 + 1
+	 */
+	private final String[] literals;
+	/**
+	 * 占位符内容，不含前后缀
+	 */
+	private final String[] names;
+	/**
+	 * 原始占位符，含前后缀
+	 */
+	private final String[] placeholders;
+	/**
+	 * 字面量总长度，用于预估结果长度
+	 */
+	private final int literalLength;
+
+	private CompiledTemplate(String[] literals, String[] names, String[] placeholders, int literalLength) {
+		this.literals = literals;
+		this.names = names;
+		this.placeholders = placeholders;
+		this.literalLength = literalLength;
+	}
+
+	/**
+	 * 编译模板，优先从缓存获取
+	 *
+	 * @param template 模板
+	 * @param prefix   占位符前缀
+	 * @param suffix   占位符后缀
+	 * @return CompiledTemplate
+	 */
+	public static CompiledTemplate compile(String template, String prefix, String suffix) {
+		Key key = new Key(template, prefix, suffix);
+		Entry entry = CACHE.get(key);
+		if (entry != null) {
+			entry.lastUsed = System.nanoTime();
+			return entry.compiled;
+		}
+		CompiledTemplate compiled = parse(template, prefix, suffix);
+		// 第一次出现只记录，不缓存
+		if (SEEN.remove(key) == null) {
+			if (SEEN.size() >= CACHE_SIZE) {
+				SEEN.clear();
+			}
+			SEEN.put(key, Boolean.TRUE);
+			return compiled;
+		}
+		if (CACHE.size() >= CACHE_SIZE) {
+			evict();
+		}
+		CACHE.put(key, new Entry(compiled));
+		return compiled;
+	}
+
+	/**
+	 * 淘汰最近最少使用的一半
+	 */
+	private static synchronized void evict() {
+		if (CACHE.size() < CACHE_SIZE) {
+			return;
+		}
+		List<Map.Entry<Key, Entry>> entries = new ArrayList<>(CACHE.entrySet());
+		entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsed));
+		for (int i = 0, size = entries.size() / 2; i < size; i++) {
+			CACHE.remove(entries.get(i).getKey());
+		}
+	}
+
+	/**
+	 * 解析模板，未闭合的前缀和嵌套在占位符中的前缀都作为字面量，如 {"id": {id}} 只有 {id} 是占位符
+	 */
+	static CompiledTemplate parse(String template, String prefix, String suffix) {
+		List<String> literalList = new ArrayList<>();
+		List<String> nameList = new ArrayList<>();
+		int literalLength = 0;
+		int cursor = 0;
+		for (int start, end; (start = template.indexOf(prefix, cursor)) != -1 && (end = template.indexOf(suffix, start + prefix.length())) != -1; ) {
+			// 取离后缀最近的前缀，之前的内容作为字面量
+			start = Math.max(start, template.lastIndexOf(prefix, end - prefix.length()));
+			String literal = template.substring(cursor, start);
+			literalList.add(literal);
+			literalLength += literal.length();
+			nameList.add(template.substring(start + prefix.length(), end));
+			cursor = end + suffix.length();
+		}
+		String last = template.substring(cursor);
+		literalList.add(last);
+		literalLength += last.length();
+		String[] names = nameList.toArray(new String[0]);
+		String[] placeholders = new String[names.length];
+		for (int i = 0; i < names.length; i++) {
+			placeholders[i] = prefix + names[i] + suffix;
+		}
+		return new CompiledTemplate(literalList.toArray(new String[0]), names, placeholders, literalLength);
+	}
+
+	/**
+	 * 占位符数量
+	 *
+	 * @return int
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * 按占位符内容渲染，resolver 返回 null 时替换为空字符串
+	 *
+	 * @param resolver 占位符内容 -> 值
+	 * @return 渲染结果
+	 */
+	public String render(Function<String, ?> resolver) {
+		if (names.length == 0) {
+			return literals[0];
+		}
+		StringBuilder sb = newBuilder();
+		for (int i = 0; i < names.length; i++) {
+			sb.append(literals[i]);
+			Object value = resolver.apply(names[i]);
+			if (value != null) {
+				sb.append(value);
+			}
+		}
+		sb.append(literals[names.length]);
+		return sb.toString();
+	}
+
+	/**
+	 * 按 map 渲染，map 中不存在的占位符原样保留
+	 *
+	 * @param params    参数
+	 * @param formatter 值格式化
+	 * @return 渲染结果
+	 */
+	public String renderKeepMissing(Map<?, ?> params, Function<Object, String> formatter) {
+		if (names.length == 0) {
+			return literals[0];
+		}
+		StringBuilder sb = newBuilder();
+		for (int i = 0; i < names.length; i++) {
+			sb.append(literals[i]);
+			String name = names[i];
+			if (params.containsKey(name)) {
+				sb.append(formatter.apply(params.get(name)));
+			} else {
+				sb.append(placeholders[i]);
+			}
+		}
+		sb.append(literals[names.length]);
+		return sb.toString();
+	}
+
+	/**
+	 * 按位置渲染，参数不足时剩余占位符原样保留
+	 *
+	 * @param arguments 参数
+	 * @return 渲染结果
+	 */
+	public String renderByIndex(@Nullable Object... arguments) {
+		int argsLength = arguments == null ? 0 : arguments.length;
+		if (names.length == 0) {
+			return literals[0];
+		}
+		StringBuilder sb = newBuilder();
+		for (int i = 0; i < names.length; i++) {
+			sb.append(literals[i]);
+			if (i < argsLength) {
+				sb.append(arguments[i]);
+			} else {
+				sb.append(placeholders[i]);
+			}
+		}
+		sb.append(literals[names.length]);
+		return sb.toString();
+	}
+
+	private StringBuilder newBuilder() {
+		return new StringBuilder(literalLength + names.length * 16);
+	}
+
+	private static class Entry {
+		private final CompiledTemplate compiled;
+		private volatile long lastUsed = System.nanoTime();
+
+		private Entry(CompiledTemplate compiled) {
+			this.compiled = compiled;
+		}
+	}
+
+	private static class Key {
+		private final String template;
+		private final String prefix;
+		private final String suffix;
+		private final int hash;
+
+		private Key(String template, String prefix, String suffix) {
+			this.template = template;
+			this.prefix = prefix;
+			this.suffix = suffix;
+			this.hash = 31 * (31 * template.hashCode() + prefix.hashCode()) + suffix.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return template.equals(key.template) && prefix.equals(key.prefix) && suffix.equals(key.suffix);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+}
@@ -146,13 +146,14 @@ public class BeanUtil extends org.springframework.beans.BeanUtils {
 	 * @param <T>         泛型标记
 	 * @return T
 	 */
+	@SuppressWarnings("unchecked")
 	@Nullable
 	public static <T> T copy(@Nullable Object source, Class sourceClazz, Class<T> targetClazz) {
 		if (source == null) {
 			return null;
 		}
 		BladeBeanCopier copier = BladeBeanCopier.create(sourceClazz, targetClazz, false);
-		T to = newInstance(targetClazz);
+		T to = (T) copier.newInstance();
 		copier.copy(source, to, null);
 		return to;
 	}
@@ -173,19 +174,7 @@ public class BeanUtil extends org.springframework.beans.BeanUtils {
 		if (sourceList == null || sourceList.isEmpty()) {
 			return Collections.emptyList();
 		}
-		List<T> outList = new ArrayList<>(sourceList.size());
-		Class<?> sourceClazz = null;
-		for (Object source : sourceList) {
-			if (source == null) {
-				continue;
-			}
-			if (sourceClazz == null) {
-				sourceClazz = source.getClass();
-			}
-			T bean = BeanUtil.copy(source, sourceClazz, targetClazz);
-			outList.add(bean);
-		}
-		return outList;
+		return copyList(sourceList, targetClazz, false);
 	}
 
 	/**
@@ -261,13 +250,14 @@ public class BeanUtil extends org.springframework.beans.BeanUtils {
 	 * @param <T>    泛型标记
 	 * @return T
 	 */
+	@SuppressWarnings("unchecked")
 	@Nullable
 	public static <T> T copyWithConvert(@Nullable Object source, Class<?> sourceClazz, Class<T> targetClazz) {
 		if (source == null) {
 			return null;
 		}
 		BladeBeanCopier copier = BladeBeanCopier.create(sourceClazz, targetClazz, true);
-		T to = newInstance(targetClazz);
+		T to = (T) copier.newInstance();
 		copier.copy(source, to, new BladeConverter(sourceClazz, targetClazz));
 		return to;
 	}
@@ -288,16 +278,36 @@ public class BeanUtil extends org.springframework.beans.BeanUtils {
 		if (sourceList == null || sourceList.isEmpty()) {
 			return Collections.emptyList();
 		}
+		return copyList(sourceList, targetClazz, true);
+	}
+
+	/**
+	 * 批量拷贝，copier 和 converter 按源类型只解析一次
+	 *
+	 * @param sourceList   源对象列表
+	 * @param targetClazz  转换成的类
+	 * @param useConverter 是否转换类型
+	 * @param <T>          泛型标记
+	 * @return List
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> copyList(Collection<?> sourceList, Class<T> targetClazz, boolean useConverter) {
 		List<T> outList = new ArrayList<>(sourceList.size());
 		Class<?> sourceClazz = null;
+		BladeBeanCopier copier = null;
+		BladeConverter converter = null;
 		for (Object source : sourceList) {
 			if (source == null) {
 				continue;
 			}
-			if (sourceClazz == null) {
+			// 列表元素类型可能不一致，类型变化时重新获取 copier
+			if (source.getClass() != sourceClazz) {
 				sourceClazz = source.getClass();
+				copier = BladeBeanCopier.create(sourceClazz, targetClazz, useConverter);
+				converter = useConverter ? new BladeConverter(sourceClazz, targetClazz) : null;
 			}
-			T bean = BeanUtil.copyWithConvert(source, sourceClazz, targetClazz);
+			T bean = (T) copier.newInstance();
+			copier.copy(source, bean, converter);
 			outList.add(bean);
 		}
 		return outList;
@@ -376,13 +386,15 @@ public class BeanUtil extends org.springframework.beans.BeanUtils {
 	 * @param <T>       泛型标记
 	 * @return {T}
 	 */
+	@SuppressWarnings("unchecked")
 	public static <T> T toBean(Map<String, Object> beanMap, Class<T> valueType) {
 		Objects.requireNonNull(beanMap, "beanMap Could not null");
-		T to = newInstance(valueType);
+		BladeBeanCopier copier = BladeBeanCopier.create(beanMap.getClass(), valueType, false);
+		T to = (T) copier.newInstance();
 		if (beanMap.isEmpty()) {
 			return to;
 		}
-		BeanUtil.copy(beanMap, to);
+		copier.copy(beanMap, to, null);
 		return to;
 	}
 
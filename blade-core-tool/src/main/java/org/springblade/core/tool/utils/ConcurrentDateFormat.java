@@ -16,12 +16,23 @@
  */
 package org.springblade.core.tool.utils;
 
+import org.springframework.lang.Nullable;
+
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
@@ -31,35 +42,78 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * 不使用ThreadLocal，创建足够的SimpleDateFormat对象来满足并发性要求。
  * </p>
  *
+ * <p>
+ * 实例按 (format, locale, timezone) 缓存。格式化优先走内置格式的手写编码和不可变的 {@link DateTimeFormatter}，
+ * 解析优先走内置格式的手写解码，其余情况仍交给 SimpleDateFormat，保持其宽松解析及儒略历的行为。
+ * </p>
+ *
  * @author L.cm
  */
 public class ConcurrentDateFormat {
+	private static final int CACHE_SIZE = 256;
+	private static final Map<Key, ConcurrentDateFormat> CACHE = new ConcurrentHashMap<>();
+	/**
+	 * 1582-10-15，之前的日期 SimpleDateFormat 使用儒略历
+	 */
+	private static final long GREGORIAN_CUTOVER = -12219292800000L;
+	/**
+	 * DateTimeFormatter 与 SimpleDateFormat 含义一致的字母
+	 */
+	private static final String SAFE_LETTERS = "GyMdHhmsSaEzZXkK";
+
 	private final String format;
 	private final Locale locale;
 	private final TimeZone timezone;
+	private final ZoneId zoneId;
+	private final ZoneRules zoneRules;
+	private final boolean fastPattern;
+	@Nullable
+	private final DateTimeFormatter formatter;
 	private final Queue<SimpleDateFormat> queue = new ConcurrentLinkedQueue<>();
 
 	private ConcurrentDateFormat(String format, Locale locale, TimeZone timezone) {
 		this.format = format;
 		this.locale = locale;
-		this.timezone = timezone;
-		SimpleDateFormat initial = createInstance();
-		queue.add(initial);
+		this.timezone = (TimeZone) timezone.clone();
+		this.zoneId = timezone.toZoneId();
+		this.zoneRules = zoneId.getRules();
+		this.fastPattern = FastDateCodec.isSupported(format);
+		this.formatter = createFormatter(format, locale, zoneId);
 	}
 
 	public static ConcurrentDateFormat of(String format) {
-		return new ConcurrentDateFormat(format, Locale.getDefault(), TimeZone.getDefault());
+		return of(format, Locale.getDefault(), TimeZone.getDefault());
 	}
 
 	public static ConcurrentDateFormat of(String format, TimeZone timezone) {
-		return new ConcurrentDateFormat(format, Locale.getDefault(), timezone);
+		return of(format, Locale.getDefault(), timezone);
 	}
 
 	public static ConcurrentDateFormat of(String format, Locale locale, TimeZone timezone) {
-		return new ConcurrentDateFormat(format, locale, timezone);
+		Key key = new Key(format, locale, timezone.getID());
+		ConcurrentDateFormat dateFormat = CACHE.get(key);
+		if (dateFormat != null) {
+			return dateFormat;
+		}
+		if (CACHE.size() >= CACHE_SIZE) {
+			CACHE.clear();
+		}
+		return CACHE.computeIfAbsent(key, k -> new ConcurrentDateFormat(format, locale, timezone));
 	}
 
 	public String format(Date date) {
+		long epochMilli = date.getTime();
+		if (epochMilli >= GREGORIAN_CUTOVER) {
+			if (fastPattern) {
+				String result = formatFast(epochMilli);
+				if (result != null) {
+					return result;
+				}
+			}
+			if (formatter != null) {
+				return formatter.format(Instant.ofEpochMilli(epochMilli));
+			}
+		}
 		SimpleDateFormat sdf = queue.poll();
 		if (sdf == null) {
 			sdf = createInstance();
@@ -70,6 +124,12 @@ public class ConcurrentDateFormat {
 	}
 
 	public Date parse(String source) throws ParseException {
+		if (fastPattern) {
+			Date date = parseFast(source);
+			if (date != null) {
+				return date;
+			}
+		}
 		SimpleDateFormat sdf = queue.poll();
 		if (sdf == null) {
 			sdf = createInstance();
@@ -84,4 +144,87 @@ public class ConcurrentDateFormat {
 		sdf.setTimeZone(timezone);
 		return sdf;
 	}
+
+	/**
+	 * 内置格式手写编码
+	 */
+	@Nullable
+	private String formatFast(long epochMilli) {
+		long epochSecond = Math.floorDiv(epochMilli, 1000L);
+		ZoneOffset offset = zoneRules.isFixedOffset() ? zoneRules.getOffset(Instant.EPOCH) : zoneRules.getOffset(Instant.ofEpochSecond(epochSecond));
+		return FastDateCodec.format(format, LocalDateTime.ofEpochSecond(epochSecond, 0, offset));
+	}
+
+	/**
+	 * 内置格式手写解码，不严格匹配、1583 年之前或落在夏令时切换时返回 null，交给 SimpleDateFormat 处理
+	 */
+	@Nullable
+	private Date parseFast(String source) {
+		LocalDateTime dateTime = FastDateCodec.parse(format, source);
+		return dateTime == null ? null : FastDateCodec.toDate(dateTime, zoneRules);
+	}
+
+	/**
+	 * 只有与 SimpleDateFormat 含义一致的模式才使用 DateTimeFormatter
+	 */
+	@Nullable
+	private static DateTimeFormatter createFormatter(String format, Locale locale, ZoneId zoneId) {
+		boolean quoted = false;
+		int sRun = 0;
+		for (int i = 0; i < format.length(); i++) {
+			char c = format.charAt(i);
+			if (c == '\'') {
+				quoted = !quoted;
+			}
+			if (!quoted && c == 'S') {
+				sRun++;
+				continue;
+			}
+			// S 在 SimpleDateFormat 中为毫秒数，仅 SSS 两者一致
+			if (sRun != 0 && sRun != 3) {
+				return null;
+			}
+			sRun = 0;
+			if (!quoted && ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) && SAFE_LETTERS.indexOf(c) < 0) {
+				return null;
+			}
+		}
+		if (sRun != 0 && sRun != 3) {
+			return null;
+		}
+		try {
+			return DateTimeFormatter.ofPattern(format, locale).withZone(zoneId);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static class Key {
+		private final String format;
+		private final Locale locale;
+		private final String timezone;
+
+		private Key(String format, Locale locale, String timezone) {
+			this.format = format;
+			this.locale = locale;
+			this.timezone = timezone;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return format.equals(key.format) && locale.equals(key.locale) && timezone.equals(key.timezone);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(format, locale, timezone);
+		}
+	}
 }
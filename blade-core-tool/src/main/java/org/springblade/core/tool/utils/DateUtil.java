@@ -12,7 +12,9 @@ import java.time.temporal.TemporalQuery;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 日期工具类
@@ -39,6 +41,11 @@ public class DateUtil {
 	public static final DateTimeFormatter DATETIME_MINI_FORMATTER = DateTimeFormatter.ofPattern(DateUtil.PATTERN_DATETIME_MINI);
 	public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DateUtil.PATTERN_DATE);
 	public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern(DateUtil.PATTERN_TIME);
+	/**
+	 * 自定义表达式 DateTimeFormatter 缓存
+	 */
+	private static final int FORMATTER_CACHE_SIZE = 256;
+	private static final Map<String, DateTimeFormatter> FORMATTER_CACHE = new ConcurrentHashMap<>();
 
 	/**
 	 * 获取当前日期
@@ -387,7 +394,24 @@ public class DateUtil {
 	 * @return 格式化后的时间
 	 */
 	public static String format(TemporalAccessor temporal, String pattern) {
-		return DateTimeFormatter.ofPattern(pattern).format(temporal);
+		return getFormatter(pattern).format(temporal);
+	}
+
+	/**
+	 * 获取缓存的 DateTimeFormatter，DateTimeFormatter 不可变，可安全共享
+	 *
+	 * @param pattern 表达式
+	 * @return DateTimeFormatter
+	 */
+	public static DateTimeFormatter getFormatter(String pattern) {
+		DateTimeFormatter formatter = FORMATTER_CACHE.get(pattern);
+		if (formatter != null) {
+			return formatter;
+		}
+		if (FORMATTER_CACHE.size() >= FORMATTER_CACHE_SIZE) {
+			FORMATTER_CACHE.clear();
+		}
+		return FORMATTER_CACHE.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
 	}
 
 	/**
@@ -429,7 +453,7 @@ public class DateUtil {
 	 * @return 时间
 	 */
 	public static <T> T parse(String dateStr, String pattern, TemporalQuery<T> query) {
-		return DateTimeFormatter.ofPattern(pattern).parse(dateStr, query);
+		return getFormatter(pattern).parse(dateStr, query);
 	}
 
 	/**
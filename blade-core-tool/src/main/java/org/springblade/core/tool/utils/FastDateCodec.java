@@ -0,0 +1,240 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.tool.utils;
+
+import org.springframework.lang.Nullable;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 内置日期格式的手写编解码
+ *
+ * <p>
+ * 支持 {@link DateUtil#PATTERN_DATETIME}、{@link DateUtil#PATTERN_DATETIME_MINI}、
+ * {@link DateUtil#PATTERN_DATE}、{@link DateUtil#PATTERN_TIME}，
+ * 不支持的格式、年份超出 4 位或字段越界时返回 null，由调用方回退到通用格式化
+ * </p>
+ *
+ * @author L.cm
+ */
+public class FastDateCodec {
+
+	/**
+	 * 是否为内置格式
+	 *
+	 * @param pattern 表达式
+	 * @return boolean
+	 */
+	public static boolean isSupported(String pattern) {
+		switch (pattern) {
+			case DateUtil.PATTERN_DATETIME:
+			case DateUtil.PATTERN_DATETIME_MINI:
+			case DateUtil.PATTERN_DATE:
+			case DateUtil.PATTERN_TIME:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * 格式化
+	 *
+	 * @param pattern  表达式
+	 * @param dateTime 时间
+	 * @return 格式化后的时间，不支持时为 null
+	 */
+	@Nullable
+	public static String format(String pattern, LocalDateTime dateTime) {
+		int year = dateTime.getYear();
+		if (year < 0 || year > 9999) {
+			return null;
+		}
+		char[] buf;
+		switch (pattern) {
+			case DateUtil.PATTERN_DATETIME:
+				buf = new char[19];
+				writeDate(buf, 0, year, dateTime.getMonthValue(), dateTime.getDayOfMonth(), '-');
+				buf[10] = ' ';
+				writeTime(buf, 11, dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(), ':');
+				break;
+			case DateUtil.PATTERN_DATETIME_MINI:
+				buf = new char[14];
+				writeDate(buf, 0, year, dateTime.getMonthValue(), dateTime.getDayOfMonth(), (char) 0);
+				writeTime(buf, 8, dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(), (char) 0);
+				break;
+			case DateUtil.PATTERN_DATE:
+				buf = new char[10];
+				writeDate(buf, 0, year, dateTime.getMonthValue(), dateTime.getDayOfMonth(), '-');
+				break;
+			case DateUtil.PATTERN_TIME:
+				buf = new char[8];
+				writeTime(buf, 0, dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(), ':');
+				break;
+			default:
+				return null;
+		}
+		return new String(buf);
+	}
+
+	/**
+	 * 严格解析，只接受与表达式完全一致的定长数字
+	 *
+	 * <p>
+	 * 日期格式时间为 0 点，时间格式日期为 1970-01-01，与 SimpleDateFormat 一致
+	 * </p>
+	 *
+	 * @param pattern 表达式
+	 * @param source  时间字符串
+	 * @return 时间，不匹配时为 null
+	 */
+	@Nullable
+	public static LocalDateTime parse(String pattern, String source) {
+		int length = source.length();
+		int year = 1970, month = 1, day = 1, hour = 0, minute = 0, second = 0;
+		switch (pattern) {
+			case DateUtil.PATTERN_DATETIME:
+				if (length != 19 || source.charAt(4) != '-' || source.charAt(7) != '-' || source.charAt(10) != ' '
+					|| source.charAt(13) != ':' || source.charAt(16) != ':') {
+					return null;
+				}
+				year = digits(source, 0, 4);
+				month = digits(source, 5, 2);
+				day = digits(source, 8, 2);
+				hour = digits(source, 11, 2);
+				minute = digits(source, 14, 2);
+				second = digits(source, 17, 2);
+				break;
+			case DateUtil.PATTERN_DATETIME_MINI:
+				if (length != 14) {
+					return null;
+				}
+				year = digits(source, 0, 4);
+				month = digits(source, 4, 2);
+				day = digits(source, 6, 2);
+				hour = digits(source, 8, 2);
+				minute = digits(source, 10, 2);
+				second = digits(source, 12, 2);
+				break;
+			case DateUtil.PATTERN_DATE:
+				if (length != 10 || source.charAt(4) != '-' || source.charAt(7) != '-') {
+					return null;
+				}
+				year = digits(source, 0, 4);
+				month = digits(source, 5, 2);
+				day = digits(source, 8, 2);
+				break;
+			case DateUtil.PATTERN_TIME:
+				if (length != 8 || source.charAt(2) != ':' || source.charAt(5) != ':') {
+					return null;
+				}
+				hour = digits(source, 0, 2);
+				minute = digits(source, 3, 2);
+				second = digits(source, 6, 2);
+				break;
+			default:
+				return null;
+		}
+		if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+			return null;
+		}
+		try {
+			return LocalDateTime.of(year, month, day, hour, minute, second);
+		} catch (DateTimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 按时区转为 Date
+	 *
+	 * <p>
+	 * 1583 年之前 SimpleDateFormat 使用儒略历；夏令时切换跳过或重叠的时间，java.time 与 SimpleDateFormat 选取的偏移不同，
+	 * 这两种情况返回 null，由调用方交给 SimpleDateFormat 处理
+	 * </p>
+	 *
+	 * @param dateTime 时间
+	 * @param rules    时区规则
+	 * @return Date，无法与 SimpleDateFormat 保持一致时为 null
+	 */
+	@Nullable
+	public static Date toDate(LocalDateTime dateTime, ZoneRules rules) {
+		if (dateTime.getYear() < 1583) {
+			return null;
+		}
+		List<ZoneOffset> offsets = rules.getValidOffsets(dateTime);
+		if (offsets.size() != 1) {
+			return null;
+		}
+		return Date.from(dateTime.toInstant(offsets.get(0)));
+	}
+
+	private static int digits(String source, int offset, int count) {
+		int value = 0;
+		for (int i = offset; i < offset + count; i++) {
+			int digit = source.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	private static void writeDate(char[] buf, int offset, int year, int month, int day, char separator) {
+		buf[offset] = (char) ('0' + year / 1000);
+		buf[offset + 1] = (char) ('0' + year / 100 % 10);
+		buf[offset + 2] = (char) ('0' + year / 10 % 10);
+		buf[offset + 3] = (char) ('0' + year % 10);
+		int index = offset + 4;
+		if (separator != 0) {
+			buf[index++] = separator;
+		}
+		write2(buf, index, month);
+		index += 2;
+		if (separator != 0) {
+			buf[index++] = separator;
+		}
+		write2(buf, index, day);
+	}
+
+	private static void writeTime(char[] buf, int offset, int hour, int minute, int second, char separator) {
+		int index = offset;
+		write2(buf, index, hour);
+		index += 2;
+		if (separator != 0) {
+			buf[index++] = separator;
+		}
+		write2(buf, index, minute);
+		index += 2;
+		if (separator != 0) {
+			buf[index++] = separator;
+		}
+		write2(buf, index, second);
+	}
+
+	private static void write2(char[] buf, int offset, int value) {
+		buf[offset] = (char) ('0' + value / 10);
+		buf[offset + 1] = (char) ('0' + value % 10);
+	}
+
+}
@@ -743,7 +743,62 @@ public class Func {
 	 * @return 结果
 	 */
 	public static Long[] toLongArray(String str) {
-		return toLongArray(",", str);
+		long[] values = toLongs(str);
+		Long[] longs = new Long[values.length];
+		for (int i = 0; i < values.length; i++) {
+			longs[i] = values[i];
+		}
+		return longs;
+	}
+
+	/**
+	 * 转换为long数组，逗号分隔，不装箱<br>
+	 *
+	 * @param str 被转换的值
+	 * @return 结果
+	 */
+	public static long[] toLongs(String str) {
+		return NumberUtil.toLongArray(str, CharPool.COMMA);
+	}
+
+	/**
+	 * 转换为 jdbc 参数数组<br>
+	 *
+	 * @param ids id数组
+	 * @return 结果
+	 */
+	public static Object[] toArgs(long[] ids) {
+		Object[] args = new Object[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			args[i] = ids[i];
+		}
+		return args;
+	}
+
+	/**
+	 * 转换为 jdbc 参数数组，首个参数在前，id 依次在后<br>
+	 *
+	 * @param first 首个参数
+	 * @param ids   id数组
+	 * @return 结果
+	 */
+	public static Object[] toArgs(Object first, long[] ids) {
+		Object[] args = new Object[ids.length + 1];
+		args[0] = first;
+		for (int i = 0; i < ids.length; i++) {
+			args[i + 1] = ids[i];
+		}
+		return args;
+	}
+
+	/**
+	 * 转换为id集合，逗号分隔，去重排序<br>
+	 *
+	 * @param str 被转换的值
+	 * @return 结果
+	 */
+	public static LongIdSet toLongIdSet(String str) {
+		return LongIdSet.parse(str);
 	}
 
 	/**
@@ -794,7 +849,8 @@ public class Func {
 	 * @return 结果
 	 */
 	public static Long firstLong(String str) {
-		return firstLong(",", str);
+		long[] values = toLongs(str);
+		return values.length == 0 ? null : values[0];
 	}
 
 	/**
@@ -936,6 +992,35 @@ public class Func {
 		return StringUtil.join(arr, delim);
 	}
 
+	/**
+	 * 将long数组拼接成字符串，默认使用`,`拼接
+	 *
+	 * @param arr the array to display
+	 * @return the delimited {@code String}
+	 */
+	public static String join(long[] arr) {
+		return join(arr, StringPool.COMMA);
+	}
+
+	/**
+	 * 将long数组拼接成字符串，默认指定分隔符
+	 *
+	 * @param arr   the array to display
+	 * @param delim the delimiter to use (typically a ",")
+	 * @return the delimited {@code String}
+	 */
+	public static String join(long[] arr, String delim) {
+		if (arr == null || arr.length == 0) {
+			return StringPool.EMPTY;
+		}
+		StringBuilder sb = new StringBuilder(arr.length * 20);
+		sb.append(arr[0]);
+		for (int i = 1; i < arr.length; i++) {
+			sb.append(delim).append(arr[i]);
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * 切分字符串，不去除切分后每个元素两边的空白符，不去除空白项
 	 *
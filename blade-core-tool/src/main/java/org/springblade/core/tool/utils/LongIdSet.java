@@ -0,0 +1,250 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.tool.utils;
+
+import org.springframework.lang.Nullable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 不可变的 long id 集合，内部为去重后的有序数组
+ *
+ * <p>
+ * 用于角色、部门等 id 串的判断与合并，contains 为二分查找，intersect/union 为有序归并
+ * </p>
+ *
+ * @author L.cm
+ */
+public final class LongIdSet implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private static final LongIdSet EMPTY = new LongIdSet(new long[0]);
+
+	private final long[] ids;
+
+	private LongIdSet(long[] ids) {
+		this.ids = ids;
+	}
+
+	/**
+	 * 空集合
+	 *
+	 * @return LongIdSet
+	 */
+	public static LongIdSet empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * 构造集合，会复制并排序去重
+	 *
+	 * @param ids id 数组
+	 * @return LongIdSet
+	 */
+	public static LongIdSet of(@Nullable long... ids) {
+		if (ids == null || ids.length == 0) {
+			return EMPTY;
+		}
+		long[] sorted = ids.clone();
+		Arrays.sort(sorted);
+		int size = 1;
+		for (int i = 1; i < sorted.length; i++) {
+			if (sorted[i] != sorted[size - 1]) {
+				sorted[size++] = sorted[i];
+			}
+		}
+		return new LongIdSet(size == sorted.length ? sorted : Arrays.copyOf(sorted, size));
+	}
+
+	/**
+	 * 解析逗号分隔的 id 串
+	 *
+	 * @param str id 串
+	 * @return LongIdSet
+	 */
+	public static LongIdSet parse(@Nullable String str) {
+		return of(NumberUtil.toLongArray(str, CharPool.COMMA));
+	}
+
+	/**
+	 * 构造集合
+	 *
+	 * @param ids id 集合
+	 * @return LongIdSet
+	 */
+	public static LongIdSet of(@Nullable List<Long> ids) {
+		if (ids == null || ids.isEmpty()) {
+			return EMPTY;
+		}
+		long[] values = new long[ids.size()];
+		int size = 0;
+		for (Long id : ids) {
+			if (id != null) {
+				values[size++] = id;
+			}
+		}
+		return of(size == values.length ? values : Arrays.copyOf(values, size));
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	public boolean isEmpty() {
+		return ids.length == 0;
+	}
+
+	/**
+	 * 是否包含 id
+	 *
+	 * @param id id
+	 * @return boolean
+	 */
+	public boolean contains(long id) {
+		return Arrays.binarySearch(ids, id) >= 0;
+	}
+
+	/**
+	 * 是否有交集
+	 *
+	 * @param other 其他集合
+	 * @return boolean
+	 */
+	public boolean intersects(LongIdSet other) {
+		long[] a = ids;
+		long[] b = other.ids;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] == b[j]) {
+				return true;
+			} else if (a[i] < b[j]) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 交集
+	 *
+	 * @param other 其他集合
+	 * @return LongIdSet
+	 */
+	public LongIdSet intersect(LongIdSet other) {
+		long[] a = ids;
+		long[] b = other.ids;
+		long[] result = new long[Math.min(a.length, b.length)];
+		int size = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] == b[j]) {
+				result[size++] = a[i];
+				i++;
+				j++;
+			} else if (a[i] < b[j]) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return size == 0 ? EMPTY : new LongIdSet(Arrays.copyOf(result, size));
+	}
+
+	/**
+	 * 并集
+	 *
+	 * @param other 其他集合
+	 * @return LongIdSet
+	 */
+	public LongIdSet union(LongIdSet other) {
+		if (other.isEmpty()) {
+			return this;
+		}
+		if (isEmpty()) {
+			return other;
+		}
+		long[] a = ids;
+		long[] b = other.ids;
+		long[] result = new long[a.length + b.length];
+		int size = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length || j < b.length) {
+			long value;
+			if (j == b.length || (i < a.length && a[i] < b[j])) {
+				value = a[i++];
+			} else if (i == a.length || b[j] < a[i]) {
+				value = b[j++];
+			} else {
+				value = a[i++];
+				j++;
+			}
+			result[size++] = value;
+		}
+		return new LongIdSet(size == result.length ? result : Arrays.copyOf(result, size));
+	}
+
+	/**
+	 * 转为数组
+	 *
+	 * @return long 数组
+	 */
+	public long[] toArray() {
+		return ids.clone();
+	}
+
+	/**
+	 * 转为 List，仅在需要对接集合 api 时使用
+	 *
+	 * @return List
+	 */
+	public List<Long> toList() {
+		List<Long> list = new ArrayList<>(ids.length);
+		for (long id : ids) {
+			list.add(id);
+		}
+		return list;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof LongIdSet)) {
+			return false;
+		}
+		return Arrays.equals(ids, ((LongIdSet) o).ids);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(ids);
+	}
+
+	@Override
+	public String toString() {
+		return Func.join(ids);
+	}
+
+}
@@ -207,4 +207,83 @@ public class NumberUtil extends org.springframework.util.NumberUtils {
 		return new String(buf, charPos, (65 - charPos));
 	}
 
+	/**
+	 * 按分隔符解析为 long 数组，规则同 {@code str.split} + {@link #toLong(String)}
+	 *
+	 * <p>
+	 * 末尾的空项会被忽略，非法的项为 0，不产生中间字符串和装箱对象
+	 * </p>
+	 *
+	 * <pre>
+	 *   NumberUtil.toLongArray("1,2,3", ',') = [1, 2, 3]
+	 *   NumberUtil.toLongArray("1,,a,", ',') = [1, 0, 0]
+	 * </pre>
+	 *
+	 * @param str       字符串
+	 * @param separator 分隔符
+	 * @return long 数组
+	 */
+	public static long[] toLongArray(@Nullable final String str, final char separator) {
+		if (str == null || str.isEmpty()) {
+			return new long[0];
+		}
+		int length = str.length();
+		// 去掉末尾空项，与 String.split 保持一致
+		while (length > 0 && str.charAt(length - 1) == separator) {
+			length--;
+		}
+		if (length == 0) {
+			return new long[0];
+		}
+		int count = 1;
+		for (int i = 0; i < length; i++) {
+			if (str.charAt(i) == separator) {
+				count++;
+			}
+		}
+		long[] values = new long[count];
+		int index = 0;
+		int start = 0;
+		for (int i = 0; i <= length; i++) {
+			if (i == length || str.charAt(i) == separator) {
+				values[index++] = parseLong(str, start, i);
+				start = i + 1;
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * 解析十进制 long，非法或溢出返回 0
+	 */
+	private static long parseLong(String str, int start, int end) {
+		if (start >= end) {
+			return 0L;
+		}
+		boolean negative = false;
+		char first = str.charAt(start);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			if (++start == end) {
+				return 0L;
+			}
+		}
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multmin = limit / 10;
+		long result = 0L;
+		// 按负数累加，避免 Long.MIN_VALUE 溢出
+		for (int i = start; i < end; i++) {
+			int digit = str.charAt(i) - '0';
+			if (digit < 0 || digit > 9 || result < multmin) {
+				return 0L;
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				return 0L;
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
 }
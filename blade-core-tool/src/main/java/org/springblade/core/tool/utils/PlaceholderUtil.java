@@ -1,5 +1,7 @@
 package org.springblade.core.tool.utils;
 
+import org.springblade.core.tool.support.CompiledTemplate;
+
 import java.util.Map;
 import java.util.Properties;
 import java.util.function.Function;
@@ -107,21 +109,12 @@ public class PlaceholderUtil {
 	 * @return {String}
 	 */
 	public String resolveByRule(String content, Function<String, String> rule) {
-		int start = content.indexOf(this.placeholderPrefix);
-		if (start == -1) {
+		if (!content.contains(this.placeholderPrefix)) {
 			return content;
 		}
-		StringBuilder result = new StringBuilder(content);
-		while (start != -1) {
-			int end = result.indexOf(this.placeholderSuffix, start + 1);
-			//获取占位符属性值，如${id}, 即获取id
-			String placeholder = result.substring(start + this.placeholderPrefix.length(), end);
-			//替换整个占位符内容，即将${id}值替换为替换规则回调中的内容
-			String replaceContent = placeholder.trim().isEmpty() ? "" : rule.apply(placeholder);
-			result.replace(start, end + this.placeholderSuffix.length(), replaceContent);
-			start = result.indexOf(this.placeholderPrefix, start + replaceContent.length());
-		}
-		return result.toString();
+		//占位符为空白时替换为空字符串，其余交给替换规则回调
+		return CompiledTemplate.compile(content, this.placeholderPrefix, this.placeholderSuffix)
+			.render(placeholder -> placeholder.trim().isEmpty() ? "" : rule.apply(placeholder));
 	}
 
 	/**
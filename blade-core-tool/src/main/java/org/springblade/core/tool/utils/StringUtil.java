@@ -16,6 +16,7 @@
  */
 package org.springblade.core.tool.utils;
 
+import org.springblade.core.tool.support.CompiledTemplate;
 import org.springblade.core.tool.support.StrSpliter;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -154,17 +155,8 @@ public class StringUtil extends org.springframework.util.StringUtils {
 			return message;
 		}
 		// 替换变量
-		StringBuilder sb = new StringBuilder((int) (message.length() * 1.5));
-		int cursor = 0;
-		for (int start, end; (start = message.indexOf(StringPool.DOLLAR_LEFT_BRACE, cursor)) != -1 && (end = message.indexOf(StringPool.RIGHT_BRACE, start)) != -1; ) {
-			sb.append(message, cursor, start);
-			String key = message.substring(start + 2, end);
-			Object value = params.get(StringUtil.trimWhitespace(key));
-			sb.append(value == null ? StringPool.EMPTY : value);
-			cursor = end + 1;
-		}
-		sb.append(message.substring(cursor));
-		return sb.toString();
+		return CompiledTemplate.compile(message, StringPool.DOLLAR_LEFT_BRACE, StringPool.RIGHT_BRACE)
+			.render(key -> params.get(StringUtil.trimWhitespace(key)));
 	}
 
 	/**
@@ -185,18 +177,7 @@ public class StringUtil extends org.springframework.util.StringUtils {
 		if (arguments == null || arguments.length == 0) {
 			return message;
 		}
-		StringBuilder sb = new StringBuilder((int) (message.length() * 1.5));
-		int cursor = 0;
-		int index = 0;
-		int argsLength = arguments.length;
-		for (int start, end; (start = message.indexOf('{', cursor)) != -1 && (end = message.indexOf('}', start)) != -1 && index < argsLength; ) {
-			sb.append(message, cursor, start);
-			sb.append(arguments[index]);
-			cursor = end + 1;
-			index++;
-		}
-		sb.append(message.substring(cursor));
-		return sb.toString();
+		return CompiledTemplate.compile(message, StringPool.LEFT_BRACE, StringPool.RIGHT_BRACE).renderByIndex(arguments);
 	}
 
 	/**
@@ -426,10 +407,24 @@ public class StringUtil extends org.springframework.util.StringUtils {
 		}
 
 		String template2 = template.toString();
-		for (Map.Entry<?, ?> entry : map.entrySet()) {
-			template2 = template2.replace("{" + entry.getKey() + "}", Func.toStr(entry.getValue()));
+		// 存在非字符串 key 时保持逐个替换
+		if (!isStringKeys(map)) {
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				template2 = template2.replace("{" + entry.getKey() + "}", Func.toStr(entry.getValue()));
+			}
+			return template2;
 		}
-		return template2;
+		return CompiledTemplate.compile(template2, StringPool.LEFT_BRACE, StringPool.RIGHT_BRACE)
+			.renderKeepMissing(map, Func::toStr);
+	}
+
+	private static boolean isStringKeys(Map<?, ?> map) {
+		for (Object key : map.keySet()) {
+			if (!(key instanceof String)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -48,6 +48,13 @@ public class ThreadLocalUtil {
 		return new HashMap<>(LOCAL.get());
 	}
 
+	/**
+	 * @return threadLocal中是否没有值
+	 */
+	public static boolean isEmpty() {
+		return LOCAL.get().isEmpty();
+	}
+
 	/**
 	 * 设置一个值到ThreadLocal
 	 *
@@ -0,0 +1,79 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.tool.support;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CompiledTemplate 测试
+ *
+ * @author L.cm
+ */
+public class CompiledTemplateTest {
+
+	@Test
+	public void testParse() {
+		CompiledTemplate template = CompiledTemplate.parse("a {x} b {y} c", "{", "}");
+		Assert.assertEquals(2, template.size());
+		Assert.assertEquals("a 1 b 2 c", template.renderByIndex(1, 2));
+		Assert.assertEquals("a 1 b {y} c", template.renderByIndex(1));
+	}
+
+	@Test
+	public void testNestedPrefix() {
+		CompiledTemplate template = CompiledTemplate.parse("{\"id\": {id}, \"obj\": {\"name\": {name}}}", "{", "}");
+		Assert.assertEquals(2, template.size());
+		Map<String, Object> params = new HashMap<>();
+		params.put("id", 5);
+		params.put("name", "\"blade\"");
+		Assert.assertEquals("{\"id\": 5, \"obj\": {\"name\": \"blade\"}}", template.renderKeepMissing(params, String::valueOf));
+	}
+
+	@Test
+	public void testUnclosedPrefix() {
+		CompiledTemplate template = CompiledTemplate.parse("{id} { {name", "{", "}");
+		Assert.assertEquals(1, template.size());
+		Assert.assertEquals("5 { {name", template.renderByIndex(5));
+	}
+
+	@Test
+	public void testMultiCharPrefix() {
+		CompiledTemplate template = CompiledTemplate.parse("${a${b}} $ {c} ${c}", "${", "}");
+		Assert.assertEquals(2, template.size());
+		Assert.assertEquals("${aB} $ {c} C", template.render(name -> name.toUpperCase()));
+	}
+
+	@Test
+	public void testRenderNull() {
+		CompiledTemplate template = CompiledTemplate.parse("[{a}]", "{", "}");
+		Assert.assertEquals("[]", template.render(name -> null));
+	}
+
+	@Test
+	public void testCompileCache() {
+		// 超出缓存上限的模板仍然正确渲染
+		for (int i = 0; i < 3000; i++) {
+			String text = "{a}-" + (i % 1500);
+			Assert.assertEquals("x-" + (i % 1500), CompiledTemplate.compile(text, "{", "}").renderByIndex("x"));
+		}
+	}
+
+}
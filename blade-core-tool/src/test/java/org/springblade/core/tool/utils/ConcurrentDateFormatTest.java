@@ -0,0 +1,147 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.tool.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcurrentDateFormat 与 SimpleDateFormat 一致性测试，覆盖夏令时切换跳过和重叠的时间
+ *
+ * @author L.cm
+ */
+public class ConcurrentDateFormatTest {
+	private static final String[] ZONES = {"America/New_York", "Europe/Berlin", "Australia/Lord_Howe", "Asia/Shanghai", "UTC"};
+	private static final String[] PATTERNS = {DateUtil.PATTERN_DATETIME, DateUtil.PATTERN_DATETIME_MINI, DateUtil.PATTERN_DATE};
+
+	@Test
+	public void testOverlap() throws ParseException {
+		// 重叠时间 SimpleDateFormat 取后一个（标准时间）偏移
+		Assert.assertEquals(1636266600000L, parse("America/New_York", "2021-11-07 01:30:00"));
+		Assert.assertEquals(1635643800000L, parse("Europe/Berlin", "2021-10-31 02:30:00"));
+	}
+
+	@Test
+	public void testGap() throws ParseException {
+		Assert.assertEquals(sdf(DateUtil.PATTERN_DATETIME, "America/New_York").parse("2021-03-14 02:30:00").getTime(),
+			parse("America/New_York", "2021-03-14 02:30:00"));
+		Assert.assertEquals(sdf(DateUtil.PATTERN_DATETIME, "Europe/Berlin").parse("2021-03-28 02:30:00").getTime(),
+			parse("Europe/Berlin", "2021-03-28 02:30:00"));
+	}
+
+	@Test
+	public void testParseAroundTransitions() throws ParseException {
+		for (String zone : ZONES) {
+			for (String pattern : PATTERNS) {
+				SimpleDateFormat sdf = sdf(pattern, zone);
+				ConcurrentDateFormat format = ConcurrentDateFormat.of(pattern, Locale.getDefault(), TimeZone.getTimeZone(zone));
+				for (LocalDateTime dateTime : localTimes(zone)) {
+					String source = FastDateCodec.format(pattern, dateTime);
+					Assert.assertEquals(zone + " " + source, sdf.parse(source), format.parse(source));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFormatAroundTransitions() {
+		for (String zone : ZONES) {
+			for (String pattern : PATTERNS) {
+				SimpleDateFormat sdf = sdf(pattern, zone);
+				ConcurrentDateFormat format = ConcurrentDateFormat.of(pattern, Locale.getDefault(), TimeZone.getTimeZone(zone));
+				for (Instant transition : transitions(zone)) {
+					for (long minutes = -180; minutes <= 180; minutes += 15) {
+						Date date = Date.from(transition.plusSeconds(TimeUnit.MINUTES.toSeconds(minutes)));
+						Assert.assertEquals(zone + " " + date.getTime(), sdf.format(date), format.format(date));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFallback() throws ParseException {
+		SimpleDateFormat sdf = sdf(DateUtil.PATTERN_DATETIME, "Asia/Shanghai");
+		ConcurrentDateFormat format = ConcurrentDateFormat.of(DateUtil.PATTERN_DATETIME, TimeZone.getTimeZone("Asia/Shanghai"));
+		// 宽松解析和儒略历交给 SimpleDateFormat
+		for (String source : new String[]{"2021-13-01 00:00:00", "2021-1-1 0:0:0", "1500-03-01 12:00:00"}) {
+			Assert.assertEquals(source, sdf.parse(source), format.parse(source));
+		}
+		Date julian = new Date(-15000000000000L);
+		Assert.assertEquals(sdf.format(julian), format.format(julian));
+	}
+
+	private static long parse(String zone, String source) throws ParseException {
+		return ConcurrentDateFormat.of(DateUtil.PATTERN_DATETIME, TimeZone.getTimeZone(zone)).parse(source).getTime();
+	}
+
+	private static SimpleDateFormat sdf(String pattern, String zone) {
+		SimpleDateFormat sdf = new SimpleDateFormat(pattern, Locale.getDefault());
+		sdf.setTimeZone(TimeZone.getTimeZone(zone));
+		return sdf;
+	}
+
+	/**
+	 * 2021 年和 1988 年（中国实行夏令时）的时区切换时刻
+	 */
+	private static List<Instant> transitions(String zone) {
+		ZoneRules rules = ZoneId.of(zone).getRules();
+		List<Instant> instants = new ArrayList<>();
+		for (Instant start : new Instant[]{Instant.parse("1988-01-01T00:00:00Z"), Instant.parse("2021-01-01T00:00:00Z")}) {
+			Instant end = start.plusSeconds(TimeUnit.DAYS.toSeconds(366));
+			ZoneOffsetTransition transition = rules.nextTransition(start);
+			while (transition != null && transition.getInstant().isBefore(end)) {
+				instants.add(transition.getInstant());
+				transition = rules.nextTransition(transition.getInstant());
+			}
+		}
+		// 没有切换的时区取一个普通时刻
+		if (instants.isEmpty()) {
+			instants.add(Instant.parse("2021-06-01T00:00:00Z"));
+		}
+		return instants;
+	}
+
+	/**
+	 * 切换前后 3 小时的本地时间，每 15 分钟一个
+	 */
+	private static List<LocalDateTime> localTimes(String zone) {
+		ZoneRules rules = ZoneId.of(zone).getRules();
+		List<LocalDateTime> dateTimes = new ArrayList<>();
+		for (Instant transition : transitions(zone)) {
+			LocalDateTime before = LocalDateTime.ofInstant(transition, rules.getOffset(transition.minusSeconds(1)));
+			for (long minutes = -180; minutes <= 180; minutes += 15) {
+				dateTimes.add(before.plusMinutes(minutes));
+			}
+		}
+		return dateTimes;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.tool.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+
+/**
+ * 内置日期格式手写编解码测试
+ *
+ * @author L.cm
+ */
+public class FastDateCodecTest {
+	private static final LocalDateTime DATE_TIME = LocalDateTime.of(2021, 3, 4, 5, 6, 7);
+
+	@Test
+	public void testFormat() {
+		Assert.assertEquals("2021-03-04 05:06:07", FastDateCodec.format(DateUtil.PATTERN_DATETIME, DATE_TIME));
+		Assert.assertEquals("20210304050607", FastDateCodec.format(DateUtil.PATTERN_DATETIME_MINI, DATE_TIME));
+		Assert.assertEquals("2021-03-04", FastDateCodec.format(DateUtil.PATTERN_DATE, DATE_TIME));
+		Assert.assertEquals("05:06:07", FastDateCodec.format(DateUtil.PATTERN_TIME, DATE_TIME));
+		Assert.assertNull(FastDateCodec.format("yyyy/MM/dd", DATE_TIME));
+		Assert.assertNull(FastDateCodec.format(DateUtil.PATTERN_DATETIME, DATE_TIME.withYear(10000)));
+	}
+
+	@Test
+	public void testParse() {
+		Assert.assertEquals(DATE_TIME, FastDateCodec.parse(DateUtil.PATTERN_DATETIME, "2021-03-04 05:06:07"));
+		Assert.assertEquals(DATE_TIME, FastDateCodec.parse(DateUtil.PATTERN_DATETIME_MINI, "20210304050607"));
+		Assert.assertEquals(DATE_TIME.toLocalDate().atStartOfDay(), FastDateCodec.parse(DateUtil.PATTERN_DATE, "2021-03-04"));
+		Assert.assertEquals(LocalDateTime.of(1970, 1, 1, 5, 6, 7), FastDateCodec.parse(DateUtil.PATTERN_TIME, "05:06:07"));
+		// 不严格匹配的交给 SimpleDateFormat
+		Assert.assertNull(FastDateCodec.parse(DateUtil.PATTERN_DATETIME, "2021-3-4 05:06:07"));
+		Assert.assertNull(FastDateCodec.parse(DateUtil.PATTERN_DATETIME, "2021-13-04 05:06:07"));
+		Assert.assertNull(FastDateCodec.parse(DateUtil.PATTERN_DATETIME, "2021-02-29 05:06:07"));
+		Assert.assertNull(FastDateCodec.parse(DateUtil.PATTERN_DATE, "2021-03-0a"));
+		Assert.assertNull(FastDateCodec.parse("yyyy/MM/dd", "2021/03/04"));
+	}
+
+	@Test
+	public void testToDate() {
+		ZoneRules newYork = ZoneId.of("America/New_York").getRules();
+		Assert.assertEquals(1614852367000L, FastDateCodec.toDate(DATE_TIME, newYork).getTime());
+		// 夏令时跳过和重叠的时间
+		Assert.assertNull(FastDateCodec.toDate(LocalDateTime.of(2021, 3, 14, 2, 30), newYork));
+		Assert.assertNull(FastDateCodec.toDate(LocalDateTime.of(2021, 11, 7, 1, 30), newYork));
+		Assert.assertNotNull(FastDateCodec.toDate(LocalDateTime.of(2021, 11, 7, 2, 0), newYork));
+		// 儒略历
+		Assert.assertNull(FastDateCodec.toDate(LocalDateTime.of(1582, 1, 1, 0, 0), newYork));
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.tool.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * StringUtil format 测试
+ *
+ * @author L.cm
+ */
+public class StringUtilTest {
+	private static final String[] TOKENS = {"{", "}", "{id}", "{name}", "{missing}", "{}", "\"", ":", " ", ",", "[", "]", "text"};
+
+	@Test
+	public void testFormatJson() {
+		Map<String, Object> params = new HashMap<>();
+		params.put("id", 5);
+		Assert.assertEquals("{\"id\": 5}", StringUtil.format((CharSequence) "{\"id\": {id}}", params));
+		Assert.assertEquals("{\"list\": [{\"id\": 5}, {\"id\": {other}}]}",
+			StringUtil.format((CharSequence) "{\"list\": [{\"id\": {id}}, {\"id\": {other}}]}", params));
+	}
+
+	@Test
+	public void testFormatMixedKeys() {
+		Map<Object, Object> params = new LinkedHashMap<>();
+		params.put("id", 5);
+		params.put(1, "one");
+		Assert.assertEquals("5-one", StringUtil.format("{id}-{1}", params));
+	}
+
+	@Test
+	public void testFormatIndexed() {
+		Assert.assertEquals("{\"id\": 5}", StringUtil.format("{\"id\": {}}", 5));
+		Assert.assertEquals("a 1 b {}", StringUtil.format("a {} b {}", 1));
+	}
+
+	@Test
+	public void testFormatDollar() {
+		Map<String, Object> params = new HashMap<>();
+		params.put("name", "L.cm");
+		Assert.assertEquals("{\"name\": \"L.cm\"}", StringUtil.format("{\"name\": \"${ name }\"}", params));
+	}
+
+	/**
+	 * 与逐个 replace 的结果一致
+	 */
+	@Test
+	public void testFormatSameAsReplace() {
+		Map<String, Object> params = new HashMap<>();
+		params.put("id", 5);
+		params.put("name", "blade");
+		Random random = new Random(20181028L);
+		for (int i = 0; i < 20000; i++) {
+			StringBuilder builder = new StringBuilder();
+			for (int j = random.nextInt(16); j >= 0; j--) {
+				builder.append(TOKENS[random.nextInt(TOKENS.length)]);
+			}
+			String template = builder.toString();
+			Assert.assertEquals(template, replace(template, params), StringUtil.format((CharSequence) template, params));
+		}
+	}
+
+	private static String replace(String template, Map<String, Object> params) {
+		for (Map.Entry<String, Object> entry : params.entrySet()) {
+			template = template.replace("{" + entry.getKey() + "}", Func.toStr(entry.getValue()));
+		}
+		return template;
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.cache.event;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.lang.Nullable;
+
+/**
+ * 缓存清除事件，由 {@link org.springblade.core.cache.utils.CacheUtil} 的 evict 和 clear 发布
+ *
+ * @author Chill
+ */
+public class CacheEvictEvent extends ApplicationEvent {
+
+	/**
+	 * 缓存键前缀，清空整个缓存时为空
+	 */
+	@Nullable
+	private final String keyPrefix;
+	/**
+	 * 缓存键值，清空整个缓存时为空
+	 */
+	@Nullable
+	private final Object key;
+
+	public CacheEvictEvent(String cacheName) {
+		this(cacheName, null, null);
+	}
+
+	public CacheEvictEvent(String cacheName, @Nullable String keyPrefix, @Nullable Object key) {
+		super(cacheName);
+		this.keyPrefix = keyPrefix;
+		this.key = key;
+	}
+
+	/**
+	 * 缓存名，不含租户前缀
+	 *
+	 * @return 缓存名
+	 */
+	public String getCacheName() {
+		return (String) getSource();
+	}
+
+	@Nullable
+	public String getKeyPrefix() {
+		return keyPrefix;
+	}
+
+	@Nullable
+	public Object getKey() {
+		return key;
+	}
+
+	/**
+	 * 是否清空整个缓存
+	 *
+	 * @return boolean
+	 */
+	public boolean isClear() {
+		return keyPrefix == null;
+	}
+
+}
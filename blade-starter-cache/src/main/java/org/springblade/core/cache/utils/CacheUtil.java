@@ -16,6 +16,7 @@
  */
 package org.springblade.core.cache.utils;
 
+import org.springblade.core.cache.event.CacheEvictEvent;
 import org.springblade.core.secure.utils.AuthUtil;
 import org.springblade.core.tool.constant.BladeConstant;
 import org.springblade.core.tool.utils.*;
@@ -256,6 +257,7 @@ public class CacheUtil {
 			return;
 		}
 		getCache(cacheName, tenantMode).evict(keyPrefix.concat(String.valueOf(key)));
+		SpringUtil.publishEvent(new CacheEvictEvent(cacheName, keyPrefix, key));
 	}
 
 	/**
@@ -278,6 +280,7 @@ public class CacheUtil {
 			return;
 		}
 		getCache(cacheName, tenantMode).clear();
+		SpringUtil.publishEvent(new CacheEvictEvent(cacheName));
 	}
 
 }
@@ -44,8 +44,8 @@ public class DataScopeConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean(ScopeModelHandler.class)
-	public ScopeModelHandler scopeModelHandler() {
-		return new BladeScopeModelHandler(jdbcTemplate);
+	public ScopeModelHandler scopeModelHandler(DataScopeProperties dataScopeProperties) {
+		return new BladeScopeModelHandler(jdbcTemplate, dataScopeProperties.getDeptIndexVersionTtl().toMillis());
 	}
 
 	@Bean
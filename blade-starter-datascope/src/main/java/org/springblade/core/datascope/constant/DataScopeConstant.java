@@ -32,6 +32,11 @@ public interface DataScopeConstant {
 	 */
 	String DATA_BY_DEPT = "select id from blade_dept where ancestors like concat(concat('%', ?),'%') and is_deleted = 0";
 
+	/**
+	 * 获取租户部门层级
+	 */
+	String DEPT_HIERARCHY_BY_TENANT = "select id, parent_id from blade_dept where tenant_id = ? and is_deleted = 0";
+
 	/**
 	 * 根据resourceCode获取数据权限配置
 	 */
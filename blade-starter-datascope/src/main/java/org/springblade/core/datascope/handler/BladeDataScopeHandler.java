@@ -19,15 +19,17 @@ package org.springblade.core.datascope.handler;
 import lombok.RequiredArgsConstructor;
 import org.springblade.core.datascope.enums.DataScopeEnum;
 import org.springblade.core.datascope.model.DataScopeModel;
+import org.springblade.core.datascope.support.DataScopeBinding;
+import org.springblade.core.datascope.support.DataScopeSqlRewriter;
 import org.springblade.core.secure.BladeUser;
 import org.springblade.core.tool.constant.RoleConstant;
 import org.springblade.core.tool.utils.BeanUtil;
 import org.springblade.core.tool.utils.Func;
+import org.springblade.core.tool.utils.LongIdSet;
 import org.springblade.core.tool.utils.PlaceholderUtil;
 import org.springblade.core.tool.utils.StringUtil;
+import org.springframework.lang.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -38,10 +40,22 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class BladeDataScopeHandler implements DataScopeHandler {
 
+	private static final long[] EMPTY_IDS = new long[0];
+
 	private final ScopeModelHandler scopeModelHandler;
 
+	/**
+	 * 数据权限条件下推
+	 */
+	private final DataScopeSqlRewriter sqlRewriter = new DataScopeSqlRewriter();
+
 	@Override
 	public String sqlCondition(String mapperId, DataScopeModel dataScope, BladeUser bladeUser, String originalSql) {
+		return sqlCondition(mapperId, dataScope, bladeUser, originalSql, null);
+	}
+
+	@Override
+	public String sqlCondition(String mapperId, DataScopeModel dataScope, BladeUser bladeUser, String originalSql, @Nullable DataScopeBinding binding) {
 
 		//数据权限资源编号
 		String code = dataScope.getResourceCode();
@@ -60,25 +74,32 @@ public class BladeDataScopeHandler implements DataScopeHandler {
 		//判断数据权限类型并组装对应Sql
 		Integer scopeRule = Objects.requireNonNull(dataScope).getScopeType();
 		DataScopeEnum scopeTypeEnum = DataScopeEnum.of(scopeRule);
-		List<Long> ids = new ArrayList<>();
+		long[] ids = EMPTY_IDS;
 		String whereSql = "where scope.{} in ({})";
 		if (DataScopeEnum.ALL == scopeTypeEnum || StringUtil.containsAny(bladeUser.getRoleName(), RoleConstant.ADMINISTRATOR)) {
 			return null;
 		} else if (DataScopeEnum.CUSTOM == scopeTypeEnum) {
 			whereSql = PlaceholderUtil.getDefaultResolver().resolveByMap(dataScope.getScopeValue(), BeanUtil.toMap(bladeUser));
 		} else if (DataScopeEnum.OWN == scopeTypeEnum) {
-			ids.add(bladeUser.getUserId());
+			ids = new long[]{bladeUser.getUserId()};
 		} else if (DataScopeEnum.OWN_DEPT == scopeTypeEnum) {
-			ids.addAll(Func.toLongList(bladeUser.getDeptId()));
+			ids = Func.toLongIdSet(bladeUser.getDeptId()).toArray();
 		} else if (DataScopeEnum.OWN_DEPT_CHILD == scopeTypeEnum) {
-			List<Long> deptIds = Func.toLongList(bladeUser.getDeptId());
-			ids.addAll(deptIds);
-			deptIds.forEach(deptId -> {
-				List<Long> deptIdList = scopeModelHandler.getDeptAncestors(deptId);
-				ids.addAll(deptIdList);
-			});
+			// 多个部门存在上下级时子部门会重复，合并去重
+			LongIdSet deptIds = Func.toLongIdSet(bladeUser.getDeptId());
+			ids = deptIds.union(scopeModelHandler.getDeptDescendants(deptIds)).toArray();
+		}
+		//数据权限id优先以参数绑定，保持sql文本稳定
+		String values = (binding != null && DataScopeBinding.isBindable(ids.length)) ? binding.bind(ids) : Func.join(ids);
+		//未指定可见字段时优先将条件直接追加到原始sql
+		String scopeField = Func.toStr(dataScope.getScopeField(), "*");
+		if (DataScopeEnum.CUSTOM != scopeTypeEnum && "*".equals(scopeField)) {
+			String sql = sqlRewriter.rewrite(mapperId, dataScope.getScopeColumn(), originalSql, values, binding);
+			if (sql != null) {
+				return sql;
+			}
 		}
-		return StringUtil.format("select {} from ({}) scope " + whereSql, Func.toStr(dataScope.getScopeField(), "*"), originalSql, dataScope.getScopeColumn(), StringUtil.join(ids));
+		return StringUtil.format("select {} from ({}) scope " + whereSql, scopeField, originalSql, dataScope.getScopeColumn(), values);
 	}
 
 }
@@ -16,20 +16,26 @@
  */
 package org.springblade.core.datascope.handler;
 
-import lombok.RequiredArgsConstructor;
+import org.springblade.core.cache.event.CacheEvictEvent;
 import org.springblade.core.cache.utils.CacheUtil;
 import org.springblade.core.datascope.constant.DataScopeConstant;
 import org.springblade.core.datascope.model.DataScopeModel;
+import org.springblade.core.datascope.support.DeptHierarchyIndex;
+import org.springblade.core.secure.utils.AuthUtil;
 import org.springblade.core.tool.utils.CollectionUtil;
 import org.springblade.core.tool.utils.Func;
+import org.springblade.core.tool.utils.LongIdSet;
 import org.springblade.core.tool.utils.StringPool;
 import org.springblade.core.tool.utils.StringUtil;
+import org.springframework.cache.Cache;
+import org.springframework.context.ApplicationListener;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.springblade.core.cache.constant.CacheConstant.SYS_CACHE;
 
@@ -38,16 +44,35 @@ import static org.springblade.core.cache.constant.CacheConstant.SYS_CACHE;
  *
  * @author Chill
  */
-@RequiredArgsConstructor
-public class BladeScopeModelHandler implements ScopeModelHandler {
+public class BladeScopeModelHandler implements ScopeModelHandler, ApplicationListener<CacheEvictEvent> {
 
 	private static final String SCOPE_CACHE_CODE = "dataScope:code:";
 	private static final String SCOPE_CACHE_CLASS = "dataScope:class:";
 	private static final String DEPT_CACHE_ANCESTORS = "dept:ancestors:";
+	private static final String DEPT_CACHE_INDEX = "dept:index:";
 	private static final DataScopeModel SEARCHED_DATA_SCOPE_MODEL = new DataScopeModel(Boolean.TRUE);
 
 	private final JdbcTemplate jdbcTemplate;
 
+	/**
+	 * 索引版本号本地缓存时间，毫秒
+	 */
+	private final long versionTtl;
+
+	/**
+	 * 租户部门层级索引
+	 */
+	private final Map<String, IndexHolder> deptIndexMap = new ConcurrentHashMap<>(16);
+
+	public BladeScopeModelHandler(JdbcTemplate jdbcTemplate) {
+		this(jdbcTemplate, 1000L);
+	}
+
+	public BladeScopeModelHandler(JdbcTemplate jdbcTemplate, long versionTtl) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.versionTtl = versionTtl;
+	}
+
 	/**
 	 * 获取数据权限
 	 *
@@ -57,14 +82,12 @@ public class BladeScopeModelHandler implements ScopeModelHandler {
 	 */
 	@Override
 	public DataScopeModel getDataScopeByMapper(String mapperId, String roleId) {
-		List<Object> args = new ArrayList<>(Collections.singletonList(mapperId));
-		List<Long> roleIds = Func.toLongList(roleId);
-		args.addAll(roleIds);
 		// 增加searched字段防止未配置的参数重复读库导致缓存击穿
 		// 后续若有新增配置则会清空缓存重新加载
 		DataScopeModel dataScope = CacheUtil.get(SYS_CACHE, SCOPE_CACHE_CLASS, mapperId + StringPool.COLON + roleId, DataScopeModel.class, Boolean.FALSE);
 		if (dataScope == null || !dataScope.getSearched()) {
-			List<DataScopeModel> list = jdbcTemplate.query(DataScopeConstant.dataByMapper(roleIds.size()), args.toArray(), new BeanPropertyRowMapper<>(DataScopeModel.class));
+			long[] roleIds = Func.toLongs(roleId);
+			List<DataScopeModel> list = jdbcTemplate.query(DataScopeConstant.dataByMapper(roleIds.length), Func.toArgs(mapperId, roleIds), new BeanPropertyRowMapper<>(DataScopeModel.class));
 			if (CollectionUtil.isNotEmpty(list)) {
 				dataScope = list.iterator().next();
 				dataScope.setSearched(Boolean.TRUE);
@@ -115,4 +138,118 @@ public class BladeScopeModelHandler implements ScopeModelHandler {
 		}
 		return ancestors;
 	}
+
+	/**
+	 * 获取多个部门的全部子级，优先使用本地部门层级索引
+	 *
+	 * @param deptIds 部门id集合
+	 * @return deptIds
+	 */
+	@Override
+	public List<Long> getDeptDescendants(List<Long> deptIds) {
+		return getDeptDescendants(LongIdSet.of(deptIds)).toList();
+	}
+
+	/**
+	 * 获取多个部门的全部子级，优先使用本地部门层级索引，命中索引时全程不装箱
+	 *
+	 * @param deptIds 部门id集合
+	 * @return deptIds
+	 */
+	@Override
+	public LongIdSet getDeptDescendants(LongIdSet deptIds) {
+		DeptHierarchyIndex index = getDeptIndex(AuthUtil.getTenantId());
+		long[] buffer = new long[16];
+		int size = 0;
+		for (long deptId : deptIds.toArray()) {
+			long[] descendants;
+			if (index != null && index.contains(deptId)) {
+				descendants = index.getDescendants(deptId);
+			} else {
+				descendants = LongIdSet.of(getDeptAncestors(deptId)).toArray();
+			}
+			if (size + descendants.length > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + descendants.length));
+			}
+			System.arraycopy(descendants, 0, buffer, size, descendants.length);
+			size += descendants.length;
+		}
+		return LongIdSet.of(Arrays.copyOf(buffer, size));
+	}
+
+	/**
+	 * 本节点清空系统缓存后立即重新校验索引版本，其他节点在版本号本地缓存过期后校验
+	 *
+	 * @param event CacheEvictEvent
+	 */
+	@Override
+	public void onApplicationEvent(CacheEvictEvent event) {
+		if (SYS_CACHE.equals(event.getCacheName())) {
+			deptIndexMap.values().forEach(holder -> holder.verifiedAt = 0L);
+		}
+	}
+
+	/**
+	 * 获取租户部门层级索引
+	 *
+	 * <p>
+	 * 索引版本号按租户存放于 SYS_CACHE，部门变更清空缓存后版本号失效，下次校验时重建索引。
+	 * 版本号在读库之前以 putIfAbsent 写入，读库期间发生的清空会使其失效，不会把旧数据固定为新版本
+	 * </p>
+	 *
+	 * @param tenantId 租户id
+	 * @return DeptHierarchyIndex
+	 */
+	private DeptHierarchyIndex getDeptIndex(String tenantId) {
+		if (StringUtil.isBlank(tenantId)) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		IndexHolder holder = deptIndexMap.get(tenantId);
+		if (holder != null && now - holder.verifiedAt < versionTtl) {
+			return holder.index;
+		}
+		Object version = CacheUtil.get(SYS_CACHE, DEPT_CACHE_INDEX, tenantId);
+		if (holder != null && holder.index.getVersion().equals(version)) {
+			holder.verifiedAt = now;
+			return holder.index;
+		}
+		synchronized (deptIndexMap) {
+			holder = deptIndexMap.get(tenantId);
+			if (holder != null && holder.verifiedAt >= now) {
+				return holder.index;
+			}
+			String newVersion;
+			if (version == null) {
+				String candidate = StringUtil.randomUUID();
+				Cache.ValueWrapper existing = CacheUtil.getCache(SYS_CACHE).putIfAbsent(DEPT_CACHE_INDEX.concat(tenantId), candidate);
+				newVersion = (existing == null || existing.get() == null) ? candidate : String.valueOf(existing.get());
+			} else {
+				newVersion = String.valueOf(version);
+			}
+			if (holder != null && holder.index.getVersion().equals(newVersion)) {
+				holder.verifiedAt = now;
+				return holder.index;
+			}
+			List<long[]> depts = jdbcTemplate.query(DataScopeConstant.DEPT_HIERARCHY_BY_TENANT, new Object[]{tenantId},
+				(rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+			DeptHierarchyIndex index = DeptHierarchyIndex.build(newVersion, depts);
+			deptIndexMap.put(tenantId, new IndexHolder(index, now));
+			return index;
+		}
+	}
+
+	private static class IndexHolder {
+		private final DeptHierarchyIndex index;
+		/**
+		 * 最近一次校验版本的时间
+		 */
+		private volatile long verifiedAt;
+
+		private IndexHolder(DeptHierarchyIndex index, long verifiedAt) {
+			this.index = index;
+			this.verifiedAt = verifiedAt;
+		}
+	}
+
 }
@@ -17,6 +17,7 @@
 package org.springblade.core.datascope.handler;
 
 import org.springblade.core.datascope.model.DataScopeModel;
+import org.springblade.core.datascope.support.DataScopeBinding;
 import org.springblade.core.secure.BladeUser;
 
 /**
@@ -37,4 +38,18 @@ public interface DataScopeHandler {
 	 */
 	String sqlCondition(String mapperId, DataScopeModel dataScope, BladeUser bladeUser, String originalSql);
 
+	/**
+	 * 获取过滤sql，数据权限id可写入 binding 以 ? 占位绑定，默认直接拼接
+	 *
+	 * @param mapperId    数据查询类
+	 * @param dataScope   数据权限类
+	 * @param bladeUser   当前用户信息
+	 * @param originalSql 原始Sql
+	 * @param binding     绑定参数
+	 * @return sql
+	 */
+	default String sqlCondition(String mapperId, DataScopeModel dataScope, BladeUser bladeUser, String originalSql, DataScopeBinding binding) {
+		return sqlCondition(mapperId, dataScope, bladeUser, originalSql);
+	}
+
 }
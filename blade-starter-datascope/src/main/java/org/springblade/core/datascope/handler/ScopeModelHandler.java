@@ -17,7 +17,9 @@
 package org.springblade.core.datascope.handler;
 
 import org.springblade.core.datascope.model.DataScopeModel;
+import org.springblade.core.tool.utils.LongIdSet;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -52,4 +54,26 @@ public interface ScopeModelHandler {
 	 */
 	List<Long> getDeptAncestors(Long deptId);
 
+	/**
+	 * 获取多个部门的全部子级
+	 *
+	 * @param deptIds 部门id集合
+	 * @return deptIds
+	 */
+	default List<Long> getDeptDescendants(List<Long> deptIds) {
+		List<Long> descendants = new ArrayList<>();
+		deptIds.forEach(deptId -> descendants.addAll(getDeptAncestors(deptId)));
+		return descendants;
+	}
+
+	/**
+	 * 获取多个部门的全部子级
+	 *
+	 * @param deptIds 部门id集合
+	 * @return deptIds
+	 */
+	default LongIdSet getDeptDescendants(LongIdSet deptIds) {
+		return LongIdSet.of(getDeptDescendants(deptIds.toList()));
+	}
+
 }
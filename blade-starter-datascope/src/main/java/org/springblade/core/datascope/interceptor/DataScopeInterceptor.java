@@ -23,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.session.ResultHandler;
@@ -31,6 +32,7 @@ import org.springblade.core.datascope.annotation.DataAuth;
 import org.springblade.core.datascope.handler.DataScopeHandler;
 import org.springblade.core.datascope.model.DataScopeModel;
 import org.springblade.core.datascope.props.DataScopeProperties;
+import org.springblade.core.datascope.support.DataScopeBinding;
 import org.springblade.core.mp.intercept.QueryInterceptor;
 import org.springblade.core.secure.BladeUser;
 import org.springblade.core.secure.utils.AuthUtil;
@@ -39,6 +41,8 @@ import org.springblade.core.tool.utils.SpringUtil;
 import org.springblade.core.tool.utils.StringUtil;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -53,6 +57,11 @@ import java.util.concurrent.ConcurrentMap;
 @SuppressWarnings({"rawtypes"})
 public class DataScopeInterceptor implements QueryInterceptor {
 
+	/**
+	 * 数据权限绑定参数名前缀
+	 */
+	private static final String SCOPE_PARAMETER_PREFIX = "__blade_scope_";
+
 	private final ConcurrentMap<String, DataAuth> dataAuthMap = new ConcurrentHashMap<>(8);
 
 	private final DataScopeHandler dataScopeHandler;
@@ -104,11 +113,36 @@ public class DataScopeInterceptor implements QueryInterceptor {
 		}
 
 		//获取数据权限规则对应的筛选Sql
-		String sqlCondition = dataScopeHandler.sqlCondition(mapperId, dataScope, bladeUser, originalSql);
+		DataScopeBinding binding = new DataScopeBinding();
+		String sqlCondition = dataScopeHandler.sqlCondition(mapperId, dataScope, bladeUser, originalSql, binding);
 		if (!StringUtil.isBlank(sqlCondition)) {
 			PluginUtils.MPBoundSql mpBoundSql = PluginUtils.mpBoundSql(boundSql);
 			mpBoundSql.sql(sqlCondition);
+			if (binding.isBound()) {
+				bindParameters(ms, boundSql, mpBoundSql, binding);
+			}
+		}
+	}
+
+	/**
+	 * 将数据权限id写入绑定参数，插入到条件之后的原始参数之前
+	 *
+	 * @param ms         MappedStatement
+	 * @param boundSql   BoundSql
+	 * @param mpBoundSql MPBoundSql
+	 * @param binding    绑定参数
+	 */
+	private static void bindParameters(MappedStatement ms, BoundSql boundSql, PluginUtils.MPBoundSql mpBoundSql, DataScopeBinding binding) {
+		long[] ids = binding.getIds();
+		List<ParameterMapping> mappings = new ArrayList<>(mpBoundSql.parameterMappings().size() + ids.length);
+		mappings.addAll(mpBoundSql.parameterMappings());
+		int index = Math.max(0, mappings.size() - binding.getTrailing());
+		for (int i = 0; i < ids.length; i++) {
+			String property = SCOPE_PARAMETER_PREFIX + i;
+			mappings.add(index + i, new ParameterMapping.Builder(ms.getConfiguration(), property, Long.class).build());
+			boundSql.setAdditionalParameter(property, ids[i]);
 		}
+		mpBoundSql.parameterMappings(mappings);
 	}
 
 	/**
@@ -19,6 +19,7 @@ package org.springblade.core.datascope.props;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -46,4 +47,9 @@ public class DataScopeProperties {
 	 */
 	private List<String> mapperExclude = Collections.singletonList("FlowMapper");
 
+	/**
+	 * 部门层级索引版本号的本地缓存时间，期间不访问远程缓存校验版本，为 0 则每次查询校验
+	 */
+	private Duration deptIndexVersionTtl = Duration.ofSeconds(1);
+
 }
@@ -0,0 +1,86 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.datascope.support;
+
+/**
+ * 数据权限绑定参数
+ *
+ * <p>
+ * 数据权限id以 ? 占位绑定，改写后的 sql 只随id个数变化，租户 sql 缓存、语句缓存不再因部门集合不同而失效。
+ * 绑定参数紧跟在原始 sql 的参数之后，trailing 为其后仍属于原始 sql 的参数个数（如下推后 order by 中的参数）
+ * </p>
+ *
+ * @author Chill
+ */
+public class DataScopeBinding {
+
+	/**
+	 * 绑定参数上限，超过后回退为拼接，避免触及 sql server 等数据库的参数个数限制
+	 */
+	public static final int MAX_BIND_SIZE = 1000;
+
+	private static final long[] EMPTY = new long[0];
+
+	private long[] ids = EMPTY;
+
+	private int trailing;
+
+	/**
+	 * 是否可以绑定
+	 *
+	 * @param size id个数
+	 * @return boolean
+	 */
+	public static boolean isBindable(int size) {
+		return size > 0 && size <= MAX_BIND_SIZE;
+	}
+
+	/**
+	 * 绑定数据权限id
+	 *
+	 * @param ids 数据权限id
+	 * @return 占位符，如 ?,?,?
+	 */
+	public String bind(long[] ids) {
+		this.ids = ids;
+		StringBuilder builder = new StringBuilder(ids.length * 2);
+		for (int i = 0; i < ids.length; i++) {
+			if (i > 0) {
+				builder.append(',');
+			}
+			builder.append('?');
+		}
+		return builder.toString();
+	}
+
+	public boolean isBound() {
+		return ids.length > 0;
+	}
+
+	public long[] getIds() {
+		return ids;
+	}
+
+	public int getTrailing() {
+		return trailing;
+	}
+
+	public void setTrailing(int trailing) {
+		this.trailing = trailing;
+	}
+
+}
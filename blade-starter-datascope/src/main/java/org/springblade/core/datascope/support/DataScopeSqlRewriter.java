@@ -0,0 +1,363 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.datascope.support;
+
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.expression.AnalyticExpression;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.expression.Function;
+import net.sf.jsqlparser.expression.MySQLGroupConcat;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.*;
+import org.springblade.core.tool.utils.StringUtil;
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 数据权限 sql 改写
+ *
+ * <p>
+ * 将数据权限条件直接追加到原始查询的 where 中，避免包裹子查询导致索引与分页优化失效。
+ * 仅处理可安全下推的单表或连接查询（无分组、去重、分页、聚合、窗口函数），
+ * 其余情况返回 null 由调用方回退为子查询包裹。解析结果按 mapperId、字段与原始 sql 缓存。
+ * </p>
+ *
+ * @author Chill
+ */
+@Slf4j
+public class DataScopeSqlRewriter {
+
+	/**
+	 * 数据权限id占位符
+	 */
+	private static final String IDS_HOLDER = "__BLADE_SCOPE_IDS__";
+
+	/**
+	 * 无法下推的标记
+	 */
+	private static final Template UNSUPPORTED = new Template(null, null, 0);
+
+	/**
+	 * 聚合函数
+	 */
+	private static final Set<String> AGGREGATE_FUNCTIONS = new HashSet<>(Arrays.asList(
+		"count", "sum", "avg", "min", "max", "group_concat", "string_agg", "listagg", "wm_concat"));
+
+	/**
+	 * 缓存上限
+	 */
+	private static final int MAX_CACHE_SIZE = 1024;
+
+	private final Map<RewriteKey, Template> templateCache = new ConcurrentHashMap<>(64);
+
+	/**
+	 * 改写sql
+	 *
+	 * @param mapperId    mapperId
+	 * @param scopeColumn 数据权限字段
+	 * @param originalSql 原始sql
+	 * @param ids         数据权限id
+	 * @return 改写后的sql，无法下推时返回 null
+	 */
+	public String rewrite(String mapperId, String scopeColumn, String originalSql, List<Long> ids) {
+		return rewrite(mapperId, scopeColumn, originalSql, StringUtil.join(ids), null);
+	}
+
+	/**
+	 * 改写sql
+	 *
+	 * @param mapperId    mapperId
+	 * @param scopeColumn 数据权限字段
+	 * @param originalSql 原始sql
+	 * @param values      in 条件的值，拼接的id或绑定的占位符
+	 * @param binding     绑定参数，已绑定时记录条件之后的原始参数个数
+	 * @return 改写后的sql，无法下推时返回 null
+	 */
+	public String rewrite(String mapperId, String scopeColumn, String originalSql, String values, @Nullable DataScopeBinding binding) {
+		if (StringUtil.isBlank(values) || StringUtil.isBlank(scopeColumn)) {
+			return null;
+		}
+		RewriteKey key = new RewriteKey(mapperId, scopeColumn, originalSql);
+		Template template = templateCache.get(key);
+		if (template == null) {
+			template = buildTemplate(scopeColumn, originalSql);
+			if (templateCache.size() >= MAX_CACHE_SIZE) {
+				templateCache.clear();
+			}
+			templateCache.put(key, template);
+		}
+		if (template == UNSUPPORTED) {
+			return null;
+		}
+		if (binding != null && binding.isBound()) {
+			binding.setTrailing(template.trailing);
+		}
+		return template.prefix + values + template.suffix;
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public void clear() {
+		templateCache.clear();
+	}
+
+	/**
+	 * 解析sql并生成以占位符切分的模板
+	 */
+	private Template buildTemplate(String scopeColumn, String originalSql) {
+		if (originalSql.contains(IDS_HOLDER)) {
+			return UNSUPPORTED;
+		}
+		try {
+			Statement statement = CCJSqlParserUtil.parse(originalSql);
+			if (!(statement instanceof Select)) {
+				return UNSUPPORTED;
+			}
+			Select select = (Select) statement;
+			if (select.getWithItemsList() != null && !select.getWithItemsList().isEmpty()) {
+				return UNSUPPORTED;
+			}
+			SelectBody selectBody = select.getSelectBody();
+			if (!(selectBody instanceof PlainSelect)) {
+				return UNSUPPORTED;
+			}
+			PlainSelect plainSelect = (PlainSelect) selectBody;
+			if (!isPushdownSafe(plainSelect)) {
+				return UNSUPPORTED;
+			}
+			Column column = resolveColumn(plainSelect, scopeColumn);
+			if (column == null) {
+				return UNSUPPORTED;
+			}
+			InExpression inExpression = new InExpression(column, new ExpressionList(new Column(IDS_HOLDER)));
+			Expression where = plainSelect.getWhere();
+			if (where == null) {
+				plainSelect.setWhere(inExpression);
+			} else if (where instanceof OrExpression) {
+				plainSelect.setWhere(new AndExpression(new Parenthesis(where), inExpression));
+			} else {
+				plainSelect.setWhere(new AndExpression(where, inExpression));
+			}
+			String sql = select.toString();
+			int index = sql.indexOf(IDS_HOLDER);
+			if (index < 0 || sql.indexOf(IDS_HOLDER, index + 1) >= 0) {
+				return UNSUPPORTED;
+			}
+			String suffix = sql.substring(index + IDS_HOLDER.length());
+			return new Template(sql.substring(0, index), suffix, countParameters(suffix));
+		} catch (Exception e) {
+			log.debug("data scope pushdown unsupported, fallback to wrapping: {}", e.getMessage());
+			return UNSUPPORTED;
+		}
+	}
+
+	/**
+	 * 下推条件与外层过滤结果等价的查询
+	 */
+	private static boolean isPushdownSafe(PlainSelect plainSelect) {
+		if (plainSelect.getGroupBy() != null || plainSelect.getHaving() != null
+			|| plainSelect.getDistinct() != null || plainSelect.getLimit() != null
+			|| plainSelect.getOffset() != null || plainSelect.getFetch() != null
+			|| plainSelect.getTop() != null || plainSelect.getOracleHierarchical() != null) {
+			return false;
+		}
+		// oracle rownum 与其他条件同时生效，追加条件会改变结果
+		Expression where = plainSelect.getWhere();
+		if (where != null && where.toString().toLowerCase().contains("rownum")) {
+			return false;
+		}
+		// 查询列和排序中任意层级出现聚合或窗口函数都不能下推，如 ifnull(sum(x), 0)、case when ... over()
+		AggregateFinder finder = new AggregateFinder();
+		for (SelectItem selectItem : plainSelect.getSelectItems()) {
+			if (selectItem instanceof SelectExpressionItem) {
+				((SelectExpressionItem) selectItem).getExpression().accept(finder);
+			}
+		}
+		if (plainSelect.getOrderByElements() != null) {
+			for (OrderByElement orderByElement : plainSelect.getOrderByElements()) {
+				orderByElement.getExpression().accept(finder);
+			}
+		}
+		return !finder.found;
+	}
+
+	/**
+	 * 查找聚合与窗口函数，不进入子查询，标量子查询中的聚合按行计算，不影响下推
+	 */
+	private static class AggregateFinder extends ExpressionVisitorAdapter {
+		private boolean found;
+
+		@Override
+		public void visit(Function function) {
+			if (function.getName() != null && AGGREGATE_FUNCTIONS.contains(function.getName().toLowerCase())) {
+				found = true;
+				return;
+			}
+			super.visit(function);
+		}
+
+		@Override
+		public void visit(AnalyticExpression expression) {
+			found = true;
+		}
+
+		@Override
+		public void visit(MySQLGroupConcat groupConcat) {
+			found = true;
+		}
+	}
+
+	/**
+	 * 根据查询结果列名找到对应的源字段
+	 */
+	private static Column resolveColumn(PlainSelect plainSelect, String scopeColumn) {
+		String target = normalize(scopeColumn);
+		Column matched = null;
+		int allTableColumns = 0;
+		Table allTable = null;
+		boolean allColumns = false;
+		for (SelectItem selectItem : plainSelect.getSelectItems()) {
+			if (selectItem instanceof AllColumns) {
+				allColumns = true;
+			} else if (selectItem instanceof AllTableColumns) {
+				allTableColumns++;
+				allTable = ((AllTableColumns) selectItem).getTable();
+			} else if (selectItem instanceof SelectExpressionItem) {
+				SelectExpressionItem item = (SelectExpressionItem) selectItem;
+				String name;
+				if (item.getAlias() != null) {
+					name = item.getAlias().getName();
+				} else if (item.getExpression() instanceof Column) {
+					name = ((Column) item.getExpression()).getColumnName();
+				} else {
+					continue;
+				}
+				if (!target.equals(normalize(name))) {
+					continue;
+				}
+				// 同名结果列或非字段表达式无法确定来源
+				if (matched != null || !(item.getExpression() instanceof Column)) {
+					return null;
+				}
+				Column column = (Column) item.getExpression();
+				matched = new Column(column.getTable(), column.getColumnName());
+			}
+		}
+		if (matched != null) {
+			return matched;
+		}
+		boolean hasJoins = plainSelect.getJoins() != null && !plainSelect.getJoins().isEmpty();
+		if (allColumns && allTableColumns == 0 && !hasJoins && plainSelect.getFromItem() instanceof Table) {
+			Table table = (Table) plainSelect.getFromItem();
+			String qualifier = table.getAlias() != null ? table.getAlias().getName() : table.getName();
+			return new Column(new Table(qualifier), scopeColumn);
+		}
+		if (!allColumns && allTableColumns == 1) {
+			return new Column(new Table(allTable.getName()), scopeColumn);
+		}
+		return null;
+	}
+
+	/**
+	 * 统计 sql 片段中的 ? 参数个数，跳过字符串与带引号的标识符
+	 */
+	static int countParameters(String sql) {
+		int count = 0;
+		char quote = 0;
+		for (int i = 0, len = sql.length(); i < len; i++) {
+			char c = sql.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '\'' || c == '"' || c == '`') {
+				quote = c;
+			} else if (c == '?') {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static String normalize(String name) {
+		return name.replace("`", "").replace("\"", "").toLowerCase();
+	}
+
+	private static class Template {
+		private final String prefix;
+		private final String suffix;
+		/**
+		 * 条件之后的原始参数个数
+		 */
+		private final int trailing;
+
+		private Template(String prefix, String suffix, int trailing) {
+			this.prefix = prefix;
+			this.suffix = suffix;
+			this.trailing = trailing;
+		}
+	}
+
+	private static class RewriteKey {
+		private final String mapperId;
+		private final String scopeColumn;
+		private final String originalSql;
+
+		private RewriteKey(String mapperId, String scopeColumn, String originalSql) {
+			this.mapperId = mapperId;
+			this.scopeColumn = scopeColumn;
+			this.originalSql = originalSql;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof RewriteKey)) {
+				return false;
+			}
+			RewriteKey that = (RewriteKey) o;
+			return Objects.equals(mapperId, that.mapperId)
+				&& Objects.equals(scopeColumn, that.scopeColumn)
+				&& originalSql.equals(that.originalSql);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(mapperId, scopeColumn, originalSql);
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.datascope.support;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 部门层级索引
+ *
+ * <p>
+ * 按先序遍历为每个部门分配区间 [start, end]，子孙部门在遍历序中连续存放，
+ * 定位子孙区间与判断上下级关系均为 O(1)
+ * </p>
+ *
+ * @author Chill
+ */
+public class DeptHierarchyIndex {
+
+	private static final long[] EMPTY = new long[0];
+
+	/**
+	 * 索引版本
+	 */
+	private final String version;
+
+	/**
+	 * 部门id -> 遍历序号
+	 */
+	private final Map<Long, Integer> position;
+
+	/**
+	 * 遍历序号 -> 部门id
+	 */
+	private final long[] order;
+
+	/**
+	 * 遍历序号 -> 最后一个子孙的遍历序号
+	 */
+	private final int[] end;
+
+	private DeptHierarchyIndex(String version, Map<Long, Integer> position, long[] order, int[] end) {
+		this.version = version;
+		this.position = position;
+		this.order = order;
+		this.end = end;
+	}
+
+	/**
+	 * 根据部门关系构建索引
+	 *
+	 * @param version 索引版本
+	 * @param depts   部门关系，每项为 {id, parentId}
+	 * @return DeptHierarchyIndex
+	 */
+	public static DeptHierarchyIndex build(String version, List<long[]> depts) {
+		int size = depts.size();
+		Map<Long, Integer> index = new HashMap<>(size * 4 / 3 + 1);
+		for (int i = 0; i < size; i++) {
+			index.put(depts.get(i)[0], i);
+		}
+		// 以链表方式存放子节点
+		int[] firstChild = new int[size];
+		int[] nextSibling = new int[size];
+		Arrays.fill(firstChild, -1);
+		Arrays.fill(nextSibling, -1);
+		boolean[] root = new boolean[size];
+		for (int i = size - 1; i >= 0; i--) {
+			Integer parent = index.get(depts.get(i)[1]);
+			if (parent == null || parent == i) {
+				root[i] = true;
+			} else {
+				nextSibling[i] = firstChild[parent];
+				firstChild[parent] = i;
+			}
+		}
+		Map<Long, Integer> position = new HashMap<>(size * 4 / 3 + 1);
+		long[] order = new long[size];
+		int[] end = new int[size];
+		int[] tin = new int[size];
+		boolean[] visited = new boolean[size];
+		int counter = 0;
+		Deque<int[]> stack = new ArrayDeque<>();
+		for (int r = 0; r < size; r++) {
+			if (!root[r]) {
+				continue;
+			}
+			// 栈元素 {节点, 是否已展开}
+			stack.push(new int[]{r, 0});
+			while (!stack.isEmpty()) {
+				int[] frame = stack.peek();
+				int node = frame[0];
+				if (frame[1] == 0) {
+					frame[1] = 1;
+					visited[node] = true;
+					tin[node] = counter;
+					order[counter] = depts.get(node)[0];
+					position.put(order[counter], counter);
+					counter++;
+					for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+						if (!visited[child]) {
+							stack.push(new int[]{child, 0});
+						}
+					}
+				} else {
+					stack.pop();
+					end[tin[node]] = counter - 1;
+				}
+			}
+		}
+		// 存在环的脏数据不可达，不纳入索引，查询时回退为数据库查询
+		return new DeptHierarchyIndex(version, position, Arrays.copyOf(order, counter), Arrays.copyOf(end, counter));
+	}
+
+	/**
+	 * 索引版本
+	 *
+	 * @return version
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * 是否包含部门
+	 *
+	 * @param deptId 部门id
+	 * @return boolean
+	 */
+	public boolean contains(long deptId) {
+		return position.containsKey(deptId);
+	}
+
+	/**
+	 * 获取全部子孙部门，不包含自身
+	 *
+	 * @param deptId 部门id
+	 * @return 子孙部门id
+	 */
+	public long[] getDescendants(long deptId) {
+		Integer start = position.get(deptId);
+		if (start == null || end[start] == start) {
+			return EMPTY;
+		}
+		return Arrays.copyOfRange(order, start + 1, end[start] + 1);
+	}
+
+	/**
+	 * 判断是否为子孙部门
+	 *
+	 * @param ancestorId   上级部门id
+	 * @param descendantId 下级部门id
+	 * @return boolean
+	 */
+	public boolean isDescendant(long ancestorId, long descendantId) {
+		Integer ancestor = position.get(ancestorId);
+		Integer descendant = position.get(descendantId);
+		if (ancestor == null || descendant == null) {
+			return false;
+		}
+		return descendant > ancestor && descendant <= end[ancestor];
+	}
+
+	/**
+	 * 部门数量
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return order.length;
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.datascope.handler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springblade.core.datascope.enums.DataScopeEnum;
+import org.springblade.core.datascope.model.DataScopeModel;
+import org.springblade.core.datascope.support.DataScopeBinding;
+import org.springblade.core.secure.BladeUser;
+import org.springblade.core.tool.utils.LongIdSet;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 数据权限条件组装测试
+ *
+ * @author Chill
+ */
+public class BladeDataScopeHandlerTest {
+	private static final String MAPPER_ID = "org.springblade.desk.mapper.NoticeMapper.selectList";
+	private static final String SQL = "select id, create_dept from blade_notice where category = ?";
+
+	@Test
+	public void testBindDescendants() {
+		BladeDataScopeHandler handler = new BladeDataScopeHandler(new FixedScopeModelHandler(3));
+		DataScopeBinding binding = new DataScopeBinding();
+		String sql = handler.sqlCondition(MAPPER_ID, new DataScopeModel(), user(), SQL, binding);
+		// 自身部门和子级部门合并为绑定参数
+		Assert.assertEquals("SELECT id, create_dept FROM blade_notice WHERE category = ? AND create_dept IN (?,?,?,?)", sql);
+		Assert.assertTrue(binding.isBound());
+		Assert.assertArrayEquals(new long[]{1L, 2L, 3L, 4L}, binding.getIds());
+		Assert.assertEquals(0, binding.getTrailing());
+	}
+
+	@Test
+	public void testBindLimit() {
+		// 上限以内绑定
+		DataScopeBinding binding = new DataScopeBinding();
+		String sql = new BladeDataScopeHandler(new FixedScopeModelHandler(DataScopeBinding.MAX_BIND_SIZE - 1))
+			.sqlCondition(MAPPER_ID, new DataScopeModel(), user(), SQL, binding);
+		Assert.assertEquals(DataScopeBinding.MAX_BIND_SIZE, binding.getIds().length);
+		Assert.assertEquals(DataScopeBinding.MAX_BIND_SIZE + 1, count(sql, '?'));
+		// 超过上限回退为拼接，避免触及数据库的参数个数限制
+		binding = new DataScopeBinding();
+		sql = new BladeDataScopeHandler(new FixedScopeModelHandler(DataScopeBinding.MAX_BIND_SIZE))
+			.sqlCondition(MAPPER_ID, new DataScopeModel(), user(), SQL, binding);
+		Assert.assertFalse(binding.isBound());
+		Assert.assertEquals(1, count(sql, '?'));
+		Assert.assertTrue(sql.endsWith("," + (DataScopeBinding.MAX_BIND_SIZE + 1) + ")"));
+	}
+
+	@Test
+	public void testWithoutBinding() {
+		String sql = new BladeDataScopeHandler(new FixedScopeModelHandler(2))
+			.sqlCondition(MAPPER_ID, new DataScopeModel(), user(), SQL);
+		Assert.assertEquals("SELECT id, create_dept FROM blade_notice WHERE category = ? AND create_dept IN (1,2,3)", sql);
+	}
+
+	private static BladeUser user() {
+		BladeUser user = new BladeUser();
+		user.setUserId(1L);
+		user.setTenantId("000000");
+		user.setDeptId("1");
+		user.setRoleId("1");
+		user.setRoleName("user");
+		return user;
+	}
+
+	private static int count(String sql, char c) {
+		int count = 0;
+		for (int i = 0; i < sql.length(); i++) {
+			if (sql.charAt(i) == c) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 所在机构及子级可见，部门 1 的子级为 2..n+1
+	 */
+	private static class FixedScopeModelHandler implements ScopeModelHandler {
+		private final int descendants;
+
+		private FixedScopeModelHandler(int descendants) {
+			this.descendants = descendants;
+		}
+
+		@Override
+		public DataScopeModel getDataScopeByMapper(String mapperId, String roleId) {
+			DataScopeModel dataScope = new DataScopeModel(Boolean.TRUE);
+			dataScope.setResourceCode("notice");
+			dataScope.setScopeColumn("create_dept");
+			dataScope.setScopeType(DataScopeEnum.OWN_DEPT_CHILD.getType());
+			return dataScope;
+		}
+
+		@Override
+		public DataScopeModel getDataScopeByCode(String code) {
+			return null;
+		}
+
+		@Override
+		public List<Long> getDeptAncestors(Long deptId) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public LongIdSet getDeptDescendants(LongIdSet deptIds) {
+			long[] ids = new long[descendants];
+			for (int i = 0; i < descendants; i++) {
+				ids[i] = i + 2L;
+			}
+			return LongIdSet.of(ids);
+		}
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.datascope.handler;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springblade.core.cache.event.CacheEvictEvent;
+import org.springblade.core.cache.utils.CacheUtil;
+import org.springblade.core.secure.BladeUser;
+import org.springblade.core.tool.utils.LongIdSet;
+import org.springblade.core.tool.utils.SpringUtil;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springblade.core.cache.constant.CacheConstant.SYS_CACHE;
+
+/**
+ * 部门层级索引加载与版本失效测试，部门数据使用 h2 内存库
+ *
+ * @author Chill
+ */
+public class BladeScopeModelHandlerTest {
+	private static CacheManager cacheManager;
+	private static CountingJdbcTemplate jdbcTemplate;
+
+	@BeforeClass
+	public static void init() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:blade_datascope;DB_CLOSE_DELAY=-1");
+		jdbcTemplate = new CountingJdbcTemplate(dataSource);
+		jdbcTemplate.execute("create table blade_dept (id bigint, parent_id bigint, tenant_id varchar(12), ancestors varchar(255), is_deleted int)");
+		// CacheUtil 从 SpringUtil 获取 CacheManager
+		cacheManager = new ConcurrentMapCacheManager();
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(CacheManager.class, () -> cacheManager);
+		context.refresh();
+		new SpringUtil().setApplicationContext(context);
+	}
+
+	@Before
+	public void setUp() {
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+		jdbcTemplate.execute("delete from blade_dept");
+		// 000000: 1 -> 2 -> 4 -> 5, 1 -> 3
+		insert(1L, 0L, "000000", "0");
+		insert(2L, 1L, "000000", "0,1");
+		insert(3L, 1L, "000000", "0,1");
+		insert(4L, 2L, "000000", "0,1,2");
+		insert(5L, 4L, "000000", "0,1,2,4");
+		// 100001: 10 -> 11
+		insert(10L, 0L, "100001", "0");
+		insert(11L, 10L, "100001", "0,10");
+		jdbcTemplate.queries.set(0);
+		login("000000");
+	}
+
+	@After
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void testDescendants() {
+		BladeScopeModelHandler handler = new BladeScopeModelHandler(jdbcTemplate, TimeUnit.MINUTES.toMillis(1));
+		Assert.assertArrayEquals(new long[]{2L, 3L, 4L, 5L}, handler.getDeptDescendants(LongIdSet.of(1L)).toArray());
+		Assert.assertArrayEquals(new long[]{4L, 5L}, handler.getDeptDescendants(LongIdSet.of(2L, 3L)).toArray());
+		// 多个部门存在上下级时去重
+		Assert.assertArrayEquals(new long[]{2L, 3L, 4L, 5L}, handler.getDeptDescendants(LongIdSet.of(1L, 2L)).toArray());
+		// 索引只加载一次
+		Assert.assertEquals(1, jdbcTemplate.queries.get());
+		// 租户之间互相隔离
+		login("100001");
+		Assert.assertArrayEquals(new long[]{11L}, handler.getDeptDescendants(LongIdSet.of(10L)).toArray());
+		Assert.assertEquals(2, jdbcTemplate.queries.get());
+	}
+
+	@Test
+	public void testInvalidateOnEvict() {
+		BladeScopeModelHandler handler = new BladeScopeModelHandler(jdbcTemplate, TimeUnit.MINUTES.toMillis(1));
+		Assert.assertArrayEquals(new long[]{4L, 5L}, handler.getDeptDescendants(LongIdSet.of(2L)).toArray());
+		insert(7L, 2L, "000000", "0,1,2");
+		// 版本号未失效前仍使用本地索引
+		Assert.assertArrayEquals(new long[]{4L, 5L}, handler.getDeptDescendants(LongIdSet.of(2L)).toArray());
+		// 部门变更后清空系统缓存，本节点立即重建索引
+		CacheUtil.getCache(SYS_CACHE).clear();
+		handler.onApplicationEvent(new CacheEvictEvent(SYS_CACHE));
+		Assert.assertArrayEquals(new long[]{4L, 5L, 7L}, handler.getDeptDescendants(LongIdSet.of(2L)).toArray());
+		Assert.assertEquals(2, jdbcTemplate.queries.get());
+		// 其他缓存的事件不影响索引
+		handler.onApplicationEvent(new CacheEvictEvent("blade:other"));
+		handler.getDeptDescendants(LongIdSet.of(2L));
+		Assert.assertEquals(2, jdbcTemplate.queries.get());
+	}
+
+	@Test
+	public void testInvalidateAfterVersionTtl() throws Exception {
+		BladeScopeModelHandler handler = new BladeScopeModelHandler(jdbcTemplate, 200L);
+		Assert.assertArrayEquals(new long[]{4L, 5L}, handler.getDeptDescendants(LongIdSet.of(2L)).toArray());
+		// 版本号未变化时，过期后只校验版本，不重建索引
+		TimeUnit.MILLISECONDS.sleep(300);
+		handler.getDeptDescendants(LongIdSet.of(2L));
+		Assert.assertEquals(1, jdbcTemplate.queries.get());
+		// 其他节点清空了缓存，本节点没有收到事件，版本号本地缓存过期后重建
+		insert(7L, 4L, "000000", "0,1,2,4");
+		CacheUtil.getCache(SYS_CACHE).clear();
+		Assert.assertArrayEquals(new long[]{4L, 5L}, handler.getDeptDescendants(LongIdSet.of(2L)).toArray());
+		TimeUnit.MILLISECONDS.sleep(300);
+		Assert.assertArrayEquals(new long[]{4L, 5L, 7L}, handler.getDeptDescendants(LongIdSet.of(2L)).toArray());
+		Assert.assertEquals(2, jdbcTemplate.queries.get());
+	}
+
+	@Test
+	public void testSharedVersion() {
+		// 两个节点共用缓存中的版本号，后加载的节点不会使先加载的节点失效
+		BladeScopeModelHandler node1 = new BladeScopeModelHandler(jdbcTemplate, 0L);
+		BladeScopeModelHandler node2 = new BladeScopeModelHandler(jdbcTemplate, 0L);
+		node1.getDeptDescendants(LongIdSet.of(1L));
+		node2.getDeptDescendants(LongIdSet.of(1L));
+		node1.getDeptDescendants(LongIdSet.of(1L));
+		node2.getDeptDescendants(LongIdSet.of(1L));
+		Assert.assertEquals(2, jdbcTemplate.queries.get());
+	}
+
+	private static void insert(long id, long parentId, String tenantId, String ancestors) {
+		jdbcTemplate.update("insert into blade_dept values (?, ?, ?, ?, 0)", id, parentId, tenantId, ancestors);
+	}
+
+	private static void login(String tenantId) {
+		BladeUser user = new BladeUser();
+		user.setUserId(1L);
+		user.setTenantId(tenantId);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute("_BLADE_USER_REQUEST_ATTR_", user);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	/**
+	 * 统计部门层级的查询次数
+	 */
+	private static class CountingJdbcTemplate extends JdbcTemplate {
+		private final AtomicInteger queries = new AtomicInteger();
+
+		private CountingJdbcTemplate(JdbcDataSource dataSource) {
+			super(dataSource);
+		}
+
+		@Override
+		public <T> List<T> query(String sql, Object[] args, RowMapper<T> rowMapper) {
+			if (sql.contains("parent_id")) {
+				queries.incrementAndGet();
+			}
+			return super.query(sql, args, rowMapper);
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.datascope.support;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 数据权限 sql 改写测试
+ *
+ * @author Chill
+ */
+public class DataScopeSqlRewriterTest {
+	private static final List<Long> IDS = Arrays.asList(1L, 2L);
+
+	private final DataScopeSqlRewriter rewriter = new DataScopeSqlRewriter();
+
+	@Test
+	public void testPushdown() {
+		Assert.assertEquals("SELECT id, dept_id FROM blade_user WHERE status = 1 AND dept_id IN (1,2)",
+			rewrite("select id, dept_id from blade_user where status = 1"));
+		Assert.assertEquals("SELECT u.id, u.dept_id FROM blade_user u WHERE (u.status = 1 OR u.status = 2) AND u.dept_id IN (1,2)",
+			rewrite("select u.id, u.dept_id from blade_user u where u.status = 1 or u.status = 2"));
+		Assert.assertEquals("SELECT * FROM blade_user u WHERE u.dept_id IN (1,2)",
+			rewrite("select * from blade_user u"));
+	}
+
+	@Test
+	public void testScalarSubQuery() {
+		// 标量子查询中的聚合按行计算，可以下推
+		Assert.assertEquals("SELECT u.dept_id, (SELECT count(*) FROM blade_role r WHERE r.id = u.role_id) AS roles FROM blade_user u WHERE u.dept_id IN (1,2)",
+			rewrite("select u.dept_id, (select count(*) from blade_role r where r.id = u.role_id) as roles from blade_user u"));
+	}
+
+	@Test
+	public void testTopLevelAggregate() {
+		Assert.assertNull(rewrite("select dept_id, count(*) from blade_user"));
+		Assert.assertNull(rewrite("select dept_id, row_number() over (order by id) as rn from blade_user"));
+		Assert.assertNull(rewrite("select dept_id, group_concat(name) from blade_user"));
+	}
+
+	@Test
+	public void testNestedAggregate() {
+		Assert.assertNull(rewrite("select dept_id, ifnull(sum(amount), 0) as total from blade_user"));
+		Assert.assertNull(rewrite("select dept_id, count(*) + 0 as total from blade_user"));
+		Assert.assertNull(rewrite("select dept_id, case when sum(amount) > 0 then 1 else 0 end as flag from blade_user"));
+		Assert.assertNull(rewrite("select dept_id, coalesce(max(amount), min(amount)) as total from blade_user"));
+	}
+
+	@Test
+	public void testNestedAnalytic() {
+		Assert.assertNull(rewrite("select dept_id, case when row_number() over (order by id) = 1 then 1 else 0 end as first from blade_user"));
+		Assert.assertNull(rewrite("select dept_id, ifnull(lag(amount) over (order by id), 0) as prev from blade_user"));
+		Assert.assertNull(rewrite("select dept_id from blade_user order by row_number() over (order by id)"));
+	}
+
+	@Test
+	public void testUnsupported() {
+		Assert.assertNull(rewrite("select dept_id from blade_user group by dept_id"));
+		Assert.assertNull(rewrite("select distinct dept_id from blade_user"));
+		Assert.assertNull(rewrite("select dept_id from blade_user limit 10"));
+		Assert.assertNull(rewrite("select a.dept_id from (select dept_id from blade_user) a union select dept_id from blade_dept"));
+	}
+
+	@Test
+	public void testBinding() {
+		DataScopeBinding binding = new DataScopeBinding();
+		String values = binding.bind(new long[]{1L, 2L, 3L});
+		Assert.assertEquals("?,?,?", values);
+		String sql = rewriter.rewrite("org.springblade.system.mapper.UserMapper.selectList", "dept_id",
+			"select id, dept_id from blade_user where status = ? order by field(id, ?, '?') desc", values, binding);
+		Assert.assertEquals("SELECT id, dept_id FROM blade_user WHERE status = ? AND dept_id IN (?,?,?) ORDER BY field(id, ?, '?') DESC", sql);
+		// 条件之后仅有排序中的一个参数，字符串中的 ? 不计入
+		Assert.assertEquals(1, binding.getTrailing());
+		Assert.assertFalse(DataScopeBinding.isBindable(0));
+		Assert.assertFalse(DataScopeBinding.isBindable(DataScopeBinding.MAX_BIND_SIZE + 1));
+	}
+
+	@Test
+	public void testCountParameters() {
+		Assert.assertEquals(0, DataScopeSqlRewriter.countParameters(""));
+		Assert.assertEquals(2, DataScopeSqlRewriter.countParameters(" ORDER BY a = ?, b = ?"));
+		Assert.assertEquals(1, DataScopeSqlRewriter.countParameters(" ORDER BY a = 'it''s ?', `b?` = ?, \"c?\""));
+	}
+
+	private String rewrite(String sql) {
+		return rewriter.rewrite("org.springblade.system.mapper.UserMapper.selectList", "dept_id", sql, IDS);
+	}
+
+}
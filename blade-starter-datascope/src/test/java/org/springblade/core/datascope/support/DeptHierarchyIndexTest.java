@@ -0,0 +1,98 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.datascope.support;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 部门层级索引测试
+ *
+ * @author Chill
+ */
+public class DeptHierarchyIndexTest {
+
+	/**
+	 * 1
+	 * ├── 2
+	 * │   └── 4
+	 * │       └── 5
+	 * └── 3
+	 * 6（上级不存在，作为根）
+	 */
+	private static final List<long[]> DEPTS = Arrays.asList(
+		new long[]{5L, 4L}, new long[]{1L, 0L}, new long[]{3L, 1L}, new long[]{2L, 1L}, new long[]{4L, 2L}, new long[]{6L, 100L});
+
+	@Test
+	public void testDescendants() {
+		DeptHierarchyIndex index = DeptHierarchyIndex.build("v1", DEPTS);
+		Assert.assertEquals("v1", index.getVersion());
+		Assert.assertEquals(6, index.size());
+		Assert.assertArrayEquals(new long[]{2L, 3L, 4L, 5L}, sorted(index.getDescendants(1L)));
+		Assert.assertArrayEquals(new long[]{4L, 5L}, sorted(index.getDescendants(2L)));
+		Assert.assertArrayEquals(new long[0], index.getDescendants(3L));
+		Assert.assertArrayEquals(new long[0], index.getDescendants(6L));
+		Assert.assertArrayEquals(new long[0], index.getDescendants(99L));
+	}
+
+	@Test
+	public void testIsDescendant() {
+		DeptHierarchyIndex index = DeptHierarchyIndex.build("v1", DEPTS);
+		Assert.assertTrue(index.isDescendant(1L, 5L));
+		Assert.assertTrue(index.isDescendant(2L, 4L));
+		Assert.assertFalse(index.isDescendant(2L, 3L));
+		Assert.assertFalse(index.isDescendant(5L, 1L));
+		Assert.assertFalse(index.isDescendant(1L, 1L));
+		Assert.assertFalse(index.isDescendant(1L, 6L));
+		Assert.assertFalse(index.isDescendant(1L, 99L));
+	}
+
+	@Test
+	public void testCycle() {
+		// 7 -> 8 -> 7 成环，不可达的脏数据不纳入索引；上级为自身的部门作为根
+		List<long[]> depts = Arrays.asList(new long[]{1L, 0L}, new long[]{2L, 1L}, new long[]{7L, 8L}, new long[]{8L, 7L}, new long[]{9L, 9L});
+		DeptHierarchyIndex index = DeptHierarchyIndex.build("v1", depts);
+		Assert.assertEquals(3, index.size());
+		Assert.assertFalse(index.contains(7L));
+		Assert.assertFalse(index.contains(8L));
+		Assert.assertTrue(index.contains(9L));
+		Assert.assertArrayEquals(new long[]{2L}, index.getDescendants(1L));
+	}
+
+	@Test
+	public void testDeepChain() {
+		// 深层级不依赖递归
+		int depth = 100_000;
+		long[][] depts = new long[depth][];
+		for (int i = 0; i < depth; i++) {
+			depts[i] = new long[]{i + 1L, i};
+		}
+		DeptHierarchyIndex index = DeptHierarchyIndex.build("v1", Arrays.asList(depts));
+		Assert.assertEquals(depth - 1, index.getDescendants(1L).length);
+		Assert.assertTrue(index.isDescendant(1L, depth));
+	}
+
+	private static long[] sorted(long[] ids) {
+		long[] copy = ids.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+}
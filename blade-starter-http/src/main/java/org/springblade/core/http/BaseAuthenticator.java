@@ -16,6 +16,7 @@
  */
 package org.springblade.core.http;
 
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import okhttp3.*;
 
@@ -27,6 +28,7 @@ import java.nio.charset.StandardCharsets;
  *
  * @author L.cm
  */
+@EqualsAndHashCode
 @RequiredArgsConstructor
 public class BaseAuthenticator implements Authenticator {
 	private final String userName;
@@ -0,0 +1,149 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个 host 并发限制拦截器
+ *
+ * <p>
+ * 许可在拿到响应头后释放，响应体的读取不计入并发。
+ * 只限制同步请求：异步请求在 Dispatcher 线程上执行拦截器，等待许可会占住 Dispatcher 线程，
+ * 异步请求的 host 并发由 Dispatcher 的 maxRequestsPerHost 排队限制。
+ * 存在 micrometer 时记录 blade.http.host.in.flight、blade.http.host.rejected、blade.http.host.wait 指标
+ * </p>
+ *
+ * @author L.cm
+ */
+public class HostConcurrencyInterceptor implements Interceptor {
+	private static final boolean METRICS_PRESENT = ClassUtils.isPresent("io.micrometer.core.instrument.Metrics", HostConcurrencyInterceptor.class.getClassLoader());
+	private final int maxConcurrency;
+	private final long acquireTimeoutNanos;
+	private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+	private final LongAdder rejectedCount = new LongAdder();
+
+	public HostConcurrencyInterceptor(int maxConcurrency, Duration acquireTimeout) {
+		this.maxConcurrency = maxConcurrency;
+		this.acquireTimeoutNanos = acquireTimeout.toNanos();
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		if (request.tag(Enqueued.class) != null) {
+			return chain.proceed(request);
+		}
+		String host = request.url().host();
+		Semaphore permits = hostPermits.computeIfAbsent(host, key -> new Semaphore(maxConcurrency));
+		HostConcurrencyMetrics metrics = METRICS_PRESENT ? HostConcurrencyMetrics.of(host) : null;
+		long start = metrics == null ? 0L : System.nanoTime();
+		if (!tryAcquire(permits)) {
+			rejectedCount.increment();
+			if (metrics != null) {
+				metrics.rejected(System.nanoTime() - start);
+			}
+			throw new IOException(String.format("Http host: [%s] 并发请求数超过上限: %d。", host, maxConcurrency));
+		}
+		if (metrics != null) {
+			metrics.acquired(System.nanoTime() - start);
+		}
+		try {
+			return chain.proceed(request);
+		} finally {
+			permits.release();
+			if (metrics != null) {
+				metrics.released();
+			}
+		}
+	}
+
+	private boolean tryAcquire(Semaphore permits) throws IOException {
+		if (acquireTimeoutNanos <= 0) {
+			return permits.tryAcquire();
+		}
+		try {
+			return permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Http host concurrency acquire interrupted.");
+		}
+	}
+
+	/**
+	 * 单个 host 最大并发数
+	 *
+	 * @return 并发数
+	 */
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * 获取 host 当前的并发请求数
+	 *
+	 * @param host host
+	 * @return 并发请求数
+	 */
+	public int getActiveCount(String host) {
+		Semaphore permits = hostPermits.get(host);
+		return permits == null ? 0 : maxConcurrency - permits.availablePermits();
+	}
+
+	/**
+	 * 获取所有 host 当前的并发请求数
+	 *
+	 * @return host 和并发请求数
+	 */
+	public Map<String, Integer> getActiveCounts() {
+		Map<String, Integer> activeCounts = new HashMap<>(hostPermits.size());
+		hostPermits.forEach((host, permits) -> activeCounts.put(host, maxConcurrency - permits.availablePermits()));
+		return activeCounts;
+	}
+
+	/**
+	 * 因超过并发上限被拒绝的请求数
+	 *
+	 * @return 拒绝数
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.sum();
+	}
+
+	/**
+	 * 异步请求标记，由 HttpRequest 在 enqueue 的请求上设置
+	 */
+	static final class Enqueued {
+		static final Enqueued INSTANCE = new Enqueued();
+
+		private Enqueued() {
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * host 并发指标，仅在 micrometer 存在时加载
+ *
+ * <p>
+ * 指标按 host 共享，重新设置并发上限后新旧拦截器计入同一组指标
+ * </p>
+ *
+ * @author L.cm
+ */
+final class HostConcurrencyMetrics {
+	private static final String METRIC_IN_FLIGHT = "blade.http.host.in.flight";
+	private static final String METRIC_REJECTED = "blade.http.host.rejected";
+	private static final String METRIC_WAIT = "blade.http.host.wait";
+	private static final Map<String, HostConcurrencyMetrics> HOSTS = new ConcurrentHashMap<>();
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Counter rejected;
+	private final Timer wait;
+
+	private HostConcurrencyMetrics(String host) {
+		Tags tags = Tags.of("host", host);
+		Metrics.gauge(METRIC_IN_FLIGHT, tags, inFlight);
+		this.rejected = Metrics.counter(METRIC_REJECTED, tags);
+		this.wait = Metrics.timer(METRIC_WAIT, tags);
+	}
+
+	static HostConcurrencyMetrics of(String host) {
+		return HOSTS.computeIfAbsent(host, HostConcurrencyMetrics::new);
+	}
+
+	void acquired(long waitNanos) {
+		inFlight.incrementAndGet();
+		wait.record(waitNanos, TimeUnit.NANOSECONDS);
+	}
+
+	void rejected(long waitNanos) {
+		rejected.increment();
+		wait.record(waitNanos, TimeUnit.NANOSECONDS);
+	}
+
+	void released() {
+		inFlight.decrementAndGet();
+	}
+}
@@ -0,0 +1,260 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * 基于 Call.enqueue 的 CompletableFuture 异步执行、并发扇出和对冲请求
+ *
+ * @author L.cm
+ */
+final class HttpFutures {
+
+	private HttpFutures() {
+	}
+
+	/**
+	 * 异步执行请求，future 取消时同时取消 http 请求
+	 *
+	 * @param call     Call
+	 * @param func     响应处理，在 okhttp 的回调线程执行，执行完关闭响应
+	 * @param recorder 耗时统计
+	 * @param <R>      泛型
+	 * @return CompletableFuture
+	 */
+	static <R> CompletableFuture<R> enqueue(Call call, Function<ResponseSpec, R> func, @Nullable LatencyRecorder recorder) {
+		CompletableFuture<R> future = new CompletableFuture<>();
+		future.whenComplete((value, e) -> {
+			if (future.isCancelled()) {
+				call.cancel();
+			}
+		});
+		call.enqueue(new FutureCallback<>(future, func, recorder));
+		return future;
+	}
+
+	/**
+	 * 对冲请求，delay 后请求仍未完成则发送一个副本，取先成功的结果并取消另外一个
+	 *
+	 * @param call     Call
+	 * @param func     响应处理
+	 * @param delay    对冲延迟
+	 * @param recorder 耗时统计
+	 * @param <R>      泛型
+	 * @return CompletableFuture
+	 */
+	static <R> CompletableFuture<R> hedge(Call call, Function<ResponseSpec, R> func, Duration delay, @Nullable LatencyRecorder recorder) {
+		CompletableFuture<R> result = new CompletableFuture<>();
+		Call backup = call.clone();
+		backup.timeout().timeout(call.timeout().timeoutNanos(), TimeUnit.NANOSECONDS);
+		// 原请求和对冲请求各占一个名额，全部失败时才失败
+		AtomicInteger pending = new AtomicInteger(2);
+		ScheduledFuture<?> timer = Scheduler.INSTANCE.schedule(() -> {
+			if (!result.isDone()) {
+				enqueue(backup, func, recorder).whenComplete((value, e) -> {
+					if (e == null) {
+						result.complete(value);
+					} else if (pending.decrementAndGet() == 0) {
+						result.completeExceptionally(e);
+					}
+				});
+			}
+		}, delay.toNanos(), TimeUnit.NANOSECONDS);
+		result.whenComplete((value, e) -> {
+			timer.cancel(false);
+			call.cancel();
+			backup.cancel();
+		});
+		enqueue(call, func, recorder).whenComplete((value, e) -> {
+			if (e == null) {
+				result.complete(value);
+				return;
+			}
+			// 对冲请求还没有发出，直接失败
+			int skipped = timer.cancel(false) ? 1 : 0;
+			if (pending.addAndGet(-1 - skipped) == 0) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * 并发执行多个请求，任意一个失败或超过截止时间时失败并取消其余请求
+	 *
+	 * @param requests       请求集合
+	 * @param func           响应处理
+	 * @param maxConcurrency 最大并发数
+	 * @param deadline       整体截止时间
+	 * @param <R>            泛型
+	 * @return 与请求顺序一致的结果
+	 */
+	static <R> CompletableFuture<List<R>> all(List<HttpRequest> requests, Function<ResponseSpec, R> func,
+											  int maxConcurrency, Duration deadline) {
+		int size = requests.size();
+		if (size == 0) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		FanOut<R> fanOut = new FanOut<>(requests, func, System.nanoTime() + deadline.toNanos());
+		ScheduledFuture<?> timer = Scheduler.INSTANCE.schedule(() ->
+			fanOut.result.completeExceptionally(new TimeoutException("Http requests deadline exceeded: " + deadline)),
+			deadline.toNanos(), TimeUnit.NANOSECONDS);
+		fanOut.result.whenComplete((value, e) -> {
+			timer.cancel(false);
+			fanOut.cancelAll();
+		});
+		int concurrency = Math.max(1, Math.min(maxConcurrency, size));
+		for (int i = 0; i < concurrency; i++) {
+			fanOut.startNext();
+		}
+		return fanOut.result;
+	}
+
+	private static class FanOut<R> {
+		private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+		private final List<HttpRequest> requests;
+		private final Function<ResponseSpec, R> func;
+		private final long deadlineNanos;
+		private final AtomicReferenceArray<R> values;
+		private final AtomicReferenceArray<CompletableFuture<R>> futures;
+		private final AtomicInteger next = new AtomicInteger();
+		private final AtomicInteger remaining;
+
+		private FanOut(List<HttpRequest> requests, Function<ResponseSpec, R> func, long deadlineNanos) {
+			this.requests = requests;
+			this.func = func;
+			this.deadlineNanos = deadlineNanos;
+			this.values = new AtomicReferenceArray<>(requests.size());
+			this.futures = new AtomicReferenceArray<>(requests.size());
+			this.remaining = new AtomicInteger(requests.size());
+		}
+
+		private void startNext() {
+			int index = next.getAndIncrement();
+			if (index >= requests.size() || result.isDone()) {
+				return;
+			}
+			long remainingNanos = deadlineNanos - System.nanoTime();
+			if (remainingNanos <= 0) {
+				result.completeExceptionally(new TimeoutException("Http requests deadline exceeded."));
+				return;
+			}
+			CompletableFuture<R> future = requests.get(index)
+				.callTimeout(Duration.ofNanos(remainingNanos))
+				.executeAsync(func);
+			futures.set(index, future);
+			// 与 cancelAll 竞争时，保证不遗留请求
+			if (result.isDone()) {
+				future.cancel(false);
+				return;
+			}
+			future.whenComplete((value, e) -> {
+				if (e != null) {
+					result.completeExceptionally(e);
+					return;
+				}
+				values.set(index, value);
+				if (remaining.decrementAndGet() == 0) {
+					result.complete(toList());
+				} else {
+					startNext();
+				}
+			});
+		}
+
+		private List<R> toList() {
+			int size = values.length();
+			List<R> list = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				list.add(values.get(i));
+			}
+			return list;
+		}
+
+		private void cancelAll() {
+			for (int i = 0; i < futures.length(); i++) {
+				CompletableFuture<R> future = futures.get(i);
+				if (future != null) {
+					future.cancel(false);
+				}
+			}
+		}
+	}
+
+	@ParametersAreNonnullByDefault
+	private static class FutureCallback<R> implements Callback {
+		private final CompletableFuture<R> future;
+		private final Function<ResponseSpec, R> func;
+		@Nullable
+		private final LatencyRecorder recorder;
+
+		private FutureCallback(CompletableFuture<R> future, Function<ResponseSpec, R> func, @Nullable LatencyRecorder recorder) {
+			this.future = future;
+			this.func = func;
+			this.recorder = recorder;
+		}
+
+		@Override
+		public void onFailure(Call call, IOException e) {
+			future.completeExceptionally(e);
+		}
+
+		@Override
+		public void onResponse(Call call, Response response) {
+			if (recorder != null) {
+				recorder.record(response.receivedResponseAtMillis() - response.sentRequestAtMillis());
+			}
+			try (HttpResponse httpResponse = new HttpResponse(response)) {
+				future.complete(func.apply(httpResponse));
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * 对冲和截止时间共用的定时器
+	 */
+	private static class Scheduler {
+		private static final ScheduledThreadPoolExecutor INSTANCE = createScheduler();
+
+		private static ScheduledThreadPoolExecutor createScheduler() {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, "blade-http-scheduler");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.setRemoveOnCancelPolicy(true);
+			return executor;
+		}
+	}
+}
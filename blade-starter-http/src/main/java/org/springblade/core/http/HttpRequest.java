@@ -38,9 +38,13 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -51,9 +55,20 @@ import java.util.function.Predicate;
 public class HttpRequest {
 	private static final String DEFAULT_USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/74.0.3729.169 Safari/537.36";
 	private static final MediaType APPLICATION_JSON = MediaType.parse("application/json;charset=UTF-8");
+	/**
+	 * 客户端 profile 缓存上限
+	 */
+	private static final int MAX_CLIENT_PROFILES = 64;
+	/**
+	 * 客户端 profile 缓存，key 为请求的有效配置，value 均由 httpClient 派生，共享同一个连接池和 Dispatcher
+	 */
+	private static final Map<List<Object>, OkHttpClient> CLIENT_PROFILES = new ConcurrentHashMap<>();
+	private static final Map<HttpLoggingInterceptor.Level, HttpLoggingInterceptor> LOGGING_INTERCEPTORS = new ConcurrentHashMap<>();
 	private static volatile OkHttpClient httpClient = new OkHttpClient();
 	@Nullable
-	private static HttpLoggingInterceptor globalLoggingInterceptor = null;
+	private static volatile HttpLoggingInterceptor globalLoggingInterceptor = null;
+	@Nullable
+	private static volatile HostConcurrencyInterceptor hostConcurrencyInterceptor = null;
 	private final Request.Builder requestBuilder;
 	private final HttpUrl.Builder uriBuilder;
 	private final String httpMethod;
@@ -95,6 +110,11 @@ public class HttpRequest {
 	private SSLSocketFactory sslSocketFactory;
 	@Nullable
 	private X509TrustManager trustManager;
+	@Nullable
+	private Duration callTimeout;
+	@Nullable
+	private Duration hedgeDelay;
+	private boolean adaptiveHedge;
 
 	public static HttpRequest get(final String url) {
 		return new HttpRequest(new Request.Builder(), url, Method.GET);
@@ -211,7 +231,66 @@ public class HttpRequest {
 		this.userAgent = DEFAULT_USER_AGENT;
 	}
 
-	private Call internalCall(final OkHttpClient client) {
+	private Call internalCall(final OkHttpClient client, boolean enqueued) {
+		HttpLoggingInterceptor globalInterceptor = globalLoggingInterceptor;
+		HostConcurrencyInterceptor hostInterceptor = hostConcurrencyInterceptor;
+		OkHttpClient callClient;
+		if (isProfileCacheable()) {
+			callClient = getProfileClient(client, globalInterceptor, hostInterceptor);
+		} else {
+			callClient = buildClient(client, globalInterceptor, hostInterceptor);
+		}
+		// 设置 User-Agent
+		requestBuilder.header("User-Agent", userAgent);
+		// url
+		requestBuilder.url(uriBuilder.build());
+		// 异步请求不做 host 并发限制，避免占住 Dispatcher 线程
+		requestBuilder.tag(HostConcurrencyInterceptor.Enqueued.class, enqueued ? HostConcurrencyInterceptor.Enqueued.INSTANCE : null);
+		String method = httpMethod;
+		Request request;
+		if (HttpMethod.requiresRequestBody(method) && requestBody == null) {
+			request = requestBuilder.method(method, Util.EMPTY_REQUEST).build();
+		} else {
+			request = requestBuilder.method(method, requestBody).build();
+		}
+		Call call = callClient.newCall(request);
+		if (callTimeout != null) {
+			call.timeout().timeout(callTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		return call;
+	}
+
+	/**
+	 * 自定义拦截器、EventListener 和带结果校验的重试一般为每次请求新建的对象，不参与 profile 缓存
+	 *
+	 * @return 是否可以复用缓存的客户端
+	 */
+	private boolean isProfileCacheable() {
+		return interceptors.isEmpty() && eventListener == null
+			&& (retryPolicy == null || retryPolicy.getRespPredicate() == null);
+	}
+
+	private OkHttpClient getProfileClient(OkHttpClient client,
+										  @Nullable HttpLoggingInterceptor globalInterceptor,
+										  @Nullable HostConcurrencyInterceptor hostInterceptor) {
+		List<Object> profile = Arrays.asList(client, connectTimeout, readTimeout, writeTimeout, proxy, proxySelector,
+			proxyAuthenticator, hostnameVerifier, sslSocketFactory, trustManager, disableSslValidation, authenticator,
+			cookieJar, followRedirects, followSslRedirects, retryPolicy, level, globalInterceptor, hostInterceptor);
+		OkHttpClient profileClient = CLIENT_PROFILES.get(profile);
+		if (profileClient != null) {
+			return profileClient;
+		}
+		profileClient = buildClient(client, globalInterceptor, hostInterceptor);
+		if (CLIENT_PROFILES.size() >= MAX_CLIENT_PROFILES) {
+			CLIENT_PROFILES.clear();
+		}
+		OkHttpClient previous = CLIENT_PROFILES.putIfAbsent(profile, profileClient);
+		return previous == null ? profileClient : previous;
+	}
+
+	private OkHttpClient buildClient(OkHttpClient client,
+									 @Nullable HttpLoggingInterceptor globalInterceptor,
+									 @Nullable HostConcurrencyInterceptor hostInterceptor) {
 		OkHttpClient.Builder builder = client.newBuilder();
 		if (connectTimeout != null) {
 			builder.connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS);
@@ -263,29 +342,75 @@ public class HttpRequest {
 		}
 		if (level != null && HttpLoggingInterceptor.Level.NONE != level) {
 			builder.addInterceptor(getLoggingInterceptor(level));
-		} else if (globalLoggingInterceptor != null) {
-			builder.addInterceptor(globalLoggingInterceptor);
+		} else if (globalInterceptor != null) {
+			builder.addInterceptor(globalInterceptor);
 		}
-		// 设置 User-Agent
-		requestBuilder.header("User-Agent", userAgent);
-		// url
-		requestBuilder.url(uriBuilder.build());
-		String method = httpMethod;
-		Request request;
-		if (HttpMethod.requiresRequestBody(method) && requestBody == null) {
-			request = requestBuilder.method(method, Util.EMPTY_REQUEST).build();
-		} else {
-			request = requestBuilder.method(method, requestBody).build();
+		// 放在最后，每次重试各自占用并发许可
+		if (hostInterceptor != null) {
+			builder.addInterceptor(hostInterceptor);
 		}
-		return builder.build().newCall(request);
+		return builder.build();
 	}
 
 	public Exchange execute() {
-		return new Exchange(internalCall(httpClient));
+		return new Exchange(internalCall(httpClient, false));
 	}
 
 	public AsyncCall async() {
-		return new AsyncCall(internalCall(httpClient));
+		return new AsyncCall(internalCall(httpClient, true));
+	}
+
+	/**
+	 * 异步执行，响应体已读入内存，无需关闭
+	 *
+	 * @return CompletableFuture
+	 */
+	public CompletableFuture<ResponseSpec> executeAsync() {
+		return executeAsync(HttpRequest::bufferResponse);
+	}
+
+	/**
+	 * 异步执行，func 在 okhttp 回调线程中执行，执行完自动关闭响应，取消 future 时同时取消请求
+	 *
+	 * @param func 响应处理
+	 * @param <R>  泛型
+	 * @return CompletableFuture
+	 */
+	public <R> CompletableFuture<R> executeAsync(Function<ResponseSpec, R> func) {
+		Call call = internalCall(httpClient, true);
+		// 对冲请求只用于幂等请求
+		if ((hedgeDelay == null && !adaptiveHedge) || Method.POST.equals(httpMethod) || Method.PATCH.equals(httpMethod)) {
+			return HttpFutures.enqueue(call, func, null);
+		}
+		LatencyRecorder recorder = adaptiveHedge ? LatencyRecorder.of(call.request().url().host()) : null;
+		Duration delay = hedgeDelay;
+		if (delay == null && recorder != null && recorder.p95Millis() >= 0) {
+			delay = Duration.ofMillis(recorder.p95Millis());
+		}
+		if (delay == null) {
+			return HttpFutures.enqueue(call, func, recorder);
+		}
+		return HttpFutures.hedge(call, func, delay, recorder);
+	}
+
+	/**
+	 * 并发执行多个请求，任意一个失败或超过截止时间时失败并取消其余请求
+	 *
+	 * @param requests       请求集合
+	 * @param func           响应处理
+	 * @param maxConcurrency 最大并发数
+	 * @param deadline       整体截止时间
+	 * @param <R>            泛型
+	 * @return 与请求顺序一致的结果
+	 */
+	public static <R> CompletableFuture<List<R>> executeAll(List<HttpRequest> requests, Function<ResponseSpec, R> func,
+															int maxConcurrency, Duration deadline) {
+		return HttpFutures.all(requests, func, maxConcurrency, deadline);
+	}
+
+	private static ResponseSpec bufferResponse(ResponseSpec responseSpec) {
+		ResponseBody body = ResponseBody.create(responseSpec.contentType(), responseSpec.asBytes());
+		return new HttpResponse(responseSpec.rawResponse().newBuilder().body(body).build());
 	}
 
 	public HttpRequest baseAuth(String userName, String password) {
@@ -346,6 +471,10 @@ public class HttpRequest {
 	}
 
 	private static HttpLoggingInterceptor getLoggingInterceptor(HttpLoggingInterceptor.Level level) {
+		return LOGGING_INTERCEPTORS.computeIfAbsent(level, HttpRequest::createLoggingInterceptor);
+	}
+
+	private static HttpLoggingInterceptor createLoggingInterceptor(HttpLoggingInterceptor.Level level) {
 		HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor(Slf4jLogger.INSTANCE);
 		loggingInterceptor.setLevel(level);
 		return loggingInterceptor;
@@ -428,7 +557,44 @@ public class HttpRequest {
 	}
 
 	public HttpRequest retry(int maxAttempts, long sleepMillis, Predicate<ResponseSpec> respPredicate) {
-		this.retryPolicy = new RetryPolicy(maxAttempts, sleepMillis);
+		this.retryPolicy = new RetryPolicy(maxAttempts, sleepMillis, respPredicate);
+		return this;
+	}
+
+	public HttpRequest retry(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		return this;
+	}
+
+	/**
+	 * 整个请求的超时时间，包括 dns、连接、读写和重试
+	 *
+	 * @param callTimeout 超时时间
+	 * @return HttpRequest
+	 */
+	public HttpRequest callTimeout(Duration callTimeout) {
+		this.callTimeout = callTimeout;
+		return this;
+	}
+
+	/**
+	 * 对冲请求，executeAsync 时超过该 host 的 p95 耗时仍未响应则发送一个副本，取先返回的结果，仅对幂等请求生效
+	 *
+	 * @return HttpRequest
+	 */
+	public HttpRequest hedge() {
+		this.adaptiveHedge = true;
+		return this;
+	}
+
+	/**
+	 * 对冲请求，executeAsync 时超过 delay 仍未响应则发送一个副本，取先返回的结果，仅对幂等请求生效
+	 *
+	 * @param delay 对冲延迟
+	 * @return HttpRequest
+	 */
+	public HttpRequest hedge(Duration delay) {
+		this.hedgeDelay = delay;
 		return this;
 	}
 
@@ -460,10 +626,68 @@ public class HttpRequest {
 
 	public static void setHttpClient(OkHttpClient httpClient) {
 		HttpRequest.httpClient = httpClient;
+		CLIENT_PROFILES.clear();
+	}
+
+	/**
+	 * 获取默认客户端，所有请求的客户端均由它派生
+	 *
+	 * @return OkHttpClient
+	 */
+	public static OkHttpClient getHttpClient() {
+		return httpClient;
 	}
 
 	public static void setGlobalLog(LogLevel logLevel) {
 		HttpRequest.globalLoggingInterceptor = getLoggingInterceptor(logLevel.getLevel());
+		CLIENT_PROFILES.clear();
+	}
+
+	/**
+	 * 设置异步请求的并发上限，作用于 httpClient 的 Dispatcher
+	 *
+	 * @param maxRequests        最大并发请求数
+	 * @param maxRequestsPerHost 单个 host 最大并发请求数
+	 */
+	public static void setMaxRequests(int maxRequests, int maxRequestsPerHost) {
+		Dispatcher dispatcher = httpClient.dispatcher();
+		dispatcher.setMaxRequests(maxRequests);
+		dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+	}
+
+	/**
+	 * 设置单个 host 的并发上限，只限制同步请求。
+	 * 异步请求在 Dispatcher 线程上执行，等待许可会占住 Dispatcher 线程，请使用 {@link #setMaxRequests(int, int)} 限制
+	 *
+	 * @param maxConcurrency 单个 host 最大并发数，小于等于 0 时关闭
+	 * @param acquireTimeout 等待许可的超时时间
+	 */
+	public static void setHostConcurrency(int maxConcurrency, Duration acquireTimeout) {
+		if (maxConcurrency > 0) {
+			HttpRequest.hostConcurrencyInterceptor = new HostConcurrencyInterceptor(maxConcurrency, acquireTimeout);
+		} else {
+			HttpRequest.hostConcurrencyInterceptor = null;
+		}
+		CLIENT_PROFILES.clear();
+	}
+
+	/**
+	 * 获取 host 并发限制拦截器，用于读取并发统计
+	 *
+	 * @return HostConcurrencyInterceptor
+	 */
+	@Nullable
+	public static HostConcurrencyInterceptor getHostConcurrencyInterceptor() {
+		return hostConcurrencyInterceptor;
+	}
+
+	/**
+	 * 已缓存的客户端 profile 数量
+	 *
+	 * @return 数量
+	 */
+	public static int getClientProfileCount() {
+		return CLIENT_PROFILES.size();
 	}
 
 	static String handleValue(@Nullable Object value) {
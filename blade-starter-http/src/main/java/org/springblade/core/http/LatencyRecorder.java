@@ -0,0 +1,94 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * host 响应耗时统计，用于计算对冲请求的 p95 延迟
+ *
+ * @author L.cm
+ */
+final class LatencyRecorder {
+	/**
+	 * host 数量上限
+	 */
+	private static final int MAX_HOSTS = 256;
+	/**
+	 * 滑动窗口大小
+	 */
+	private static final int WINDOW_SIZE = 128;
+	/**
+	 * 样本数不足时不计算 p95
+	 */
+	private static final int MIN_SAMPLES = 20;
+	/**
+	 * 每新增多少样本重新计算一次 p95
+	 */
+	private static final int RECOMPUTE_INTERVAL = 16;
+	private static final Map<String, LatencyRecorder> RECORDERS = new ConcurrentHashMap<>();
+	private final long[] samples = new long[WINDOW_SIZE];
+	private int position = 0;
+	private int size = 0;
+	private int sinceRecompute = 0;
+	private volatile long p95Millis = -1L;
+
+	static LatencyRecorder of(String host) {
+		LatencyRecorder recorder = RECORDERS.get(host);
+		if (recorder != null) {
+			return recorder;
+		}
+		if (RECORDERS.size() >= MAX_HOSTS) {
+			RECORDERS.clear();
+		}
+		return RECORDERS.computeIfAbsent(host, key -> new LatencyRecorder());
+	}
+
+	/**
+	 * 记录一次响应耗时
+	 *
+	 * @param millis 耗时毫秒
+	 */
+	synchronized void record(long millis) {
+		samples[position] = millis;
+		position = (position + 1) % WINDOW_SIZE;
+		if (size < WINDOW_SIZE) {
+			size++;
+		}
+		if (size < MIN_SAMPLES) {
+			return;
+		}
+		if (p95Millis >= 0 && ++sinceRecompute < RECOMPUTE_INTERVAL) {
+			return;
+		}
+		sinceRecompute = 0;
+		long[] sorted = Arrays.copyOf(samples, size);
+		Arrays.sort(sorted);
+		p95Millis = sorted[(int) Math.ceil(size * 0.95D) - 1];
+	}
+
+	/**
+	 * p95 耗时
+	 *
+	 * @return 毫秒，样本不足时返回 -1
+	 */
+	long p95Millis() {
+		return p95Millis;
+	}
+}
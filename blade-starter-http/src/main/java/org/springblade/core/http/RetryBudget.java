@@ -0,0 +1,82 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按 host 的重试预算，令牌桶实现
+ *
+ * <p>
+ * 每次失败扣除 1 个令牌，每次成功返还 0.1 个令牌，令牌不超过上限的一半时不再重试，
+ * 避免故障期间大量线程同时重试放大流量
+ * </p>
+ *
+ * @author L.cm
+ */
+final class RetryBudget {
+	/**
+	 * host 数量上限
+	 */
+	private static final int MAX_HOSTS = 256;
+	/**
+	 * 令牌按千分之一计数
+	 */
+	private static final int TOKEN_UNIT = 1000;
+	private static final int MAX_TOKENS = 10 * TOKEN_UNIT;
+	private static final int SUCCESS_TOKENS = TOKEN_UNIT / 10;
+	private static final int THRESHOLD = MAX_TOKENS / 2;
+	private static final Map<String, RetryBudget> BUDGETS = new ConcurrentHashMap<>();
+	private final AtomicInteger tokens = new AtomicInteger(MAX_TOKENS);
+
+	static RetryBudget of(String host) {
+		RetryBudget budget = BUDGETS.get(host);
+		if (budget != null) {
+			return budget;
+		}
+		if (BUDGETS.size() >= MAX_HOSTS) {
+			BUDGETS.clear();
+		}
+		return BUDGETS.computeIfAbsent(host, key -> new RetryBudget());
+	}
+
+	void onSuccess() {
+		int current;
+		do {
+			current = tokens.get();
+			if (current >= MAX_TOKENS) {
+				return;
+			}
+		} while (!tokens.compareAndSet(current, Math.min(MAX_TOKENS, current + SUCCESS_TOKENS)));
+	}
+
+	void onFailure() {
+		int current;
+		do {
+			current = tokens.get();
+			if (current <= 0) {
+				return;
+			}
+		} while (!tokens.compareAndSet(current, Math.max(0, current - TOKEN_UNIT)));
+	}
+
+	boolean canRetry() {
+		return tokens.get() > THRESHOLD;
+	}
+}
@@ -16,59 +16,103 @@
  */
 package org.springblade.core.http;
 
-import lombok.RequiredArgsConstructor;
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
-import org.springframework.retry.backoff.FixedBackOffPolicy;
-import org.springframework.retry.policy.SimpleRetryPolicy;
-import org.springframework.retry.support.RetryTemplate;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.function.Predicate;
 
 /**
  * 重试拦截器，应对代理问题
  *
+ * <p>
+ * 默认只重试幂等请求，结果校验只读取响应体的前 maxPeekBytes 字节，不影响后续对完整响应体的读取
+ * </p>
+ *
  * @author L.cm
  */
-@RequiredArgsConstructor
 public class RetryInterceptor implements Interceptor {
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 	private final RetryPolicy retryPolicy;
 
+	public RetryInterceptor(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
 	@Override
 	public Response intercept(Chain chain) throws IOException {
 		Request request = chain.request();
-		RetryTemplate template = createRetryTemplate(retryPolicy);
-		return template.execute(context -> {
-			Response response = chain.proceed(request);
-			// 结果集校验
-			Predicate<ResponseSpec> respPredicate = retryPolicy.getRespPredicate();
-			if (respPredicate == null) {
-				return response;
-			}
-			// copy 一份 body
-			ResponseBody body = response.peekBody(Long.MAX_VALUE);
-			try (HttpResponse httpResponse = new HttpResponse(response)) {
-				if (respPredicate.test(httpResponse)) {
-					throw new IOException("Http Retry ResponsePredicate test Failure.");
+		if (!isRetryable(request)) {
+			return chain.proceed(request);
+		}
+		RetryBudget budget = retryPolicy.isRetryBudget() ? RetryBudget.of(request.url().host()) : null;
+		int maxAttempts = retryPolicy.getMaxAttempts();
+		for (int attempt = 1; ; attempt++) {
+			Response response = null;
+			IOException failure;
+			try {
+				response = chain.proceed(request);
+				if (!isRetryResponse(response)) {
+					if (budget != null) {
+						budget.onSuccess();
+					}
+					return response;
 				}
+				failure = new IOException("Http Retry ResponsePredicate test Failure.");
+			} catch (IOException e) {
+				failure = e;
+			}
+			closeQuietly(response);
+			if (budget != null) {
+				budget.onFailure();
+			}
+			if (attempt >= maxAttempts || chain.call().isCanceled() || (budget != null && !budget.canRetry())) {
+				throw failure;
 			}
-			return response.newBuilder().body(body).build();
-		});
+			sleep(retryPolicy.getBackOffMillis(attempt));
+		}
+	}
+
+	private boolean isRetryable(Request request) {
+		if (retryPolicy.isRetryNonIdempotent() || request.header(IDEMPOTENCY_KEY) != null) {
+			return true;
+		}
+		String method = request.method();
+		return !Method.POST.equals(method) && !Method.PATCH.equals(method);
+	}
+
+	private boolean isRetryResponse(Response response) throws IOException {
+		// 结果集校验
+		Predicate<ResponseSpec> respPredicate = retryPolicy.getRespPredicate();
+		if (respPredicate == null) {
+			return false;
+		}
+		// 只 copy 一部分 body
+		ResponseBody body = response.peekBody(retryPolicy.getMaxPeekBytes());
+		try (HttpResponse httpResponse = new HttpResponse(response.newBuilder().body(body).build())) {
+			return respPredicate.test(httpResponse);
+		}
+	}
+
+	private static void sleep(long millis) throws InterruptedIOException {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Http Retry interrupted.");
+		}
 	}
 
-	private static RetryTemplate createRetryTemplate(RetryPolicy policy) {
-		RetryTemplate template = new RetryTemplate();
-		// 重试策略
-		SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy();
-		retryPolicy.setMaxAttempts(policy.getMaxAttempts());
-		// 设置间隔策略
-		FixedBackOffPolicy backOffPolicy = new FixedBackOffPolicy();
-		backOffPolicy.setBackOffPeriod(policy.getSleepMillis());
-		template.setRetryPolicy(retryPolicy);
-		template.setBackOffPolicy(backOffPolicy);
-		return template;
+	private static void closeQuietly(@Nullable Response response) {
+		if (response != null) {
+			response.close();
+		}
 	}
 }
@@ -16,27 +16,66 @@
  */
 package org.springblade.core.http;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 
 import javax.annotation.Nullable;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
 
 /**
  * 重试策略
  *
+ * <p>
+ * 间隔按 multiplier 指数增长，不超过 maxSleepMillis，开启 jitter 时在 [0, 间隔] 中随机取值
+ * </p>
+ *
  * @author dream.lu
  */
 @Getter
 @ToString
+@EqualsAndHashCode
 public class RetryPolicy {
 	public static final RetryPolicy INSTANCE = new RetryPolicy();
+	/**
+	 * 默认最大重试间隔
+	 */
+	public static final long DEFAULT_MAX_SLEEP_MILLIS = 10_000L;
+	/**
+	 * 默认结果校验读取的最大响应体长度
+	 */
+	public static final long DEFAULT_MAX_PEEK_BYTES = 64 * 1024L;
 
 	private final int maxAttempts;
 	private final long sleepMillis;
 	@Nullable
 	private final Predicate<ResponseSpec> respPredicate;
+	/**
+	 * 最大重试间隔
+	 */
+	private final long maxSleepMillis;
+	/**
+	 * 重试间隔增长倍数
+	 */
+	private final double multiplier;
+	/**
+	 * 是否随机化重试间隔，避免大量线程同时重试
+	 */
+	private final boolean jitter;
+	/**
+	 * 是否重试非幂等请求（POST、PATCH），默认只重试幂等请求或带 Idempotency-Key 头的请求
+	 */
+	private final boolean retryNonIdempotent;
+	/**
+	 * 是否启用按 host 的重试预算
+	 */
+	private final boolean retryBudget;
+	/**
+	 * 结果校验时最多读取的响应体长度
+	 */
+	private final long maxPeekBytes;
 
 	public RetryPolicy() {
 		this(null);
@@ -51,8 +90,92 @@ public class RetryPolicy {
 	}
 
 	public RetryPolicy(int maxAttempts, long sleepMillis, @Nullable Predicate<ResponseSpec> respPredicate) {
+		this(maxAttempts, sleepMillis, respPredicate, Math.max(sleepMillis, DEFAULT_MAX_SLEEP_MILLIS), 2.0D,
+			true, false, true, DEFAULT_MAX_PEEK_BYTES);
+	}
+
+	public RetryPolicy(int maxAttempts, long sleepMillis, @Nullable Predicate<ResponseSpec> respPredicate,
+					   long maxSleepMillis, double multiplier, boolean jitter, boolean retryNonIdempotent,
+					   boolean retryBudget, long maxPeekBytes) {
 		this.maxAttempts = maxAttempts;
 		this.sleepMillis = sleepMillis;
 		this.respPredicate = respPredicate;
+		this.maxSleepMillis = maxSleepMillis;
+		this.multiplier = multiplier;
+		this.jitter = jitter;
+		this.retryNonIdempotent = retryNonIdempotent;
+		this.retryBudget = retryBudget;
+		this.maxPeekBytes = maxPeekBytes;
+	}
+
+	/**
+	 * 设置指数退避参数
+	 *
+	 * @param maxSleepMillis 最大重试间隔
+	 * @param multiplier     间隔增长倍数，1 为固定间隔
+	 * @return 新的 RetryPolicy
+	 */
+	public RetryPolicy backOff(long maxSleepMillis, double multiplier) {
+		return new RetryPolicy(maxAttempts, sleepMillis, respPredicate, maxSleepMillis, multiplier,
+			jitter, retryNonIdempotent, retryBudget, maxPeekBytes);
+	}
+
+	/**
+	 * 关闭重试间隔随机化
+	 *
+	 * @return 新的 RetryPolicy
+	 */
+	public RetryPolicy withoutJitter() {
+		return new RetryPolicy(maxAttempts, sleepMillis, respPredicate, maxSleepMillis, multiplier,
+			false, retryNonIdempotent, retryBudget, maxPeekBytes);
+	}
+
+	/**
+	 * 允许重试非幂等请求，调用方需保证服务端能处理重复请求
+	 *
+	 * @return 新的 RetryPolicy
+	 */
+	public RetryPolicy withNonIdempotent() {
+		return new RetryPolicy(maxAttempts, sleepMillis, respPredicate, maxSleepMillis, multiplier,
+			jitter, true, retryBudget, maxPeekBytes);
+	}
+
+	/**
+	 * 关闭重试预算
+	 *
+	 * @return 新的 RetryPolicy
+	 */
+	public RetryPolicy withoutRetryBudget() {
+		return new RetryPolicy(maxAttempts, sleepMillis, respPredicate, maxSleepMillis, multiplier,
+			jitter, retryNonIdempotent, false, maxPeekBytes);
+	}
+
+	/**
+	 * 设置结果校验时最多读取的响应体长度
+	 *
+	 * @param maxPeekBytes 最大长度
+	 * @return 新的 RetryPolicy
+	 */
+	public RetryPolicy withMaxPeekBytes(long maxPeekBytes) {
+		return new RetryPolicy(maxAttempts, sleepMillis, respPredicate, maxSleepMillis, multiplier,
+			jitter, retryNonIdempotent, retryBudget, maxPeekBytes);
+	}
+
+	/**
+	 * 计算第 attempt 次失败后的重试间隔
+	 *
+	 * @param attempt 已执行次数，从 1 开始
+	 * @return 间隔毫秒
+	 */
+	public long getBackOffMillis(int attempt) {
+		if (sleepMillis <= 0) {
+			return 0L;
+		}
+		double backOff = sleepMillis * Math.pow(multiplier, attempt - 1);
+		long millis = (long) Math.min(backOff, maxSleepMillis);
+		if (jitter) {
+			return ThreadLocalRandom.current().nextLong(millis + 1);
+		}
+		return millis;
 	}
 }
@@ -0,0 +1,55 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * HttpRequest 客户端配置
+ *
+ * @author L.cm
+ */
+@Getter
+@Setter
+@ConfigurationProperties("blade.http.client")
+public class BladeHttpClientProperties {
+	/**
+	 * 是否直接使用 spring 容器中的 OkHttpClient，默认关闭。
+	 * 开启后会继承该客户端的 ssl 校验、拦截器和超时配置（blade.http.disable-ssl-validation 默认关闭 ssl 校验）
+	 */
+	private boolean useSpringClient = false;
+	/**
+	 * 异步请求最大并发数
+	 */
+	private int maxRequests = 64;
+	/**
+	 * 异步请求单个 host 最大并发数
+	 */
+	private int maxRequestsPerHost = 5;
+	/**
+	 * 单个 host 最大并发数，只限制同步请求，异步请求由 maxRequestsPerHost 限制，默认 0 不限制
+	 */
+	private int hostConcurrency = 0;
+	/**
+	 * 等待 host 并发许可的超时时间，默认不等待
+	 */
+	private Duration hostAcquireTimeout = Duration.ZERO;
+}
@@ -0,0 +1,61 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http.config;
+
+import lombok.RequiredArgsConstructor;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.springblade.core.http.HttpRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * HttpRequest 配置
+ *
+ * <p>
+ * 默认客户端只复用 spring 容器中的 ConnectionPool，保留 okhttp 默认的 ssl 校验和超时；
+ * blade.http.client.use-spring-client=true 时直接使用容器中的 OkHttpClient
+ * </p>
+ *
+ * @author L.cm
+ */
+@RequiredArgsConstructor
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(BladeHttpClientProperties.class)
+public class HttpRequestConfiguration implements SmartInitializingSingleton {
+	private final ObjectProvider<OkHttpClient> httpClientProvider;
+	private final ObjectProvider<ConnectionPool> connectionPoolProvider;
+	private final BladeHttpClientProperties properties;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		OkHttpClient httpClient = properties.isUseSpringClient() ? httpClientProvider.getIfUnique() : null;
+		if (httpClient == null) {
+			ConnectionPool connectionPool = connectionPoolProvider.getIfUnique();
+			if (connectionPool != null) {
+				httpClient = HttpRequest.getHttpClient().newBuilder().connectionPool(connectionPool).build();
+			}
+		}
+		if (httpClient != null) {
+			HttpRequest.setHttpClient(httpClient);
+		}
+		HttpRequest.setMaxRequests(properties.getMaxRequests(), properties.getMaxRequestsPerHost());
+		HttpRequest.setHostConcurrency(properties.getHostConcurrency(), properties.getHostAcquireTimeout());
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.*;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * host 并发限制测试
+ *
+ * @author L.cm
+ */
+public class HostConcurrencyInterceptorTest {
+	private static final SimpleMeterRegistry REGISTRY = new SimpleMeterRegistry();
+
+	@BeforeClass
+	public static void setUp() {
+		Metrics.addRegistry(REGISTRY);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		Metrics.removeRegistry(REGISTRY);
+	}
+
+	@Test
+	public void testLimitAndMetrics() throws IOException {
+		HostConcurrencyInterceptor interceptor = new HostConcurrencyInterceptor(1, Duration.ZERO);
+		Request request = new Request.Builder().url("http://sync.test/a").build();
+		// 请求进行中再次请求同一个 host，超过上限被拒绝
+		interceptor.intercept(new StubChain(request, () -> {
+			Assert.assertEquals(1, interceptor.getActiveCount("sync.test"));
+			Assert.assertEquals(1.0, REGISTRY.get("blade.http.host.in.flight").tag("host", "sync.test").gauge().value(), 0.0);
+			try {
+				interceptor.intercept(new StubChain(request, null));
+				Assert.fail("should be rejected");
+			} catch (IOException e) {
+				Assert.assertTrue(e.getMessage().contains("sync.test"));
+			}
+		}));
+		Assert.assertEquals(0, interceptor.getActiveCount("sync.test"));
+		Assert.assertEquals(1L, interceptor.getRejectedCount());
+		Assert.assertEquals(0.0, REGISTRY.get("blade.http.host.in.flight").tag("host", "sync.test").gauge().value(), 0.0);
+		Assert.assertEquals(1.0, REGISTRY.get("blade.http.host.rejected").tag("host", "sync.test").counter().count(), 0.0);
+		Assert.assertEquals(2L, REGISTRY.get("blade.http.host.wait").tag("host", "sync.test").timer().count());
+	}
+
+	@Test
+	public void testEnqueuedSkipped() throws IOException {
+		HostConcurrencyInterceptor interceptor = new HostConcurrencyInterceptor(1, Duration.ZERO);
+		Request request = new Request.Builder().url("http://async.test/a")
+			.tag(HostConcurrencyInterceptor.Enqueued.class, HostConcurrencyInterceptor.Enqueued.INSTANCE)
+			.build();
+		// 异步请求不占用许可，也不会被拒绝
+		interceptor.intercept(new StubChain(request, () -> {
+			Assert.assertEquals(0, interceptor.getActiveCount("async.test"));
+			try {
+				interceptor.intercept(new StubChain(request, null));
+			} catch (IOException e) {
+				throw new AssertionError(e);
+			}
+		}));
+		Assert.assertEquals(0L, interceptor.getRejectedCount());
+		Assert.assertNull(REGISTRY.find("blade.http.host.in.flight").tag("host", "async.test").gauge());
+	}
+
+	private static class StubChain implements Interceptor.Chain {
+		private final Request request;
+		private final Runnable onProceed;
+
+		StubChain(Request request, Runnable onProceed) {
+			this.request = request;
+			this.onProceed = onProceed;
+		}
+
+		@Override
+		public Request request() {
+			return request;
+		}
+
+		@Override
+		public Response proceed(Request request) {
+			if (onProceed != null) {
+				onProceed.run();
+			}
+			return new Response.Builder()
+				.request(request)
+				.protocol(Protocol.HTTP_1_1)
+				.code(200)
+				.message("OK")
+				.build();
+		}
+
+		@Override
+		public Connection connection() {
+			return null;
+		}
+
+		@Override
+		public Call call() {
+			return null;
+		}
+
+		@Override
+		public int connectTimeoutMillis() {
+			return 0;
+		}
+
+		@Override
+		public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+			return this;
+		}
+
+		@Override
+		public int readTimeoutMillis() {
+			return 0;
+		}
+
+		@Override
+		public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+			return this;
+		}
+
+		@Override
+		public int writeTimeoutMillis() {
+			return 0;
+		}
+
+		@Override
+		public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+			return this;
+		}
+	}
+}
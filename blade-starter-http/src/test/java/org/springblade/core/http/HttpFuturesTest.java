@@ -0,0 +1,223 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * CompletableFuture 异步执行、并发扇出和对冲请求测试
+ *
+ * @author L.cm
+ */
+public class HttpFuturesTest {
+	/**
+	 * 非 200 时抛出异常
+	 */
+	private static final Function<ResponseSpec, String> CHECKED = response -> {
+		if (!response.isOk()) {
+			throw new IllegalStateException("Http code: " + response.code());
+		}
+		return response.asString();
+	};
+	private final MockWebServer server = new MockWebServer();
+	private final OkHttpClient original = HttpRequest.getHttpClient();
+	private final OkHttpClient httpClient = new OkHttpClient();
+	/**
+	 * /slow 请求阻塞到测试结束
+	 */
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger hedgeRequests = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	@Before
+	public void setUp() throws IOException {
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+				String path = request.getPath();
+				if (path.startsWith("/slow")) {
+					release.await();
+					return new MockResponse().setBody("slow");
+				}
+				if (path.startsWith("/fail")) {
+					return new MockResponse().setResponseCode(500);
+				}
+				if (path.startsWith("/hedge")) {
+					// 原请求阻塞，对冲请求立即返回
+					if (hedgeRequests.incrementAndGet() == 1) {
+						release.await();
+						return new MockResponse().setBody("primary");
+					}
+					return new MockResponse().setBody("backup");
+				}
+				int current = inFlight.incrementAndGet();
+				maxInFlight.accumulateAndGet(current, Math::max);
+				TimeUnit.MILLISECONDS.sleep(20);
+				inFlight.decrementAndGet();
+				return new MockResponse().setBody(path);
+			}
+		});
+		server.start();
+		HttpRequest.setHttpClient(httpClient);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		HttpRequest.setHttpClient(original);
+		release.countDown();
+		server.shutdown();
+	}
+
+	@Test
+	public void testExecuteAsync() throws Exception {
+		Assert.assertEquals("/ok", HttpRequest.get(url("/ok")).executeAsync(ResponseSpec::asString).get(5, TimeUnit.SECONDS));
+		Assert.assertEquals("/ok", HttpRequest.get(url("/ok")).executeAsync().get(5, TimeUnit.SECONDS).asString());
+	}
+
+	@Test
+	public void testExceptionPropagation() throws Exception {
+		CompletableFuture<String> future = HttpRequest.get(url("/ok")).executeAsync(response -> {
+			throw new IllegalStateException("func error");
+		});
+		Assert.assertTrue(causeOf(future) instanceof IllegalStateException);
+		Assert.assertTrue(causeOf(HttpRequest.get(url("/fail")).executeAsync(CHECKED)) instanceof IllegalStateException);
+		// 连接失败
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		Assert.assertTrue(causeOf(HttpRequest.get("http://127.0.0.1:" + port + "/").executeAsync(CHECKED)) instanceof IOException);
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		CompletableFuture<String> future = HttpRequest.get(url("/slow")).executeAsync(ResponseSpec::asString);
+		awaitRunning(1);
+		future.cancel(false);
+		// 取消 future 同时取消 http 请求
+		awaitRunning(0);
+	}
+
+	@Test
+	public void testHedgeCancelsLoser() throws Exception {
+		CompletableFuture<String> future = HttpRequest.get(url("/hedge"))
+			.hedge(Duration.ofMillis(100))
+			.executeAsync(ResponseSpec::asString);
+		Assert.assertEquals("backup", future.get(5, TimeUnit.SECONDS));
+		Assert.assertEquals(2, hedgeRequests.get());
+		// 先返回的结果胜出后取消仍在阻塞的原请求
+		awaitRunning(0);
+	}
+
+	@Test
+	public void testHedgeNotSentWhenFast() throws Exception {
+		CompletableFuture<String> future = HttpRequest.get(url("/ok"))
+			.hedge(Duration.ofSeconds(5))
+			.executeAsync(ResponseSpec::asString);
+		Assert.assertEquals("/ok", future.get(5, TimeUnit.SECONDS));
+		Assert.assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testAllInOrder() throws Exception {
+		List<HttpRequest> requests = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			requests.add(HttpRequest.get(url("/item/" + i)));
+			expected.add("/item/" + i);
+		}
+		List<String> result = HttpRequest.executeAll(requests, ResponseSpec::asString, 2, Duration.ofSeconds(5))
+			.get(10, TimeUnit.SECONDS);
+		Assert.assertEquals(expected, result);
+		Assert.assertTrue(maxInFlight.get() <= 2);
+	}
+
+	@Test
+	public void testAllDeadline() throws Exception {
+		List<HttpRequest> requests = Arrays.asList(HttpRequest.get(url("/ok")), HttpRequest.get(url("/slow")), HttpRequest.get(url("/slow")));
+		long start = System.nanoTime();
+		CompletableFuture<List<String>> future = HttpRequest.executeAll(requests, ResponseSpec::asString, 3, Duration.ofMillis(300));
+		Assert.assertTrue(causeOf(future) instanceof TimeoutException);
+		Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+		// 超过截止时间后取消未完成的请求
+		awaitRunning(0);
+	}
+
+	@Test
+	public void testAllFailureCancelsOthers() throws Exception {
+		List<HttpRequest> requests = Arrays.asList(HttpRequest.get(url("/slow")), HttpRequest.get(url("/fail")), HttpRequest.get(url("/slow")));
+		CompletableFuture<List<String>> future = HttpRequest.executeAll(requests, CHECKED, 3, Duration.ofSeconds(30));
+		Assert.assertTrue(causeOf(future) instanceof IllegalStateException);
+		awaitRunning(0);
+	}
+
+	@Test
+	public void testAllPendingNotStarted() throws Exception {
+		List<HttpRequest> requests = Arrays.asList(HttpRequest.get(url("/fail")), HttpRequest.get(url("/ok")), HttpRequest.get(url("/ok")));
+		CompletableFuture<List<String>> future = HttpRequest.executeAll(requests, CHECKED, 1, Duration.ofSeconds(5));
+		Assert.assertTrue(causeOf(future) instanceof IllegalStateException);
+		awaitRunning(0);
+		// 失败后排队中的请求不再发出
+		Assert.assertEquals(1, server.getRequestCount());
+	}
+
+	private String url(String path) {
+		return server.url(path).toString();
+	}
+
+	private static Throwable causeOf(CompletableFuture<?> future) throws Exception {
+		try {
+			future.get(10, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+		throw new AssertionError("future should fail");
+	}
+
+	private void awaitRunning(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (httpClient.dispatcher().runningCallsCount() != expected) {
+			if (System.nanoTime() > deadline) {
+				Assert.fail("running calls: " + httpClient.dispatcher().runningCallsCount() + ", expected: " + expected);
+			}
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.http.config;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springblade.core.http.HttpRequest;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.net.ssl.HostnameVerifier;
+
+/**
+ * HttpRequest 配置测试
+ *
+ * @author L.cm
+ */
+public class HttpRequestConfigurationTest {
+	private final OkHttpClient original = HttpRequest.getHttpClient();
+
+	@After
+	public void tearDown() {
+		HttpRequest.setHttpClient(original);
+		HttpRequest.setHostConcurrency(0, null);
+	}
+
+	@Test
+	public void testSharePoolOnly() {
+		HostnameVerifier trustAll = (hostname, session) -> true;
+		ConnectionPool pool = new ConnectionPool();
+		OkHttpClient springClient = new OkHttpClient.Builder().connectionPool(pool).hostnameVerifier(trustAll).build();
+		configure(springClient, pool, new BladeHttpClientProperties());
+		OkHttpClient httpClient = HttpRequest.getHttpClient();
+		Assert.assertNotSame(springClient, httpClient);
+		Assert.assertSame(pool, httpClient.connectionPool());
+		// 保留 okhttp 默认的 ssl 校验和 Dispatcher
+		Assert.assertNotSame(trustAll, httpClient.hostnameVerifier());
+		Assert.assertSame(original.hostnameVerifier(), httpClient.hostnameVerifier());
+		Assert.assertSame(original.dispatcher(), httpClient.dispatcher());
+	}
+
+	@Test
+	public void testUseSpringClient() {
+		ConnectionPool pool = new ConnectionPool();
+		OkHttpClient springClient = new OkHttpClient.Builder().connectionPool(pool).build();
+		BladeHttpClientProperties properties = new BladeHttpClientProperties();
+		properties.setUseSpringClient(true);
+		configure(springClient, pool, properties);
+		Assert.assertSame(springClient, HttpRequest.getHttpClient());
+	}
+
+	private static void configure(OkHttpClient springClient, ConnectionPool pool, BladeHttpClientProperties properties) {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("okHttpClient", springClient);
+		beanFactory.addBean("httpClientConnectionPool", pool);
+		new HttpRequestConfiguration(beanFactory.getBeanProvider(OkHttpClient.class),
+			beanFactory.getBeanProvider(ConnectionPool.class), properties).afterSingletonsInstantiated();
+	}
+}
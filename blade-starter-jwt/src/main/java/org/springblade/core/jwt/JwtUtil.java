@@ -17,13 +17,17 @@
 package org.springblade.core.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import org.springblade.core.jwt.cache.JwtExpiringCache;
 import org.springblade.core.jwt.props.JwtProperties;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.util.StringUtils;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -45,6 +49,16 @@ public class JwtUtil {
 	private static final String TOKEN_CACHE = "blade:token";
 	private static final String TOKEN_KEY = "token:state:";
 
+	/**
+	 * token状态失效广播频道
+	 */
+	public static final String TOKEN_EVICT_CHANNEL = "blade:token:evict";
+
+	/**
+	 * 无过期时间的token默认缓存时长(毫秒)
+	 */
+	private static final long DEFAULT_CLAIMS_CACHE_TIME = 30 * 60 * 1000L;
+
 	/**
 	 * jwt配置
 	 */
@@ -55,6 +69,21 @@ public class JwtUtil {
 	 */
 	private static RedisTemplate<String, Object> redisTemplate;
 
+	/**
+	 * jwt解析器，签名key固定，构建一次即可复用
+	 */
+	private static volatile JwtParser jwtParser;
+
+	/**
+	 * 已校验token缓存
+	 */
+	private static volatile JwtExpiringCache<Claims> claimsCache;
+
+	/**
+	 * token状态缓存
+	 */
+	private static volatile JwtExpiringCache<String> stateCache;
+
 	public static JwtProperties getJwtProperties() {
 		return jwtProperties;
 	}
@@ -62,6 +91,8 @@ public class JwtUtil {
 	public static void setJwtProperties(JwtProperties properties) {
 		if (JwtUtil.jwtProperties == null) {
 			JwtUtil.jwtProperties = properties;
+			JwtUtil.claimsCache = new JwtExpiringCache<>(properties.getCacheSize());
+			JwtUtil.stateCache = new JwtExpiringCache<>(properties.getCacheSize());
 		}
 	}
 
@@ -106,15 +137,46 @@ public class JwtUtil {
 	 * @return Claims
 	 */
 	public static Claims parseJWT(String jsonWebToken) {
+		JwtExpiringCache<Claims> cache = claimsCache;
+		if (cache != null) {
+			Claims claims = cache.get(jsonWebToken);
+			if (claims != null) {
+				return claims;
+			}
+		}
 		try {
-			return Jwts.parserBuilder()
-				.setSigningKey(Base64.getDecoder().decode(getBase64Security())).build()
-				.parseClaimsJws(jsonWebToken).getBody();
+			Claims claims = getJwtParser().parseClaimsJws(jsonWebToken).getBody();
+			if (cache != null) {
+				Date expiration = claims.getExpiration();
+				long expireAt = (expiration == null) ? System.currentTimeMillis() + DEFAULT_CLAIMS_CACHE_TIME : expiration.getTime();
+				cache.put(jsonWebToken, claims, expireAt);
+			}
+			return claims;
 		} catch (Exception ex) {
 			return null;
 		}
 	}
 
+	/**
+	 * 获取jwt解析器
+	 *
+	 * @return JwtParser
+	 */
+	private static JwtParser getJwtParser() {
+		JwtParser parser = jwtParser;
+		if (parser == null) {
+			synchronized (JwtUtil.class) {
+				parser = jwtParser;
+				if (parser == null) {
+					parser = Jwts.parserBuilder()
+						.setSigningKey(getJwtProperties().getSignKey().getBytes(StandardCharsets.UTF_8)).build();
+					jwtParser = parser;
+				}
+			}
+		}
+		return parser;
+	}
+
 	/**
 	 * 获取保存在redis的token
 	 *
@@ -124,7 +186,18 @@ public class JwtUtil {
 	 * @return accessToken
 	 */
 	public static String getAccessToken(String tenantId, String userId, String accessToken) {
-		return String.valueOf(getRedisTemplate().opsForValue().get(getAccessTokenKey(tenantId, userId, accessToken)));
+		String key = getAccessTokenKey(tenantId, userId, accessToken);
+		long stateCacheTime = getJwtProperties().getStateCacheTime();
+		JwtExpiringCache<String> cache = stateCache;
+		if (stateCacheTime <= 0 || cache == null) {
+			return String.valueOf(getRedisTemplate().opsForValue().get(key));
+		}
+		String state = cache.get(key);
+		if (state == null) {
+			state = String.valueOf(getRedisTemplate().opsForValue().get(key));
+			cache.put(key, state, System.currentTimeMillis() + stateCacheTime * 1000L);
+		}
+		return state;
 	}
 
 	/**
@@ -136,8 +209,10 @@ public class JwtUtil {
 	 * @param expire      过期时间
 	 */
 	public static void addAccessToken(String tenantId, String userId, String accessToken, int expire) {
-		getRedisTemplate().delete(getAccessTokenKey(tenantId, userId, accessToken));
-		getRedisTemplate().opsForValue().set(getAccessTokenKey(tenantId, userId, accessToken), accessToken, expire, TimeUnit.SECONDS);
+		String key = getAccessTokenKey(tenantId, userId, accessToken);
+		getRedisTemplate().delete(key);
+		getRedisTemplate().opsForValue().set(key, accessToken, expire, TimeUnit.SECONDS);
+		publishEvict(key);
 	}
 
 	/**
@@ -158,7 +233,35 @@ public class JwtUtil {
 	 * @param accessToken token
 	 */
 	public static void removeAccessToken(String tenantId, String userId, String accessToken) {
-		getRedisTemplate().delete(getAccessTokenKey(tenantId, userId, accessToken));
+		String key = getAccessTokenKey(tenantId, userId, accessToken);
+		getRedisTemplate().delete(key);
+		publishEvict(key);
+	}
+
+	/**
+	 * 清除本地token状态缓存
+	 *
+	 * @param key token索引
+	 */
+	public static void evictAccessToken(String key) {
+		JwtExpiringCache<String> cache = stateCache;
+		if (cache != null) {
+			cache.remove(key);
+		}
+	}
+
+	/**
+	 * 广播token状态失效，通知各节点清除本地缓存
+	 *
+	 * @param key token索引
+	 */
+	private static void publishEvict(String key) {
+		evictAccessToken(key);
+		if (getJwtProperties().getStateCacheTime() > 0) {
+			byte[] channel = TOKEN_EVICT_CHANNEL.getBytes(StandardCharsets.UTF_8);
+			byte[] message = key.getBytes(StandardCharsets.UTF_8);
+			getRedisTemplate().execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+		}
 	}
 
 	/**
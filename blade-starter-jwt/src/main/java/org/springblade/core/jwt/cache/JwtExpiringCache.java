@@ -0,0 +1,129 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.jwt.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 带过期时间的有界本地缓存，用于缓存已校验的token
+ *
+ * <p>
+ * 容量达到上限时先清理过期数据，仍然超限则整体清空，避免热路径上维护 LRU 顺序的开销
+ * </p>
+ *
+ * @param <V> 缓存值类型
+ * @author Chill
+ */
+public class JwtExpiringCache<V> {
+
+	private final Map<String, Entry<V>> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * 缓存上限
+	 */
+	private final int maxSize;
+
+	public JwtExpiringCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * 获取缓存，已过期则返回 null
+	 *
+	 * @param key 缓存key
+	 * @return 缓存值
+	 */
+	public V get(String key) {
+		Entry<V> entry = cache.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expireAt <= System.currentTimeMillis()) {
+			cache.remove(key, entry);
+			return null;
+		}
+		return entry.value;
+	}
+
+	/**
+	 * 设置缓存
+	 *
+	 * @param key      缓存key
+	 * @param value    缓存值
+	 * @param expireAt 过期时间戳(毫秒)
+	 */
+	public void put(String key, V value, long expireAt) {
+		long now = System.currentTimeMillis();
+		if (maxSize <= 0 || value == null || expireAt <= now) {
+			return;
+		}
+		if (cache.size() >= maxSize) {
+			purge(now);
+		}
+		cache.put(key, new Entry<>(value, expireAt));
+	}
+
+	/**
+	 * 删除缓存
+	 *
+	 * @param key 缓存key
+	 */
+	public void remove(String key) {
+		cache.remove(key);
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * 缓存数量
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	private void purge(long now) {
+		Iterator<Entry<V>> iterator = cache.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().expireAt <= now) {
+				iterator.remove();
+			}
+		}
+		if (cache.size() >= maxSize) {
+			cache.clear();
+		}
+	}
+
+	private static class Entry<V> {
+		private final V value;
+		private final long expireAt;
+
+		private Entry(V value, long expireAt) {
+			this.value = value;
+			this.expireAt = expireAt;
+		}
+	}
+
+}
@@ -20,14 +20,19 @@ import lombok.AllArgsConstructor;
 import org.springblade.core.jwt.JwtUtil;
 import org.springblade.core.jwt.props.JwtProperties;
 import org.springblade.core.jwt.serializer.JwtRedisKeySerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Jwt配置类
  *
@@ -41,6 +46,7 @@ public class JwtConfiguration implements SmartInitializingSingleton {
 
 	private final JwtProperties jwtProperties;
 	private final RedisConnectionFactory redisConnectionFactory;
+	private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
 
 	@Override
 	public void afterSingletonsInstantiated() {
@@ -58,5 +64,12 @@ public class JwtConfiguration implements SmartInitializingSingleton {
 		redisTemplate.afterPropertiesSet();
 		JwtUtil.setJwtProperties(jwtProperties);
 		JwtUtil.setRedisTemplate(redisTemplate);
+		// token状态本地缓存失效监听
+		RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+		if (jwtProperties.getStateCacheTime() > 0 && container != null) {
+			container.addMessageListener((message, pattern) ->
+				JwtUtil.evictAccessToken(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(JwtUtil.TOKEN_EVICT_CHANNEL));
+		}
 	}
+
 }
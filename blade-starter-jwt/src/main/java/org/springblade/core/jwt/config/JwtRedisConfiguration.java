@@ -27,6 +27,7 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import java.time.Duration;
 
@@ -51,4 +52,15 @@ public class JwtRedisConfiguration {
 			.cacheDefaults(redisCacheConfiguration).build();
 	}
 
+	/**
+	 * 共用的 redis 消息监听容器，各模块的本地缓存失效通知都注册到这里，只占用一个订阅连接
+	 */
+	@Bean
+	@ConditionalOnMissingBean(RedisMessageListenerContainer.class)
+	public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(redisConnectionFactory);
+		return container;
+	}
+
 }
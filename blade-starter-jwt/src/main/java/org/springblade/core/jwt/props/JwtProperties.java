@@ -44,6 +44,16 @@ public class JwtProperties {
 	 */
 	private String signKey = JwtConstant.DEFAULT_SECRET_KEY;
 
+	/**
+	 * 已校验token的本地缓存数量，小于等于0则关闭
+	 */
+	private Integer cacheSize = 10000;
+
+	/**
+	 * token状态本地缓存时长(秒)，0则关闭，删除token时通过redis广播失效
+	 */
+	private Long stateCacheTime = 0L;
+
 	/**
 	 * 获取签名规则
 	 */
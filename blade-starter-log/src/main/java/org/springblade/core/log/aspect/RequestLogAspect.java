@@ -42,15 +42,21 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Spring boot 控制器 请求日志，方便代码调试
  *
+ * <p>
+ * 方法参数元数据按方法缓存，json 直接写入线程内复用的缓冲区并按长度截断
+ * </p>
+ *
  * @author L.cm
  */
 @Slf4j
@@ -61,8 +67,20 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @ConditionalOnProperty(value = BladeLogLevel.REQ_LOG_PROPS_PREFIX + ".enabled", havingValue = "true", matchIfMissing = true)
 public class RequestLogAspect {
 
+	private static final String CANNOT_SERIALIZE = "此参数不能序列化为json";
+
+	/**
+	 * 线程内复用的 json 缓冲区
+	 */
+	private static final ThreadLocal<BoundedWriter> JSON_WRITER = ThreadLocal.withInitial(BoundedWriter::new);
+
 	private final BladeRequestLogProperties properties;
 
+	/**
+	 * 方法参数元数据缓存
+	 */
+	private final Map<Method, ArgDescriptor[]> argDescriptorCache = new ConcurrentHashMap<>(64);
+
 	/**
 	 * AOP 环切 控制器 R 返回值
 	 *
@@ -78,12 +96,13 @@ public class RequestLogAspect {
 	public Object aroundApi(ProceedingJoinPoint point) throws Throwable {
 		BladeLogLevel level = properties.getLevel();
 		// 不打印日志，直接返回
-		if (BladeLogLevel.NONE == level) {
+		if (BladeLogLevel.NONE == level || !log.isInfoEnabled()) {
 			return point.proceed();
 		}
 		HttpServletRequest request = WebUtil.getRequest();
 		String requestUrl = Objects.requireNonNull(request).getRequestURI();
 		String requestMethod = request.getMethod();
+		boolean logBody = BladeLogLevel.BODY.lte(level);
 
 		// 构建成一条长 日志，避免并发下日志错乱
 		StringBuilder beforeReqLog = new StringBuilder(300);
@@ -95,7 +114,11 @@ public class RequestLogAspect {
 		beforeReqArgs.add(requestMethod);
 		beforeReqArgs.add(requestUrl);
 		// 打印请求参数
-		logIngArgs(point, beforeReqLog, beforeReqArgs);
+		if (logBody) {
+			logIngArgs(point, beforeReqLog, beforeReqArgs);
+		} else {
+			beforeReqLog.append("\n");
+		}
 		// 打印请求 headers
 		logIngHeaders(request, level, beforeReqLog, beforeReqArgs);
 		beforeReqLog.append("================   Request End   ================\n");
@@ -111,9 +134,9 @@ public class RequestLogAspect {
 		try {
 			Object result = point.proceed();
 			// 打印返回结构体
-			if (BladeLogLevel.BODY.lte(level)) {
+			if (logBody) {
 				afterReqLog.append("===Result===  {}\n");
-				afterReqArgs.add(JsonUtil.toJson(result));
+				afterReqArgs.add(toJson(result));
 			}
 			return result;
 		} finally {
@@ -138,99 +161,75 @@ public class RequestLogAspect {
 		MethodSignature ms = (MethodSignature) point.getSignature();
 		Method method = ms.getMethod();
 		Object[] args = point.getArgs();
+		ArgDescriptor[] descriptors = argDescriptorCache.computeIfAbsent(method, RequestLogAspect::resolveArgDescriptors);
 		// 请求参数处理
-		final Map<String, Object> paraMap = new HashMap<>(16);
+		Map<String, Object> paraMap = null;
 		// 一次请求只能有一个 request body
 		Object requestBodyValue = null;
 		for (int i = 0; i < args.length; i++) {
-			// 读取方法参数
-			MethodParameter methodParam = ClassUtil.getMethodParameter(method, i);
+			ArgDescriptor descriptor = descriptors[i];
 			// PathVariable 参数跳过
-			PathVariable pathVariable = methodParam.getParameterAnnotation(PathVariable.class);
-			if (pathVariable != null) {
+			if (descriptor.kind == ArgKind.SKIP) {
 				continue;
 			}
-			RequestBody requestBody = methodParam.getParameterAnnotation(RequestBody.class);
-			String parameterName = methodParam.getParameterName();
 			Object value = args[i];
 			// 如果是body的json则是对象
-			if (requestBody != null) {
+			if (descriptor.kind == ArgKind.BODY) {
 				requestBodyValue = value;
 				continue;
 			}
+			if (value instanceof HttpServletResponse) {
+				continue;
+			}
+			if (paraMap == null) {
+				paraMap = new HashMap<>(16);
+			}
 			// 处理 参数
 			if (value instanceof HttpServletRequest) {
 				paraMap.putAll(((HttpServletRequest) value).getParameterMap());
-				continue;
 			} else if (value instanceof WebRequest) {
 				paraMap.putAll(((WebRequest) value).getParameterMap());
-				continue;
-			} else if (value instanceof HttpServletResponse) {
-				continue;
 			} else if (value instanceof MultipartFile) {
 				MultipartFile multipartFile = (MultipartFile) value;
-				String name = multipartFile.getName();
-				String fileName = multipartFile.getOriginalFilename();
-				paraMap.put(name, fileName);
-				continue;
+				paraMap.put(multipartFile.getName(), multipartFile.getOriginalFilename());
 			} else if (value instanceof MultipartFile[]) {
 				MultipartFile[] arr = (MultipartFile[]) value;
 				if (arr.length == 0) {
 					continue;
 				}
-				String name = arr[0].getName();
-				StringBuilder sb = new StringBuilder(arr.length);
+				StringBuilder sb = new StringBuilder(arr.length * 16);
 				for (MultipartFile multipartFile : arr) {
 					sb.append(multipartFile.getOriginalFilename());
 					sb.append(StringPool.COMMA);
 				}
-				paraMap.put(name, StringUtil.removeSuffix(sb.toString(), StringPool.COMMA));
-				continue;
-			} else if (value instanceof List) {
-				List<?> list = (List<?>) value;
-				AtomicBoolean isSkip = new AtomicBoolean(false);
-				for (Object o : list) {
-					if ("StandardMultipartFile".equalsIgnoreCase(o.getClass().getSimpleName())) {
-						isSkip.set(true);
-						break;
-					}
-				}
-				if (isSkip.get()) {
-					paraMap.put(parameterName, "此参数不能序列化为json");
-					continue;
-				}
-			}
-			// 参数名
-			RequestParam requestParam = methodParam.getParameterAnnotation(RequestParam.class);
-			String paraName = parameterName;
-			if (requestParam != null && StringUtil.isNotBlank(requestParam.value())) {
-				paraName = requestParam.value();
-			}
-			if (value == null) {
-				paraMap.put(paraName, null);
+				paraMap.put(arr[0].getName(), StringUtil.removeSuffix(sb.toString(), StringPool.COMMA));
+			} else if (value instanceof List && hasMultipartFile((List<?>) value)) {
+				paraMap.put(descriptor.parameterName, CANNOT_SERIALIZE);
+			} else if (value == null) {
+				paraMap.put(descriptor.paraName, null);
 			} else if (ClassUtil.isPrimitiveOrWrapper(value.getClass())) {
-				paraMap.put(paraName, value);
+				paraMap.put(descriptor.paraName, value);
 			} else if (value instanceof InputStream) {
-				paraMap.put(paraName, "InputStream");
+				paraMap.put(descriptor.paraName, "InputStream");
 			} else if (value instanceof InputStreamSource) {
-				paraMap.put(paraName, "InputStreamSource");
+				paraMap.put(descriptor.paraName, "InputStreamSource");
 			} else if (JsonUtil.canSerialize(value)) {
 				// 判断模型能被 json 序列化，则添加
-				paraMap.put(paraName, value);
+				paraMap.put(descriptor.paraName, value);
 			} else {
-				paraMap.put(paraName, "此参数不能序列化为json");
+				paraMap.put(descriptor.paraName, CANNOT_SERIALIZE);
 			}
 		}
 		// 请求参数
-		if (paraMap.isEmpty()) {
+		if (paraMap == null || paraMap.isEmpty()) {
 			beforeReqLog.append("\n");
 		} else {
 			beforeReqLog.append(" Parameters: {}\n");
-			beforeReqArgs.add(JsonUtil.toJson(paraMap));
+			beforeReqArgs.add(toJson(paraMap));
 		}
 		if (requestBodyValue != null) {
 			beforeReqLog.append("====Body=====  {}\n");
-			beforeReqArgs.add(JsonUtil.toJson(requestBodyValue));
+			beforeReqArgs.add(toJson(requestBodyValue));
 		}
 	}
 
@@ -257,4 +256,154 @@ public class RequestLogAspect {
 		}
 	}
 
+	/**
+	 * 序列化为 json，超出长度的部分截断
+	 *
+	 * @param value 对象
+	 * @return json
+	 */
+	private String toJson(Object value) {
+		BoundedWriter writer = JSON_WRITER.get();
+		writer.reset(properties.getMaxBodyLength());
+		try {
+			JsonUtil.getInstance().writeValue(writer, value);
+		} catch (IOException e) {
+			if (!writer.truncated) {
+				log.error(e.getMessage(), e);
+				return null;
+			}
+		}
+		return writer.toString();
+	}
+
+	private static boolean hasMultipartFile(List<?> list) {
+		for (Object o : list) {
+			if (o != null && "StandardMultipartFile".equalsIgnoreCase(o.getClass().getSimpleName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 解析方法参数元数据
+	 *
+	 * @param method Method
+	 * @return ArgDescriptor[]
+	 */
+	private static ArgDescriptor[] resolveArgDescriptors(Method method) {
+		int count = method.getParameterCount();
+		ArgDescriptor[] descriptors = new ArgDescriptor[count];
+		for (int i = 0; i < count; i++) {
+			// 读取方法参数
+			MethodParameter methodParam = ClassUtil.getMethodParameter(method, i);
+			String parameterName = methodParam.getParameterName();
+			ArgKind kind = ArgKind.PARAM;
+			if (methodParam.hasParameterAnnotation(PathVariable.class)) {
+				kind = ArgKind.SKIP;
+			} else if (methodParam.hasParameterAnnotation(RequestBody.class)) {
+				kind = ArgKind.BODY;
+			}
+			// 参数名
+			RequestParam requestParam = methodParam.getParameterAnnotation(RequestParam.class);
+			String paraName = parameterName;
+			if (requestParam != null && StringUtil.isNotBlank(requestParam.value())) {
+				paraName = requestParam.value();
+			}
+			descriptors[i] = new ArgDescriptor(kind, parameterName, paraName);
+		}
+		return descriptors;
+	}
+
+	private enum ArgKind {
+		/**
+		 * 跳过
+		 */
+		SKIP,
+		/**
+		 * request body
+		 */
+		BODY,
+		/**
+		 * 普通参数
+		 */
+		PARAM
+	}
+
+	private static class ArgDescriptor {
+		private final ArgKind kind;
+		private final String parameterName;
+		private final String paraName;
+
+		private ArgDescriptor(ArgKind kind, String parameterName, String paraName) {
+			this.kind = kind;
+			this.parameterName = parameterName;
+			this.paraName = paraName;
+		}
+	}
+
+	/**
+	 * 限制长度的 Writer，超出后抛出异常中断序列化
+	 */
+	private static class BoundedWriter extends Writer {
+		private static final String TRUNCATED_SUFFIX = "...(truncated)";
+		private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+		private static final IOException TRUNCATED_EXCEPTION = new IOException("truncated") {
+			@Override
+			public synchronized Throwable fillInStackTrace() {
+				return this;
+			}
+		};
+		private StringBuilder buffer = new StringBuilder(256);
+		private int maxLength;
+		private boolean truncated;
+
+		private void reset(int maxLength) {
+			if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+				buffer = new StringBuilder(256);
+			} else {
+				buffer.setLength(0);
+			}
+			this.maxLength = maxLength;
+			this.truncated = false;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			int remaining = maxLength - buffer.length();
+			if (len <= remaining) {
+				buffer.append(cbuf, off, len);
+				return;
+			}
+			buffer.append(cbuf, off, Math.max(remaining, 0)).append(TRUNCATED_SUFFIX);
+			truncated = true;
+			throw TRUNCATED_EXCEPTION;
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			int remaining = maxLength - buffer.length();
+			if (len <= remaining) {
+				buffer.append(str, off, off + len);
+				return;
+			}
+			buffer.append(str, off, off + Math.max(remaining, 0)).append(TRUNCATED_SUFFIX);
+			truncated = true;
+			throw TRUNCATED_EXCEPTION;
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public String toString() {
+			return buffer.toString();
+		}
+	}
+
 }
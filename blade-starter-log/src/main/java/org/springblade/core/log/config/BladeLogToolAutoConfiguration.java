@@ -28,8 +28,13 @@ import org.springblade.core.log.event.UsualLogListener;
 import org.springblade.core.log.feign.ILogClient;
 import org.springblade.core.log.filter.LogTraceFilter;
 import org.springblade.core.log.logger.BladeLogger;
+import org.springblade.core.log.props.BladeLogBatchProperties;
 import org.springblade.core.log.props.BladeRequestLogProperties;
+import org.springblade.core.log.sink.BatchLogSink;
+import org.springblade.core.log.sink.FeignLogSink;
+import org.springblade.core.log.sink.ILogSink;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -46,7 +51,7 @@ import javax.servlet.DispatcherType;
  */
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnWebApplication
-@EnableConfigurationProperties(BladeRequestLogProperties.class)
+@EnableConfigurationProperties({BladeRequestLogProperties.class, BladeLogBatchProperties.class})
 @BladePropertySource(value = "classpath:/blade-log.yml")
 public class BladeLogToolAutoConfiguration {
 
@@ -76,22 +81,35 @@ public class BladeLogToolAutoConfiguration {
 		return registration;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean(ILogSink.class)
+	@ConditionalOnProperty(value = BladeLogBatchProperties.PREFIX + ".enabled", havingValue = "true")
+	public BatchLogSink batchLogSink(ILogClient logClient, BladeLogBatchProperties batchProperties) {
+		return new BatchLogSink(logClient, batchProperties);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(ILogSink.class)
+	public ILogSink feignLogSink(ILogClient logClient) {
+		return new FeignLogSink(logClient);
+	}
+
 	@Bean
 	@ConditionalOnMissingBean(name = "apiLogListener")
-	public ApiLogListener apiLogListener(ILogClient logService, ServerInfo serverInfo, BladeProperties bladeProperties) {
-		return new ApiLogListener(logService, serverInfo, bladeProperties);
+	public ApiLogListener apiLogListener(ILogSink logSink, ServerInfo serverInfo, BladeProperties bladeProperties) {
+		return new ApiLogListener(logSink, serverInfo, bladeProperties);
 	}
 
 	@Bean
 	@ConditionalOnMissingBean(name = "errorEventListener")
-	public ErrorLogListener errorEventListener(ILogClient logService, ServerInfo serverInfo, BladeProperties bladeProperties) {
-		return new ErrorLogListener(logService, serverInfo, bladeProperties);
+	public ErrorLogListener errorEventListener(ILogSink logSink, ServerInfo serverInfo, BladeProperties bladeProperties) {
+		return new ErrorLogListener(logSink, serverInfo, bladeProperties);
 	}
 
 	@Bean
 	@ConditionalOnMissingBean(name = "usualEventListener")
-	public UsualLogListener usualEventListener(ILogClient logService, ServerInfo serverInfo, BladeProperties bladeProperties) {
-		return new UsualLogListener(logService, serverInfo, bladeProperties);
+	public UsualLogListener usualEventListener(ILogSink logSink, ServerInfo serverInfo, BladeProperties bladeProperties) {
+		return new UsualLogListener(logSink, serverInfo, bladeProperties);
 	}
 
 }
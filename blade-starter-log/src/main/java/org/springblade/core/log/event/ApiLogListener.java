@@ -22,8 +22,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springblade.core.launch.props.BladeProperties;
 import org.springblade.core.launch.server.ServerInfo;
 import org.springblade.core.log.constant.EventConstant;
-import org.springblade.core.log.feign.ILogClient;
 import org.springblade.core.log.model.LogApi;
+import org.springblade.core.log.sink.ILogSink;
 import org.springblade.core.log.utils.LogAbstractUtil;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.Order;
@@ -41,7 +41,7 @@ import java.util.Map;
 @AllArgsConstructor
 public class ApiLogListener {
 
-	private final ILogClient logService;
+	private final ILogSink logSink;
 	private final ServerInfo serverInfo;
 	private final BladeProperties bladeProperties;
 
@@ -53,7 +53,7 @@ public class ApiLogListener {
 		Map<String, Object> source = (Map<String, Object>) event.getSource();
 		LogApi logApi = (LogApi) source.get(EventConstant.EVENT_LOG);
 		LogAbstractUtil.addOtherInfoToLog(logApi, bladeProperties, serverInfo);
-		logService.saveApiLog(logApi);
+		logSink.saveApiLog(logApi);
 	}
 
 }
@@ -22,8 +22,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springblade.core.launch.props.BladeProperties;
 import org.springblade.core.launch.server.ServerInfo;
 import org.springblade.core.log.constant.EventConstant;
-import org.springblade.core.log.feign.ILogClient;
 import org.springblade.core.log.model.LogUsual;
+import org.springblade.core.log.sink.ILogSink;
 import org.springblade.core.log.utils.LogAbstractUtil;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.Order;
@@ -40,7 +40,7 @@ import java.util.Map;
 @AllArgsConstructor
 public class UsualLogListener {
 
-	private final ILogClient logService;
+	private final ILogSink logSink;
 	private final ServerInfo serverInfo;
 	private final BladeProperties bladeProperties;
 
@@ -51,7 +51,7 @@ public class UsualLogListener {
 		Map<String, Object> source = (Map<String, Object>) event.getSource();
 		LogUsual logUsual = (LogUsual) source.get(EventConstant.EVENT_LOG);
 		LogAbstractUtil.addOtherInfoToLog(logUsual, bladeProperties, serverInfo);
-		logService.saveUsualLog(logUsual);
+		logSink.saveUsualLog(logUsual);
 	}
 
 }
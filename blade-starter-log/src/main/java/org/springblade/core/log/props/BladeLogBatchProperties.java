@@ -0,0 +1,88 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.log.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 日志批量发送配置
+ *
+ * @author Chill
+ */
+@Getter
+@Setter
+@ConfigurationProperties(BladeLogBatchProperties.PREFIX)
+public class BladeLogBatchProperties {
+
+	public static final String PREFIX = "blade.log.batch";
+
+	/**
+	 * 是否开启批量发送，需日志服务提供批量保存接口
+	 */
+	private Boolean enabled = false;
+
+	/**
+	 * 队列容量
+	 */
+	private Integer queueCapacity = 4096;
+
+	/**
+	 * 单批最大条数
+	 */
+	private Integer batchSize = 100;
+
+	/**
+	 * 最长等待发送时间(毫秒)
+	 */
+	private Long flushInterval = 1000L;
+
+	/**
+	 * 队列已满时的处理策略
+	 */
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+	/**
+	 * BLOCK 策略最长阻塞时间(毫秒)
+	 */
+	private Long blockTimeout = 100L;
+
+	/**
+	 * SPILL 策略落盘目录
+	 */
+	private String spillPath = "logs/spill";
+
+	/**
+	 * 队列已满时的处理策略
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * 直接丢弃
+		 */
+		DROP,
+		/**
+		 * 阻塞等待，超时后丢弃
+		 */
+		BLOCK,
+		/**
+		 * 写入本地文件，启动及发送恢复后重新发送
+		 */
+		SPILL
+	}
+
+}
@@ -42,4 +42,9 @@ public class BladeRequestLogProperties {
 	 * 日志级别配置，默认：BODY
 	 */
 	private BladeLogLevel level = BladeLogLevel.BODY;
+
+	/**
+	 * 参数及返回值 json 最大长度，超出部分截断
+	 */
+	private Integer maxBodyLength = 8192;
 }
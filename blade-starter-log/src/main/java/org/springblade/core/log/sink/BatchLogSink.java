@@ -0,0 +1,431 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.log.sink;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springblade.core.log.feign.ILogClient;
+import org.springblade.core.log.model.LogAbstract;
+import org.springblade.core.log.model.LogApi;
+import org.springblade.core.log.model.LogError;
+import org.springblade.core.log.model.LogUsual;
+import org.springblade.core.log.props.BladeLogBatchProperties;
+import org.springblade.core.tool.api.R;
+import org.springblade.core.tool.jackson.JsonUtil;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 批量发送日志
+ *
+ * <p>
+ * 日志先写入有界队列，由单个后台线程按数量或时间攒批，通过批量接口发送，
+ * 队列已满时按 {@link BladeLogBatchProperties.OverflowPolicy} 处理，
+ * SPILL 策略下落盘的日志在启动及发送恢复成功后由后台线程重新发送
+ * </p>
+ *
+ * @author Chill
+ */
+@Slf4j
+public class BatchLogSink implements ILogSink, InitializingBean, DisposableBean {
+
+	private static final String METRIC_QUEUE_SIZE = "blade_log_batch_queue_size";
+	private static final String METRIC_DROPPED = "blade_log_batch_dropped_total";
+	private static final String METRIC_SPILLED = "blade_log_batch_spilled_total";
+	private static final String METRIC_SENT = "blade_log_batch_sent_total";
+	private static final String SPILL_USUAL = "usual";
+	private static final String SPILL_API = "api";
+	private static final String SPILL_ERROR = "error";
+	private static final String SPILL_SUFFIX = ".spill";
+	private static final String REPLAY_SUFFIX = ".replay";
+
+	private final ILogClient logClient;
+	private final BladeLogBatchProperties properties;
+	private final BlockingQueue<LogAbstract> queue;
+	private final Counter droppedCounter;
+	private final Counter spilledCounter;
+	private final Counter sentCounter;
+	/**
+	 * 落盘文件的写入流，按类型常驻打开，受 this 锁保护
+	 */
+	private final Map<String, BufferedWriter> spillWriters = new HashMap<>(4);
+	/**
+	 * 是否存在待重放的落盘日志
+	 */
+	private volatile boolean spillPending;
+	/**
+	 * 最近一次发送是否成功，仅后台线程读写
+	 */
+	private boolean sendSucceeded = true;
+	private volatile boolean running;
+	private Thread worker;
+
+	public BatchLogSink(ILogClient logClient, BladeLogBatchProperties properties) {
+		this.logClient = logClient;
+		this.properties = properties;
+		this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+		Metrics.gauge(METRIC_QUEUE_SIZE, this.queue, BlockingQueue::size);
+		this.droppedCounter = Metrics.counter(METRIC_DROPPED);
+		this.spilledCounter = Metrics.counter(METRIC_SPILLED);
+		this.sentCounter = Metrics.counter(METRIC_SENT);
+	}
+
+	@Override
+	public void saveUsualLog(LogUsual log) {
+		offer(log);
+	}
+
+	@Override
+	public void saveApiLog(LogApi log) {
+		offer(log);
+	}
+
+	@Override
+	public void saveErrorLog(LogError log) {
+		offer(log);
+	}
+
+	/**
+	 * 队列中待发送的日志数
+	 *
+	 * @return size
+	 */
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	/**
+	 * 已丢弃的日志数
+	 *
+	 * @return count
+	 */
+	public long getDroppedCount() {
+		return (long) droppedCounter.count();
+	}
+
+	/**
+	 * 已落盘的日志数
+	 *
+	 * @return count
+	 */
+	public long getSpilledCount() {
+		return (long) spilledCounter.count();
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (properties.getOverflowPolicy() == BladeLogBatchProperties.OverflowPolicy.SPILL) {
+			// 上次遗留的落盘文件由后台线程首轮重放
+			spillPending = hasSpillFile();
+		}
+		running = true;
+		worker = new Thread(this::drain, "blade-log-batch");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		running = false;
+		if (worker != null) {
+			worker.interrupt();
+			worker.join(TimeUnit.SECONDS.toMillis(5));
+		}
+		closeSpillWriters();
+	}
+
+	private void offer(LogAbstract logAbstract) {
+		if (queue.offer(logAbstract)) {
+			return;
+		}
+		switch (properties.getOverflowPolicy()) {
+			case BLOCK:
+				try {
+					if (queue.offer(logAbstract, properties.getBlockTimeout(), TimeUnit.MILLISECONDS)) {
+						return;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				droppedCounter.increment();
+				break;
+			case SPILL:
+				List<LogAbstract> logs = new ArrayList<>(1);
+				logs.add(logAbstract);
+				spill(logs);
+				break;
+			default:
+				droppedCounter.increment();
+				break;
+		}
+	}
+
+	/**
+	 * 后台线程按数量或时间攒批发送，停止后发送剩余日志
+	 */
+	private void drain() {
+		int batchSize = properties.getBatchSize();
+		long flushInterval = properties.getFlushInterval();
+		List<LogAbstract> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			// 发送恢复后重放落盘日志
+			if (running && spillPending && sendSucceeded) {
+				replaySpill();
+			}
+			try {
+				LogAbstract first = running ? queue.poll(flushInterval, TimeUnit.MILLISECONDS) : queue.poll();
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+				while (batch.size() < batchSize) {
+					queue.drainTo(batch, batchSize - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= batchSize || remaining <= 0 || !running) {
+						break;
+					}
+					LogAbstract next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			} catch (InterruptedException e) {
+				// 停止时中断等待，继续发送剩余日志
+				queue.drainTo(batch, batchSize - batch.size());
+			}
+			if (!batch.isEmpty()) {
+				flush(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	private void flush(List<LogAbstract> batch) {
+		List<LogUsual> usualLogs = new ArrayList<>();
+		List<LogApi> apiLogs = new ArrayList<>();
+		List<LogError> errorLogs = new ArrayList<>();
+		for (LogAbstract logAbstract : batch) {
+			if (logAbstract instanceof LogApi) {
+				apiLogs.add((LogApi) logAbstract);
+			} else if (logAbstract instanceof LogError) {
+				errorLogs.add((LogError) logAbstract);
+			} else if (logAbstract instanceof LogUsual) {
+				usualLogs.add((LogUsual) logAbstract);
+			}
+		}
+		send(usualLogs, logClient::saveUsualLogs);
+		send(apiLogs, logClient::saveApiLogs);
+		send(errorLogs, logClient::saveErrorLogs);
+	}
+
+	private <T extends LogAbstract> boolean send(List<T> logs, Function<List<T>, R<Boolean>> sender) {
+		if (logs.isEmpty()) {
+			return true;
+		}
+		boolean success;
+		try {
+			success = R.isSuccess(sender.apply(logs));
+		} catch (Exception e) {
+			log.warn("blade log batch send fail: {}", e.getMessage());
+			success = false;
+		}
+		sendSucceeded = success;
+		if (success) {
+			sentCounter.increment(logs.size());
+		} else if (properties.getOverflowPolicy() == BladeLogBatchProperties.OverflowPolicy.SPILL) {
+			spill(logs);
+		} else {
+			droppedCounter.increment(logs.size());
+		}
+		return success;
+	}
+
+	/**
+	 * 日志落盘，每行一条 json，写入流保持打开，每次落盘后 flush
+	 */
+	private synchronized void spill(List<? extends LogAbstract> logs) {
+		try {
+			List<BufferedWriter> written = new ArrayList<>(1);
+			for (LogAbstract logAbstract : logs) {
+				BufferedWriter writer = spillWriter(spillType(logAbstract));
+				writer.write(JsonUtil.toJson(logAbstract));
+				writer.newLine();
+				if (!written.contains(writer)) {
+					written.add(writer);
+				}
+			}
+			for (BufferedWriter writer : written) {
+				writer.flush();
+			}
+			spilledCounter.increment(logs.size());
+			spillPending = true;
+		} catch (IOException e) {
+			log.error("blade log spill fail", e);
+			droppedCounter.increment(logs.size());
+			// 写入流可能已损坏，下次落盘时重新打开
+			closeSpillWriters();
+		}
+	}
+
+	private BufferedWriter spillWriter(String type) throws IOException {
+		BufferedWriter writer = spillWriters.get(type);
+		if (writer == null) {
+			Files.createDirectories(Paths.get(properties.getSpillPath()));
+			writer = Files.newBufferedWriter(spillFile(type, SPILL_SUFFIX), StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			spillWriters.put(type, writer);
+		}
+		return writer;
+	}
+
+	private synchronized void closeSpillWriters() {
+		for (BufferedWriter writer : spillWriters.values()) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				log.warn("blade log spill close fail: {}", e.getMessage());
+			}
+		}
+		spillWriters.clear();
+	}
+
+	/**
+	 * 重放落盘日志，由后台线程在启动及发送成功后调用
+	 */
+	private void replaySpill() {
+		spillPending = false;
+		replaySpill(SPILL_USUAL, LogUsual.class, logClient::saveUsualLogs);
+		replaySpill(SPILL_API, LogApi.class, logClient::saveApiLogs);
+		replaySpill(SPILL_ERROR, LogError.class, logClient::saveErrorLogs);
+	}
+
+	/**
+	 * 落盘文件先转为重放文件，新的落盘写入新文件，重放文件按批发送，
+	 * 发送失败时剩余日志重新落盘，等待下次恢复
+	 */
+	private <T extends LogAbstract> void replaySpill(String type, Class<T> logClass, Function<List<T>, R<Boolean>> sender) {
+		Path replay = spillFile(type, REPLAY_SUFFIX);
+		try {
+			boolean success = true;
+			while (success && rollSpillFile(type, replay)) {
+				success = replaySpill(replay, logClass, sender);
+			}
+		} catch (IOException e) {
+			log.error("blade log spill replay fail", e);
+		}
+	}
+
+	private <T extends LogAbstract> boolean replaySpill(Path replay, Class<T> logClass, Function<List<T>, R<Boolean>> sender) throws IOException {
+		int batchSize = properties.getBatchSize();
+		List<T> batch = new ArrayList<>(batchSize);
+		boolean success = true;
+		try (BufferedReader reader = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				T logAbstract = JsonUtil.readValue(line, logClass);
+				if (logAbstract == null) {
+					continue;
+				}
+				batch.add(logAbstract);
+				if (batch.size() < batchSize) {
+					continue;
+				}
+				success = replayBatch(batch, sender, success);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			success = replayBatch(batch, sender, success);
+		}
+		Files.delete(replay);
+		return success;
+	}
+
+	/**
+	 * 失败的批次已在 send 中重新落盘，之后的批次直接落盘
+	 */
+	private <T extends LogAbstract> boolean replayBatch(List<T> batch, Function<List<T>, R<Boolean>> sender, boolean success) {
+		if (success) {
+			return send(batch, sender);
+		}
+		spill(batch);
+		return false;
+	}
+
+	/**
+	 * 上次未完成的重放文件优先重放，否则关闭写入流并将落盘文件转为重放文件
+	 */
+	private synchronized boolean rollSpillFile(String type, Path replay) throws IOException {
+		if (Files.exists(replay)) {
+			return true;
+		}
+		Path spill = spillFile(type, SPILL_SUFFIX);
+		if (!Files.exists(spill)) {
+			return false;
+		}
+		BufferedWriter writer = spillWriters.remove(type);
+		if (writer != null) {
+			writer.close();
+		}
+		Files.move(spill, replay, StandardCopyOption.ATOMIC_MOVE);
+		return true;
+	}
+
+	private boolean hasSpillFile() {
+		for (String type : new String[]{SPILL_USUAL, SPILL_API, SPILL_ERROR}) {
+			if (Files.exists(spillFile(type, SPILL_SUFFIX)) || Files.exists(spillFile(type, REPLAY_SUFFIX))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Path spillFile(String type, String suffix) {
+		return Paths.get(properties.getSpillPath(), "blade-log-" + type + suffix);
+	}
+
+	private static String spillType(LogAbstract logAbstract) {
+		if (logAbstract instanceof LogApi) {
+			return SPILL_API;
+		} else if (logAbstract instanceof LogError) {
+			return SPILL_ERROR;
+		}
+		return SPILL_USUAL;
+	}
+
+}
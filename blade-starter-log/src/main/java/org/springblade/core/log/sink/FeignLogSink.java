@@ -0,0 +1,50 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.log.sink;
+
+import lombok.AllArgsConstructor;
+import org.springblade.core.log.feign.ILogClient;
+import org.springblade.core.log.model.LogApi;
+import org.springblade.core.log.model.LogError;
+import org.springblade.core.log.model.LogUsual;
+
+/**
+ * 逐条通过 Feign 发送日志
+ *
+ * @author Chill
+ */
+@AllArgsConstructor
+public class FeignLogSink implements ILogSink {
+
+	private final ILogClient logClient;
+
+	@Override
+	public void saveUsualLog(LogUsual log) {
+		logClient.saveUsualLog(log);
+	}
+
+	@Override
+	public void saveApiLog(LogApi log) {
+		logClient.saveApiLog(log);
+	}
+
+	@Override
+	public void saveErrorLog(LogError log) {
+		logClient.saveErrorLog(log);
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.log.sink;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springblade.core.log.feign.ILogClient;
+import org.springblade.core.log.model.LogApi;
+import org.springblade.core.log.model.LogError;
+import org.springblade.core.log.model.LogUsual;
+import org.springblade.core.log.props.BladeLogBatchProperties;
+import org.springblade.core.tool.api.R;
+import org.springblade.core.tool.jackson.JsonUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * 批量发送日志测试
+ *
+ * @author Chill
+ */
+public class BatchLogSinkTest {
+	private Path spillPath;
+	private StubLogClient logClient;
+	private BatchLogSink sink;
+
+	@Before
+	public void setUp() throws IOException {
+		spillPath = Files.createTempDirectory("blade-log-spill");
+		logClient = new StubLogClient();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		if (sink != null) {
+			sink.destroy();
+		}
+		try (Stream<Path> files = Files.list(spillPath)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(spillPath);
+	}
+
+	@Test
+	public void testReplayOnRecovery() throws Exception {
+		logClient.available = false;
+		sink = start();
+		for (int i = 0; i < 5; i++) {
+			sink.saveUsualLog(usual("spill-" + i));
+		}
+		Path spillFile = spillPath.resolve("blade-log-usual.spill");
+		// 发送失败的日志写入常驻的落盘文件
+		await(() -> lines(spillFile) == 5);
+		Assert.assertTrue(logClient.usualLogs.isEmpty());
+		// 恢复后下一批发送成功即重放，无需重启
+		logClient.available = true;
+		sink.saveUsualLog(usual("live"));
+		await(() -> logClient.usualLogs.size() == 6);
+		Assert.assertEquals("live", logClient.usualLogs.get(0));
+		Assert.assertFalse(Files.exists(spillFile));
+		Assert.assertFalse(Files.exists(spillPath.resolve("blade-log-usual.replay")));
+		// 重放后再次失败，落盘文件重新打开写入
+		logClient.available = false;
+		sink.saveUsualLog(usual("again"));
+		await(() -> lines(spillFile) == 1);
+	}
+
+	@Test
+	public void testReplayOnStartup() throws Exception {
+		Files.write(spillPath.resolve("blade-log-usual.spill"),
+			Collections.singletonList(JsonUtil.toJson(usual("last"))), StandardCharsets.UTF_8);
+		// 上次重放未完成的文件同样重放
+		Files.write(spillPath.resolve("blade-log-usual.replay"),
+			Collections.singletonList(JsonUtil.toJson(usual("interrupted"))), StandardCharsets.UTF_8);
+		sink = start();
+		await(() -> logClient.usualLogs.size() == 2);
+		Assert.assertEquals("interrupted", logClient.usualLogs.get(0));
+		Assert.assertEquals("last", logClient.usualLogs.get(1));
+		await(() -> !Files.exists(spillPath.resolve("blade-log-usual.replay")));
+	}
+
+	private BatchLogSink start() {
+		BladeLogBatchProperties properties = new BladeLogBatchProperties();
+		properties.setOverflowPolicy(BladeLogBatchProperties.OverflowPolicy.SPILL);
+		properties.setFlushInterval(20L);
+		properties.setBatchSize(2);
+		properties.setSpillPath(spillPath.toString());
+		BatchLogSink batchLogSink = new BatchLogSink(logClient, properties);
+		batchLogSink.afterPropertiesSet();
+		return batchLogSink;
+	}
+
+	private static LogUsual usual(String data) {
+		LogUsual logUsual = new LogUsual();
+		logUsual.setLogData(data);
+		return logUsual;
+	}
+
+	private static int lines(Path file) {
+		try {
+			return Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8).size() : 0;
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			Assert.assertTrue("timeout", System.nanoTime() < deadline);
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+	}
+
+	private static class StubLogClient implements ILogClient {
+		private final List<String> usualLogs = new CopyOnWriteArrayList<>();
+		private volatile boolean available = true;
+
+		@Override
+		public R<Boolean> saveUsualLog(LogUsual log) {
+			return saveUsualLogs(Collections.singletonList(log));
+		}
+
+		@Override
+		public R<Boolean> saveApiLog(LogApi log) {
+			return R.status(available);
+		}
+
+		@Override
+		public R<Boolean> saveErrorLog(LogError log) {
+			return R.status(available);
+		}
+
+		@Override
+		public R<Boolean> saveUsualLogs(List<LogUsual> logs) {
+			if (!available) {
+				return R.fail("log server unavailable");
+			}
+			for (LogUsual log : logs) {
+				usualLogs.add(log.getLogData());
+			}
+			return R.data(true);
+		}
+
+		@Override
+		public R<Boolean> saveApiLogs(List<LogApi> logs) {
+			return R.status(available);
+		}
+
+		@Override
+		public R<Boolean> saveErrorLogs(List<LogError> logs) {
+			return R.status(available);
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+
+package org.springblade.core.mp.plugins;
+
+/**
+ * sql 指纹，去掉字面量和多余空白，合并 in 列表，参数不同的同一语句得到相同的指纹
+ *
+ * @author L.cm
+ */
+final class SqlFingerprint {
+
+	private SqlFingerprint() {
+	}
+
+	/**
+	 * 计算 sql 指纹
+	 *
+	 * @param sql sql
+	 * @return 指纹
+	 */
+	static String of(String sql) {
+		int length = sql.length();
+		StringBuilder builder = new StringBuilder(length);
+		int i = 0;
+		while (i < length) {
+			char c = sql.charAt(i);
+			if (Character.isWhitespace(c)) {
+				while (i < length && Character.isWhitespace(sql.charAt(i))) {
+					i++;
+				}
+				if (builder.length() > 0 && i < length) {
+					builder.append(' ');
+				}
+				continue;
+			}
+			if (c == '\'') {
+				// 字符串字面量，'' 为转义
+				i++;
+				while (i < length) {
+					if (sql.charAt(i) == '\'') {
+						if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+							i += 2;
+							continue;
+						}
+						break;
+					}
+					i++;
+				}
+				i++;
+				appendPlaceholder(builder);
+				continue;
+			}
+			if (Character.isDigit(c) && !isIdentifierPart(builder)) {
+				// 数字字面量
+				while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+					i++;
+				}
+				appendPlaceholder(builder);
+				continue;
+			}
+			if (c == '?') {
+				i++;
+				appendPlaceholder(builder);
+				continue;
+			}
+			builder.append(c);
+			i++;
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * 连续的占位符合并为一个，in (?, ?, ?) 变为 in (?)
+	 */
+	private static void appendPlaceholder(StringBuilder builder) {
+		int end = builder.length();
+		if (end > 0 && builder.charAt(end - 1) == ' ') {
+			end--;
+		}
+		if (end > 1 && builder.charAt(end - 1) == ',' && builder.charAt(end - 2) == '?') {
+			builder.setLength(end - 1);
+			return;
+		}
+		builder.append('?');
+	}
+
+	private static boolean isIdentifierPart(StringBuilder builder) {
+		int length = builder.length();
+		if (length == 0) {
+			return false;
+		}
+		char c = builder.charAt(length - 1);
+		return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '$' || c == '`' || c == '"';
+	}
+
+}
@@ -23,34 +23,121 @@ import com.alibaba.druid.proxy.jdbc.JdbcParameter;
 import com.alibaba.druid.proxy.jdbc.ResultSetProxy;
 import com.alibaba.druid.proxy.jdbc.StatementProxy;
 import com.alibaba.druid.sql.SQLUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springblade.core.mp.props.MybatisPlusProperties;
 import org.springblade.core.tool.utils.StringUtil;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
 
 import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 打印可执行的 sql 日志
  *
+ * <p>
+ * 开启异步采样后，请求线程只按 sql 指纹记录耗时，慢 sql 和采样的 sql 交给后台线程格式化打印
+ * </p>
+ *
  * @author L.cm，Chill
  */
 @Slf4j
-public class SqlLogInterceptor extends FilterEventAdapter {
+public class SqlLogInterceptor extends FilterEventAdapter implements DisposableBean {
 	private static final SQLUtils.FormatOption FORMAT_OPTION = new SQLUtils.FormatOption(false, false);
 
 	private static final List<String> SQL_LOG_EXCLUDE = new ArrayList<>(Arrays.asList("ACT_RU_JOB", "ACT_RU_TIMER_JOB"));
+	/**
+	 * sql 到直方图的缓存上限
+	 */
+	private static final int MAX_CACHED_SQL = 4096;
+	/**
+	 * 排除的 sql 的缓存标记
+	 */
+	private static final SqlStatistics.Histogram EXCLUDED = new SqlStatistics.Histogram();
 
 	private final MybatisPlusProperties properties;
+	/**
+	 * 耗时统计，未开启异步采样时为 null
+	 */
+	@Nullable
+	private final SqlStatistics statistics;
+	/**
+	 * sql 对应的直方图，避免重复计算指纹和匹配排除关键字
+	 */
+	private final Cache<String, SqlStatistics.Histogram> sqlCache = Caffeine.newBuilder().maximumSize(MAX_CACHED_SQL).build();
+	private final BlockingQueue<SqlLogTask> queue;
+	private final LongAdder droppedCounter = new LongAdder();
+	private final long slowThresholdNanos;
+	private final double sampleRate;
+	private volatile boolean running;
+	private Thread worker;
 
 	public SqlLogInterceptor(MybatisPlusProperties properties) {
 		this.properties = properties;
 		if (properties.getSqlLogExclude().size() > 0) {
 			SQL_LOG_EXCLUDE.addAll(properties.getSqlLogExclude());
 		}
+		MybatisPlusProperties.SqlLogSampling sampling = properties.getSqlLogSampling();
+		if (Boolean.TRUE.equals(sampling.getEnabled())) {
+			this.statistics = new SqlStatistics(sampling.getMaxFingerprints());
+			this.queue = new ArrayBlockingQueue<>(sampling.getQueueCapacity());
+			this.slowThresholdNanos = sampling.getSlowThreshold().toNanos();
+			this.sampleRate = sampling.getSampleRate();
+			this.running = true;
+			this.worker = new Thread(this::drain, "blade-sql-log");
+			this.worker.setDaemon(true);
+			this.worker.start();
+		} else {
+			this.statistics = null;
+			this.queue = null;
+			this.slowThresholdNanos = Long.MAX_VALUE;
+			this.sampleRate = 0D;
+		}
+	}
+
+	/**
+	 * 按 sql 指纹的耗时统计，未开启异步采样时为 null
+	 *
+	 * @return SqlStatistics
+	 */
+	@Nullable
+	public SqlStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * 队列满时丢弃的日志数
+	 *
+	 * @return count
+	 */
+	public long getDroppedCount() {
+		return droppedCounter.sum();
+	}
+
+	/**
+	 * 同时作为 druid Filter 和 spring bean 的销毁回调，可重复调用
+	 */
+	@Override
+	public void destroy() {
+		running = false;
+		if (worker != null) {
+			worker.interrupt();
+			try {
+				worker.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
 	}
 
 	@Override
@@ -101,6 +188,12 @@ public class SqlLogInterceptor extends FilterEventAdapter {
 			chain.statement_close(statement);
 			return;
 		}
+		// 异步采样，只记录耗时
+		if (statistics != null) {
+			recordSql(statement);
+			chain.statement_close(statement);
+			return;
+		}
 		// 是否开启调试
 		if (!log.isInfoEnabled()) {
 			chain.statement_close(statement);
@@ -118,16 +211,94 @@ public class SqlLogInterceptor extends FilterEventAdapter {
 			chain.statement_close(statement);
 			return;
 		}
+		List<Object> parameters = getParameters(statement);
+		String dbType = statement.getConnectionProxy().getDirectDataSource().getDbType();
+		String formattedSql = SQLUtils.format(sql, DbType.of(dbType), parameters, FORMAT_OPTION);
+		printSql(formattedSql, statement.getLastExecuteTimeNano());
+		chain.statement_close(statement);
+	}
+
+	/**
+	 * 记录耗时，慢 sql 和采样的 sql 放入队列
+	 */
+	private void recordSql(StatementProxy statement) {
+		String sql = statement.getBatchSql();
+		if (StringUtil.isEmpty(sql)) {
+			return;
+		}
+		// 按最近最少使用淘汰，高基数 sql 不会清空常用语句的缓存
+		SqlStatistics.Histogram histogram = sqlCache.get(sql, key -> excludeSql(key) ? EXCLUDED : statistics.histogram(SqlFingerprint.of(key)));
+		if (histogram == EXCLUDED) {
+			return;
+		}
+		long nanos = statement.getLastExecuteTimeNano();
+		histogram.record(nanos);
+		if (nanos < slowThresholdNanos && (sampleRate <= 0D || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+			return;
+		}
+		if (!log.isInfoEnabled()) {
+			return;
+		}
+		// 参数在 statement 关闭后失效，需要在当前线程复制
+		String dbType = statement.getConnectionProxy().getDirectDataSource().getDbType();
+		if (!queue.offer(new SqlLogTask(sql, getParameters(statement), dbType, nanos))) {
+			droppedCounter.increment();
+		}
+	}
+
+	/**
+	 * 后台线程格式化打印 sql，并定时打印耗时统计
+	 */
+	private void drain() {
+		MybatisPlusProperties.SqlLogSampling sampling = properties.getSqlLogSampling();
+		long interval = sampling.getStatsLogInterval().toMillis();
+		long nextStatsLog = interval > 0 ? System.currentTimeMillis() + interval : Long.MAX_VALUE;
+		while (running) {
+			try {
+				long timeout = interval > 0 ? Math.max(1L, nextStatsLog - System.currentTimeMillis()) : 1000L;
+				SqlLogTask task = queue.poll(timeout, TimeUnit.MILLISECONDS);
+				if (task != null) {
+					task.print();
+				}
+				if (System.currentTimeMillis() >= nextStatsLog) {
+					printStatistics(sampling.getStatsLogTop());
+					nextStatsLog = System.currentTimeMillis() + interval;
+				}
+			} catch (InterruptedException e) {
+				break;
+			} catch (Throwable e) {
+				log.warn("sql log print fail: {}", e.getMessage());
+			}
+		}
+	}
+
+	private void printStatistics(int top) {
+		List<SqlStatistics.SqlStat> stats = statistics.snapshot();
+		if (stats.isEmpty() || !log.isInfoEnabled()) {
+			return;
+		}
+		StringBuilder builder = new StringBuilder("\n\n==============  Sql Stats  ==============");
+		for (int i = 0, size = Math.min(top, stats.size()); i < size; i++) {
+			SqlStatistics.SqlStat stat = stats.get(i);
+			builder.append("\nCount: ").append(stat.getCount())
+				.append(", P50: ").append(StringUtil.format(TimeUnit.MICROSECONDS.toNanos(stat.getP50Micros())))
+				.append(", P99: ").append(StringUtil.format(TimeUnit.MICROSECONDS.toNanos(stat.getP99Micros())))
+				.append(", Max: ").append(StringUtil.format(TimeUnit.MICROSECONDS.toNanos(stat.getMaxMicros())))
+				.append(", SQL: ").append(stat.getFingerprint());
+		}
+		builder.append("\nDropped: ").append(getDroppedCount());
+		builder.append("\n==============  Sql Stats  ==============\n");
+		log.info(builder.toString());
+	}
+
+	private static List<Object> getParameters(StatementProxy statement) {
 		int parametersSize = statement.getParametersSize();
 		List<Object> parameters = new ArrayList<>(parametersSize);
 		for (int i = 0; i < parametersSize; ++i) {
 			// 转换参数，处理 java8 时间
 			parameters.add(getJdbcParameter(statement.getParameter(i)));
 		}
-		String dbType = statement.getConnectionProxy().getDirectDataSource().getDbType();
-		String formattedSql = SQLUtils.format(sql, DbType.of(dbType), parameters, FORMAT_OPTION);
-		printSql(formattedSql, statement);
-		chain.statement_close(statement);
+		return parameters;
 	}
 
 	private static Object getJdbcParameter(JdbcParameter jdbcParam) {
@@ -142,13 +313,13 @@ public class SqlLogInterceptor extends FilterEventAdapter {
 		return value;
 	}
 
-	private static void printSql(String sql, StatementProxy statement) {
+	private static void printSql(String sql, long nanos) {
 		// 打印 sql
 		String sqlLogger = "\n\n==============  Sql Start  ==============" +
 			"\nExecute SQL : {}" +
 			"\nExecute Time: {}" +
 			"\n==============  Sql  End   ==============\n";
-		log.info(sqlLogger, sql.trim(), StringUtil.format(statement.getLastExecuteTimeNano()));
+		log.info(sqlLogger, sql.trim(), StringUtil.format(nanos));
 	}
 
 	private static boolean excludeSql(String sql) {
@@ -161,4 +332,31 @@ public class SqlLogInterceptor extends FilterEventAdapter {
 		return false;
 	}
 
+	/**
+	 * 待打印的 sql
+	 */
+	private static class SqlLogTask {
+		private final String sql;
+		private final List<Object> parameters;
+		private final String dbType;
+		private final long nanos;
+
+		private SqlLogTask(String sql, List<Object> parameters, String dbType, long nanos) {
+			this.sql = sql;
+			this.parameters = parameters;
+			this.dbType = dbType;
+			this.nanos = nanos;
+		}
+
+		private void print() {
+			String formattedSql;
+			try {
+				formattedSql = SQLUtils.format(sql, DbType.of(dbType), parameters, FORMAT_OPTION);
+			} catch (Exception e) {
+				formattedSql = sql;
+			}
+			printSql(formattedSql, nanos);
+		}
+	}
+
 }
@@ -0,0 +1,219 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+
+package org.springblade.core.mp.plugins;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按 sql 指纹统计的执行耗时直方图
+ *
+ * <p>
+ * 桶按微秒的 2 的幂划分，每个幂再分 8 段，百分位误差在 12.5% 以内；记录只有几次原子操作，不加锁
+ * </p>
+ *
+ * @author L.cm
+ */
+public class SqlStatistics {
+	/**
+	 * 超出指纹上限后统一记录到此指纹
+	 */
+	public static final String OTHER_FINGERPRINT = "(other)";
+	private static final int SUB_BITS = 3;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	/**
+	 * 最大记录到 2^36 微秒，约 19 小时
+	 */
+	private static final int MAX_POWER = 36;
+	private static final int BUCKET_COUNT = SUB_COUNT * (MAX_POWER - SUB_BITS + 2);
+
+	private final int maxFingerprints;
+	private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+	public SqlStatistics(int maxFingerprints) {
+		this.maxFingerprints = maxFingerprints;
+	}
+
+	/**
+	 * 获取指纹对应的直方图
+	 *
+	 * @param fingerprint sql 指纹
+	 * @return Histogram
+	 */
+	Histogram histogram(String fingerprint) {
+		Histogram histogram = histograms.get(fingerprint);
+		if (histogram != null) {
+			return histogram;
+		}
+		if (histograms.size() >= maxFingerprints) {
+			fingerprint = OTHER_FINGERPRINT;
+		}
+		return histograms.computeIfAbsent(fingerprint, key -> new Histogram());
+	}
+
+	/**
+	 * 统计快照，按总耗时倒序
+	 *
+	 * @return 统计列表
+	 */
+	public List<SqlStat> snapshot() {
+		List<SqlStat> stats = new ArrayList<>(histograms.size());
+		for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+			SqlStat stat = entry.getValue().snapshot(entry.getKey());
+			if (stat.getCount() > 0) {
+				stats.add(stat);
+			}
+		}
+		stats.sort(Comparator.comparingLong(SqlStat::getTotalMicros).reversed());
+		return stats;
+	}
+
+	/**
+	 * 清空统计，指纹保留，直方图归零
+	 */
+	public void reset() {
+		histograms.values().forEach(Histogram::reset);
+	}
+
+	static int bucketIndex(long micros) {
+		if (micros < SUB_COUNT) {
+			return (int) Math.max(micros, 0L);
+		}
+		int power = 63 - Long.numberOfLeadingZeros(micros);
+		if (power > MAX_POWER) {
+			return BUCKET_COUNT - 1;
+		}
+		int sub = (int) (micros >>> (power - SUB_BITS)) & (SUB_COUNT - 1);
+		return SUB_COUNT * (power - SUB_BITS + 1) + sub;
+	}
+
+	/**
+	 * 桶的上界(不含)，微秒
+	 */
+	static long bucketUpperBound(int index) {
+		if (index < SUB_COUNT) {
+			return index + 1L;
+		}
+		int power = index / SUB_COUNT + SUB_BITS - 1;
+		int sub = index % SUB_COUNT;
+		return (long) (SUB_COUNT + sub + 1) << (power - SUB_BITS);
+	}
+
+	/**
+	 * 单个指纹的直方图
+	 */
+	static class Histogram {
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalMicros = new LongAdder();
+		private final AtomicLong maxMicros = new AtomicLong();
+
+		void record(long nanos) {
+			long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+			buckets.incrementAndGet(bucketIndex(micros));
+			count.increment();
+			totalMicros.add(micros);
+			long max;
+			while (micros > (max = maxMicros.get())) {
+				if (maxMicros.compareAndSet(max, micros)) {
+					break;
+				}
+			}
+		}
+
+		void reset() {
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				buckets.set(i, 0L);
+			}
+			count.reset();
+			totalMicros.reset();
+			maxMicros.set(0L);
+		}
+
+		SqlStat snapshot(String fingerprint) {
+			long[] counts = new long[BUCKET_COUNT];
+			long total = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				counts[i] = buckets.get(i);
+				total += counts[i];
+			}
+			long max = maxMicros.get();
+			return new SqlStat(fingerprint, total, totalMicros.sum(),
+				percentile(counts, total, 0.5D, max), percentile(counts, total, 0.99D, max), max);
+		}
+
+		private static long percentile(long[] counts, long total, double quantile, long max) {
+			if (total == 0) {
+				return 0L;
+			}
+			long rank = (long) Math.ceil(total * quantile);
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return Math.min(bucketUpperBound(i), max);
+				}
+			}
+			return max;
+		}
+	}
+
+	/**
+	 * 单个指纹的统计结果，时间单位为微秒
+	 */
+	@Getter
+	@AllArgsConstructor
+	public static class SqlStat {
+		/**
+		 * sql 指纹
+		 */
+		private final String fingerprint;
+		/**
+		 * 执行次数
+		 */
+		private final long count;
+		/**
+		 * 总耗时
+		 */
+		private final long totalMicros;
+		/**
+		 * p50 耗时
+		 */
+		private final long p50Micros;
+		/**
+		 * p99 耗时
+		 */
+		private final long p99Micros;
+		/**
+		 * 最大耗时
+		 */
+		private final long maxMicros;
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springblade.core.mp.props;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -46,6 +47,11 @@ public class MybatisPlusProperties {
 	 */
 	private List<String> sqlLogExclude = new ArrayList<>();
 
+	/**
+	 * 异步采样 sql 日志
+	 */
+	private SqlLogSampling sqlLogSampling = new SqlLogSampling();
+
 	/**
 	 * 分页最大数
 	 */
@@ -61,4 +67,36 @@ public class MybatisPlusProperties {
 	 */
 	private Boolean optimizeJoin = false;
 
+	@Data
+	public static class SqlLogSampling {
+		/**
+		 * 是否开启，开启后请求线程只记录耗时，慢 sql 和采样的 sql 在后台线程格式化打印
+		 */
+		private Boolean enabled = false;
+		/**
+		 * 慢 sql 阈值，超过时打印
+		 */
+		private Duration slowThreshold = Duration.ofSeconds(1);
+		/**
+		 * 未超过阈值的 sql 的采样打印比例，0 ~ 1
+		 */
+		private Double sampleRate = 0D;
+		/**
+		 * 待打印队列容量，队列满时丢弃
+		 */
+		private Integer queueCapacity = 1024;
+		/**
+		 * 耗时统计的 sql 指纹上限，超出后合并统计
+		 */
+		private Integer maxFingerprints = 1000;
+		/**
+		 * 耗时统计打印间隔，为 0 则不打印
+		 */
+		private Duration statsLogInterval = Duration.ofMinutes(5);
+		/**
+		 * 耗时统计每次打印总耗时最高的条数
+		 */
+		private Integer statsLogTop = 20;
+	}
+
 }
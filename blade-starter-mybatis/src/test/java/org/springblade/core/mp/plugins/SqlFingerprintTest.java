@@ -0,0 +1,61 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+
+package org.springblade.core.mp.plugins;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * sql 指纹测试
+ *
+ * @author L.cm
+ */
+public class SqlFingerprintTest {
+
+	@Test
+	public void testInList() {
+		Assert.assertEquals("select * from t where id in (?)", SqlFingerprint.of("select * from t where id in (1, 2, 3)"));
+		Assert.assertEquals("select * from t where id in (?)", SqlFingerprint.of("select * from t where id in (?,?,?)"));
+		Assert.assertEquals("select * from t where id in (?) and name in (?)", SqlFingerprint.of("select * from t where id in (1,?,3) and name in ('a', 'b')"));
+		// 参数个数不同的同一语句指纹相同
+		Assert.assertEquals(SqlFingerprint.of("select * from t where id in (1, 2)"), SqlFingerprint.of("select * from t where id in (3, 4, 5, 6)"));
+		// 不相邻的占位符不合并
+		Assert.assertEquals("update t set a = ?, b = ? where id = ?", SqlFingerprint.of("update t set a = 1, b = 'x' where id = ?"));
+	}
+
+	@Test
+	public void testStringLiteral() {
+		Assert.assertEquals("select * from t where name = ? and age = ?", SqlFingerprint.of("select * from t where name = 'it''s' and age = 18"));
+		Assert.assertEquals("select * from t where name = ? and age = ?", SqlFingerprint.of("select * from t where name = '' and age = 18"));
+		Assert.assertEquals("select * from t where name = ? and age = ?", SqlFingerprint.of("select * from t where name = '''' and age = 18"));
+		Assert.assertEquals("select * from t where name = ?", SqlFingerprint.of("select * from t where name = 'a  1 in (2, 3)'"));
+	}
+
+	@Test
+	public void testIdentifierDigits() {
+		Assert.assertEquals("select t1.col2 from table3 t1 where t1.id = ?", SqlFingerprint.of("select t1.col2 from table3 t1 where t1.id = 5"));
+		Assert.assertEquals("select `a1`, \"b2\" from t_2021 where price > ?", SqlFingerprint.of("select `a1`, \"b2\" from t_2021 where price > 1.5"));
+	}
+
+	@Test
+	public void testWhitespace() {
+		Assert.assertEquals("select ? from t", SqlFingerprint.of("  select\n\t1\r\n  from   t  "));
+		Assert.assertEquals("", SqlFingerprint.of(""));
+	}
+
+}
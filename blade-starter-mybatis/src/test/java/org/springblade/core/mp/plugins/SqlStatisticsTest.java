@@ -0,0 +1,104 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+
+package org.springblade.core.mp.plugins;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * sql 耗时统计测试
+ *
+ * @author L.cm
+ */
+public class SqlStatisticsTest {
+
+	@Test
+	public void testBucketIndex() {
+		Assert.assertEquals(0, SqlStatistics.bucketIndex(-5L));
+		Assert.assertEquals(0, SqlStatistics.bucketIndex(0L));
+		Assert.assertEquals(7, SqlStatistics.bucketIndex(7L));
+		Assert.assertEquals(8, SqlStatistics.bucketIndex(8L));
+		Assert.assertEquals(15, SqlStatistics.bucketIndex(15L));
+		// 16 之后每个桶宽度为 2
+		Assert.assertEquals(16, SqlStatistics.bucketIndex(16L));
+		Assert.assertEquals(16, SqlStatistics.bucketIndex(17L));
+		Assert.assertEquals(17, SqlStatistics.bucketIndex(18L));
+		// 超过 2^36 微秒都记录到最后一个桶
+		int last = SqlStatistics.bucketIndex(1L << 37);
+		Assert.assertEquals(last, SqlStatistics.bucketIndex(Long.MAX_VALUE));
+		Assert.assertTrue(SqlStatistics.bucketIndex(1L << 36) < last);
+	}
+
+	@Test
+	public void testBucketUpperBound() {
+		Assert.assertEquals(1L, SqlStatistics.bucketUpperBound(0));
+		Assert.assertEquals(8L, SqlStatistics.bucketUpperBound(7));
+		Assert.assertEquals(9L, SqlStatistics.bucketUpperBound(8));
+		Assert.assertEquals(16L, SqlStatistics.bucketUpperBound(15));
+		Assert.assertEquals(18L, SqlStatistics.bucketUpperBound(16));
+		Assert.assertEquals(20L, SqlStatistics.bucketUpperBound(17));
+		// 每个值都落在 [上一个桶的上界, 所在桶的上界) 内，误差不超过 12.5%
+		for (long micros = 0; micros < (1L << 36); micros = micros < 100_000 ? micros + 1 : micros * 3 / 2) {
+			int index = SqlStatistics.bucketIndex(micros);
+			long upper = SqlStatistics.bucketUpperBound(index);
+			Assert.assertTrue(micros + " < " + upper, micros < upper);
+			if (index > 0) {
+				Assert.assertTrue(micros + " >= " + SqlStatistics.bucketUpperBound(index - 1), micros >= SqlStatistics.bucketUpperBound(index - 1));
+			}
+			Assert.assertTrue(upper - micros <= Math.max(1L, micros / 8 + 1));
+		}
+	}
+
+	@Test
+	public void testPercentile() {
+		SqlStatistics statistics = new SqlStatistics(10);
+		SqlStatistics.Histogram histogram = statistics.histogram("select ?");
+		for (long micros = 1; micros <= 100; micros++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+		}
+		SqlStatistics.SqlStat stat = statistics.snapshot().get(0);
+		Assert.assertEquals(100L, stat.getCount());
+		Assert.assertEquals(5050L, stat.getTotalMicros());
+		// 50 落在 [48, 52) 桶，取桶的上界
+		Assert.assertEquals(52L, stat.getP50Micros());
+		// 99 落在 [96, 104) 桶，上界不超过最大值
+		Assert.assertEquals(100L, stat.getP99Micros());
+		Assert.assertEquals(100L, stat.getMaxMicros());
+
+		statistics.reset();
+		Assert.assertTrue(statistics.snapshot().isEmpty());
+	}
+
+	@Test
+	public void testMaxFingerprints() {
+		SqlStatistics statistics = new SqlStatistics(1);
+		statistics.histogram("select a").record(TimeUnit.MILLISECONDS.toNanos(1));
+		statistics.histogram("select b").record(TimeUnit.MILLISECONDS.toNanos(5));
+		statistics.histogram("select c").record(TimeUnit.MILLISECONDS.toNanos(5));
+		List<SqlStatistics.SqlStat> stats = statistics.snapshot();
+		Assert.assertEquals(2, stats.size());
+		// 按总耗时倒序
+		Assert.assertEquals(SqlStatistics.OTHER_FINGERPRINT, stats.get(0).getFingerprint());
+		Assert.assertEquals(2L, stats.get(0).getCount());
+		Assert.assertEquals("select a", stats.get(1).getFingerprint());
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+
+package org.springblade.core.redis.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地二级缓存，L1 为 caffeine(W-TinyLFU)，L2 为 redis
+ *
+ * <p>
+ * 写操作先落 redis 再失效本地并广播，其他节点收到通知后失效各自的本地缓存。
+ * 本地缓存直接持有对象引用，取出的值不要修改。
+ * </p>
+ *
+ * @author L.cm
+ */
+public class BladeNearCache implements Cache {
+	private final Cache delegate;
+	private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache;
+	private final NearCacheRegistry registry;
+	/**
+	 * 失效版本号，防止远端读取期间发生的失效被旧值覆盖
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	BladeNearCache(Cache delegate, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache, NearCacheRegistry registry) {
+		this.delegate = delegate;
+		this.localCache = localCache;
+		this.registry = registry;
+	}
+
+	@NonNull
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@NonNull
+	@Override
+	public Object getNativeCache() {
+		return delegate.getNativeCache();
+	}
+
+	@Nullable
+	@Override
+	public ValueWrapper get(@NonNull Object key) {
+		String localKey = toLocalKey(key);
+		ValueWrapper wrapper = localCache.getIfPresent(localKey);
+		if (wrapper != null) {
+			return wrapper;
+		}
+		long current = generation.get();
+		wrapper = delegate.get(key);
+		if (wrapper != null) {
+			putLocal(localKey, wrapper, current);
+		}
+		return wrapper;
+	}
+
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = wrapper == null ? null : wrapper.get();
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+		String localKey = toLocalKey(key);
+		ValueWrapper wrapper = localCache.getIfPresent(localKey);
+		if (wrapper != null) {
+			return (T) wrapper.get();
+		}
+		// 远端读取与加载合并为一次调用
+		long current = generation.get();
+		T value = delegate.get(key, valueLoader);
+		if (value != null) {
+			putLocal(localKey, new SimpleValueWrapper(value), current);
+		}
+		return value;
+	}
+
+	@Override
+	public void put(@NonNull Object key, @Nullable Object value) {
+		delegate.put(key, value);
+		evictAndPublish(key);
+	}
+
+	@Nullable
+	@Override
+	public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+		ValueWrapper wrapper = delegate.putIfAbsent(key, value);
+		if (wrapper == null) {
+			evictAndPublish(key);
+		}
+		return wrapper;
+	}
+
+	@Override
+	public void evict(@NonNull Object key) {
+		delegate.evict(key);
+		evictAndPublish(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(@NonNull Object key) {
+		boolean present = delegate.evictIfPresent(key);
+		evictAndPublish(key);
+		return present;
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+		clearLocal();
+		registry.publishClear(getName());
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean present = delegate.invalidate();
+		clearLocal();
+		registry.publishClear(getName());
+		return present;
+	}
+
+	/**
+	 * 写入本地缓存，写入后再次校验版本号，期间发生过失效则撤销写入
+	 *
+	 * @param localKey 本地缓存key
+	 * @param wrapper  缓存值
+	 * @param current  远端读取前的版本号
+	 */
+	private void putLocal(String localKey, ValueWrapper wrapper, long current) {
+		if (current != generation.get()) {
+			return;
+		}
+		localCache.put(localKey, wrapper);
+		if (current != generation.get()) {
+			localCache.invalidate(localKey);
+		}
+	}
+
+	/**
+	 * 失效本地缓存
+	 *
+	 * @param localKey 本地缓存key
+	 */
+	void evictLocal(String localKey) {
+		generation.incrementAndGet();
+		localCache.invalidate(localKey);
+	}
+
+	/**
+	 * 清空本地缓存
+	 */
+	void clearLocal() {
+		generation.incrementAndGet();
+		localCache.invalidateAll();
+	}
+
+	/**
+	 * 本地缓存统计，可用于计算命中率
+	 *
+	 * @return CacheStats
+	 */
+	public CacheStats getLocalStats() {
+		return localCache.stats();
+	}
+
+	/**
+	 * 本地缓存数量
+	 *
+	 * @return size
+	 */
+	public long getLocalSize() {
+		return localCache.estimatedSize();
+	}
+
+	private void evictAndPublish(Object key) {
+		String localKey = toLocalKey(key);
+		evictLocal(localKey);
+		registry.publishEvict(getName(), localKey);
+	}
+
+	/**
+	 * RedisCache 同样以 String.valueOf 转换 key，保证失效消息与本地 key 一致
+	 */
+	private static String toLocalKey(Object key) {
+		return key instanceof String ? (String) key : String.valueOf(key);
+	}
+
+}
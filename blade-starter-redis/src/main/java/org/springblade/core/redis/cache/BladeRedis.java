@@ -17,16 +17,32 @@
 
 package org.springblade.core.redis.cache;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.springblade.core.redis.config.BladeRedisProperties;
 import org.springblade.core.tool.utils.CollectionUtil;
+import org.springblade.core.tool.utils.Exceptions;
+import org.springframework.data.redis.connection.DataType;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * redis 工具
@@ -36,15 +52,41 @@ import java.util.function.Supplier;
 @Getter
 @SuppressWarnings("unchecked")
 public class BladeRedis {
+	/**
+	 * 本地的空值标记，只在加载过程中使用，不写入 redis
+	 */
+	private static final Object NULL_VALUE = new Object();
+	/**
+	 * 加载结果为 null 时写入 key + NULL_SUFFIX，不占用原 key，其他读取方法不受影响
+	 */
+	private static final String NULL_SUFFIX = ":null";
+	private static final String LOCK_SUFFIX = ":loading";
+	private static final long LOCK_WAIT_MILLIS = 50L;
+	/**
+	 * 单次 pipeline 的最大命令数，避免响应在客户端堆积
+	 */
+	private static final int PIPELINE_BATCH_SIZE = 1000;
+	private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+		"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
 	private final RedisTemplate<String, Object> redisTemplate;
 	private final ValueOperations<String, Object> valueOps;
 	private final HashOperations<String, Object, Object> hashOps;
 	private final ListOperations<String, Object> listOps;
 	private final SetOperations<String, Object> setOps;
 	private final ZSetOperations<String, Object> zSetOps;
+	@Getter(AccessLevel.NONE)
+	private final BladeRedisProperties.SingleFlight singleFlight;
+	@Getter(AccessLevel.NONE)
+	private final ConcurrentMap<String, CompletableFuture<Object>> loadingMap = new ConcurrentHashMap<>();
 
 	public BladeRedis(RedisTemplate<String, Object> redisTemplate) {
+		this(redisTemplate, new BladeRedisProperties.SingleFlight());
+	}
+
+	public BladeRedis(RedisTemplate<String, Object> redisTemplate, BladeRedisProperties.SingleFlight singleFlight) {
 		this.redisTemplate = redisTemplate;
+		this.singleFlight = singleFlight;
 		Assert.notNull(redisTemplate, "redisTemplate is null");
 		valueOps = redisTemplate.opsForValue();
 		hashOps = redisTemplate.opsForHash();
@@ -111,16 +153,7 @@ public class BladeRedis {
 	 */
 	@Nullable
 	public <T> T get(String key, Supplier<T> loader) {
-		T value = this.get(key);
-		if (value != null) {
-			return value;
-		}
-		value = loader.get();
-		if (value == null) {
-			return null;
-		}
-		this.set(key, value);
-		return value;
+		return load(key, null, loader);
 	}
 
 	/**
@@ -142,24 +175,151 @@ public class BladeRedis {
 	 */
 	@Nullable
 	public <T> T get(CacheKey cacheKey, Supplier<T> loader) {
-		String key = cacheKey.getKey();
-		T value = this.get(key);
+		return load(cacheKey.getKey(), cacheKey.getExpire(), loader);
+	}
+
+	/**
+	 * 加载缓存，开启 single-flight 后同一 key 的并发未命中共用一次加载
+	 */
+	@Nullable
+	private <T> T load(String key, @Nullable Duration expire, Supplier<T> loader) {
+		Object value = getCached(key);
 		if (value != null) {
-			return value;
+			return unwrapNull(value);
+		}
+		if (!singleFlight.isEnabled()) {
+			return unwrapNull(loadAndSet(key, expire, loader));
+		}
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> loading = loadingMap.putIfAbsent(key, future);
+		if (loading != null) {
+			return unwrapNull(await(loading, key, expire, loader));
+		}
+		try {
+			Object loaded = loadWithLock(key, expire, loader);
+			future.complete(loaded);
+			return unwrapNull(loaded);
+		} catch (Throwable e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			loadingMap.remove(key, future);
+		}
+	}
+
+	/**
+	 * 等待同一 jvm 内其他线程的加载结果，超时后自行加载
+	 */
+	@Nullable
+	private Object await(CompletableFuture<Object> loading, String key, @Nullable Duration expire, Supplier<?> loader) {
+		Duration waitTimeout = singleFlight.getWaitTimeout();
+		if (waitTimeout == null || waitTimeout.isZero() || waitTimeout.isNegative()) {
+			return loadAndSet(key, expire, loader);
+		}
+		try {
+			return loading.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			return loadAndSet(key, expire, loader);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return loadAndSet(key, expire, loader);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			throw cause instanceof RuntimeException ? (RuntimeException) cause : Exceptions.unchecked(cause);
+		}
+	}
+
+	/**
+	 * 读取缓存，key 不存在但有空值标记时返回 NULL_VALUE，一次 MGET 完成
+	 */
+	@Nullable
+	private Object getCached(String key) {
+		if (!isCacheNullValue()) {
+			return valueOps.get(key);
+		}
+		List<Object> values = valueOps.multiGet(Arrays.asList(key, key + NULL_SUFFIX));
+		if (values == null || values.isEmpty()) {
+			return null;
+		}
+		Object value = values.get(0);
+		if (value == null && values.size() > 1 && values.get(1) != null) {
+			return NULL_VALUE;
+		}
+		return value;
+	}
+
+	private boolean isCacheNullValue() {
+		Duration nullValueTtl = singleFlight.getNullValueTtl();
+		return singleFlight.isEnabled() && nullValueTtl != null && !nullValueTtl.isZero() && !nullValueTtl.isNegative();
+	}
+
+	/**
+	 * 跨节点加载锁，未抢到锁的节点在超时时间内等待持锁节点写入缓存，超时后自行加载
+	 */
+	@Nullable
+	private Object loadWithLock(String key, @Nullable Duration expire, Supplier<?> loader) {
+		Duration lockTimeout = singleFlight.getLockTimeout();
+		if (lockTimeout == null || lockTimeout.isZero() || lockTimeout.isNegative()) {
+			return loadAndSet(key, expire, loader);
+		}
+		String lockKey = key + LOCK_SUFFIX;
+		String token = UUID.randomUUID().toString();
+		if (Boolean.TRUE.equals(valueOps.setIfAbsent(lockKey, token, lockTimeout))) {
+			try {
+				Object value = getCached(key);
+				return value != null ? value : loadAndSet(key, expire, loader);
+			} finally {
+				redisTemplate.execute(UNLOCK_SCRIPT, Collections.singletonList(lockKey), token);
+			}
+		}
+		long deadline = System.nanoTime() + lockTimeout.toNanos();
+		while (System.nanoTime() < deadline) {
+			try {
+				TimeUnit.MILLISECONDS.sleep(LOCK_WAIT_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			Object value = getCached(key);
+			if (value != null) {
+				return value;
+			}
 		}
-		value = loader.get();
+		return loadAndSet(key, expire, loader);
+	}
+
+	@Nullable
+	private Object loadAndSet(String key, @Nullable Duration expire, Supplier<?> loader) {
+		Object value = loader.get();
 		if (value == null) {
+			if (isCacheNullValue()) {
+				setEx(key + NULL_SUFFIX, Boolean.TRUE, singleFlight.getNullValueTtl());
+			}
 			return null;
 		}
-		this.set(cacheKey, value);
+		if (expire == null) {
+			set(key, value);
+		} else {
+			setEx(key, value, expire);
+		}
 		return value;
 	}
 
+	@Nullable
+	private static <T> T unwrapNull(@Nullable Object value) {
+		return value == NULL_VALUE ? null : (T) value;
+	}
+
 	/**
 	 * 删除给定的一个 key
 	 * 不存在的 key 会被忽略。
 	 */
 	public Boolean del(String key) {
+		if (isCacheNullValue()) {
+			// 同时删除空值标记，下次读取时重新加载
+			Long count = redisTemplate.delete(Arrays.asList(key, key + NULL_SUFFIX));
+			return count != null && count > 0;
+		}
 		return redisTemplate.delete(key);
 	}
 
@@ -168,7 +328,7 @@ public class BladeRedis {
 	 * 不存在的 key 会被忽略。
 	 */
 	public Boolean del(CacheKey key) {
-		return redisTemplate.delete(key.getKey());
+		return del(key.getKey());
 	}
 
 	/**
@@ -194,11 +354,91 @@ public class BladeRedis {
 	 * KEYS h*llo 匹配 hllo 和 heeeeello 等。
 	 * KEYS h[ae]llo 匹配 hello 和 hallo ，但不匹配 hillo 。
 	 * 特殊符号用 \ 隔开
+	 * <p>
+	 * KEYS 会阻塞 redis 直到遍历完整个库，key 较多时请使用 {@link #scan(String, long)}
+	 * </p>
 	 */
 	public Set<String> keys(String pattern) {
 		return redisTemplate.keys(pattern);
 	}
 
+	/**
+	 * 使用 SCAN 游标增量遍历符合 pattern 的 key，不会阻塞 redis
+	 * <p>
+	 * 遍历期间有 key 变更时可能返回重复的 key，使用完后需要关闭 cursor
+	 * </p>
+	 *
+	 * @param pattern 匹配模式，同 {@link #keys(String)}
+	 * @param count   每次 SCAN 的 COUNT 提示
+	 * @return Cursor
+	 */
+	public Cursor<String> scan(String pattern, long count) {
+		ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+		RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+		return redisTemplate.executeWithStickyConnection(connection ->
+			new ConvertingCursor<>(connection.scan(options), keySerializer::deserialize));
+	}
+
+	/**
+	 * 使用 SCAN 游标惰性遍历符合 pattern 的 key，stream 关闭时释放连接
+	 *
+	 * @param pattern 匹配模式
+	 * @param count   每次 SCAN 的 COUNT 提示
+	 * @return Stream
+	 */
+	public Stream<String> scanStream(String pattern, long count) {
+		Cursor<String> cursor = scan(pattern, count);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.NONNULL), false)
+			.onClose(() -> closeQuietly(cursor));
+	}
+
+	/**
+	 * 使用 SCAN 游标惰性遍历符合 pattern 且类型为 type 的 key，stream 关闭时释放连接
+	 * <p>
+	 * 每 count 个 key 使用一次 pipeline 查询类型后过滤
+	 * </p>
+	 *
+	 * @param pattern 匹配模式
+	 * @param count   每次 SCAN 的 COUNT 提示
+	 * @param type    key 类型
+	 * @return Stream
+	 */
+	public Stream<String> scanStream(String pattern, long count, DataType type) {
+		Cursor<String> cursor = scan(pattern, count);
+		int batchSize = (int) Math.max(1, Math.min(count, PIPELINE_BATCH_SIZE));
+		Iterator<String> iterator = new TypeFilterIterator(cursor, batchSize, type);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+			.onClose(() -> closeQuietly(cursor));
+	}
+
+	/**
+	 * 使用 SCAN 分批删除符合 pattern 的 key，每批使用一次 DEL
+	 *
+	 * @param pattern 匹配模式
+	 * @param count   每批的 key 数量
+	 * @return 删除的 key 数量
+	 */
+	public long delByPattern(String pattern, long count) {
+		int batchSize = (int) Math.max(1, Math.min(count, PIPELINE_BATCH_SIZE));
+		long deleted = 0;
+		try (Cursor<String> cursor = scan(pattern, count)) {
+			List<String> batch = new ArrayList<>(batchSize);
+			while (cursor.hasNext()) {
+				batch.add(cursor.next());
+				if (batch.size() == batchSize) {
+					deleted += nullToZero(redisTemplate.delete(batch));
+					batch.clear();
+				}
+			}
+			if (!batch.isEmpty()) {
+				deleted += nullToZero(redisTemplate.delete(batch));
+			}
+		} catch (IOException e) {
+			throw Exceptions.unchecked(e);
+		}
+		return deleted;
+	}
+
 	/**
 	 * 同时设置一个或多个 key-value 对。
 	 * 如果某个给定 key 已经存在，那么 MSET 会用新值覆盖原来的旧值，如果这不是你所希望的效果，请考虑使用 MSETNX 命令：它只会在所有给定 key 都不存在的情况下进行设置操作。
@@ -230,6 +470,154 @@ public class BladeRedis {
 		return valueOps.multiGet(keys);
 	}
 
+	/**
+	 * 使用 pipeline 批量存放 key value 对，并设置相同的生存时间
+	 *
+	 * @param keysValues key value
+	 * @param timeout    生存时间
+	 */
+	public void mSetEx(Map<String, ?> keysValues, Duration timeout) {
+		pipelined(keysValues.keySet(), (operations, key) -> operations.opsForValue().set(key, keysValues.get(key), timeout));
+	}
+
+	/**
+	 * 使用 pipeline 批量设置 key 的生存时间
+	 *
+	 * @param keys    keys
+	 * @param timeout 生存时间
+	 * @return 按 keys 顺序返回是否设置成功，key 不存在时为 false
+	 */
+	public List<Boolean> mExpire(Collection<String> keys, Duration timeout) {
+		return (List<Boolean>) (List<?>) pipelined(keys, (operations, key) -> operations.expire(key, timeout.toMillis(), TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * 使用 pipeline 批量获取 key 的剩余生存时间(以秒为单位)
+	 *
+	 * @param keys keys
+	 * @return 按 keys 顺序返回剩余时间，-2 不存在，-1 永不过期
+	 */
+	public List<Long> mTtl(Collection<String> keys) {
+		return (List<Long>) (List<?>) pipelined(keys, RedisOperations::getExpire);
+	}
+
+	/**
+	 * 使用 pipeline 批量获取多个哈希表中同一个域的值
+	 *
+	 * @param keys  keys
+	 * @param field 域
+	 * @return 按 keys 顺序返回值，不存在时为 null
+	 */
+	public List<Object> hGet(Collection<String> keys, Object field) {
+		return pipelined(keys, (operations, key) -> operations.opsForHash().get(key, field));
+	}
+
+	/**
+	 * 使用 pipeline 批量获取多个哈希表的所有域和值
+	 *
+	 * @param keys keys
+	 * @return 按 keys 顺序返回哈希表，不存在时为空 Map
+	 */
+	public List<Map<Object, Object>> hGetAll(Collection<String> keys) {
+		return (List<Map<Object, Object>>) (List<?>) pipelined(keys, (operations, key) -> operations.opsForHash().entries(key));
+	}
+
+	/**
+	 * 使用 pipeline 批量设置多个哈希表
+	 *
+	 * @param hashes key 和哈希表
+	 */
+	public void hMset(Map<String, ? extends Map<?, ?>> hashes) {
+		pipelined(hashes.keySet(), (operations, key) -> operations.opsForHash().putAll(key, hashes.get(key)));
+	}
+
+	/**
+	 * 按批次执行 pipeline，结果与 keys 的顺序一致
+	 */
+	private List<Object> pipelined(Collection<String> keys, BiConsumer<RedisOperations<String, Object>, String> action) {
+		List<Object> results = new ArrayList<>(keys.size());
+		List<String> batch = new ArrayList<>(Math.min(keys.size(), PIPELINE_BATCH_SIZE));
+		for (String key : keys) {
+			batch.add(key);
+			if (batch.size() == PIPELINE_BATCH_SIZE) {
+				results.addAll(executePipelined(batch, action));
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			results.addAll(executePipelined(batch, action));
+		}
+		return results;
+	}
+
+	private List<Object> executePipelined(List<String> keys, BiConsumer<RedisOperations<String, Object>, String> action) {
+		return redisTemplate.executePipelined(new SessionCallback<Object>() {
+			@Override
+			public <K, V> Object execute(RedisOperations<K, V> operations) {
+				RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+				for (String key : keys) {
+					action.accept(redisOperations, key);
+				}
+				return null;
+			}
+		});
+	}
+
+	private static long nullToZero(@Nullable Long value) {
+		return value == null ? 0L : value;
+	}
+
+	private static void closeQuietly(Cursor<?> cursor) {
+		try {
+			cursor.close();
+		} catch (IOException ignored) {
+			// ignore
+		}
+	}
+
+	/**
+	 * 按批次查询 key 类型并过滤的迭代器
+	 */
+	private class TypeFilterIterator implements Iterator<String> {
+		private final Iterator<String> keys;
+		private final int batchSize;
+		private final DataType type;
+		private Iterator<String> matched = Collections.emptyIterator();
+
+		private TypeFilterIterator(Iterator<String> keys, int batchSize, DataType type) {
+			this.keys = keys;
+			this.batchSize = batchSize;
+			this.type = type;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!matched.hasNext() && keys.hasNext()) {
+				List<String> batch = new ArrayList<>(batchSize);
+				while (batch.size() < batchSize && keys.hasNext()) {
+					batch.add(keys.next());
+				}
+				List<Object> types = executePipelined(batch, RedisOperations::type);
+				List<String> result = new ArrayList<>(batch.size());
+				for (int i = 0; i < batch.size(); i++) {
+					if (type == types.get(i)) {
+						result.add(batch.get(i));
+					}
+				}
+				matched = result.iterator();
+			}
+			return matched.hasNext();
+		}
+
+		@Override
+		public String next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return matched.next();
+		}
+	}
+
 	/**
 	 * 将 key 中储存的数字值减一。
 	 * 如果 key 不存在，那么 key 的值会先被初始化为 0 ，然后再执行 DECR 操作。
@@ -0,0 +1,166 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+
+package org.springblade.core.redis.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springblade.core.redis.config.BladeRedisProperties;
+import org.springblade.core.tool.utils.StringPool;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地二级缓存注册中心，负责创建本地缓存和收发失效通知
+ *
+ * <p>
+ * 消息格式：节点id \n 缓存名 \n key，key 为空表示清空，节点忽略自己发出的消息
+ * </p>
+ *
+ * @author L.cm
+ */
+@Slf4j
+public class NearCacheRegistry implements MessageListener {
+	private static final char SEPARATOR = '\n';
+
+	private final String instanceId = UUID.randomUUID().toString();
+	private final ConcurrentMap<String, Set<BladeNearCache>> caches = new ConcurrentHashMap<>();
+	private final BladeRedisProperties.NearCache properties;
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final byte[] channel;
+
+	public NearCacheRegistry(BladeRedisProperties.NearCache properties, RedisTemplate<String, Object> redisTemplate) {
+		this.properties = properties;
+		this.redisTemplate = redisTemplate;
+		this.channel = properties.getChannel().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * 为缓存包装本地二级缓存，未开启的缓存名原样返回
+	 *
+	 * @param cache 远端缓存
+	 * @return Cache
+	 */
+	public Cache decorate(Cache cache) {
+		String name = cache.getName();
+		if (!isNearCache(name)) {
+			return cache;
+		}
+		Duration ttl = properties.getTtl();
+		if (cache instanceof RedisCache) {
+			Duration redisTtl = ((RedisCache) cache).getCacheConfiguration().getTtl();
+			if (!redisTtl.isZero() && !redisTtl.isNegative() && redisTtl.compareTo(ttl) < 0) {
+				ttl = redisTtl;
+			}
+		}
+		com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> localCache = Caffeine.newBuilder()
+			.maximumSize(properties.getMaximumSize())
+			.expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+			.recordStats()
+			.build();
+		BladeNearCache nearCache = new BladeNearCache(cache, localCache, this);
+		Set<BladeNearCache> cacheSet = caches.computeIfAbsent(name, key -> new CopyOnWriteArraySet<>());
+		// 同名缓存(name 与 name#ttl)共用一组指标
+		if (cacheSet.isEmpty()) {
+			CaffeineCacheMetrics.monitor(Metrics.globalRegistry, localCache, "near:" + name);
+		}
+		cacheSet.add(nearCache);
+		return nearCache;
+	}
+
+	/**
+	 * 广播 key 失效
+	 *
+	 * @param cacheName 缓存名
+	 * @param key       缓存key
+	 */
+	void publishEvict(String cacheName, String key) {
+		publish(cacheName, key);
+	}
+
+	/**
+	 * 广播缓存清空
+	 *
+	 * @param cacheName 缓存名
+	 */
+	void publishClear(String cacheName) {
+		publish(cacheName, StringPool.EMPTY);
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+		int first = body.indexOf(SEPARATOR);
+		int second = first < 0 ? -1 : body.indexOf(SEPARATOR, first + 1);
+		if (second < 0 || instanceId.equals(body.substring(0, first))) {
+			return;
+		}
+		Set<BladeNearCache> cacheSet = caches.get(body.substring(first + 1, second));
+		if (cacheSet == null) {
+			return;
+		}
+		String key = body.substring(second + 1);
+		for (BladeNearCache cache : cacheSet) {
+			if (key.isEmpty()) {
+				cache.clearLocal();
+			} else {
+				cache.evictLocal(key);
+			}
+		}
+	}
+
+	private void publish(String cacheName, String key) {
+		String body = instanceId + SEPARATOR + cacheName + SEPARATOR + key;
+		byte[] message = body.getBytes(StandardCharsets.UTF_8);
+		try {
+			redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+		} catch (Exception e) {
+			// 通知失败时其他节点依赖本地缓存过期时间兜底
+			log.error("near cache evict publish failed, cacheName:{}", cacheName, e);
+		}
+	}
+
+	private boolean isNearCache(String name) {
+		List<String> cacheNames = properties.getCacheNames();
+		if (cacheNames.isEmpty()) {
+			return true;
+		}
+		for (String cacheName : cacheNames) {
+			if (name.equals(cacheName) || name.endsWith(StringPool.COLON + cacheName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -18,10 +18,12 @@
 package org.springblade.core.redis.config;
 
 import org.springblade.core.jwt.config.JwtRedisConfiguration;
+import org.springblade.core.redis.cache.NearCacheRegistry;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizers;
 import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,6 +32,9 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.lang.Nullable;
@@ -70,7 +75,7 @@ public class BladeRedisCacheAutoConfiguration {
 
 	@Primary
 	@Bean("redisCacheManager")
-	public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+	public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, ObjectProvider<NearCacheRegistry> nearCacheRegistry) {
 		RedisCacheWriter redisCacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
 		RedisCacheConfiguration cacheConfiguration = this.determineConfiguration();
 		List<String> cacheNames = this.cacheProperties.getCacheNames();
@@ -84,9 +89,25 @@ public class BladeRedisCacheAutoConfiguration {
 		boolean enableTransactions = false;
 		RedisAutoCacheManager cacheManager = new RedisAutoCacheManager(redisCacheWriter, cacheConfiguration, initialCaches, allowInFlightCacheCreation);
 		cacheManager.setTransactionAware(enableTransactions);
+		cacheManager.setNearCacheRegistry(nearCacheRegistry.getIfAvailable());
 		return this.customizerInvoker.customize(cacheManager);
 	}
 
+	/**
+	 * 本地二级缓存，失效监听注册到共用的消息监听容器
+	 */
+	@Bean
+	@ConditionalOnProperty(value = "blade.redis.near-cache.enabled", havingValue = "true")
+	public NearCacheRegistry nearCacheRegistry(BladeRedisProperties properties, RedisTemplate<String, Object> redisTemplate,
+											   ObjectProvider<RedisMessageListenerContainer> listenerContainer) {
+		NearCacheRegistry nearCacheRegistry = new NearCacheRegistry(properties.getNearCache(), redisTemplate);
+		RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+		if (container != null) {
+			container.addMessageListener(nearCacheRegistry, new ChannelTopic(properties.getNearCache().getChannel()));
+		}
+		return nearCacheRegistry;
+	}
+
 	private RedisCacheConfiguration determineConfiguration() {
 		if (this.redisCacheConfiguration != null) {
 			return this.redisCacheConfiguration;
@@ -20,6 +20,11 @@ package org.springblade.core.redis.config;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * redis 配置
@@ -36,6 +41,26 @@ public class BladeRedisProperties {
 	 */
 	private SerializerType serializerType = SerializerType.ProtoStuff;
 
+	/**
+	 * ProtoStuff 序列化压缩
+	 */
+	private Compression compression = new Compression();
+
+	/**
+	 * 本地二级缓存
+	 */
+	private NearCache nearCache = new NearCache();
+
+	/**
+	 * BladeRedis 加载器防击穿
+	 */
+	private SingleFlight singleFlight = new SingleFlight();
+
+	/**
+	 * 分布式限流
+	 */
+	private RateLimiter rateLimiter = new RateLimiter();
+
 	public enum SerializerType {
 		/**
 		 * 默认:ProtoStuff 序列化
@@ -50,4 +75,85 @@ public class BladeRedisProperties {
 		 */
 		JDK
 	}
+
+	@Getter
+	@Setter
+	public static class Compression {
+		/**
+		 * 是否开启压缩，默认关闭。旧版本无法读取压缩数据，请在所有节点升级后再开启
+		 */
+		private boolean enabled = false;
+		/**
+		 * 超过该大小才压缩
+		 */
+		private DataSize threshold = DataSize.ofKilobytes(4);
+		/**
+		 * 解压后的大小上限，超过时视为损坏的数据，不开启压缩时同样生效
+		 */
+		private DataSize maxDecompressedSize = DataSize.ofMegabytes(64);
+	}
+
+	@Getter
+	@Setter
+	public static class NearCache {
+		/**
+		 * 是否开启本地二级缓存，默认关闭
+		 */
+		private boolean enabled = false;
+		/**
+		 * 每个缓存名的本地缓存上限
+		 */
+		private long maximumSize = 1000L;
+		/**
+		 * 本地缓存过期时间，缓存名配置了 name#ttl 时取两者较小值
+		 */
+		private Duration ttl = Duration.ofSeconds(60);
+		/**
+		 * 开启本地缓存的缓存名，为空则全部开启，租户缓存按 tenantId:cacheName 匹配
+		 */
+		private List<String> cacheNames = new ArrayList<>();
+		/**
+		 * 缓存失效通知频道
+		 */
+		private String channel = "blade:cache:near:evict";
+	}
+
+	@Getter
+	@Setter
+	public static class SingleFlight {
+		/**
+		 * 是否开启，开启后同一 jvm 内并发未命中同一个 key 只会调用一次加载器
+		 */
+		private boolean enabled = false;
+		/**
+		 * 跨节点加载锁的超时时间，为 0 则不加锁
+		 */
+		private Duration lockTimeout = Duration.ZERO;
+		/**
+		 * 等待同一 jvm 内其他线程加载的超时时间，超时后自行调用加载器，为 0 则不等待
+		 */
+		private Duration waitTimeout = Duration.ofSeconds(3);
+		/**
+		 * 加载结果为 null 时的缓存时间，为 0 则不缓存
+		 */
+		private Duration nullValueTtl = Duration.ZERO;
+	}
+
+	@Getter
+	@Setter
+	public static class RateLimiter {
+		/**
+		 * 是否开启分布式限流，默认关闭
+		 */
+		private boolean enabled = false;
+		/**
+		 * 每次从 redis 租用的许可数，小于 2 时不租用，每次请求都访问 redis
+		 */
+		private long leasePermits = 0L;
+		/**
+		 * 租期，未用完的许可到期作废，不超过限流的时间窗口
+		 */
+		private Duration leaseTime = Duration.ofMillis(100);
+	}
+
 }
@@ -40,7 +40,10 @@ public class ProtoStuffSerializerConfiguration implements BladeRedisSerializerCo
 	@Override
 	public RedisSerializer<Object> redisSerializer(BladeRedisProperties properties) {
 		if (BladeRedisProperties.SerializerType.ProtoStuff == properties.getSerializerType()) {
-			return new ProtoStuffSerializer();
+			BladeRedisProperties.Compression compression = properties.getCompression();
+			int compressThreshold = compression.isEnabled() ? (int) Math.max(1L, compression.getThreshold().toBytes()) : 0;
+			int maxDecompressedSize = (int) Math.min(Integer.MAX_VALUE, compression.getMaxDecompressedSize().toBytes());
+			return new ProtoStuffSerializer(compressThreshold, maxDecompressedSize);
 		}
 		return defaultRedisSerializer(properties);
 	}
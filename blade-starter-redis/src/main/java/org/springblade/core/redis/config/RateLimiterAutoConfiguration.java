@@ -17,10 +17,12 @@
 
 package org.springblade.core.redis.config;
 
+import org.springblade.core.redis.ratelimiter.RateLimiterClient;
 import org.springblade.core.redis.ratelimiter.RedisRateLimiterAspect;
 import org.springblade.core.redis.ratelimiter.RedisRateLimiterClient;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
@@ -39,6 +41,7 @@ import java.util.List;
  */
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnProperty(value = "blade.redis.rate-limiter.enabled", havingValue = "true")
+@EnableConfigurationProperties(BladeRedisProperties.class)
 public class RateLimiterAutoConfiguration {
 
 	@SuppressWarnings("unchecked")
@@ -50,15 +53,18 @@ public class RateLimiterAutoConfiguration {
 	}
 
 	@Bean
-	@ConditionalOnMissingBean
-	public RedisRateLimiterClient redisRateLimiter(StringRedisTemplate redisTemplate, Environment environment) {
+	@ConditionalOnMissingBean(RateLimiterClient.class)
+	public RedisRateLimiterClient redisRateLimiter(StringRedisTemplate redisTemplate, Environment environment,
+												   BladeRedisProperties properties) {
 		RedisScript<List<Long>> redisRateLimiterScript = redisRateLimiterScript();
-		return new RedisRateLimiterClient(redisTemplate, redisRateLimiterScript, environment);
+		BladeRedisProperties.RateLimiter rateLimiter = properties.getRateLimiter();
+		return new RedisRateLimiterClient(redisTemplate, redisRateLimiterScript, environment,
+			rateLimiter.getLeasePermits(), rateLimiter.getLeaseTime());
 	}
 
 	@Bean
 	@ConditionalOnMissingBean
-	public RedisRateLimiterAspect redisRateLimiterAspect(RedisRateLimiterClient rateLimiterClient) {
+	public RedisRateLimiterAspect redisRateLimiterAspect(RateLimiterClient rateLimiterClient) {
 		return new RedisRateLimiterAspect(rateLimiterClient);
 	}
 }
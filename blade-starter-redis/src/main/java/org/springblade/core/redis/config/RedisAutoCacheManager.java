@@ -17,9 +17,11 @@
 
 package org.springblade.core.redis.config;
 
+import org.springblade.core.redis.cache.NearCacheRegistry;
 import org.springblade.core.tool.utils.StringPool;
 import org.springblade.core.tool.utils.StringUtil;
 import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.Cache;
 import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
@@ -38,11 +40,30 @@ import java.util.Map;
  */
 public class RedisAutoCacheManager extends RedisCacheManager {
 
+	/**
+	 * 本地二级缓存，为空则不开启
+	 */
+	@Nullable
+	private NearCacheRegistry nearCacheRegistry;
+
 	public RedisAutoCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
 								 Map<String, RedisCacheConfiguration> initialCacheConfigurations, boolean allowInFlightCacheCreation) {
 		super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations, allowInFlightCacheCreation);
 	}
 
+	public void setNearCacheRegistry(@Nullable NearCacheRegistry nearCacheRegistry) {
+		this.nearCacheRegistry = nearCacheRegistry;
+	}
+
+	@NonNull
+	@Override
+	protected Cache decorateCache(@NonNull Cache cache) {
+		if (nearCacheRegistry != null) {
+			cache = nearCacheRegistry.decorate(cache);
+		}
+		return super.decorateCache(cache);
+	}
+
 	@NonNull
 	@Override
 	protected RedisCache createRedisCache(@NonNull String name, @Nullable RedisCacheConfiguration cacheConfig) {
@@ -77,8 +77,8 @@ public class RedisTemplateConfiguration implements BladeRedisSerializerConfigAbl
 	}
 
 	@Bean
-	public BladeRedis bladeRedis(RedisTemplate<String, Object> redisTemplate) {
-		return new BladeRedis(redisTemplate);
+	public BladeRedis bladeRedis(RedisTemplate<String, Object> redisTemplate, BladeRedisProperties properties) {
+		return new BladeRedis(redisTemplate, properties.getSingleFlight());
 	}
 
 }
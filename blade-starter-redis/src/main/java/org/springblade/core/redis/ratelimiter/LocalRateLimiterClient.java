@@ -0,0 +1,100 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+
+package org.springblade.core.redis.ratelimiter;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * jvm 内的 GCRA 限流，适用于单节点部署和测试，算法与 redis 限流一致
+ *
+ * @author L.cm
+ */
+public class LocalRateLimiterClient implements RateLimiterClient {
+	/**
+	 * 默认 key 上限
+	 */
+	private static final int DEFAULT_MAX_KEYS = 10000;
+	/**
+	 * key 上限，超过时先清理空闲的 key，仍然超限则整体清空
+	 */
+	private final int maxKeys;
+	/**
+	 * 每个 key 的理论到达时间(TAT)，纳秒
+	 */
+	private final ConcurrentMap<String, AtomicLong> states = new ConcurrentHashMap<>();
+
+	public LocalRateLimiterClient() {
+		this(DEFAULT_MAX_KEYS);
+	}
+
+	public LocalRateLimiterClient(int maxKeys) {
+		this.maxKeys = maxKeys;
+	}
+
+	@Override
+	public boolean isAllowed(String key, long max, long ttl, TimeUnit timeUnit) {
+		if (max <= 0) {
+			return false;
+		}
+		long ttlNanos = timeUnit.toNanos(ttl);
+		long interval = Math.max(1L, ttlNanos / max);
+		AtomicLong tat = getState(key);
+		long now = System.nanoTime();
+		while (true) {
+			long current = tat.get();
+			long next = (current - now > 0 ? current : now) + interval;
+			if (next - now > ttlNanos) {
+				return false;
+			}
+			if (tat.compareAndSet(current, next)) {
+				return true;
+			}
+		}
+	}
+
+	private AtomicLong getState(String key) {
+		AtomicLong tat = states.get(key);
+		if (tat != null) {
+			return tat;
+		}
+		if (states.size() >= maxKeys) {
+			purge(System.nanoTime());
+		}
+		return states.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+	}
+
+	/**
+	 * TAT 已经过去的 key 与新建的状态相同，可以直接删除
+	 */
+	private void purge(long now) {
+		Iterator<AtomicLong> iterator = states.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().get() - now <= 0) {
+				iterator.remove();
+			}
+		}
+		if (states.size() >= maxKeys) {
+			states.clear();
+		}
+	}
+
+}
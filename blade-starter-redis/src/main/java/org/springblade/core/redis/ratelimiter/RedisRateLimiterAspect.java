@@ -49,9 +49,9 @@ public class RedisRateLimiterAspect implements ApplicationContextAware {
 	 */
 	private final BladeExpressionEvaluator evaluator = new BladeExpressionEvaluator();
 	/**
-	 * redis 限流服务
+	 * 限流服务，默认为 redis 限流
 	 */
-	private final RedisRateLimiterClient rateLimiterClient;
+	private final RateLimiterClient rateLimiterClient;
 	private ApplicationContext applicationContext;
 
 	/**
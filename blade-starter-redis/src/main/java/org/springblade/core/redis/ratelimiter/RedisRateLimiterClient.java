@@ -17,31 +17,42 @@
 
 package org.springblade.core.redis.ratelimiter;
 
-import lombok.RequiredArgsConstructor;
 import org.springblade.core.tool.utils.CharPool;
 import org.springframework.core.env.Environment;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * redis 限流服务
+ * redis 限流服务，使用 GCRA 算法，每个 key 只保存一个时间戳
+ *
+ * <p>
+ * 开启租用模式后，每个 jvm 一次从 redis 申请一批许可在本地消费，热点 key 每批只访问一次 redis，
+ * 未用完的许可在租期结束后作废
+ * </p>
  *
  * @author dream.lu
  */
-@RequiredArgsConstructor
 public class RedisRateLimiterClient implements RateLimiterClient {
 	/**
-	 * redis 限流 key 前缀
+	 * redis 限流 key 前缀，GCRA 保存字符串，与旧版滑动窗口的 zset（limiter:）区分，滚动升级时新旧节点互不干扰
 	 */
-	private static final String REDIS_KEY_PREFIX = "limiter:";
+	private static final String REDIS_KEY_PREFIX = "limiter:gcra:";
 	/**
 	 * 失败的默认返回值
 	 */
 	private static final long FAIL_CODE = 0;
+	/**
+	 * 本地租约的 key 上限
+	 */
+	private static final int MAX_LEASES = 10000;
 	/**
 	 * redisTemplate
 	 */
@@ -51,33 +62,128 @@ public class RedisRateLimiterClient implements RateLimiterClient {
 	 */
 	private final RedisScript<List<Long>> script;
 	/**
-	 * env
+	 * redis key 前缀，包含应用名
+	 */
+	private final String keyPrefix;
+	/**
+	 * 每次租用的许可数，小于 2 时不租用
 	 */
-	private final Environment environment;
+	private final long leasePermits;
+	/**
+	 * 租期，毫秒
+	 */
+	private final long leaseMillis;
+	private final ConcurrentMap<String, PermitLease> leases = new ConcurrentHashMap<>();
+
+	public RedisRateLimiterClient(StringRedisTemplate redisTemplate, RedisScript<List<Long>> script, Environment environment) {
+		this(redisTemplate, script, environment, 0L, Duration.ZERO);
+	}
+
+	public RedisRateLimiterClient(StringRedisTemplate redisTemplate, RedisScript<List<Long>> script,
+								  Environment environment, long leasePermits, Duration leaseTime) {
+		this.redisTemplate = redisTemplate;
+		this.script = script;
+		this.keyPrefix = REDIS_KEY_PREFIX + getApplicationName(environment) + CharPool.COLON;
+		this.leasePermits = leasePermits;
+		this.leaseMillis = leaseTime.toMillis();
+	}
 
 	@Override
 	public boolean isAllowed(String key, long max, long ttl, TimeUnit timeUnit) {
+		if (max <= 0) {
+			return false;
+		}
 		// redis key
-		String redisKeyBuilder = REDIS_KEY_PREFIX +
-			getApplicationName(environment) + CharPool.COLON + key;
-		List<String> keys = Collections.singletonList(redisKeyBuilder);
-		// 毫秒，考虑主从策略和脚本回放机制，这个time由客户端获取传入
-		long now = System.currentTimeMillis();
+		String redisKey = keyPrefix + key;
 		// 转为毫秒，pexpire
 		long ttlMillis = timeUnit.toMillis(ttl);
+		if (leasePermits < 2 || leaseMillis <= 0 || max < 2) {
+			return acquire(redisKey, max, ttlMillis, 1L) != FAIL_CODE;
+		}
+		PermitLease lease = leases.get(redisKey);
+		if (lease == null) {
+			if (leases.size() >= MAX_LEASES) {
+				leases.clear();
+			}
+			lease = leases.computeIfAbsent(redisKey, k -> new PermitLease());
+		}
+		return lease.tryAcquire(redisKey, max, ttlMillis);
+	}
+
+	/**
+	 * 从 redis 申请许可
+	 *
+	 * @return 获得的许可数
+	 */
+	long acquire(String redisKey, long max, long ttlMillis, long permits) {
+		List<String> keys = Collections.singletonList(redisKey);
+		// 毫秒，考虑主从策略和脚本回放机制，这个time由客户端获取传入
+		long now = System.currentTimeMillis();
 		// 执行命令
-		List<Long> results = this.redisTemplate.execute(this.script, keys, max + "", ttlMillis + "", now + "");
+		List<Long> results = this.redisTemplate.execute(this.script, keys, max + "", ttlMillis + "", now + "", permits + "");
 		// 结果为空返回失败
 		if (results == null || results.isEmpty()) {
-			return false;
+			return FAIL_CODE;
 		}
-		// 判断返回成功
 		Long result = results.get(0);
-		return result != FAIL_CODE;
+		return result == null ? FAIL_CODE : result;
 	}
 
 	private static String getApplicationName(Environment environment) {
 		return environment.getProperty("spring.application.name", "");
 	}
 
+	/**
+	 * 本地租用的许可
+	 */
+	private class PermitLease {
+		private final AtomicLong permits = new AtomicLong();
+		private volatile long expireAt;
+		/**
+		 * redis 拒绝后，在下一个许可产生前直接拒绝，避免被拒绝的请求排队访问 redis
+		 */
+		private volatile long rejectUntil;
+
+		private boolean tryAcquire(String redisKey, long max, long ttlMillis) {
+			if (tryTake()) {
+				return true;
+			}
+			if (System.currentTimeMillis() < rejectUntil) {
+				return false;
+			}
+			synchronized (this) {
+				if (tryTake()) {
+					return true;
+				}
+				long now = System.currentTimeMillis();
+				if (now < rejectUntil) {
+					return false;
+				}
+				long granted = acquire(redisKey, max, ttlMillis, Math.min(leasePermits, max));
+				if (granted <= FAIL_CODE) {
+					// GCRA 每隔 ttl / max 产生一个许可
+					rejectUntil = now + Math.max(1L, ttlMillis / max);
+					return false;
+				}
+				// 先设置许可再更新租期，避免并发消费到上一批过期的许可
+				permits.set(granted - 1);
+				expireAt = System.currentTimeMillis() + Math.min(leaseMillis, ttlMillis);
+				return true;
+			}
+		}
+
+		private boolean tryTake() {
+			if (System.currentTimeMillis() >= expireAt) {
+				return false;
+			}
+			long current;
+			while ((current = permits.get()) > 0) {
+				if (permits.compareAndSet(current, current - 1)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
 }
@@ -25,16 +25,68 @@ import org.springblade.core.tool.utils.ObjectUtil;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
 /**
  * ProtoStuff 序列化
  *
+ * <p>
+ * 每个线程复用 LinkedBuffer；开启压缩后超过阈值的数据使用 deflate 压缩，压缩数据以 0 开头，
+ * 未压缩的数据格式与原来一致，新旧数据可以同时读取
+ * </p>
+ *
  * @author L.cm
  */
 public class ProtoStuffSerializer implements RedisSerializer<Object> {
-	private final Schema<BytesWrapper> schema;
+	/**
+	 * 压缩数据头，protostuff 数据的第一个字节为字段 tag，不会为 0
+	 */
+	private static final byte DEFLATE_HEADER = 0;
+	/**
+	 * 头 + 4 字节原始长度
+	 */
+	private static final int HEADER_LENGTH = 5;
+	/**
+	 * deflate 的最大压缩比约为 1032:1，超过的长度头一定是损坏的数据
+	 */
+	private static final long MAX_DEFLATE_RATIO = 1032L;
+	/**
+	 * 默认解压后的大小上限，64M
+	 */
+	public static final int DEFAULT_MAX_DECOMPRESSED_SIZE = 64 * 1024 * 1024;
+	private static final Schema<BytesWrapper> SCHEMA = RuntimeSchema.getSchema(BytesWrapper.class);
+	private static final ThreadLocal<LinkedBuffer> BUFFER = ThreadLocal.withInitial(() -> LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
+	private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+	/**
+	 * Deflater、Inflater 占用堆外内存，使用有界池复用，不使用 ThreadLocal
+	 */
+	private static final Queue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+	private static final Queue<Inflater> INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+	/**
+	 * 压缩阈值，小于等于 0 时不压缩
+	 */
+	private final int compressThreshold;
+	/**
+	 * 解压后的大小上限，长度头来自 redis，不可信，超过时拒绝，避免分配过大的数组
+	 */
+	private final int maxDecompressedSize;
 
 	public ProtoStuffSerializer() {
-		this.schema = RuntimeSchema.getSchema(BytesWrapper.class);
+		this(0);
+	}
+
+	public ProtoStuffSerializer(int compressThreshold) {
+		this(compressThreshold, DEFAULT_MAX_DECOMPRESSED_SIZE);
+	}
+
+	public ProtoStuffSerializer(int compressThreshold, int maxDecompressedSize) {
+		this.compressThreshold = compressThreshold;
+		this.maxDecompressedSize = maxDecompressedSize;
 	}
 
 	@Override
@@ -42,12 +94,17 @@ public class ProtoStuffSerializer implements RedisSerializer<Object> {
 		if (object == null) {
 			return null;
 		}
-		LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+		LinkedBuffer buffer = BUFFER.get();
+		byte[] bytes;
 		try {
-			return ProtostuffIOUtil.toByteArray(new BytesWrapper<>(object), schema, buffer);
+			bytes = ProtostuffIOUtil.toByteArray(new BytesWrapper<>(object), SCHEMA, buffer);
 		} finally {
 			buffer.clear();
 		}
+		if (compressThreshold > 0 && bytes.length > compressThreshold && bytes.length > HEADER_LENGTH) {
+			return compress(bytes);
+		}
+		return bytes;
 	}
 
 	@Override
@@ -55,8 +112,87 @@ public class ProtoStuffSerializer implements RedisSerializer<Object> {
 		if (ObjectUtil.isEmpty(bytes)) {
 			return null;
 		}
+		if (bytes[0] == DEFLATE_HEADER) {
+			bytes = decompress(bytes, maxDecompressedSize);
+		}
 		BytesWrapper<Object> wrapper = new BytesWrapper<>();
-		ProtostuffIOUtil.mergeFrom(bytes, wrapper, schema);
+		ProtostuffIOUtil.mergeFrom(bytes, wrapper, SCHEMA);
 		return wrapper.getValue();
 	}
+
+	/**
+	 * 压缩，压缩后没有变小时返回原数据
+	 */
+	private static byte[] compress(byte[] bytes) {
+		Deflater deflater = DEFLATERS.poll();
+		if (deflater == null) {
+			deflater = new Deflater(Deflater.BEST_SPEED);
+		}
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			byte[] out = new byte[bytes.length];
+			out[0] = DEFLATE_HEADER;
+			writeInt(out, bytes.length);
+			int length = HEADER_LENGTH;
+			while (!deflater.finished()) {
+				if (length == out.length) {
+					return bytes;
+				}
+				length += deflater.deflate(out, length, out.length - length);
+			}
+			return Arrays.copyOf(out, length);
+		} finally {
+			deflater.reset();
+			if (!DEFLATERS.offer(deflater)) {
+				deflater.end();
+			}
+		}
+	}
+
+	private static byte[] decompress(byte[] bytes, int maxSize) {
+		if (bytes.length < HEADER_LENGTH) {
+			throw new SerializationException("Invalid compressed data, length: " + bytes.length);
+		}
+		// 分配数组前校验长度头
+		int size = readInt(bytes);
+		if (size < 0 || size > maxSize || size > (bytes.length - HEADER_LENGTH) * MAX_DEFLATE_RATIO) {
+			throw new SerializationException("Invalid compressed data, size: " + size);
+		}
+		Inflater inflater = INFLATERS.poll();
+		if (inflater == null) {
+			inflater = new Inflater();
+		}
+		try {
+			inflater.setInput(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+			byte[] out = new byte[size];
+			int length = 0;
+			while (length < out.length) {
+				int count = inflater.inflate(out, length, out.length - length);
+				if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					throw new SerializationException("Invalid compressed data, truncated at: " + length);
+				}
+				length += count;
+			}
+			return out;
+		} catch (DataFormatException e) {
+			throw new SerializationException("Invalid compressed data", e);
+		} finally {
+			inflater.reset();
+			if (!INFLATERS.offer(inflater)) {
+				inflater.end();
+			}
+		}
+	}
+
+	private static void writeInt(byte[] bytes, int value) {
+		bytes[1] = (byte) (value >>> 24);
+		bytes[2] = (byte) (value >>> 16);
+		bytes[3] = (byte) (value >>> 8);
+		bytes[4] = (byte) value;
+	}
+
+	private static int readInt(byte[] bytes) {
+		return (bytes[1] & 0xFF) << 24 | (bytes[2] & 0xFF) << 16 | (bytes[3] & 0xFF) << 8 | (bytes[4] & 0xFF);
+	}
 }
@@ -1,28 +1,34 @@
 -- lua 下标从 1 开始
+-- GCRA 限流，每个 key 只保存理论到达时间(TAT)，内存占用与速率无关
 -- 限流 key
 local key = KEYS[1]
 -- 限流大小
 local max = tonumber(ARGV[1])
--- 超时时间
+-- 时间窗口，毫秒
 local ttl = tonumber(ARGV[2])
 -- 考虑主从策略和脚本回放机制，这个time由客户端获取传入
 local now = tonumber(ARGV[3])
--- 已经过期的时间点
-local expired = now - (ttl * 1000)
+-- 申请的许可数，租用模式下一次申请多个
+local permits = tonumber(ARGV[4] or '1')
 
--- 清除过期的数据,移除指定分数（score）区间内的所有成员
-redis.call('zremrangebyscore', key, 0, expired)
--- 获取当前流量大小
-local currentLimit = tonumber(redis.call('zcard', key))
+-- 每个许可的间隔
+local interval = ttl / max
+local tat = tonumber(redis.call('get', key) or now)
+if tat < now then
+    tat = now
+end
 
-local nextLimit = currentLimit + 1
-if nextLimit > max then
+-- 窗口内剩余的许可数
+local available = math.floor((now + ttl - tat) / interval + 0.000001)
+if available < 1 then
     -- 达到限流大小 返回 0
-    return 0;
-else
-    -- 没有达到阈值 value + 1
-    redis.call("zadd", key, now, now)
-    -- 秒为单位设置 key 的生存时间
-    redis.call("pexpire", key, ttl)
-    return nextLimit
+    return {0}
+end
+if permits > available then
+    permits = available
 end
+
+tat = tat + permits * interval
+-- 空闲后 key 自动过期
+redis.call('set', key, tostring(tat), 'PX', math.ceil(tat - now))
+return {permits}
@@ -0,0 +1,123 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.redis.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springblade.core.redis.config.BladeRedisProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地二级缓存测试
+ *
+ * @author L.cm
+ */
+public class BladeNearCacheTest {
+	private static final String CACHE_NAME = "blade:test";
+
+	@Test
+	public void testLoaderMissIsSingleRemoteCall() {
+		CountingCache remote = new CountingCache();
+		Cache cache = newRegistry().decorate(remote);
+		Assert.assertEquals("v1", cache.get("k1", () -> "v1"));
+		Assert.assertEquals(1, remote.calls.get());
+		// 命中本地缓存，不再访问远端
+		Assert.assertEquals("v1", cache.get("k1", () -> "v2"));
+		Assert.assertEquals("v1", cache.get("k1", String.class));
+		Assert.assertEquals(1, remote.calls.get());
+	}
+
+	@Test
+	public void testEvictDuringRemoteRead() {
+		NearCacheRegistry registry = newRegistry();
+		CountingCache remote = new CountingCache();
+		remote.put("k1", "v1");
+		// 远端读取期间收到其他节点的失效通知，读到的旧值不能写入本地缓存
+		remote.onGet = () -> registry.onMessage(evictMessage("k1"), null);
+		Cache cache = registry.decorate(remote);
+		Assert.assertEquals("v1", cache.get("k1", String.class));
+		remote.onGet = null;
+		Assert.assertEquals("v1", cache.get("k1", String.class));
+		Assert.assertEquals(2, remote.calls.get());
+		// 无失效时写入本地缓存
+		Assert.assertEquals("v1", cache.get("k1", String.class));
+		Assert.assertEquals(2, remote.calls.get());
+	}
+
+	@Test
+	public void testEvictMessage() {
+		NearCacheRegistry registry = newRegistry();
+		CountingCache remote = new CountingCache();
+		remote.put("k1", "v1");
+		Cache cache = registry.decorate(remote);
+		Assert.assertEquals("v1", cache.get("k1", String.class));
+		remote.put("k1", "v2");
+		Assert.assertEquals("v1", cache.get("k1", String.class));
+		registry.onMessage(evictMessage("k1"), null);
+		Assert.assertEquals("v2", cache.get("k1", String.class));
+		Assert.assertEquals(2, remote.calls.get());
+	}
+
+	private static NearCacheRegistry newRegistry() {
+		return new NearCacheRegistry(new BladeRedisProperties.NearCache(), null);
+	}
+
+	private static DefaultMessage evictMessage(String key) {
+		String body = "other-node\n" + CACHE_NAME + "\n" + key;
+		return new DefaultMessage(new byte[0], body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 统计远端访问次数
+	 */
+	private static class CountingCache extends ConcurrentMapCache {
+		private final AtomicInteger calls = new AtomicInteger();
+		private volatile Runnable onGet;
+
+		private CountingCache() {
+			super(CACHE_NAME);
+		}
+
+		@Nullable
+		@Override
+		public ValueWrapper get(@NonNull Object key) {
+			calls.incrementAndGet();
+			ValueWrapper wrapper = super.get(key);
+			Runnable hook = onGet;
+			if (hook != null) {
+				hook.run();
+			}
+			return wrapper;
+		}
+
+		@Nullable
+		@Override
+		public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+			calls.incrementAndGet();
+			return super.get(key, valueLoader);
+		}
+	}
+
+}
@@ -0,0 +1,209 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.redis.cache;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.core.Cursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BladeRedis pipeline 批量操作和 SCAN 测试
+ *
+ * @author L.cm
+ */
+public class BladeRedisBulkTest {
+	/**
+	 * 超过 pipeline 的分批大小 1000
+	 */
+	private static final int SIZE = 2500;
+	private static RedisMockServer server;
+	private static BladeRedis bladeRedis;
+
+	@BeforeClass
+	public static void start() throws Exception {
+		server = new RedisMockServer();
+		bladeRedis = new BladeRedis(server.getRedisTemplate());
+	}
+
+	@AfterClass
+	public static void stop() {
+		server.close();
+	}
+
+	@Before
+	public void flush() {
+		server.flushAll();
+	}
+
+	@Test
+	public void testValueOrderAcrossBatches() {
+		Map<String, Object> values = new LinkedHashMap<>();
+		// 倒序插入，避免结果碰巧按 key 排序
+		for (int i = SIZE; i > 0; i--) {
+			values.put("bulk:" + i, i);
+		}
+		bladeRedis.mSetEx(values, Duration.ofMinutes(10));
+		List<String> keys = new ArrayList<>(values.keySet());
+		Assert.assertEquals(new ArrayList<>(values.values()), bladeRedis.mGet(keys));
+
+		List<Long> ttls = bladeRedis.mTtl(keys);
+		Assert.assertEquals(SIZE, ttls.size());
+		for (Long ttl : ttls) {
+			Assert.assertTrue(ttl > 0 && ttl <= 600);
+		}
+	}
+
+	@Test
+	public void testExpireOrderAcrossBatches() {
+		List<String> keys = new ArrayList<>(SIZE);
+		Map<String, Object> values = new LinkedHashMap<>();
+		for (int i = 0; i < SIZE; i++) {
+			String key = "expire:" + i;
+			keys.add(key);
+			// 只有偶数 key 存在
+			if (i % 2 == 0) {
+				values.put(key, i);
+			}
+		}
+		bladeRedis.mSetEx(values, Duration.ofMinutes(10));
+		List<Boolean> results = bladeRedis.mExpire(keys, Duration.ofMinutes(1));
+		Assert.assertEquals(SIZE, results.size());
+		List<Long> ttls = bladeRedis.mTtl(keys);
+		for (int i = 0; i < SIZE; i++) {
+			Assert.assertEquals(keys.get(i), i % 2 == 0, results.get(i));
+			Assert.assertEquals(keys.get(i), i % 2 == 0, ttls.get(i) > 0 && ttls.get(i) <= 60);
+			if (i % 2 != 0) {
+				Assert.assertEquals(-2L, ttls.get(i).longValue());
+			}
+		}
+	}
+
+	@Test
+	public void testHashOrderAcrossBatches() {
+		Map<String, Map<Object, Object>> hashes = new LinkedHashMap<>();
+		for (int i = SIZE; i > 0; i--) {
+			Map<Object, Object> hash = new LinkedHashMap<>();
+			hash.put("id", i);
+			hash.put("name", "user" + i);
+			hashes.put("hash:" + i, hash);
+		}
+		bladeRedis.hMset(hashes);
+		List<String> keys = new ArrayList<>(hashes.keySet());
+		// 中间插入不存在的 key
+		keys.add(SIZE / 2, "hash:missing");
+
+		List<Object> ids = bladeRedis.hGet(keys, "id");
+		List<Map<Object, Object>> entries = bladeRedis.hGetAll(keys);
+		Assert.assertEquals(keys.size(), ids.size());
+		Assert.assertEquals(keys.size(), entries.size());
+		for (int i = 0; i < keys.size(); i++) {
+			Map<Object, Object> expected = hashes.get(keys.get(i));
+			if (expected == null) {
+				Assert.assertNull(ids.get(i));
+				Assert.assertEquals(Collections.emptyMap(), entries.get(i));
+			} else {
+				Assert.assertEquals(expected.get("id"), ids.get(i));
+				Assert.assertEquals(expected, entries.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testScanStreamType() {
+		Set<String> hashKeys = new HashSet<>();
+		for (int i = 0; i < 30; i++) {
+			setString("type:string:" + i);
+			String hashKey = "type:hash:" + i;
+			bladeRedis.hSet(hashKey, "id", i);
+			hashKeys.add(hashKey);
+			bladeRedis.sAdd("type:set:" + i, i);
+		}
+		setString("other:hash");
+		try (Stream<String> stream = bladeRedis.scanStream("type:*", 7, DataType.HASH)) {
+			Assert.assertEquals(hashKeys, stream.collect(Collectors.toSet()));
+		}
+		try (Stream<String> stream = bladeRedis.scanStream("type:*", 7, DataType.LIST)) {
+			Assert.assertEquals(0, stream.count());
+		}
+		try (Stream<String> stream = bladeRedis.scanStream("type:*", 7)) {
+			Assert.assertEquals(90, stream.collect(Collectors.toSet()).size());
+		}
+		Assert.assertEquals(0, server.getOpenConnections());
+	}
+
+	@Test
+	public void testCursorClose() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			setString("cursor:" + i);
+		}
+		// 只读取部分 key 就关闭，连接同样释放
+		try (Stream<String> stream = bladeRedis.scanStream("cursor:*", 10)) {
+			Assert.assertEquals(5, stream.limit(5).count());
+			Assert.assertEquals(1, server.getOpenConnections());
+		}
+		Assert.assertEquals(0, server.getOpenConnections());
+		try (Stream<String> stream = bladeRedis.scanStream("cursor:*", 10, DataType.STRING)) {
+			Assert.assertTrue(stream.findFirst().isPresent());
+		}
+		Assert.assertEquals(0, server.getOpenConnections());
+		try (Cursor<String> cursor = bladeRedis.scan("cursor:*", 10)) {
+			Assert.assertTrue(cursor.hasNext());
+		}
+		Assert.assertEquals(0, server.getOpenConnections());
+	}
+
+	@Test
+	public void testDelByPattern() {
+		for (int i = 0; i < SIZE; i++) {
+			bladeRedis.set("del:" + i, i);
+		}
+		bladeRedis.set("keep", 1);
+		// jedis-mock 的 SCAN 游标是 key 集合的偏移量，边遍历边删除会跳过部分 key，redis 不会
+		long deleted = 0;
+		for (long batch; (batch = bladeRedis.delByPattern("del:*", 300)) > 0; ) {
+			deleted += batch;
+		}
+		Assert.assertEquals(SIZE, deleted);
+		Assert.assertTrue(bladeRedis.exists("keep"));
+		Assert.assertEquals(Collections.singleton("keep"), bladeRedis.keys("*"));
+		Assert.assertEquals(0, server.getOpenConnections());
+	}
+
+	/**
+	 * jedis-mock 的 TYPE 会尝试反序列化值，jdk 序列化的值会被误判，字符串类型直接写入原始字节
+	 */
+	private static void setString(String key) {
+		server.getRedisTemplate().execute(connection -> connection.set(key.getBytes(StandardCharsets.UTF_8), "1".getBytes(StandardCharsets.UTF_8)), true);
+	}
+
+}
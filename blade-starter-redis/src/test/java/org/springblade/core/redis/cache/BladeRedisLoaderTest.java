@@ -0,0 +1,154 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.redis.cache;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springblade.core.redis.config.BladeRedisProperties;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BladeRedis 加载器和空值缓存测试
+ *
+ * @author L.cm
+ */
+public class BladeRedisLoaderTest {
+	private static RedisMockServer server;
+
+	@BeforeClass
+	public static void start() throws Exception {
+		server = new RedisMockServer();
+	}
+
+	@AfterClass
+	public static void stop() {
+		server.close();
+	}
+
+	@Before
+	public void flush() {
+		server.flushAll();
+	}
+
+	@Test
+	public void testNullValueNotVisibleToReads() {
+		BladeRedis bladeRedis = server.newBladeRedis(singleFlight(Duration.ofMinutes(1), Duration.ofSeconds(3)));
+		AtomicInteger loads = new AtomicInteger();
+		Assert.assertNull(bladeRedis.get("user:1", () -> {
+			loads.incrementAndGet();
+			return null;
+		}));
+		// 空值缓存命中，不再调用加载器
+		Assert.assertNull(bladeRedis.get("user:1", () -> {
+			loads.incrementAndGet();
+			return "loaded";
+		}));
+		Assert.assertEquals(1, loads.get());
+		// 普通读取方法看不到空值标记
+		Assert.assertNull(bladeRedis.get("user:1"));
+		Assert.assertNull(bladeRedis.get(new CacheKey("user:1")));
+		Assert.assertEquals(Collections.singletonList(null), bladeRedis.mGet("user:1"));
+		Assert.assertFalse(bladeRedis.exists("user:1"));
+		Assert.assertNull(bladeRedis.getSet("user:1", "value"));
+		Assert.assertEquals("value", bladeRedis.get("user:1"));
+	}
+
+	@Test
+	public void testDelClearsNullValue() {
+		BladeRedis bladeRedis = server.newBladeRedis(singleFlight(Duration.ofMinutes(1), Duration.ofSeconds(3)));
+		Assert.assertNull(bladeRedis.get("user:2", () -> null));
+		bladeRedis.del("user:2");
+		Assert.assertEquals("loaded", bladeRedis.get("user:2", () -> "loaded"));
+		Assert.assertEquals("loaded", bladeRedis.get("user:2"));
+	}
+
+	@Test
+	public void testSingleFlight() throws Exception {
+		BladeRedis bladeRedis = server.newBladeRedis(singleFlight(Duration.ZERO, Duration.ofSeconds(10)));
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			Future<?>[] futures = new Future<?>[8];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = executor.submit(() -> bladeRedis.get("user:3", () -> {
+					loads.incrementAndGet();
+					await(release);
+					return "loaded";
+				}));
+			}
+			TimeUnit.MILLISECONDS.sleep(200);
+			release.countDown();
+			for (Future<?> future : futures) {
+				Assert.assertEquals("loaded", future.get(5, TimeUnit.SECONDS));
+			}
+			Assert.assertEquals(1, loads.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testWaitTimeoutFallsBackToLoader() throws Exception {
+		BladeRedis bladeRedis = server.newBladeRedis(singleFlight(Duration.ZERO, Duration.ofMillis(100)));
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> slow = executor.submit(() -> bladeRedis.get("user:4", () -> {
+				await(release);
+				return "slow";
+			}));
+			TimeUnit.MILLISECONDS.sleep(50);
+			// 等待超时后自行加载，不会一直阻塞
+			long start = System.nanoTime();
+			Assert.assertEquals("fast", bladeRedis.get("user:4", () -> "fast"));
+			Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+			release.countDown();
+			Assert.assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static BladeRedisProperties.SingleFlight singleFlight(Duration nullValueTtl, Duration waitTimeout) {
+		BladeRedisProperties.SingleFlight singleFlight = new BladeRedisProperties.SingleFlight();
+		singleFlight.setEnabled(true);
+		singleFlight.setNullValueTtl(nullValueTtl);
+		singleFlight.setWaitTimeout(waitTimeout);
+		return singleFlight;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.redis.cache;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.springblade.core.redis.config.BladeRedisProperties;
+import org.springblade.core.redis.serializer.RedisKeySerializer;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 测试用的 redis，使用 jedis-mock 在进程内启动
+ *
+ * @author L.cm
+ */
+class RedisMockServer implements AutoCloseable {
+	private final RedisServer server;
+	private final TrackingConnectionFactory connectionFactory;
+	private final RedisTemplate<String, Object> redisTemplate;
+
+	RedisMockServer() throws IOException {
+		this.server = RedisServer.newRedisServer();
+		this.server.start();
+		this.connectionFactory = new TrackingConnectionFactory(server.getHost(), server.getBindPort());
+		this.connectionFactory.afterPropertiesSet();
+		RedisKeySerializer keySerializer = new RedisKeySerializer();
+		JdkSerializationRedisSerializer valueSerializer = new JdkSerializationRedisSerializer();
+		this.redisTemplate = new RedisTemplate<>();
+		this.redisTemplate.setKeySerializer(keySerializer);
+		this.redisTemplate.setHashKeySerializer(keySerializer);
+		this.redisTemplate.setValueSerializer(valueSerializer);
+		this.redisTemplate.setHashValueSerializer(valueSerializer);
+		this.redisTemplate.setConnectionFactory(connectionFactory);
+		this.redisTemplate.afterPropertiesSet();
+	}
+
+	RedisTemplate<String, Object> getRedisTemplate() {
+		return redisTemplate;
+	}
+
+	BladeRedis newBladeRedis(BladeRedisProperties.SingleFlight singleFlight) {
+		return new BladeRedis(redisTemplate, singleFlight);
+	}
+
+	/**
+	 * 未关闭的连接数
+	 */
+	long getOpenConnections() {
+		return connectionFactory.connections.stream().filter(connection -> !connection.isClosed()).count();
+	}
+
+	void flushAll() {
+		redisTemplate.execute(connection -> {
+			connection.flushAll();
+			return null;
+		}, true);
+	}
+
+	@Override
+	public void close() {
+		connectionFactory.destroy();
+		server.stop();
+	}
+
+	/**
+	 * 记录分配的连接，用于检查连接是否释放
+	 */
+	private static class TrackingConnectionFactory extends LettuceConnectionFactory {
+		private final List<RedisConnection> connections = new CopyOnWriteArrayList<>();
+
+		private TrackingConnectionFactory(String host, int port) {
+			super(host, port);
+		}
+
+		@Override
+		public RedisConnection getConnection() {
+			RedisConnection connection = super.getConnection();
+			connections.add(connection);
+			return connection;
+		}
+	}
+
+}
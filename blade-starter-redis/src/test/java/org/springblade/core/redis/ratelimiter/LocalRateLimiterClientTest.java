@@ -0,0 +1,97 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.redis.ratelimiter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * jvm 内 GCRA 限流测试
+ *
+ * @author L.cm
+ */
+public class LocalRateLimiterClientTest {
+
+	@Test
+	public void testBurst() {
+		LocalRateLimiterClient client = new LocalRateLimiterClient();
+		for (int i = 0; i < 10; i++) {
+			Assert.assertTrue(client.isAllowed("burst", 10, 1, TimeUnit.HOURS));
+		}
+		Assert.assertFalse(client.isAllowed("burst", 10, 1, TimeUnit.HOURS));
+		// key 互不影响
+		Assert.assertTrue(client.isAllowed("other", 10, 1, TimeUnit.HOURS));
+		Assert.assertFalse(client.isAllowed("none", 0, 1, TimeUnit.HOURS));
+	}
+
+	@Test
+	public void testConcurrentAdmission() throws Exception {
+		LocalRateLimiterClient client = new LocalRateLimiterClient();
+		long max = 100;
+		long ttlMillis = 1000;
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Long>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+				long admitted = 0;
+				while (System.nanoTime() - deadline < 0) {
+					if (client.isAllowed("concurrent", max, ttlMillis, TimeUnit.MILLISECONDS)) {
+						admitted++;
+					}
+				}
+				return admitted;
+			}));
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		long admitted = 0;
+		for (Future<Long> future : futures) {
+			admitted += future.get();
+		}
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+		executor.shutdown();
+		// 初始突发 max 个，之后每 ttl / max 产生一个
+		long limit = max + elapsedMillis * max / ttlMillis + 1;
+		Assert.assertTrue("admitted " + admitted + " > " + limit, admitted <= limit);
+		Assert.assertTrue("admitted " + admitted + " < " + max, admitted >= max);
+	}
+
+	@Test
+	public void testPurge() throws Exception {
+		LocalRateLimiterClient client = new LocalRateLimiterClient(2);
+		Assert.assertTrue(client.isAllowed("a", 1, 1, TimeUnit.MILLISECONDS));
+		Assert.assertTrue(client.isAllowed("b", 1, 1, TimeUnit.MILLISECONDS));
+		TimeUnit.MILLISECONDS.sleep(5);
+		// 超过 key 上限时清理过期的状态，不影响新 key
+		Assert.assertTrue(client.isAllowed("c", 1, 1, TimeUnit.HOURS));
+		Assert.assertFalse(client.isAllowed("c", 1, 1, TimeUnit.HOURS));
+		Assert.assertTrue(client.isAllowed("a", 1, 1, TimeUnit.MILLISECONDS));
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.redis.ratelimiter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * redis 限流租用模式测试，redis 调用由 {@link StubClient} 代替
+ *
+ * @author dream.lu
+ */
+public class RedisRateLimiterClientTest {
+
+	@Test
+	public void testLeaseBatches() {
+		StubClient client = new StubClient(10, Duration.ofMinutes(1), Long.MAX_VALUE);
+		for (int i = 0; i < 25; i++) {
+			Assert.assertTrue(client.isAllowed("batch", 100, 1, TimeUnit.HOURS));
+		}
+		// 每批 10 个许可，25 次请求只访问 3 次 redis
+		Assert.assertEquals(3, client.calls.get());
+		Assert.assertEquals(30, client.granted.get());
+	}
+
+	@Test
+	public void testKeyPrefix() {
+		StubClient client = new StubClient(0, Duration.ZERO, Long.MAX_VALUE);
+		Assert.assertTrue(client.isAllowed("prefix", 100, 1, TimeUnit.HOURS));
+		// 与旧版 zset 的 limiter:<app>:<key> 区分
+		Assert.assertEquals("limiter:gcra::prefix", client.lastKey);
+	}
+
+	@Test
+	public void testLeaseNotLargerThanMax() {
+		StubClient client = new StubClient(10, Duration.ofMinutes(1), Long.MAX_VALUE);
+		Assert.assertTrue(client.isAllowed("small", 4, 1, TimeUnit.HOURS));
+		Assert.assertEquals(4, client.granted.get());
+	}
+
+	@Test
+	public void testLeaseExpire() throws Exception {
+		StubClient client = new StubClient(10, Duration.ofMillis(20), Long.MAX_VALUE);
+		Assert.assertTrue(client.isAllowed("expire", 100, 1, TimeUnit.HOURS));
+		TimeUnit.MILLISECONDS.sleep(40);
+		// 租期过后剩余许可作废，重新申请
+		Assert.assertTrue(client.isAllowed("expire", 100, 1, TimeUnit.HOURS));
+		Assert.assertEquals(2, client.calls.get());
+	}
+
+	@Test
+	public void testRejectCached() throws Exception {
+		StubClient client = new StubClient(10, Duration.ofMinutes(1), 0);
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> futures = new ArrayList<>();
+		for (int i = 0; i < threads * 100; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				return client.isAllowed("reject", 2, 1, TimeUnit.HOURS);
+			}));
+		}
+		start.countDown();
+		for (Future<Boolean> future : futures) {
+			Assert.assertFalse(future.get());
+		}
+		executor.shutdown();
+		// 下一个许可 30 分钟后才产生，期间被拒绝的请求不再访问 redis
+		Assert.assertEquals(1, client.calls.get());
+	}
+
+	@Test
+	public void testConcurrentAdmission() throws Exception {
+		long budget = 1000;
+		StubClient client = new StubClient(16, Duration.ofMinutes(1), budget);
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Long>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				long admitted = 0;
+				for (int j = 0; j < 500; j++) {
+					if (client.isAllowed("concurrent", 10000, 1, TimeUnit.HOURS)) {
+						admitted++;
+					}
+				}
+				return admitted;
+			}));
+		}
+		start.countDown();
+		long admitted = 0;
+		for (Future<Long> future : futures) {
+			admitted += future.get();
+		}
+		executor.shutdown();
+		// 放行数不超过 redis 发放的许可，且许可用完前不会拒绝
+		Assert.assertEquals(budget, client.granted.get());
+		Assert.assertEquals(budget, admitted);
+	}
+
+	/**
+	 * 不访问 redis，从固定的额度中发放许可
+	 */
+	private static class StubClient extends RedisRateLimiterClient {
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong granted = new AtomicLong();
+		private final AtomicLong remaining;
+		private volatile String lastKey;
+
+		private StubClient(long leasePermits, Duration leaseTime, long budget) {
+			super(null, null, new MockEnvironment(), leasePermits, leaseTime);
+			this.remaining = new AtomicLong(budget);
+		}
+
+		@Override
+		long acquire(String redisKey, long max, long ttlMillis, long permits) {
+			calls.incrementAndGet();
+			lastKey = redisKey;
+			while (true) {
+				long current = remaining.get();
+				long grant = Math.min(current, permits);
+				if (remaining.compareAndSet(current, current - grant)) {
+					granted.addAndGet(grant);
+					return grant;
+				}
+			}
+		}
+	}
+
+}
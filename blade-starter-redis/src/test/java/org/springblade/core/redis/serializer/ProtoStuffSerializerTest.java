@@ -0,0 +1,219 @@
+/*
+ *      Copyright (c) 2018-2028, DreamLu All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: DreamLu 卢春梦 (596392912@qq.com)
+ */
+package org.springblade.core.redis.serializer;
+
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.Schema;
+import io.protostuff.runtime.RuntimeSchema;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ProtoStuff 序列化测试，覆盖旧版数据、压缩数据与压缩阈值边界
+ *
+ * @author L.cm
+ */
+public class ProtoStuffSerializerTest {
+	private static final Schema<BytesWrapper> SCHEMA = RuntimeSchema.getSchema(BytesWrapper.class);
+
+	@Test
+	public void testLegacyPayload() {
+		ProtoStuffSerializer plain = new ProtoStuffSerializer();
+		ProtoStuffSerializer compressed = new ProtoStuffSerializer(64);
+		for (Object value : values()) {
+			byte[] legacy = legacySerialize(value);
+			Assert.assertEquals(value, plain.deserialize(legacy));
+			Assert.assertEquals(value, compressed.deserialize(legacy));
+			// 未开启压缩时与旧版输出完全一致，旧版节点可以读取
+			Assert.assertArrayEquals(legacy, plain.serialize(value));
+			Assert.assertEquals(value, legacyDeserialize(plain.serialize(value)));
+		}
+	}
+
+	@Test
+	public void testCompressedRoundTrip() {
+		ProtoStuffSerializer compressed = new ProtoStuffSerializer(4096);
+		ProtoStuffSerializer plain = new ProtoStuffSerializer();
+		String value = repeat("blade:cache:", 1024);
+		byte[] bytes = compressed.serialize(value);
+		Assert.assertEquals(0, bytes[0]);
+		Assert.assertTrue(bytes.length < legacySerialize(value).length);
+		Assert.assertEquals(value, compressed.deserialize(bytes));
+		// 未开启压缩的节点同样可以读取压缩数据
+		Assert.assertEquals(value, plain.deserialize(bytes));
+		User user = newUser(repeat("remark ", 2000));
+		Assert.assertEquals(user, plain.deserialize(compressed.serialize(user)));
+	}
+
+	@Test
+	public void testThresholdBoundary() {
+		String value = repeat("a", 300);
+		byte[] legacy = legacySerialize(value);
+		int length = legacy.length;
+		// 等于阈值不压缩
+		Assert.assertArrayEquals(legacy, new ProtoStuffSerializer(length).serialize(value));
+		// 超过阈值一个字节开始压缩
+		byte[] bytes = new ProtoStuffSerializer(length - 1).serialize(value);
+		Assert.assertEquals(0, bytes[0]);
+		Assert.assertEquals(value, new ProtoStuffSerializer().deserialize(bytes));
+		// 阈值小于等于 0 时不压缩
+		Assert.assertArrayEquals(legacy, new ProtoStuffSerializer(0).serialize(value));
+		Assert.assertArrayEquals(legacy, new ProtoStuffSerializer(-1).serialize(value));
+	}
+
+	@Test
+	public void testIncompressible() {
+		byte[] random = new byte[8192];
+		new Random(42).nextBytes(random);
+		byte[] bytes = new ProtoStuffSerializer(64).serialize(random);
+		// 压缩后没有变小时保存原数据
+		Assert.assertArrayEquals(legacySerialize(random), bytes);
+		Assert.assertArrayEquals(random, (byte[]) new ProtoStuffSerializer(64).deserialize(bytes));
+	}
+
+	@Test
+	public void testCorruptCompressed() {
+		ProtoStuffSerializer serializer = new ProtoStuffSerializer(64);
+		byte[] bytes = serializer.serialize(repeat("blade", 1000));
+		assertInvalid(serializer, Arrays.copyOf(bytes, bytes.length / 2));
+		assertInvalid(serializer, Arrays.copyOf(bytes, 3));
+		byte[] negative = bytes.clone();
+		negative[1] = (byte) 0x80;
+		assertInvalid(serializer, negative);
+	}
+
+	@Test
+	public void testOversizedHeader() {
+		String value = repeat("blade", 1000);
+		byte[] bytes = new ProtoStuffSerializer(64).serialize(value);
+		// 长度头超过上限时拒绝，不分配数组
+		assertInvalid(new ProtoStuffSerializer(64, 1024), bytes);
+		Assert.assertEquals(value, new ProtoStuffSerializer(64, 8192).deserialize(bytes));
+		// 长度头超过 deflate 最大压缩比
+		byte[] huge = bytes.clone();
+		huge[1] = (byte) 0x7F;
+		assertInvalid(new ProtoStuffSerializer(64, Integer.MAX_VALUE), huge);
+	}
+
+	@Test
+	public void testNullAndEmpty() {
+		ProtoStuffSerializer serializer = new ProtoStuffSerializer(64);
+		Assert.assertNull(serializer.serialize(null));
+		Assert.assertNull(serializer.deserialize(null));
+		Assert.assertNull(serializer.deserialize(new byte[0]));
+	}
+
+	@Test
+	public void testConcurrentRoundTrip() throws Exception {
+		ProtoStuffSerializer serializer = new ProtoStuffSerializer(128);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int seed = t;
+				futures.add(executor.submit(() -> {
+					Random random = new Random(seed);
+					for (int i = 0; i < 500; i++) {
+						String value = repeat(Integer.toString(random.nextInt(1000)), random.nextInt(200));
+						Assert.assertEquals(value, serializer.deserialize(serializer.serialize(value)));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void assertInvalid(ProtoStuffSerializer serializer, byte[] bytes) {
+		try {
+			serializer.deserialize(bytes);
+			Assert.fail("expected SerializationException");
+		} catch (SerializationException e) {
+			// expected
+		}
+	}
+
+	private static List<Object> values() {
+		Map<String, Object> map = new HashMap<>(4);
+		map.put("tenantId", "000000");
+		map.put("userId", 1123598821738675201L);
+		map.put("roles", Arrays.asList("administrator", "user"));
+		return Arrays.asList("blade", 1123598821738675201L, 0, map, Arrays.asList(1L, 2L, 3L),
+			newUser("remark"), repeat("blade:cache:", 1024));
+	}
+
+	private static User newUser(String remark) {
+		User user = new User();
+		user.setId(1123598821738675201L);
+		user.setAccount("admin");
+		user.setRoleIds(Arrays.asList(1L, 2L));
+		user.setRemark(remark);
+		return user;
+	}
+
+	private static String repeat(String str, int count) {
+		StringBuilder builder = new StringBuilder(str.length() * count);
+		for (int i = 0; i < count; i++) {
+			builder.append(str);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * 旧版 ProtoStuffSerializer 的写法
+	 */
+	private static byte[] legacySerialize(Object value) {
+		LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+		try {
+			return ProtostuffIOUtil.toByteArray(new BytesWrapper<>(value), SCHEMA, buffer);
+		} finally {
+			buffer.clear();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object legacyDeserialize(byte[] bytes) {
+		BytesWrapper<Object> wrapper = new BytesWrapper<>();
+		ProtostuffIOUtil.mergeFrom(bytes, wrapper, SCHEMA);
+		return wrapper.getValue();
+	}
+
+	@Data
+	public static class User {
+		private Long id;
+		private String account;
+		private List<Long> roleIds;
+		private String remark;
+	}
+
+}
@@ -35,6 +35,7 @@ import net.sf.jsqlparser.statement.select.*;
 import net.sf.jsqlparser.statement.update.Update;
 import org.springblade.core.secure.utils.AuthUtil;
 import org.springblade.core.tool.utils.StringPool;
+import org.springblade.core.tool.utils.StringUtil;
 
 import java.util.Arrays;
 import java.util.List;
@@ -61,6 +62,12 @@ public class BladeTenantInterceptor extends TenantLineInnerInterceptor {
 	 * 超管需要启用租户过滤的表
 	 */
 	private List<String> adminTenantTables = Arrays.asList("blade_top_menu", "blade_dict_biz");
+	/**
+	 * 租户 sql 改写缓存
+	 */
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private volatile BladeTenantSqlCache sqlCache;
 
 	@Override
 	public void setTenantLineHandler(TenantLineHandler tenantLineHandler) {
@@ -68,6 +75,63 @@ public class BladeTenantInterceptor extends TenantLineInnerInterceptor {
 		this.tenantLineHandler = tenantLineHandler;
 	}
 
+	@Override
+	public String parserSingle(String sql, Object obj) {
+		return parserWithCache(sql, obj, false);
+	}
+
+	@Override
+	public String parserMulti(String sql, Object obj) {
+		return parserWithCache(sql, obj, true);
+	}
+
+	/**
+	 * 带缓存的 sql 改写，仅对默认的 BladeTenantHandler 生效
+	 *
+	 * @param sql   原始sql
+	 * @param obj   参数
+	 * @param multi 是否多语句
+	 * @return 改写后的sql
+	 */
+	private String parserWithCache(String sql, Object obj, boolean multi) {
+		BladeTenantSqlCache cache = getSqlCache();
+		if (cache == null || !(tenantLineHandler instanceof BladeTenantHandler)) {
+			return multi ? super.parserMulti(sql, obj) : super.parserSingle(sql, obj);
+		}
+		// 忽略租户或无租户信息时所有表都不拼接条件，原样返回
+		if (BladeTenantHolder.isIgnore() || StringUtil.isBlank(AuthUtil.getTenantId())) {
+			return sql;
+		}
+		boolean admin = AuthUtil.isAdministrator();
+		String tenantValue = tenantLineHandler.getTenantId().toString();
+		String[] template = cache.get(sql, admin);
+		if (template != null) {
+			return cache.render(template, tenantValue);
+		}
+		String parsedSql = multi ? super.parserMulti(sql, obj) : super.parserSingle(sql, obj);
+		// 原始sql已包含租户id时无法区分注入位置，不缓存
+		if (!sql.contains(tenantValue)) {
+			cache.put(sql, admin, parsedSql, tenantValue);
+		}
+		return parsedSql;
+	}
+
+	/**
+	 * 获取 sql 改写缓存
+	 *
+	 * @return BladeTenantSqlCache
+	 */
+	public BladeTenantSqlCache getSqlCache() {
+		if (sqlCache == null && tenantProperties != null && tenantProperties.getSqlCacheSize() > 0) {
+			synchronized (this) {
+				if (sqlCache == null) {
+					sqlCache = new BladeTenantSqlCache(tenantProperties.getSqlCacheSize());
+				}
+			}
+		}
+		return sqlCache;
+	}
+
 	@Override
 	protected void processInsert(Insert insert, int index, String sql, Object obj) {
 		// 未启用租户增强，则使用原版逻辑
@@ -20,6 +20,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -63,4 +64,35 @@ public class BladeTenantProperties {
 	 */
 	private List<String> excludeTables = new ArrayList<>();
 
+	/**
+	 * 租户 sql 改写缓存数量，小于等于0则关闭
+	 */
+	private Integer sqlCacheSize = 1024;
+
+	/**
+	 * 租户动态数据源连接池管理
+	 */
+	private DataSourcePool datasourcePool = new DataSourcePool();
+
+	@Getter
+	@Setter
+	public static class DataSourcePool {
+		/**
+		 * 空闲超时时间，超时未使用的租户数据源会被关闭，为 0 则不关闭
+		 */
+		private Duration idleTimeout = Duration.ofMinutes(30);
+		/**
+		 * 空闲检查间隔
+		 */
+		private Duration evictInterval = Duration.ofMinutes(1);
+		/**
+		 * 租户数据源数量上限，超出时关闭最近最少使用的数据源，为 0 则不限制
+		 */
+		private int maxPools = 0;
+		/**
+		 * 所有租户数据源最大连接数之和的上限，为 0 则不限制
+		 */
+		private int maxConnections = 0;
+	}
+
 }
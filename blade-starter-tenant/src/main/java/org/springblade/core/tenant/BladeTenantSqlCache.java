@@ -0,0 +1,166 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.tenant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 租户 sql 改写缓存
+ *
+ * <p>
+ * 同一条原始 sql 在同一改写模式下只解析一次，改写结果按租户id切分为模板，
+ * 命中后直接拼接当前租户id
+ * </p>
+ *
+ * @author Chill
+ */
+public class BladeTenantSqlCache {
+
+	/**
+	 * 普通模式缓存
+	 */
+	private final Map<String, String[]> normalCache = new ConcurrentHashMap<>(256);
+
+	/**
+	 * 超管模式缓存
+	 */
+	private final Map<String, String[]> adminCache = new ConcurrentHashMap<>(256);
+
+	/**
+	 * 缓存上限
+	 */
+	private final int maxSize;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	public BladeTenantSqlCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * 获取改写模板
+	 *
+	 * @param sql   原始sql
+	 * @param admin 是否超管模式
+	 * @return 模板，未命中返回 null
+	 */
+	public String[] get(String sql, boolean admin) {
+		String[] template = getCache(admin).get(sql);
+		if (template == null) {
+			missCount.incrementAndGet();
+		} else {
+			hitCount.incrementAndGet();
+		}
+		return template;
+	}
+
+	/**
+	 * 缓存改写结果
+	 *
+	 * @param sql         原始sql
+	 * @param admin       是否超管模式
+	 * @param parsedSql   改写后的sql
+	 * @param tenantValue 改写时注入的租户id表达式
+	 */
+	public void put(String sql, boolean admin, String parsedSql, String tenantValue) {
+		Map<String, String[]> cache = getCache(admin);
+		if (cache.size() >= maxSize) {
+			cache.clear();
+		}
+		cache.put(sql, split(parsedSql, tenantValue));
+	}
+
+	/**
+	 * 根据模板拼接sql
+	 *
+	 * @param template    模板
+	 * @param tenantValue 租户id表达式
+	 * @return sql
+	 */
+	public String render(String[] template, String tenantValue) {
+		if (template.length == 1) {
+			return template[0];
+		}
+		int size = tenantValue.length() * (template.length - 1);
+		for (String segment : template) {
+			size += segment.length();
+		}
+		StringBuilder builder = new StringBuilder(size);
+		builder.append(template[0]);
+		for (int i = 1; i < template.length; i++) {
+			builder.append(tenantValue).append(template[i]);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public void clear() {
+		normalCache.clear();
+		adminCache.clear();
+	}
+
+	/**
+	 * 缓存数量
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return normalCache.size() + adminCache.size();
+	}
+
+	/**
+	 * 命中次数
+	 *
+	 * @return count
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * 未命中次数
+	 *
+	 * @return count
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	private Map<String, String[]> getCache(boolean admin) {
+		return admin ? adminCache : normalCache;
+	}
+
+	private static String[] split(String sql, String tenantValue) {
+		List<String> segments = new ArrayList<>();
+		int start = 0;
+		int index;
+		while ((index = sql.indexOf(tenantValue, start)) != -1) {
+			segments.add(sql.substring(start, index));
+			start = index + tenantValue.length();
+		}
+		segments.add(sql.substring(start));
+		return segments.toArray(new String[0]);
+	}
+
+}
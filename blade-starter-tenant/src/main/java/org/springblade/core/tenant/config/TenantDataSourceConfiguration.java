@@ -31,6 +31,7 @@ import com.baomidou.dynamic.datasource.spring.boot.autoconfigure.DynamicDataSour
 import com.baomidou.dynamic.datasource.spring.boot.autoconfigure.DynamicDataSourceProperties;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.springblade.core.tenant.BladeTenantProperties;
 import org.springblade.core.tenant.dynamic.*;
 import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -59,7 +60,7 @@ import static org.springblade.core.tenant.constant.TenantBaseConstant.TENANT_DYN
 @Configuration(proxyBeanMethods = false)
 @RequiredArgsConstructor
 @AutoConfigureBefore({DruidDataSourceAutoConfigure.class, DynamicDataSourceAutoConfiguration.class})
-@EnableConfigurationProperties({DataSourceProperties.class, DynamicDataSourceProperties.class})
+@EnableConfigurationProperties({DataSourceProperties.class, DynamicDataSourceProperties.class, BladeTenantProperties.class})
 @Import(value = {DynamicDataSourceCreatorAutoConfiguration.class})
 @ConditionalOnProperty(value = TENANT_DYNAMIC_DATASOURCE_PROP, havingValue = "true")
 public class TenantDataSourceConfiguration {
@@ -94,6 +95,15 @@ public class TenantDataSourceConfiguration {
 		return dataSource;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public TenantDataSourceHolder tenantDataSourceHolder(DataSource dataSource, DruidDataSourceCreator dataSourceCreator,
+														 JdbcTemplate jdbcTemplate, BladeTenantProperties tenantProperties,
+														 DynamicDataSourceProperties dynamicDataSourceProperties) {
+		return new TenantDataSourceHolder(dataSource, dataSourceCreator, jdbcTemplate, tenantProperties.getDatasourcePool(),
+			dynamicDataSourceProperties.getPrimary());
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public TenantDataSourceAnnotationInterceptor tenantDataSourceAnnotationInterceptor(DsProcessor dsProcessor, DynamicDataSourceProperties dynamicDataSourceProperties) {
@@ -147,13 +157,10 @@ public class TenantDataSourceConfiguration {
 
 		private final TenantDataSourceAnnotationInterceptor tenantDataSourceAnnotationInterceptor;
 
-		private final DataSource dataSource;
-		private final DruidDataSourceCreator dataSourceCreator;
-		private final JdbcTemplate jdbcTemplate;
+		private final TenantDataSourceHolder tenantDataSourceHolder;
 
 		@Override
 		public void afterSingletonsInstantiated() {
-			TenantDataSourceHolder tenantDataSourceHolder = new TenantDataSourceHolder(dataSource, dataSourceCreator, jdbcTemplate);
 			tenantDataSourceAnnotationInterceptor.setHolder(tenantDataSourceHolder);
 		}
 	}
@@ -166,13 +173,10 @@ public class TenantDataSourceConfiguration {
 
 		private final TenantDataSourceGlobalInterceptor tenantDataSourceGlobalInterceptor;
 
-		private final DataSource dataSource;
-		private final DruidDataSourceCreator dataSourceCreator;
-		private final JdbcTemplate jdbcTemplate;
+		private final TenantDataSourceHolder tenantDataSourceHolder;
 
 		@Override
 		public void afterSingletonsInstantiated() {
-			TenantDataSourceHolder tenantDataSourceHolder = new TenantDataSourceHolder(dataSource, dataSourceCreator, jdbcTemplate);
 			tenantDataSourceGlobalInterceptor.setHolder(tenantDataSourceHolder);
 		}
 	}
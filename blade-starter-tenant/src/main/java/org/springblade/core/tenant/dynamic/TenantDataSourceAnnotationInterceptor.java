@@ -39,11 +39,17 @@ public class TenantDataSourceAnnotationInterceptor extends DynamicDataSourceAnno
 
 	@Override
 	public Object invoke(MethodInvocation invocation) throws Throwable {
+		String tenantId = AuthUtil.getTenantId();
+		boolean retained = false;
 		try {
-			holder.handleDataSource(AuthUtil.getTenantId());
+			retained = holder.retainDataSource(tenantId);
 			return super.invoke(invocation);
 		} catch (Exception exception) {
 			throw new TenantDataSourceException(exception.getMessage());
+		} finally {
+			if (retained) {
+				holder.releaseDataSource(tenantId);
+			}
 		}
 	}
 
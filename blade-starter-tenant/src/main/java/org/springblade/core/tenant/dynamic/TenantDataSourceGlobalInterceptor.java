@@ -35,14 +35,18 @@ public class TenantDataSourceGlobalInterceptor implements MethodInterceptor {
 
 	@Override
 	public Object invoke(MethodInvocation invocation) throws Throwable {
+		String tenantId = AuthUtil.getTenantId();
+		boolean retained = false;
 		try {
-			String tenantId = AuthUtil.getTenantId();
-			holder.handleDataSource(tenantId);
+			retained = holder.retainDataSource(tenantId);
 			DynamicDataSourceContextHolder.push(tenantId);
 			return invocation.proceed();
 		} catch (Exception exception) {
 			throw new TenantDataSourceException(exception.getMessage());
 		} finally {
+			if (retained) {
+				holder.releaseDataSource(tenantId);
+			}
 			DynamicDataSourceContextHolder.poll();
 		}
 	}
@@ -16,32 +16,114 @@
  */
 package org.springblade.core.tenant.dynamic;
 
+import com.alibaba.druid.pool.DruidDataSource;
 import com.baomidou.dynamic.datasource.DynamicRoutingDataSource;
 import com.baomidou.dynamic.datasource.creator.DataSourceCreator;
 import com.baomidou.dynamic.datasource.spring.boot.autoconfigure.DataSourceProperty;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springblade.core.cache.utils.CacheUtil;
+import org.springblade.core.tenant.BladeTenantProperties;
+import org.springblade.core.tenant.exception.TenantDataSourceException;
 import org.springblade.core.tool.utils.StringUtil;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
 
 import javax.sql.DataSource;
-import java.util.Set;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.springblade.core.tenant.constant.TenantBaseConstant.*;
 
 /**
  * 租户数据源核心处理类
  *
+ * <p>
+ * 同一租户的数据源只会创建一次；空闲超时或超出数量、连接数上限时按最近最少使用关闭数据源，
+ * 正在使用的数据源不会被关闭，关闭后再次访问时重新懒加载
+ * </p>
+ *
  * @author Chill
  */
-@AllArgsConstructor
-public class TenantDataSourceHolder {
+@Slf4j
+public class TenantDataSourceHolder implements DisposableBean {
+	private static final String METRIC_POOLS = "blade_tenant_datasource_pools";
+	private static final String METRIC_CONNECTIONS = "blade_tenant_datasource_max_connections";
+	private static final String METRIC_EVICTED = "blade_tenant_datasource_evicted_total";
+	private static final String METRIC_CREATE = "blade_tenant_datasource_create";
+	private static final int LOCK_STRIPES = 64;
+	private static final String DEFAULT_PRIMARY = "master";
 
 	private final DataSource dataSource;
 	private final DataSourceCreator dataSourceCreator;
 	private final JdbcTemplate jdbcTemplate;
+	private final BladeTenantProperties.DataSourcePool poolProperties;
+	/**
+	 * 主数据源名称，不纳入管理
+	 */
+	private final String primary;
+	/**
+	 * 受管理的租户数据源
+	 */
+	private final ConcurrentMap<String, TenantPool> pools = new ConcurrentHashMap<>();
+	/**
+	 * 按租户分段的锁，创建和关闭同一租户的数据源时互斥
+	 */
+	private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+	private final Counter evictedCounter;
+	private final Timer createTimer;
+	private final ScheduledExecutorService evictor;
+
+	public TenantDataSourceHolder(DataSource dataSource, DataSourceCreator dataSourceCreator, JdbcTemplate jdbcTemplate) {
+		this(dataSource, dataSourceCreator, jdbcTemplate, new BladeTenantProperties.DataSourcePool());
+	}
+
+	public TenantDataSourceHolder(DataSource dataSource, DataSourceCreator dataSourceCreator, JdbcTemplate jdbcTemplate,
+								  BladeTenantProperties.DataSourcePool poolProperties) {
+		this(dataSource, dataSourceCreator, jdbcTemplate, poolProperties, DEFAULT_PRIMARY);
+	}
+
+	public TenantDataSourceHolder(DataSource dataSource, DataSourceCreator dataSourceCreator, JdbcTemplate jdbcTemplate,
+								  BladeTenantProperties.DataSourcePool poolProperties, String primary) {
+		this.dataSource = dataSource;
+		this.dataSourceCreator = dataSourceCreator;
+		this.jdbcTemplate = jdbcTemplate;
+		this.poolProperties = poolProperties;
+		this.primary = primary;
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		Metrics.gauge(METRIC_POOLS, pools, Map::size);
+		Metrics.gauge(METRIC_CONNECTIONS, this, TenantDataSourceHolder::getMaxConnections);
+		this.evictedCounter = Metrics.counter(METRIC_EVICTED);
+		this.createTimer = Metrics.timer(METRIC_CREATE);
+		long interval = poolProperties.getEvictInterval().toMillis();
+		if (interval > 0 && poolProperties.getIdleTimeout().toMillis() > 0) {
+			this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "blade-tenant-datasource-evictor");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.evictor.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+		} else {
+			this.evictor = null;
+		}
+	}
 
 	/**
 	 * 数据源缓存处理
@@ -49,23 +131,298 @@ public class TenantDataSourceHolder {
 	 * @param tenantId 租户ID
 	 */
 	public void handleDataSource(String tenantId) {
+		if (retainDataSource(tenantId)) {
+			releaseDataSource(tenantId);
+		}
+	}
+
+	/**
+	 * 加载租户数据源并标记为使用中，使用中的数据源不会被关闭，使用完后需调用 {@link #releaseDataSource(String)}
+	 *
+	 * @param tenantId 租户ID
+	 * @return 是否为受管理的租户数据源，为 false 时无需释放
+	 */
+	public boolean retainDataSource(String tenantId) {
+		if (StringUtil.isBlank(tenantId)) {
+			return false;
+		}
+		TenantPool pool = pools.get(tenantId);
+		// 不存在或正在关闭时加载，关闭持有同一把锁，加载时会等待关闭完成
+		while (pool == null || !pool.retain()) {
+			pool = loadDataSource(tenantId);
+			if (pool == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 释放 {@link #retainDataSource(String)} 标记的数据源
+	 *
+	 * @param tenantId 租户ID
+	 */
+	public void releaseDataSource(String tenantId) {
+		TenantPool pool = pools.get(tenantId);
+		if (pool != null) {
+			pool.release();
+		}
+	}
+
+	/**
+	 * 受管理的租户数据源数量
+	 *
+	 * @return 数量
+	 */
+	public int getPoolCount() {
+		return pools.size();
+	}
+
+	/**
+	 * 受管理的租户数据源最大连接数之和
+	 *
+	 * @return 连接数
+	 */
+	public int getMaxConnections() {
+		int connections = 0;
+		for (TenantPool pool : pools.values()) {
+			connections += pool.maxConnections;
+		}
+		return connections;
+	}
+
+	/**
+	 * 已关闭的租户数据源数量
+	 *
+	 * @return 数量
+	 */
+	public long getEvictedCount() {
+		return (long) evictedCounter.count();
+	}
+
+	@Override
+	public void destroy() {
+		// 数据源由 DynamicRoutingDataSource 销毁时统一关闭
+		if (evictor != null) {
+			evictor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 加载租户数据源，同一租户只会创建一次
+	 */
+	@Nullable
+	private TenantPool loadDataSource(String tenantId) {
 		// 获取储存的数据源集合
 		DynamicRoutingDataSource ds = (DynamicRoutingDataSource) dataSource;
-		Set<String> keys = ds.getCurrentDataSources().keySet();
-		// 配置不存在则动态添加数据源，以懒加载的模式解决分布式场景的配置同步
-		// 为了保证数据完整性，配置后生成数据源缓存，后台便无法修改更换数据源，若一定要修改请迁移数据后重启服务或自行修改底层逻辑
-		if (!keys.contains(tenantId)) {
-			TenantDataSource tenantDataSource = getDataSource(tenantId);
-			if (tenantDataSource != null) {
-				// 创建数据源配置
-				DataSourceProperty dataSourceProperty = new DataSourceProperty();
-				// 拷贝数据源配置
-				BeanUtils.copyProperties(tenantDataSource, dataSourceProperty);
-				// 创建动态数据源
-				DataSource dataSource = dataSourceCreator.createDataSource(dataSourceProperty);
-				// 添加最新数据源
-				ds.addDataSource(tenantId, dataSource);
+		if (tenantId.equals(primary)) {
+			return null;
+		}
+		// 没有配置数据源的租户使用主数据源，无需加锁
+		TenantDataSource tenantDataSource = null;
+		if (!ds.getCurrentDataSources().containsKey(tenantId)) {
+			tenantDataSource = getDataSource(tenantId);
+			if (tenantDataSource == null) {
+				return null;
+			}
+		}
+		ReentrantLock lock = lockFor(tenantId);
+		lock.lock();
+		try {
+			TenantPool pool = pools.get(tenantId);
+			if (pool != null) {
+				return pool;
+			}
+			// 启动时加载的租户数据源纳入管理
+			DataSource current = ds.getCurrentDataSources().get(tenantId);
+			if (current != null) {
+				pool = new TenantPool(current);
+				pools.put(tenantId, pool);
+				return pool;
+			}
+			// 配置不存在则动态添加数据源，以懒加载的模式解决分布式场景的配置同步
+			// 为了保证数据完整性，配置后生成数据源缓存，后台便无法修改更换数据源，若一定要修改请迁移数据后重启服务或自行修改底层逻辑
+			if (tenantDataSource == null) {
+				tenantDataSource = getDataSource(tenantId);
+				if (tenantDataSource == null) {
+					return null;
+				}
+			}
+			// 创建数据源配置
+			DataSourceProperty dataSourceProperty = new DataSourceProperty();
+			// 拷贝数据源配置
+			BeanUtils.copyProperties(tenantDataSource, dataSourceProperty);
+			// 创建动态数据源
+			long start = System.nanoTime();
+			DataSource created = dataSourceCreator.createDataSource(dataSourceProperty);
+			createTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			pool = new TenantPool(created);
+			if (!reserve(tenantId, pool.maxConnections)) {
+				closeQuietly(tenantId, created);
+				throw new TenantDataSourceException("租户数据源数量或连接数已达上限，数据源加载失败!");
+			}
+			// 添加最新数据源
+			ds.addDataSource(tenantId, created);
+			pools.put(tenantId, pool);
+			return pool;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 超出数据源数量或连接数上限时，按最近最少使用关闭空闲的数据源
+	 *
+	 * @return 是否有足够的额度
+	 */
+	private boolean reserve(String tenantId, int connections) {
+		int maxPools = poolProperties.getMaxPools();
+		int maxConnections = poolProperties.getMaxConnections();
+		if (maxPools <= 0 && maxConnections <= 0) {
+			return true;
+		}
+		List<Map.Entry<String, TenantPool>> candidates = null;
+		int index = 0;
+		while (exceeds(maxPools, maxConnections, connections)) {
+			if (candidates == null) {
+				candidates = new ArrayList<>(pools.entrySet());
+				candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+			}
+			if (index >= candidates.size()) {
+				return false;
+			}
+			Map.Entry<String, TenantPool> candidate = candidates.get(index++);
+			if (!candidate.getKey().equals(tenantId)) {
+				evict(candidate.getKey(), candidate.getValue(), 0L);
+			}
+		}
+		return true;
+	}
+
+	private boolean exceeds(int maxPools, int maxConnections, int connections) {
+		if (maxPools > 0 && pools.size() + 1 > maxPools) {
+			return true;
+		}
+		return maxConnections > 0 && getMaxConnections() + connections > maxConnections;
+	}
+
+	/**
+	 * 关闭空闲超时的数据源
+	 */
+	private void evictIdle() {
+		try {
+			long idleTimeout = poolProperties.getIdleTimeout().toMillis();
+			long now = System.currentTimeMillis();
+			for (Map.Entry<String, TenantPool> entry : pools.entrySet()) {
+				if (now - entry.getValue().lastAccess >= idleTimeout) {
+					evict(entry.getKey(), entry.getValue(), idleTimeout);
+				}
+			}
+		} catch (Throwable e) {
+			log.error("租户数据源空闲回收失败", e);
+		}
+	}
+
+	/**
+	 * 关闭数据源，其他线程正在创建或使用时跳过
+	 */
+	private void evict(String tenantId, TenantPool pool, long idleTimeout) {
+		ReentrantLock lock = lockFor(tenantId);
+		if (!lock.tryLock()) {
+			return;
+		}
+		try {
+			if (pools.get(tenantId) != pool || System.currentTimeMillis() - pool.lastAccess < idleTimeout || !pool.markEvicted()) {
+				return;
+			}
+			pools.remove(tenantId, pool);
+			((DynamicRoutingDataSource) dataSource).removeDataSource(tenantId);
+			closeQuietly(tenantId, pool.dataSource);
+			evictedCounter.increment();
+			log.info("租户数据源已关闭：{}", tenantId);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private ReentrantLock lockFor(String tenantId) {
+		return locks[(tenantId.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+	}
+
+	private static void closeQuietly(String tenantId, DataSource dataSource) {
+		if (dataSource instanceof AutoCloseable) {
+			try {
+				((AutoCloseable) dataSource).close();
+			} catch (Exception e) {
+				log.warn("租户数据源关闭失败：{}", tenantId, e);
+			}
+		}
+	}
+
+	@Nullable
+	private static DruidDataSource unwrapDruid(DataSource dataSource) {
+		if (dataSource instanceof DruidDataSource) {
+			return (DruidDataSource) dataSource;
+		}
+		try {
+			if (dataSource.isWrapperFor(DruidDataSource.class)) {
+				return dataSource.unwrap(DruidDataSource.class);
+			}
+		} catch (SQLException ignored) {
+			// ignore
+		}
+		return null;
+	}
+
+	/**
+	 * 租户数据源及其使用状态
+	 */
+	private static class TenantPool {
+		/**
+		 * 关闭标记
+		 */
+		private static final int EVICTED = Integer.MIN_VALUE;
+		private final DataSource dataSource;
+		@Nullable
+		private final DruidDataSource druidDataSource;
+		private final int maxConnections;
+		/**
+		 * 使用中的次数，关闭后为 EVICTED
+		 */
+		private final AtomicInteger inUse = new AtomicInteger();
+		private volatile long lastAccess = System.currentTimeMillis();
+
+		private TenantPool(DataSource dataSource) {
+			this.dataSource = dataSource;
+			this.druidDataSource = unwrapDruid(dataSource);
+			this.maxConnections = druidDataSource == null ? 0 : druidDataSource.getMaxActive();
+		}
+
+		private boolean retain() {
+			int current;
+			do {
+				current = inUse.get();
+				if (current == EVICTED) {
+					return false;
+				}
+			} while (!inUse.compareAndSet(current, current + 1));
+			lastAccess = System.currentTimeMillis();
+			return true;
+		}
+
+		private void release() {
+			lastAccess = System.currentTimeMillis();
+			inUse.decrementAndGet();
+		}
+
+		/**
+		 * 没有使用中的请求和活动连接时标记为关闭
+		 */
+		private boolean markEvicted() {
+			if (druidDataSource != null && druidDataSource.getActiveCount() > 0) {
+				return false;
 			}
+			return inUse.compareAndSet(0, EVICTED);
 		}
 	}
 
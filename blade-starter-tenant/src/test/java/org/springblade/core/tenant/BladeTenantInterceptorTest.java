@@ -0,0 +1,146 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.tenant;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springblade.core.secure.BladeUser;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 租户 sql 改写缓存测试，缓存命中后拼接的结果需与直接改写一致
+ *
+ * @author Chill
+ */
+public class BladeTenantInterceptorTest {
+	private static final String USER_ATTR = "_BLADE_USER_REQUEST_ATTR_";
+	private static final List<String> TENANT_TABLES = Arrays.asList("blade_notice", "blade_top_menu", "blade_dict_biz", "blade_post");
+
+	private static final List<String> SQLS = Arrays.asList(
+		"SELECT id, title FROM blade_notice WHERE is_deleted = 0",
+		"SELECT id, title FROM blade_notice WHERE status = 1 OR category = 2",
+		"SELECT n.id, p.post_name FROM blade_notice n LEFT JOIN blade_post p ON n.create_user = p.id WHERE n.title LIKE '%blade%'",
+		"SELECT id FROM blade_notice WHERE create_dept IN (SELECT id FROM blade_post WHERE post_code = 'ceo')",
+		"SELECT id FROM blade_top_menu ORDER BY sort",
+		"SELECT id, dict_key FROM blade_dict_biz WHERE code = 'flow'",
+		"SELECT id FROM blade_user WHERE account = 'admin'",
+		"SELECT id FROM blade_notice UNION ALL SELECT id FROM blade_post",
+		"UPDATE blade_notice SET title = 'blade' WHERE id = 1",
+		"DELETE FROM blade_post WHERE id = 1 OR post_code = 'ceo'",
+		"INSERT INTO blade_notice (id, title) VALUES (1, 'blade')"
+	);
+
+	private BladeTenantInterceptor cached;
+	private BladeTenantInterceptor uncached;
+	private MockHttpServletRequest request;
+
+	@Before
+	public void setUp() {
+		cached = newInterceptor(1024);
+		uncached = newInterceptor(0);
+		request = new MockHttpServletRequest();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@After
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void testNormalTenant() {
+		login("000001", "user");
+		assertSameAsUncached();
+		login("000002", "user");
+		assertSameAsUncached();
+		Assert.assertTrue(cached.parserSingle(SQLS.get(0), null).contains("tenant_id = '000002'"));
+		Assert.assertTrue(cached.getSqlCache().getHitCount() > 0);
+	}
+
+	@Test
+	public void testAdministrator() {
+		login("000000", "administrator");
+		assertSameAsUncached();
+		Assert.assertFalse(cached.parserSingle(SQLS.get(0), null).contains("tenant_id"));
+		Assert.assertTrue(cached.parserSingle(SQLS.get(4), null).contains("tenant_id = '000000'"));
+		// 超管与普通用户的改写结果不同，分别缓存
+		login("000001", "user");
+		assertSameAsUncached();
+		login("000000", "administrator");
+		assertSameAsUncached();
+	}
+
+	@Test
+	public void testTenantIdInOriginalSql() {
+		login("000001", "user");
+		String sql = "SELECT id FROM blade_notice WHERE title = '000001'";
+		Assert.assertEquals(uncached.parserSingle(sql, null), cached.parserSingle(sql, null));
+		// 原始sql包含租户id时不缓存，其他租户不会误替换
+		login("000002", "user");
+		Assert.assertEquals(uncached.parserSingle(sql, null), cached.parserSingle(sql, null));
+	}
+
+	private void assertSameAsUncached() {
+		for (String sql : SQLS) {
+			String expected = uncached.parserSingle(sql, null);
+			// 第一次未命中，第二次命中缓存
+			Assert.assertEquals(sql, expected, cached.parserSingle(sql, null));
+			Assert.assertEquals(sql, expected, cached.parserSingle(sql, null));
+		}
+		String multi = SQLS.get(0) + ";" + SQLS.get(8);
+		Assert.assertEquals(uncached.parserMulti(multi, null), cached.parserMulti(multi, null));
+		Assert.assertEquals(uncached.parserMulti(multi, null), cached.parserMulti(multi, null));
+	}
+
+	private void login(String tenantId, String roleName) {
+		BladeUser user = new BladeUser();
+		user.setTenantId(tenantId);
+		user.setRoleName(roleName);
+		request.setAttribute(USER_ATTR, user);
+	}
+
+	private static BladeTenantInterceptor newInterceptor(int sqlCacheSize) {
+		BladeTenantProperties properties = new BladeTenantProperties();
+		properties.setSqlCacheSize(sqlCacheSize);
+		BladeTenantInterceptor interceptor = new BladeTenantInterceptor();
+		interceptor.setTenantProperties(properties);
+		interceptor.setTenantLineHandler(new FixedTableTenantHandler(properties));
+		return interceptor;
+	}
+
+	/**
+	 * 租户表固定，不依赖 mybatis-plus 表信息
+	 */
+	private static class FixedTableTenantHandler extends BladeTenantHandler {
+		private FixedTableTenantHandler(BladeTenantProperties tenantProperties) {
+			super(tenantProperties);
+		}
+
+		@Override
+		public boolean ignoreTable(String tableName) {
+			return BladeTenantHolder.isIgnore() || !TENANT_TABLES.contains(tableName);
+		}
+	}
+
+}
@@ -0,0 +1,280 @@
+/*
+ *      Copyright (c) 2018-2028, Chill Zhuang All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice,
+ *  this list of conditions and the following disclaimer.
+ *  Redistributions in binary form must reproduce the above copyright
+ *  notice, this list of conditions and the following disclaimer in the
+ *  documentation and/or other materials provided with the distribution.
+ *  Neither the name of the dreamlu.net developer nor the names of its
+ *  contributors may be used to endorse or promote products derived from
+ *  this software without specific prior written permission.
+ *  Author: Chill 庄骞 (smallchill@163.com)
+ */
+package org.springblade.core.tenant.dynamic;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.baomidou.dynamic.datasource.DynamicRoutingDataSource;
+import com.baomidou.dynamic.datasource.creator.DataSourceCreator;
+import com.baomidou.dynamic.datasource.spring.boot.autoconfigure.DataSourceProperty;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springblade.core.tenant.BladeTenantProperties;
+import org.springblade.core.tenant.exception.TenantDataSourceException;
+import org.springblade.core.tool.utils.SpringUtil;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 租户数据源创建与回收测试，租户配置和租户库都使用 h2 内存库
+ *
+ * @author Chill
+ */
+public class TenantDataSourceHolderTest {
+	private static final String[] TENANTS = {"100001", "100002", "100003"};
+	private static final int MAX_ACTIVE = 5;
+	private static JdbcDataSource master;
+	private static CacheManager cacheManager;
+
+	private DynamicRoutingDataSource dynamicDataSource;
+	private CountingCreator creator;
+	private TenantDataSourceHolder holder;
+
+	@BeforeClass
+	public static void init() {
+		master = new JdbcDataSource();
+		master.setURL("jdbc:h2:mem:blade_master;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(master);
+		jdbcTemplate.execute("create table blade_tenant (tenant_id varchar(12), datasource_id bigint, is_deleted int)");
+		jdbcTemplate.execute("create table blade_datasource (id bigint, driver_class varchar(64), url varchar(128), username varchar(32), password varchar(32))");
+		for (int i = 0; i < TENANTS.length; i++) {
+			jdbcTemplate.update("insert into blade_tenant values (?, ?, 0)", TENANTS[i], i + 1);
+			jdbcTemplate.update("insert into blade_datasource values (?, 'org.h2.Driver', ?, 'sa', 'sa')", i + 1, "jdbc:h2:mem:tenant_" + TENANTS[i]);
+		}
+		// 没有配置数据源的租户
+		jdbcTemplate.update("insert into blade_tenant values ('000000', null, 0)");
+		// CacheUtil 从 SpringUtil 获取 CacheManager
+		cacheManager = new ConcurrentMapCacheManager();
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(CacheManager.class, () -> cacheManager);
+		context.refresh();
+		new SpringUtil().setApplicationContext(context);
+	}
+
+	@Before
+	public void setUp() {
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+		dynamicDataSource = new DynamicRoutingDataSource();
+		dynamicDataSource.addDataSource("master", master);
+		creator = new CountingCreator();
+	}
+
+	@After
+	public void tearDown() {
+		if (holder != null) {
+			holder.destroy();
+		}
+		// master 不需要关闭
+		dynamicDataSource.getCurrentDataSources().values().stream()
+			.filter(DruidDataSource.class::isInstance)
+			.forEach(dataSource -> ((DruidDataSource) dataSource).close());
+	}
+
+	@Test
+	public void testCreateOnceUnderBurst() throws Exception {
+		holder = newHolder(pool(0, 0, Duration.ZERO));
+		int threads = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				boolean retained = holder.retainDataSource(TENANTS[0]);
+				try {
+					return retained && query(TENANTS[0]);
+				} finally {
+					holder.releaseDataSource(TENANTS[0]);
+				}
+			}));
+		}
+		start.countDown();
+		for (Future<Boolean> future : futures) {
+			Assert.assertTrue(future.get());
+		}
+		executor.shutdown();
+		Assert.assertEquals(1, creator.count(TENANTS[0]));
+		Assert.assertEquals(1, holder.getPoolCount());
+		Assert.assertEquals(MAX_ACTIVE, holder.getMaxConnections());
+	}
+
+	@Test
+	public void testTenantWithoutDataSource() {
+		holder = newHolder(pool(0, 0, Duration.ZERO));
+		Assert.assertFalse(holder.retainDataSource("000000"));
+		Assert.assertFalse(holder.retainDataSource("master"));
+		Assert.assertFalse(holder.retainDataSource(""));
+		Assert.assertEquals(0, holder.getPoolCount());
+		Assert.assertEquals(0, creator.total.get());
+	}
+
+	@Test
+	public void testIdleEvictionSkipsRetained() throws Exception {
+		holder = newHolder(pool(0, 0, Duration.ofMillis(50)));
+		Assert.assertTrue(holder.retainDataSource(TENANTS[0]));
+		holder.handleDataSource(TENANTS[1]);
+		Assert.assertEquals(2, holder.getPoolCount());
+		awaitPoolCount(1);
+		// 使用中的数据源不会被关闭
+		Assert.assertTrue(isLoaded(TENANTS[0]));
+		Assert.assertFalse(isLoaded(TENANTS[1]));
+		holder.releaseDataSource(TENANTS[0]);
+		awaitPoolCount(0);
+		Assert.assertFalse(isLoaded(TENANTS[0]));
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsedByMaxPools() throws Exception {
+		holder = newHolder(pool(2, 0, Duration.ZERO));
+		holder.handleDataSource(TENANTS[0]);
+		TimeUnit.MILLISECONDS.sleep(5);
+		holder.handleDataSource(TENANTS[1]);
+		TimeUnit.MILLISECONDS.sleep(5);
+		holder.handleDataSource(TENANTS[0]);
+		TimeUnit.MILLISECONDS.sleep(5);
+		holder.handleDataSource(TENANTS[2]);
+		Assert.assertEquals(2, holder.getPoolCount());
+		Assert.assertTrue(isLoaded(TENANTS[0]));
+		Assert.assertFalse(isLoaded(TENANTS[1]));
+		Assert.assertTrue(isLoaded(TENANTS[2]));
+	}
+
+	@Test
+	public void testEvictByMaxConnections() throws Exception {
+		holder = newHolder(pool(0, MAX_ACTIVE * 2, Duration.ZERO));
+		holder.handleDataSource(TENANTS[0]);
+		TimeUnit.MILLISECONDS.sleep(5);
+		holder.handleDataSource(TENANTS[1]);
+		holder.handleDataSource(TENANTS[2]);
+		Assert.assertEquals(MAX_ACTIVE * 2, holder.getMaxConnections());
+		Assert.assertFalse(isLoaded(TENANTS[0]));
+	}
+
+	@Test(expected = TenantDataSourceException.class)
+	public void testRetainedPoolsNotEvicted() {
+		holder = newHolder(pool(2, 0, Duration.ZERO));
+		Assert.assertTrue(holder.retainDataSource(TENANTS[0]));
+		Assert.assertTrue(holder.retainDataSource(TENANTS[1]));
+		holder.handleDataSource(TENANTS[2]);
+	}
+
+	@Test
+	public void testRecreateAfterEviction() throws Exception {
+		holder = newHolder(pool(1, 0, Duration.ZERO));
+		holder.handleDataSource(TENANTS[0]);
+		holder.handleDataSource(TENANTS[1]);
+		Assert.assertFalse(isLoaded(TENANTS[0]));
+		Assert.assertTrue(holder.retainDataSource(TENANTS[0]));
+		try {
+			Assert.assertTrue(query(TENANTS[0]));
+		} finally {
+			holder.releaseDataSource(TENANTS[0]);
+		}
+		Assert.assertEquals(2, creator.count(TENANTS[0]));
+		Assert.assertFalse(isLoaded(TENANTS[1]));
+	}
+
+	private TenantDataSourceHolder newHolder(BladeTenantProperties.DataSourcePool poolProperties) {
+		return new TenantDataSourceHolder(dynamicDataSource, creator, new JdbcTemplate(master), poolProperties, "master");
+	}
+
+	private static BladeTenantProperties.DataSourcePool pool(int maxPools, int maxConnections, Duration idleTimeout) {
+		BladeTenantProperties.DataSourcePool pool = new BladeTenantProperties.DataSourcePool();
+		pool.setMaxPools(maxPools);
+		pool.setMaxConnections(maxConnections);
+		pool.setIdleTimeout(idleTimeout);
+		pool.setEvictInterval(Duration.ofMillis(20));
+		return pool;
+	}
+
+	private boolean isLoaded(String tenantId) {
+		return dynamicDataSource.getCurrentDataSources().containsKey(tenantId);
+	}
+
+	private boolean query(String tenantId) {
+		DataSource dataSource = dynamicDataSource.getCurrentDataSources().get(tenantId);
+		return new JdbcTemplate(dataSource).queryForObject("select 1", Integer.class) == 1;
+	}
+
+	private void awaitPoolCount(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (holder.getPoolCount() != count && System.currentTimeMillis() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+		Assert.assertEquals(count, holder.getPoolCount());
+	}
+
+	/**
+	 * 创建 druid 数据源并按租户计数，创建时稍作停顿以放大并发窗口
+	 */
+	private static class CountingCreator implements DataSourceCreator {
+		private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+		private final AtomicInteger total = new AtomicInteger();
+
+		@Override
+		public DataSource createDataSource(DataSourceProperty property) {
+			return createDataSource(property, null);
+		}
+
+		@Override
+		public DataSource createDataSource(DataSourceProperty property, String publicKey) {
+			total.incrementAndGet();
+			counts.computeIfAbsent(property.getUrl(), k -> new AtomicInteger()).incrementAndGet();
+			try {
+				TimeUnit.MILLISECONDS.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			DruidDataSource dataSource = new DruidDataSource();
+			// 租户配置的 driverClass 不会拷贝到 driverClassName，由 druid 根据 url 推断
+			dataSource.setUrl(property.getUrl());
+			dataSource.setUsername(property.getUsername());
+			dataSource.setPassword(property.getPassword());
+			dataSource.setMaxActive(MAX_ACTIVE);
+			return dataSource;
+		}
+
+		@Override
+		public boolean support(DataSourceProperty property) {
+			return true;
+		}
+
+		private int count(String tenantId) {
+			AtomicInteger count = counts.get("jdbc:h2:mem:tenant_" + tenantId);
+			return count == null ? 0 : count.get();
+		}
+	}
+
+}